@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.protocol.EndpointFactory;
+import org.wso2.scim2.testsuite.core.tests.ResourceType;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+import org.wso2.scim2.testsuite.server.ScimServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end run of the tests of a resource type against the embedded in-memory server, from the requests sent to
+ * the validated results. The server answers from memory on the loopback interface, hence the time is mostly spent
+ * in the suite itself and the results can be compared across builds on one machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ComplianceRunBenchmark {
+
+    // Resource type whose tests run.
+    @Param({ComplianceConstants.EndPointConstants.USER, ComplianceConstants.EndPointConstants.GROUP,
+            ComplianceConstants.EndPointConstants.BULK})
+    public String endpoint;
+
+    private ScimServer server;
+    private EndpointFactory endFactory;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+
+        server = new ScimServer(0, "admin", "admin", null);
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws Exception {
+
+        server.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+
+        // A run of its own, so no discovery or fixture is carried over from the previous invocation.
+        endFactory = new EndpointFactory(server.getBaseUrl(), "admin", "admin", "");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+
+        endFactory.getFixtureRegistry().close();
+        List<String> leftovers = endFactory.getCleanupQueue().close();
+        if (!leftovers.isEmpty()) {
+            // A run which leaves resources behind measures a different workload in the next invocation.
+            throw new IllegalStateException("Resources are left on the reference server: " + leftovers);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<TestResult> run() throws GeneralComplianceException, ComplianceException {
+
+        ArrayList<TestResult> results = new ArrayList<>();
+        results.addAll(endFactory.getInstance(ComplianceConstants.EndPointConstants.SERVICEPROVIDERCONFIG)
+                .getMethodTest());
+        results.addAll(endFactory.getInstance(ComplianceConstants.EndPointConstants.RESOURCETYPE).getMethodTest());
+        results.addAll(endFactory.getInstance(ComplianceConstants.EndPointConstants.SCHEMAS).getMethodTest());
+        ResourceType resourceType = endFactory.getInstance(endpoint);
+        if (!ComplianceConstants.EndPointConstants.BULK.equals(endpoint)) {
+            results.addAll(resourceType.getMethodTest());
+            results.addAll(resourceType.searchMethodTest());
+            results.addAll(resourceType.getByIdMethodTest());
+        }
+        results.addAll(resourceType.postMethodTest());
+        results.addAll(resourceType.patchMethodTest());
+        results.addAll(resourceType.putMethodTest());
+        results.addAll(resourceType.deleteMethodTest());
+        return results;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.scim2.testsuite.core.pdf.LineWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line wrapping of the PDF report on large response bodies.
+ * <p>
+ * The previous wrapping, which measured a growing prefix of the text for each space and shrank an overflowing line
+ * by 5% per step, is kept here as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineWrapBenchmark {
+
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+    private static final float FONT_SIZE = 8;
+    // Width of the text on a letter page with the report margins.
+    private static final float WIDTH = 612 - 2 * 42;
+
+    // Number of users in the wrapped list response.
+    @Param({"1", "10", "100"})
+    public int resources;
+
+    private String body;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        body = Payloads.listResponse(Payloads.USER_FULL, resources);
+    }
+
+    @Benchmark
+    public List<String> baseline() throws IOException {
+
+        return getLinesBaseline(body, FONT_SIZE, FONT, WIDTH);
+    }
+
+    @Benchmark
+    public List<String> lineWrapper() throws IOException {
+
+        return LineWrapper.forFont(FONT).wrap(body, FONT_SIZE, WIDTH - 150);
+    }
+
+    private static List<String> getLinesBaseline(String text, float fontSize, PDFont pdfFont, float width)
+            throws IOException {
+
+        width = width - 150;
+        List<String> lines = new ArrayList<>();
+        int lastSpace = -1;
+        while (text.length() > 0) {
+            int spaceIndex = text.indexOf(' ', lastSpace + 1);
+            if (spaceIndex < 0) {
+                spaceIndex = text.length();
+            }
+            String subString = text.substring(0, spaceIndex);
+            float size = fontSize * pdfFont.getStringWidth(subString) / 1000;
+            if (size > width) {
+                float requiredSize = (width * 1000) / fontSize;
+                lastSpace = getCharacterCountBaseline(requiredSize, subString, pdfFont);
+                subString = text.substring(0, lastSpace);
+                lines.add(subString);
+                text = text.substring(lastSpace).trim();
+                lastSpace = -1;
+            } else if (spaceIndex == text.length()) {
+                lines.add(text);
+                text = StringUtils.EMPTY;
+            } else {
+                lastSpace = spaceIndex;
+            }
+        }
+        return lines;
+    }
+
+    private static int getCharacterCountBaseline(float requiredSize, String subString, PDFont pdfFont)
+            throws IOException {
+
+        double factor = 0.95;
+        String string = subString;
+        while (pdfFont.getStringWidth(string) > requiredSize) {
+            string = string.substring(0, (int) Math.round(string.length() * factor));
+        }
+        return string.length();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.HttpGet;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.objects.Group;
+import org.wso2.charon3.core.objects.User;
+import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sample SCIM payloads the benchmarks are fed with. They are in the shape returned by a SCIM 2.0 service provider:
+ * <ul>
+ * <li>user-minimal: a user with a user name and an email only.</li>
+ * <li>user-full: a user with every core attribute set and a dozen groups.</li>
+ * <li>group-large: a group of 200 members.</li>
+ * <li>schemas: the /Schemas list response with the user and group schemas.</li>
+ * </ul>
+ * List responses of any size are built from the user payloads.
+ */
+public final class Payloads {
+
+    public static final String USER_MINIMAL = "user-minimal";
+    public static final String USER_FULL = "user-full";
+    public static final String GROUP_LARGE = "group-large";
+    public static final String SCHEMAS = "schemas";
+
+    public static final String BASE_URL = "https://localhost:9443/scim2";
+
+    // Response headers as written to the wire by the tests.
+    public static final String RESPONSE_HEADERS = "Date: Tue, 08 Jun 2021 05:26:14 GMT\n"
+            + "Content-Type: application/scim+json\nTransfer-Encoding: chunked\nConnection: keep-alive\n"
+            + "Server: WSO2 Carbon Server\n";
+
+    public static final String RESPONSE_STATUS = "200 OK";
+
+    private static final String LIST_RESPONSE_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:ListResponse";
+
+    private Payloads() {
+
+    }
+
+    /**
+     * Read a payload.
+     *
+     * @param name Name of the payload, e.g. user-full.
+     * @return The payload.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public static String read(String name) throws IOException {
+
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name + ".json")) {
+            if (in == null) {
+                throw new IOException("No payload named " + name);
+            }
+            return IOUtils.toString(in, StandardCharsets.UTF_8.name());
+        }
+    }
+
+    /**
+     * Build the list response of a search, with copies of a resource which differ in their id and user name.
+     *
+     * @param name  Name of the resource payload.
+     * @param count Number of resources in the list.
+     * @return The list response.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public static String listResponse(String name, int count) throws IOException {
+
+        String resource = read(name);
+        JSONArray resources = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            JSONObject copy = new JSONObject(resource);
+            String id = String.format("0032fd29-55a9-4fb9-be82-%012x", i);
+            copy.put("id", id);
+            if (copy.has("userName")) {
+                copy.put("userName", "loginUser" + i);
+            }
+            copy.getJSONObject("meta").put("location", BASE_URL + "/Users/" + id);
+            resources.put(copy);
+        }
+        JSONObject listResponse = new JSONObject();
+        listResponse.put("schemas", new JSONArray().put(LIST_RESPONSE_SCHEMA));
+        listResponse.put("totalResults", count);
+        listResponse.put("itemsPerPage", count);
+        listResponse.put("startIndex", 1);
+        listResponse.put("Resources", resources);
+        return listResponse.toString();
+    }
+
+    /**
+     * Get the charon schema of a resource payload.
+     *
+     * @param name Name of the resource payload.
+     * @return Resource schema.
+     */
+    public static SCIMResourceTypeSchema getSchema(String name) {
+
+        return isGroup(name) ? SCIMResourceSchemaManager.getInstance().getGroupResourceSchema() :
+                SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+    }
+
+    /**
+     * Create an empty charon object to decode a resource payload into.
+     *
+     * @param name Name of the resource payload.
+     * @return Empty resource object.
+     */
+    public static AbstractSCIMObject newResource(String name) {
+
+        return isGroup(name) ? new Group() : new User();
+    }
+
+    /**
+     * Create the request the tests send to get a resource.
+     *
+     * @param endpoint Endpoint of the request, e.g. /Users.
+     * @return The request.
+     */
+    public static HttpGet newGet(String endpoint) {
+
+        HttpGet method = new HttpGet(BASE_URL + endpoint);
+        method.setHeader("Accept", "application/json");
+        method.setHeader("Content-Type", "application/json");
+        method.setHeader("Authorization", "Basic YWRtaW46YWRtaW4=");
+        return method;
+    }
+
+    private static boolean isGroup(String name) {
+
+        return name.startsWith("group");
+    }
+}
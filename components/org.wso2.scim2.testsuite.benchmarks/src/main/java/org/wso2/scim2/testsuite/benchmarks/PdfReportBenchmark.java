@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.client.methods.HttpGet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.scim2.testsuite.core.entities.Result;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.pdf.PDFGenerator;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation of the PDF report of a run, with the response body of each test result laid out in the report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PdfReportBenchmark {
+
+    // Number of test results in the report.
+    @Param({"10", "100"})
+    public int results;
+
+    // Number of users in the list response of each test result.
+    @Param({"1", "10", "100"})
+    public int resources;
+
+    private Result result;
+    private File directory;
+    private File reportDirectory;
+
+    @Setup
+    public void setUp() throws IOException, ComplianceException {
+
+        HttpGet method = Payloads.newGet("/Users");
+        String listResponse = Payloads.listResponse(Payloads.USER_FULL, resources);
+        ArrayList<String> subTests = new ArrayList<>();
+        subTests.add(ComplianceConstants.TestConstants.REQUIRED_ATTRIBUTE_TEST);
+        subTests.add("Test description : Validate required attributes presence in the response.");
+        subTests.add(ComplianceConstants.TestConstants.STATUS_SUCCESS);
+        subTests.add(StringUtils.EMPTY);
+
+        ArrayList<TestResult> testResults = new ArrayList<>();
+        Statistics statistics = new Statistics();
+        for (int i = 0; i < results; i++) {
+            testResults.add(new TestResult(TestResult.SUCCESS, "List Users " + i, StringUtils.EMPTY,
+                    ComplianceUtils.getWire(method, listResponse, Payloads.RESPONSE_HEADERS,
+                            Payloads.RESPONSE_STATUS, subTests), 10));
+            statistics.incSuccess();
+        }
+        result = new Result(statistics, testResults);
+        directory = Files.createTempDirectory("scim2-report-benchmark").toFile();
+        // The report is saved under this path with a Windows separator, which is a file name elsewhere.
+        reportDirectory = new File(directory, "report");
+        reportDirectory.mkdirs();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public String generatePdfResults() throws IOException {
+
+        return PDFGenerator.generatePdfResults(result, reportDirectory.getAbsolutePath());
+    }
+}
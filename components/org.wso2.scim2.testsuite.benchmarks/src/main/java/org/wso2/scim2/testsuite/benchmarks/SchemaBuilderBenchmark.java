@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.apache.http.client.methods.HttpGet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.CriticalComplianceException;
+import org.wso2.scim2.testsuite.core.objects.SCIMSchema;
+import org.wso2.scim2.testsuite.core.utils.SchemaBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building of the user and group schemas from the /Schemas response, done once per compliance run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaBuilderBenchmark {
+
+    private String schemas;
+    private HttpGet method;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        schemas = Payloads.read(Payloads.SCHEMAS);
+        method = Payloads.newGet("/Schemas");
+    }
+
+    @Benchmark
+    public SCIMSchema buildSchema() throws ComplianceException, CriticalComplianceException {
+
+        SCIMSchema scimSchema = new SCIMSchema();
+        SchemaBuilder.buildSchema(schemas, method, Payloads.RESPONSE_HEADERS, Payloads.RESPONSE_STATUS,
+                new ArrayList<String>(), Payloads.BASE_URL + "/Schemas", scimSchema);
+        return scimSchema;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.apache.http.client.methods.HttpGet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.charon3.core.encoder.JSONDecoder;
+import org.wso2.charon3.core.exceptions.BadRequestException;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.charon3.core.exceptions.InternalErrorException;
+import org.wso2.charon3.core.objects.AbstractSCIMObject;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a decoded resource against its schema, as done by the tests for each resource they receive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateBenchmark {
+
+    @Param({Payloads.USER_MINIMAL, Payloads.USER_FULL, Payloads.GROUP_LARGE})
+    public String payload;
+
+    private String resource;
+    private SCIMResourceTypeSchema schema;
+    private AbstractSCIMObject scimObject;
+    private HttpGet method;
+
+    @Setup
+    public void setUp() throws IOException, BadRequestException, CharonException, InternalErrorException {
+
+        resource = Payloads.read(payload);
+        schema = Payloads.getSchema(payload);
+        scimObject = new JSONDecoder().decodeResource(resource, schema, Payloads.newResource(payload));
+        method = Payloads.newGet((payload.startsWith("group") ? "/Groups/" : "/Users/") + scimObject.getId());
+    }
+
+    @Benchmark
+    public ArrayList<String> runValidateTests()
+            throws BadRequestException, CharonException, GeneralComplianceException, ComplianceException {
+
+        ArrayList<String> subTests = new ArrayList<>();
+        ResponseValidateTests.runValidateTests(scimObject, schema, null, null, method, resource,
+                Payloads.RESPONSE_HEADERS, Payloads.RESPONSE_STATUS, subTests);
+        return subTests;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.benchmarks;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.scim2.testsuite.core.entities.Wire;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capture of the wire of a test, done for every request sent by the tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireBenchmark {
+
+    // Number of users in the list response.
+    @Param({"1", "10", "100"})
+    public int resources;
+
+    private HttpGet get;
+    private String listResponse;
+    private HttpPost post;
+    private String user;
+    private ArrayList<String> subTests;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        get = Payloads.newGet("/Users");
+        listResponse = Payloads.listResponse(Payloads.USER_FULL, resources);
+        user = Payloads.read(Payloads.USER_FULL);
+        post = new HttpPost(Payloads.BASE_URL + "/Users");
+        post.setHeader("Accept", "application/json");
+        post.setHeader("Authorization", "Basic YWRtaW46YWRtaW4=");
+        post.setEntity(new StringEntity(user, ContentType.create("application/scim+json", "UTF-8")));
+        subTests = new ArrayList<>();
+        // Assertions of a few validations, as collected by a test.
+        for (int i = 0; i < 4; i++) {
+            subTests.add(ComplianceConstants.TestConstants.REQUIRED_ATTRIBUTE_TEST);
+            subTests.add("Test description : Validate required attributes presence in the response.");
+            subTests.add(ComplianceConstants.TestConstants.STATUS_SUCCESS);
+            subTests.add(StringUtils.EMPTY);
+        }
+    }
+
+    @Benchmark
+    public Wire getWireOfGet() throws ComplianceException {
+
+        return ComplianceUtils.getWire(get, listResponse, Payloads.RESPONSE_HEADERS, Payloads.RESPONSE_STATUS,
+                subTests);
+    }
+
+    @Benchmark
+    public Wire getWireOfPost() throws ComplianceException {
+
+        return ComplianceUtils.getWire(post, user, Payloads.RESPONSE_HEADERS, "201 Created", subTests);
+    }
+}
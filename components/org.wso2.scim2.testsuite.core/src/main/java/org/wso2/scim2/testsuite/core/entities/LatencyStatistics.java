@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.entities;
+
+/**
+ * Latency percentiles of a phase of the requests to an endpoint with an HTTP method, e.g. the network time of
+ * GET /Users. Latencies are in milliseconds.
+ */
+public class LatencyStatistics {
+
+    private final String operation;
+    private final String phase;
+    private final long count;
+    private final double mean;
+    private final double p50;
+    private final double p95;
+    private final double p99;
+    private final double max;
+
+    public LatencyStatistics(String operation, String phase, long count, double mean, double p50, double p95,
+                             double p99, double max) {
+
+        this.operation = operation;
+        this.phase = phase;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public String getOperation() {
+
+        return operation;
+    }
+
+    public String getPhase() {
+
+        return phase;
+    }
+
+    public long getCount() {
+
+        return count;
+    }
+
+    public double getMean() {
+
+        return mean;
+    }
+
+    public double getP50() {
+
+        return p50;
+    }
+
+    public double getP95() {
+
+        return p95;
+    }
+
+    public double getP99() {
+
+        return p99;
+    }
+
+    public double getMax() {
+
+        return max;
+    }
+}
@@ -17,6 +17,9 @@
  */
 package org.wso2.scim2.testsuite.core.entities;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Provide functionality to indicate overall statistics of test cases.
  */
@@ -26,6 +29,8 @@ public class Statistics {
     int failed = 0;
     int skipped = 0;
     long time = 0;
+    List<LatencyStatistics> latencies = new ArrayList<>();
+    List<String> leftovers = new ArrayList<>();
 
     public Statistics() {
 
@@ -71,6 +76,37 @@ public class Statistics {
         return time;
     }
 
+    /**
+     * Get the latency percentiles of the requests of the run, per endpoint, HTTP method and phase.
+     *
+     * @return Latency statistics.
+     */
+    public List<LatencyStatistics> getLatencies() {
+
+        return latencies;
+    }
+
+    public void setLatencies(List<LatencyStatistics> latencies) {
+
+        this.latencies = latencies;
+    }
+
+    /**
+     * Get the locations of the resources created by the tests which are left on the service provider after the
+     * clean up.
+     *
+     * @return Locations of the left over resources.
+     */
+    public List<String> getLeftovers() {
+
+        return leftovers;
+    }
+
+    public void setLeftovers(List<String> leftovers) {
+
+        this.leftovers = leftovers;
+    }
+
     public int getTotal() {
 
         return (success + skipped + failed);
@@ -91,6 +91,11 @@ public class TestResult {
         return wire;
     }
 
+    public void setWire(Wire wire) {
+
+        this.wire = wire;
+    }
+
     public String getName() {
 
         return name;
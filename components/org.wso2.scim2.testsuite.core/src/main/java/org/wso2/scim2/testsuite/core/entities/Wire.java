@@ -18,9 +18,18 @@
 package org.wso2.scim2.testsuite.core.entities;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.util.List;
 
 /**
  * Provide functionality to store request data and response data.
+ * <p>
+ * A wire created from a request keeps references to the raw request and response data, and renders its string
+ * views only when they are first accessed, since the wire of most test results is never looked at.
  */
 public class Wire {
 
@@ -37,6 +46,16 @@ public class Wire {
     String requestBody = StringUtils.EMPTY;
     String requestHeaders = StringUtils.EMPTY;
 
+    String requestBodyReference;
+    String responseBodyReference;
+
+    // Raw data of a lazily rendered wire, which is released once all the views are rendered.
+    private String protocol;
+    private Header[] rawRequestHeaders;
+    private HttpEntity requestEntity;
+    private List<String> subTests;
+    private boolean lazy;
+
     public Wire() {
 
     }
@@ -57,18 +76,68 @@ public class Wire {
         this.requestHeaders = requestHeaders;
     }
 
-    public String getToServer() {
+    /**
+     * Create a wire which is rendered on first access.
+     *
+     * @param requestType     Http method of the request.
+     * @param requestUri      Uri of the request.
+     * @param protocol        Protocol of the request.
+     * @param requestHeaders  Headers of the request.
+     * @param requestEntity   Repeatable entity of the request, or null if the request has no payload.
+     * @param responseBody    Json response form service provider.
+     * @param responseHeaders Headers from service provider.
+     * @param responseStatus  Status code of the response.
+     * @param subTests        Assertions done for the test case. The list must not be modified afterwards.
+     */
+    public Wire(String requestType, String requestUri, String protocol, Header[] requestHeaders,
+                HttpEntity requestEntity, String responseBody, String responseHeaders, String responseStatus,
+                List<String> subTests) {
+
+        this.requestType = requestType;
+        this.requestUri = requestUri;
+        this.protocol = protocol;
+        this.rawRequestHeaders = requestHeaders;
+        this.requestEntity = requestEntity;
+        this.responseBody = responseBody;
+        this.responseHeaders = responseHeaders;
+        this.responseStatus = responseStatus;
+        this.subTests = subTests;
+        this.toServer = null;
+        this.fromServer = null;
+        this.tests = null;
+        this.requestBody = null;
+        this.requestHeaders = null;
+        this.lazy = true;
+    }
+
+    public synchronized String getToServer() {
 
+        if (toServer == null) {
+            toServer = renderToServer(requestType, requestUri, protocol, getRequestHeaders(), getRequestBody());
+            releaseRawData();
+        }
         return toServer;
     }
 
-    public String getFromServer() {
+    public synchronized String getFromServer() {
 
+        if (fromServer == null) {
+            fromServer = renderFromServer(responseHeaders, responseStatus, responseBody);
+            releaseRawData();
+        }
         return fromServer;
     }
 
-    public String getTests() {
+    public synchronized String getTests() {
 
+        if (tests == null) {
+            StringBuilder subTestsPerformed = new StringBuilder();
+            for (String subTest : subTests) {
+                subTestsPerformed.append(subTest).append("\n");
+            }
+            tests = subTestsPerformed.toString();
+            releaseRawData();
+        }
         return tests;
     }
 
@@ -97,13 +166,118 @@ public class Wire {
         return requestUri;
     }
 
-    public String getRequestBody() {
+    public synchronized String getRequestBody() {
 
+        if (requestBody == null) {
+            if (requestEntity == null) {
+                requestBody = StringUtils.EMPTY;
+            } else {
+                try {
+                    requestBody = EntityUtils.toString(requestEntity);
+                } catch (IOException e) {
+                    requestBody = "Error in getting the request payload";
+                }
+            }
+            releaseRawData();
+        }
         return requestBody;
     }
 
-    public String getRequestHeaders() {
+    public synchronized String getRequestHeaders() {
 
+        if (requestHeaders == null) {
+            StringBuilder headers = new StringBuilder();
+            for (Header header : rawRequestHeaders) {
+                headers.append(header.getName()).append(": ").append(header.getValue()).append("\n");
+            }
+            requestHeaders = headers.toString();
+            releaseRawData();
+        }
         return requestHeaders;
     }
+
+    /**
+     * Get the location of the full request body, if the request body of this wire is truncated.
+     *
+     * @return Location of the full request body in the wire store, or null.
+     */
+    public String getRequestBodyReference() {
+
+        return requestBodyReference;
+    }
+
+    /**
+     * Get the location of the full response body, if the response body of this wire is truncated.
+     *
+     * @return Location of the full response body in the wire store, or null.
+     */
+    public String getResponseBodyReference() {
+
+        return responseBodyReference;
+    }
+
+    /**
+     * Check whether this wire was created from a request, rather than from an error.
+     *
+     * @return true if the wire holds a request and a response.
+     */
+    public boolean hasRequest() {
+
+        return protocol != null;
+    }
+
+    /**
+     * Create a copy of this wire with other bodies, e.g. truncated ones. The views are rendered with the given
+     * bodies.
+     *
+     * @param requestBody           Request body of the copy.
+     * @param responseBody          Response body of the copy.
+     * @param requestBodyReference  Location of the full request body, or null.
+     * @param responseBodyReference Location of the full response body, or null.
+     * @return Copy of the wire.
+     */
+    public Wire withBodies(String requestBody, String responseBody, String requestBodyReference,
+                           String responseBodyReference) {
+
+        String headers = getRequestHeaders();
+        Wire wire = new Wire(renderToServer(requestType, requestUri, protocol, headers, requestBody),
+                renderFromServer(responseHeaders, responseStatus, responseBody), getTests(), responseBody,
+                responseHeaders, responseStatus, requestType, requestUri, requestBody, headers);
+        wire.protocol = protocol;
+        wire.requestBodyReference = requestBodyReference;
+        wire.responseBodyReference = responseBodyReference;
+        return wire;
+    }
+
+    private static String renderToServer(String requestType, String requestUri, String protocol,
+                                         String requestHeaders, String requestBody) {
+
+        return requestType + " " + requestUri + "\n" + protocol + requestHeaders + "\n" + requestBody;
+    }
+
+    private static String renderFromServer(String responseHeaders, String responseStatus, String responseBody) {
+
+        return "\n" + "Headers : " + "\n" + responseHeaders + "\n" + "\n" + "Status : " + responseStatus + "\n" +
+                "\n" + responseBody;
+    }
+
+    /**
+     * Drop the references to the raw data once every view which needs it is rendered.
+     */
+    private void releaseRawData() {
+
+        if (!lazy) {
+            return;
+        }
+        if (requestHeaders != null && requestBody != null) {
+            rawRequestHeaders = null;
+            requestEntity = null;
+        }
+        if (tests != null) {
+            subTests = null;
+        }
+        if (toServer != null && fromServer != null && tests != null) {
+            lazy = false;
+        }
+    }
 }
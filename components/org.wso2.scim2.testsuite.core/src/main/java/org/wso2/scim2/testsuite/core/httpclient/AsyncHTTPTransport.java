@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non blocking transport backed by the Apache http async client. Requests are multiplexed over a small number of
+ * I/O dispatcher threads, so no thread waits on a socket while a request is in flight.
+ */
+public class AsyncHTTPTransport implements HTTPTransport {
+
+    private final CloseableHttpAsyncClient httpAsyncClient;
+
+    /**
+     * Initialize.
+     *
+     * @param clientConfiguration Connection pool settings and timeouts.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public AsyncHTTPTransport(HTTPClientConfiguration clientConfiguration) throws ComplianceException {
+
+        Registry<SchemeIOSessionStrategy> sessionStrategyRegistry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register(ComplianceConstants.RequestCodeConstants.HTTP, NoopIOSessionStrategy.INSTANCE)
+                .register(ComplianceConstants.RequestCodeConstants.HTTPS,
+                        new SSLIOSessionStrategy(HTTPClient.createSSLContext(), NoopHostnameVerifier.INSTANCE))
+                .build();
+        ConnectingIOReactor ioReactor;
+        try {
+            ioReactor = new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                    .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                    .build());
+        } catch (IOReactorException e) {
+            throw new ComplianceException("Error in setting up the http async client", e);
+        }
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(ioReactor,
+                null, sessionStrategyRegistry, null, null, clientConfiguration.getConnectionTimeToLive(),
+                TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(clientConfiguration.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(clientConfiguration.getMaxConnectionsPerRoute());
+
+        httpAsyncClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(HTTPClient.createRequestConfig(clientConfiguration))
+                .setKeepAliveStrategy(HTTPClient.createKeepAliveStrategy(clientConfiguration))
+                .build();
+        httpAsyncClient.start();
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequestBase request) throws IOException {
+
+        try {
+            return executeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request to " + request.getURI() + " was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Request to " + request.getURI() + " failed", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequestBase request) {
+
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        // The default response consumer buffers the whole body.
+        httpAsyncClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+
+                future.complete(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+
+                future.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        httpAsyncClient.close();
+    }
+}
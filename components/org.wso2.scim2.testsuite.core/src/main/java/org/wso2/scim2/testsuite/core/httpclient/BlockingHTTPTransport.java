@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.BufferedHttpEntity;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transport backed by the blocking pooled http client. Asynchronous requests run on a dedicated thread pool.
+ */
+public class BlockingHTTPTransport implements HTTPTransport {
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+
+    /**
+     * Initialize.
+     *
+     * @param httpClient Pooled http client.
+     * @param threads    Number of threads used for asynchronous requests.
+     */
+    public BlockingHTTPTransport(HttpClient httpClient, int threads) {
+
+        this.httpClient = httpClient;
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "scim2-blocking-transport-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+    }
+
+    /**
+     * Get the http client which sends the requests.
+     *
+     * @return Pooled http client.
+     */
+    HttpClient getHttpClient() {
+
+        return httpClient;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequestBase request) throws IOException {
+
+        HttpResponse response = httpClient.execute(request);
+        // Buffer the body, which also releases the connection back to the pool.
+        HttpEntity entity = response.getEntity();
+        if (entity != null) {
+            response.setEntity(new BufferedHttpEntity(entity));
+        }
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequestBase request) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(request);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public void close() {
+
+        // The http client is shared, hence only the thread pool is closed here.
+        executor.shutdownNow();
+    }
+}
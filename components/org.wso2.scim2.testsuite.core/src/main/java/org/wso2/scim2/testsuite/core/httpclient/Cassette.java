@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recording of the request and response exchanges of a run, to rerun the suite without the service provider.
+ * <p>
+ * Exchanges are keyed by the method, the path and query of the url, and a digest of the normalized request body.
+ * JSON bodies are normalized by sorting their keys and dropping the white spaces, so the key does not depend on the
+ * formatting of the request. The host is not part of the key, hence a cassette recorded against one service
+ * provider replays for any url. A request sent several times, e.g. a get before and after a patch, is answered
+ * with the recorded responses in the recorded order, and with the last one once they are used up. This order only
+ * holds if the requests are sent in the same order, hence a run with a cassette runs its lanes and sub tests on a
+ * single thread and deletes the resources it created one by one, see
+ * {@link org.wso2.scim2.testsuite.core.tests.common.CleanupQueue}.
+ * <p>
+ * The file holds a magic number and a version, the responses one after the other, then an index of the keys with
+ * the offsets of their responses, and ends with the offset of the index. A replay reads the index only and decodes
+ * a response when it is requested.
+ */
+public class Cassette implements Closeable {
+
+    private static final int MAGIC = 0x53434153;
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final boolean replay;
+
+    // Recorded exchanges, in the order of the responses.
+    private final List<String> keys = new ArrayList<>();
+    private final List<byte[]> responses = new ArrayList<>();
+
+    // Content of the replayed file and offsets of the responses of each key.
+    private byte[] data;
+    private final Map<String, int[]> index = new HashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> plays = new ConcurrentHashMap<>();
+
+    /**
+     * Open a cassette.
+     *
+     * @param mode Record or replay, as defined in {@link ComplianceConstants.CassetteConstants}.
+     * @param file Cassette file, written when a recording cassette is closed.
+     * @throws ComplianceException If the mode is unknown or the file to replay can not be read.
+     */
+    public Cassette(String mode, File file) throws ComplianceException {
+
+        this.file = file;
+        switch (mode) {
+            case ComplianceConstants.CassetteConstants.CASSETTE_RECORD:
+                replay = false;
+                break;
+            case ComplianceConstants.CassetteConstants.CASSETTE_REPLAY:
+                replay = true;
+                try {
+                    load();
+                } catch (IOException e) {
+                    throw new ComplianceException("Could not read the cassette " + file.getAbsolutePath() + " : " +
+                            e.getMessage());
+                }
+                break;
+            default:
+                throw new ComplianceException("Unknown cassette mode " + mode);
+        }
+    }
+
+    public boolean isReplay() {
+
+        return replay;
+    }
+
+    public File getFile() {
+
+        return file;
+    }
+
+    /**
+     * Get the key of a request. The body of the request is buffered, so it can still be sent afterwards.
+     *
+     * @param request Request.
+     * @return Key of the request.
+     * @throws IOException Error in reading the request body.
+     */
+    public static String getKey(HttpRequestBase request) throws IOException {
+
+        URI uri = request.getURI();
+        StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntityEnclosingRequest enclosingRequest = (HttpEntityEnclosingRequest) request;
+            HttpEntity entity = enclosingRequest.getEntity();
+            if (entity != null) {
+                byte[] body = EntityUtils.toByteArray(entity);
+                if (!entity.isRepeatable()) {
+                    enclosingRequest.setEntity(new ByteArrayEntity(body, ContentType.get(entity)));
+                }
+                key.append(' ').append(digest(normalize(new String(body, StandardCharsets.UTF_8))));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Record the response of a request.
+     *
+     * @param key      Key of the request.
+     * @param response Response of the service provider.
+     * @return The response, with a body which can still be read.
+     * @throws IOException Error in reading the response body.
+     */
+    public HttpResponse record(String key, HttpResponse response) throws IOException {
+
+        byte[] body = response.getEntity() == null ? null : EntityUtils.toByteArray(response.getEntity());
+        if (body != null) {
+            response.setEntity(new ByteArrayEntity(body, ContentType.get(response.getEntity())));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(response.getStatusLine().getStatusCode());
+            writeString(out, response.getStatusLine().getReasonPhrase());
+            Header[] headers = response.getAllHeaders();
+            out.writeShort(headers.length);
+            for (Header header : headers) {
+                writeString(out, header.getName());
+                writeString(out, header.getValue());
+            }
+            out.writeInt(body == null ? -1 : body.length);
+            if (body != null) {
+                out.write(body);
+            }
+        }
+        synchronized (this) {
+            keys.add(key);
+            responses.add(bytes.toByteArray());
+        }
+        return response;
+    }
+
+    /**
+     * Get the recorded response of a request.
+     *
+     * @param key Key of the request.
+     * @return Recorded response.
+     * @throws IOException If no response is recorded for the request.
+     */
+    public HttpResponse replay(String key) throws IOException {
+
+        int[] offsets = index.get(key);
+        if (offsets == null) {
+            throw new IOException("No response is recorded in the cassette for " + key);
+        }
+        int play = plays.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data,
+                offsets[Math.min(play, offsets.length - 1)], data.length));
+        int status = in.readUnsignedShort();
+        BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, status,
+                readString(in)));
+        int headerCount = in.readUnsignedShort();
+        for (int i = 0; i < headerCount; i++) {
+            response.addHeader(readString(in), readString(in));
+        }
+        int length = in.readInt();
+        if (length >= 0) {
+            byte[] body = new byte[length];
+            in.readFully(body);
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            response.setEntity(new ByteArrayEntity(body, contentType == null ? null :
+                    ContentType.parse(contentType.getValue())));
+        }
+        return response;
+    }
+
+    /**
+     * Write the recorded exchanges to the cassette file. Nothing is written by a replaying cassette.
+     *
+     * @throws IOException Error in writing the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (replay) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            Map<String, List<Integer>> offsets = new LinkedHashMap<>();
+            for (int i = 0; i < responses.size(); i++) {
+                offsets.computeIfAbsent(keys.get(i), k -> new ArrayList<>()).add(out.size());
+                out.write(responses.get(i));
+            }
+            int indexOffset = out.size();
+            out.writeInt(offsets.size());
+            for (Map.Entry<String, List<Integer>> entry : offsets.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (int offset : entry.getValue()) {
+                    out.writeInt(offset);
+                }
+            }
+            out.writeInt(indexOffset);
+        }
+        FileUtils.writeByteArrayToFile(file, bytes.toByteArray());
+    }
+
+    private void load() throws IOException {
+
+        data = FileUtils.readFileToByteArray(file);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (data.length < 12 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a cassette of version " + VERSION);
+        }
+        int indexOffset = new DataInputStream(new ByteArrayInputStream(data, data.length - 4, 4)).readInt();
+        in = new DataInputStream(new ByteArrayInputStream(data, indexOffset, data.length - indexOffset));
+        int keyCount = in.readInt();
+        for (int i = 0; i < keyCount; i++) {
+            String key = readString(in);
+            int[] offsets = new int[in.readInt()];
+            for (int j = 0; j < offsets.length; j++) {
+                offsets[j] = in.readInt();
+            }
+            index.put(key, offsets);
+        }
+    }
+
+    /**
+     * Normalize a request body: JSON with sorted keys and without white spaces, or the trimmed text otherwise.
+     */
+    static String normalize(String body) {
+
+        String text = body.trim();
+        if (!text.startsWith("{") && !text.startsWith("[")) {
+            return text;
+        }
+        try {
+            StringBuilder normalized = new StringBuilder(text.length());
+            appendNormalized(normalized, new JSONTokener(text).nextValue());
+            return normalized.toString();
+        } catch (JSONException e) {
+            return text;
+        }
+    }
+
+    private static void appendNormalized(StringBuilder normalized, Object value) {
+
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            TreeSet<String> names = new TreeSet<>();
+            Iterator<?> iterator = object.keys();
+            while (iterator.hasNext()) {
+                names.add((String) iterator.next());
+            }
+            normalized.append('{');
+            for (String name : names) {
+                normalized.append(normalized.charAt(normalized.length() - 1) == '{' ? "" : ",");
+                normalized.append(JSONObject.quote(name)).append(':');
+                appendNormalized(normalized, object.opt(name));
+            }
+            normalized.append('}');
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            normalized.append('[');
+            for (int i = 0; i < array.length(); i++) {
+                normalized.append(i == 0 ? "" : ",");
+                appendNormalized(normalized, array.opt(i));
+            }
+            normalized.append(']');
+        } else if (value instanceof String) {
+            normalized.append(JSONObject.quote((String) value));
+        } else {
+            normalized.append(value);
+        }
+    }
+
+    private static String digest(String text) {
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : Arrays.copyOf(hash, 16)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
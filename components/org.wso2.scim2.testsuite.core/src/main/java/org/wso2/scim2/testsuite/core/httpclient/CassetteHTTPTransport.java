@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Transport which records the exchanges of another transport in a {@link Cassette}, or answers the requests from
+ * the cassette without sending them.
+ */
+public class CassetteHTTPTransport implements HTTPTransport {
+
+    private final Cassette cassette;
+    private final HTTPTransport transport;
+
+    /**
+     * Initialize.
+     *
+     * @param cassette  Cassette to record to or replay from.
+     * @param transport Transport which sends the recorded requests, or null when replaying.
+     */
+    public CassetteHTTPTransport(Cassette cassette, HTTPTransport transport) {
+
+        this.cassette = cassette;
+        this.transport = transport;
+    }
+
+    /**
+     * Get the transport which sends the recorded requests.
+     *
+     * @return Wrapped transport, or null when replaying.
+     */
+    HTTPTransport getTransport() {
+
+        return transport;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequestBase request) throws IOException {
+
+        String key = Cassette.getKey(request);
+        if (cassette.isReplay()) {
+            return cassette.replay(key);
+        }
+        return cassette.record(key, transport.execute(request));
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequestBase request) {
+
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        String key;
+        try {
+            key = Cassette.getKey(request);
+            if (cassette.isReplay()) {
+                future.complete(cassette.replay(key));
+                return future;
+            }
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        return transport.executeAsync(request).thenApply(response -> {
+            try {
+                return cassette.record(key, response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+
+        // The cassette belongs to the run and the transport is shared, hence both are closed by their owners.
+    }
+}
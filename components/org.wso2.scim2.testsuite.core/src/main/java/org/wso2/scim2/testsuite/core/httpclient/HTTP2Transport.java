@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP/2 transport backed by the Apache http client 5. All the requests to a service provider are multiplexed as
+ * streams over a single connection, so the TLS handshake is done once per run. The protocol is negotiated with
+ * ALPN, which needs Java 8u252 or later. Requests which exceed the stream concurrency limit are queued until a
+ * stream is completed.
+ */
+public class HTTP2Transport implements HTTPTransport {
+
+    private final CloseableHttpAsyncClient httpAsyncClient;
+    private final Semaphore streams;
+    private final Queue<Runnable> pendingRequests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Initialize.
+     *
+     * @param clientConfiguration Connection settings and timeouts.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public HTTP2Transport(HTTPClientConfiguration clientConfiguration) throws ComplianceException {
+
+        TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
+                .setSslContext(HTTPClient.createSSLContext())
+                .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                .build();
+        streams = new Semaphore(Math.max(1, clientConfiguration.getMaxConcurrentStreams()));
+        httpAsyncClient = HttpAsyncClients.customHttp2()
+                .setTlsStrategy(tlsStrategy)
+                // The single connection is not pooled, hence there is no connection request timeout.
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(clientConfiguration.getConnectTimeout(), TimeUnit.MILLISECONDS)
+                        .setResponseTimeout(clientConfiguration.getSocketTimeout(), TimeUnit.MILLISECONDS)
+                        .build())
+                .setH2Config(H2Config.custom()
+                        .setPushEnabled(false)
+                        .setMaxConcurrentStreams(clientConfiguration.getMaxConcurrentStreams())
+                        .build())
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(1)
+                        .build())
+                .build();
+        httpAsyncClient.start();
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequestBase request) throws IOException {
+
+        try {
+            return executeAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request to " + request.getURI() + " was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Request to " + request.getURI() + " failed", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<HttpResponse> executeAsync(HttpRequestBase request) {
+
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        SimpleHttpRequest http2Request;
+        try {
+            http2Request = toHttp2Request(request);
+        } catch (IOException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        pendingRequests.add(() -> httpAsyncClient.execute(http2Request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+
+                releaseStream();
+                future.complete(toHttpResponse(response));
+            }
+
+            @Override
+            public void failed(Exception e) {
+
+                releaseStream();
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+
+                releaseStream();
+                future.cancel(false);
+            }
+        }));
+        dispatchPendingRequests();
+        return future;
+    }
+
+    @Override
+    public void close() {
+
+        httpAsyncClient.close(CloseMode.GRACEFUL);
+    }
+
+    /**
+     * Send the queued requests while there are free streams.
+     */
+    private void dispatchPendingRequests() {
+
+        while (!pendingRequests.isEmpty() && streams.tryAcquire()) {
+            Runnable pendingRequest = pendingRequests.poll();
+            if (pendingRequest == null) {
+                streams.release();
+                return;
+            }
+            pendingRequest.run();
+        }
+    }
+
+    private void releaseStream() {
+
+        streams.release();
+        dispatchPendingRequests();
+    }
+
+    /**
+     * Copy the request line, headers and body of the request.
+     *
+     * @param request Request to copy.
+     * @return Request of the http client 5.
+     * @throws IOException Error in reading the request body.
+     */
+    private static SimpleHttpRequest toHttp2Request(HttpRequestBase request) throws IOException {
+
+        SimpleHttpRequest http2Request = new SimpleHttpRequest(request.getMethod(), request.getURI());
+        for (Header header : request.getAllHeaders()) {
+            http2Request.addHeader(header.getName(), header.getValue());
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            if (entity != null) {
+                ContentType contentType = entity.getContentType() != null
+                        ? ContentType.parse(entity.getContentType().getValue()) : ContentType.APPLICATION_JSON;
+                http2Request.setBody(EntityUtils.toByteArray(entity), contentType);
+            }
+        }
+        return http2Request;
+    }
+
+    /**
+     * Copy the status, headers and body of the response. HTTP/2 has no reason phrase, hence the standard one of the
+     * status code is used.
+     *
+     * @param http2Response Response of the http client 5.
+     * @return Buffered response.
+     */
+    private static HttpResponse toHttpResponse(SimpleHttpResponse http2Response) {
+
+        int statusCode = http2Response.getCode();
+        String reasonPhrase = http2Response.getReasonPhrase();
+        if (reasonPhrase == null || reasonPhrase.isEmpty()) {
+            reasonPhrase = EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ENGLISH);
+        }
+        ProtocolVersion protocolVersion = http2Response.getVersion() != null
+                ? new ProtocolVersion("HTTP", http2Response.getVersion().getMajor(),
+                http2Response.getVersion().getMinor())
+                : new ProtocolVersion("HTTP", 2, 0);
+        BasicHttpResponse response = new BasicHttpResponse(
+                new BasicStatusLine(protocolVersion, statusCode, reasonPhrase));
+        for (org.apache.hc.core5.http.Header header : http2Response.getHeaders()) {
+            response.addHeader(header.getName(), header.getValue());
+        }
+        byte[] body = http2Response.getBodyBytes();
+        if (body != null) {
+            ByteArrayEntity entity = new ByteArrayEntity(body);
+            if (http2Response.getContentType() != null) {
+                entity.setContentType(http2Response.getContentType().toString());
+            }
+            response.setEntity(entity);
+        }
+        return response;
+    }
+}
@@ -18,52 +18,360 @@
 package org.wso2.scim2.testsuite.core.httpclient;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHeaders;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.TrustStrategy;
 import org.wso2.scim2.testsuite.core.exception.ComplianceException;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
 
 /**
  * This class is to depicts the HTTP client.
  */
 public class HTTPClient {
 
-    private static CloseableHttpClient httpClient = null;
+    private static final Log logger = LogFactory.getLog(HTTPClient.class);
+
+    private static final String DEFAULT_CLIENT_KEY = "default";
+
+    // Clients are built once per target endpoint and shared by all the tests running against it. The maps are in
+    // access order, so the least recently used clients are evicted first.
+    private static final Map<String, Shared<CloseableHttpClient>> httpClients = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final Map<String, Shared<HTTPTransport>> transports = new LinkedHashMap<>(16, 0.75f, true);
 
     public static HttpClient getHttpClient() throws ComplianceException {
 
-        if (httpClient == null) {
-            TrustStrategy trustAllStrategy = (chain, authType) -> true;
-            SSLContextBuilder builder = new SSLContextBuilder();
-            try {
-                builder.loadTrustMaterial(trustAllStrategy);
-            } catch (NoSuchAlgorithmException | KeyStoreException e) {
-                throw new ComplianceException("Error in setting up the http client");
+        return getOrCreateHttpClient(DEFAULT_CLIENT_KEY, HTTPClientConfiguration.fromSystemProperties());
+    }
+
+    /**
+     * Get the http client of the target endpoint. In the blocking transport mode this is the pooled client of the
+     * endpoint, otherwise the requests are sent through the transport of the endpoint. When the run has a cassette,
+     * the requests are recorded or replayed through it. The network time of the requests is recorded in the latency
+     * recorder of the run. The clients are built with the connection pool settings and timeouts of the run.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to run tests.
+     * @return Http client shared by the tests of the endpoint.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public static HttpClient getHttpClient(ComplianceTestMetaDataHolder complianceTestMetaDataHolder)
+            throws ComplianceException {
+
+        HttpClient httpClient;
+        if (complianceTestMetaDataHolder.getRunContext().getCassette() != null ||
+                !ComplianceConstants.HttpClientConstants.BLOCKING_TRANSPORT.equals(
+                        complianceTestMetaDataHolder.getTransportMode())) {
+            // Send the requests of the tests through the selected transport.
+            httpClient = new TransportHttpClient(getTransport(complianceTestMetaDataHolder));
+        } else {
+            httpClient = getOrCreateHttpClient(getEndpointKey(complianceTestMetaDataHolder.getUrl()),
+                    complianceTestMetaDataHolder.getRunContext().getHttpClientConfiguration());
+        }
+        return new TimedHttpClient(httpClient,
+                complianceTestMetaDataHolder.getRunContext().getLatencyRecorder(),
+                complianceTestMetaDataHolder.getUrl());
+    }
+
+    /**
+     * Get the transport of the target endpoint in the transport mode of the holder. When the run has a cassette,
+     * the transport records the exchanges to it, or replays them from it without contacting the endpoint.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to run tests.
+     * @return Transport shared by the tests of the endpoint.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public static HTTPTransport getTransport(ComplianceTestMetaDataHolder complianceTestMetaDataHolder)
+            throws ComplianceException {
+
+        Cassette cassette = complianceTestMetaDataHolder.getRunContext().getCassette();
+        if (cassette == null) {
+            return getSharedTransport(complianceTestMetaDataHolder);
+        }
+        return new CassetteHTTPTransport(cassette,
+                cassette.isReplay() ? null : getSharedTransport(complianceTestMetaDataHolder));
+    }
+
+    private static HTTPTransport getSharedTransport(ComplianceTestMetaDataHolder complianceTestMetaDataHolder)
+            throws ComplianceException {
+
+        String endpointKey = getEndpointKey(complianceTestMetaDataHolder.getUrl());
+        String transportMode = complianceTestMetaDataHolder.getTransportMode();
+        HTTPClientConfiguration configuration = complianceTestMetaDataHolder.getRunContext()
+                .getHttpClientConfiguration();
+        String key = transportMode + " " + endpointKey + " " + configuration.getKey();
+        if (ComplianceConstants.HttpClientConstants.BLOCKING_TRANSPORT.equals(transportMode)) {
+            // The blocking transport sends through the shared client, which must not be evicted while it is used.
+            getOrCreateHttpClient(endpointKey, configuration);
+        }
+        return getOrCreate(transports, key, () -> buildTransport(transportMode, endpointKey, configuration));
+    }
+
+    /**
+     * Close all the transports, http clients and their connection pools.
+     */
+    public static void shutdown() {
+
+        List<Closeable> closeables = new ArrayList<>();
+        synchronized (transports) {
+            for (Shared<HTTPTransport> transport : transports.values()) {
+                closeables.add(transport.value);
             }
+            transports.clear();
+        }
+        synchronized (httpClients) {
+            for (Shared<CloseableHttpClient> client : httpClients.values()) {
+                closeables.add(client.value);
+            }
+            httpClients.clear();
+        }
+        close(closeables);
+    }
+
+    private static HttpClient getOrCreateHttpClient(String endpointKey, HTTPClientConfiguration configuration)
+            throws ComplianceException {
+
+        // Runs with other settings get clients of their own.
+        String key = endpointKey + " " + configuration.getKey();
+        return getOrCreate(httpClients, key, () -> buildHttpClient(configuration));
+    }
 
-            SSLConnectionSocketFactory ssl;
+    /**
+     * Get a shared client, or build it if there is none. Clients which have not been used for a while are closed,
+     * as are the least recently used ones once there are too many, so the clients of finished runs against other
+     * endpoints or with other settings do not pile up.
+     *
+     * @param clients Shared clients by key, in access order.
+     * @param key     Key of the client.
+     * @param builder Builds the client.
+     * @param <T>     Type of the client.
+     * @return Shared client.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private static <T extends Closeable> T getOrCreate(Map<String, Shared<T>> clients, String key,
+                                                       Builder<T> builder) throws ComplianceException {
+
+        List<Closeable> evicted = new ArrayList<>();
+        Shared<T> client;
+        synchronized (clients) {
+            long now = System.currentTimeMillis();
+            client = clients.get(key);
+            if (client == null) {
+                client = new Shared<>(builder.build());
+                clients.put(key, client);
+            }
+            client.lastUsed = now;
+            Iterator<Shared<T>> iterator = clients.values().iterator();
+            while (iterator.hasNext()) {
+                Shared<T> eldest = iterator.next();
+                if (eldest == client || (clients.size() <= ComplianceConstants.HttpClientConstants.MAX_SHARED_CLIENTS
+                        && now - eldest.lastUsed < ComplianceConstants.HttpClientConstants.SHARED_CLIENT_IDLE_TIME)) {
+                    break;
+                }
+                evicted.add(eldest.value);
+                iterator.remove();
+            }
+        }
+        close(evicted);
+        return client.value;
+    }
+
+    private static void close(List<Closeable> closeables) {
+
+        for (Closeable closeable : closeables) {
             try {
-                HostnameVerifier allHostsValid = (hostname, session) -> true;
-                ssl = new SSLConnectionSocketFactory(builder.build(), allHostsValid);
-            } catch (NoSuchAlgorithmException | KeyManagementException e) {
-                throw new ComplianceException("Error in setting up the http client");
+                closeable.close();
+            } catch (IOException e) {
+                logger.error("Error while closing the http client", e);
             }
-            httpClient = HttpClients.custom().setSSLSocketFactory(ssl).build();
-            return httpClient;
         }
-        return httpClient;
+    }
+
+    /**
+     * Build a transport of the given mode.
+     *
+     * @param transportMode Transport mode.
+     * @param endpointKey   Key of the target endpoint.
+     * @param configuration Connection pool settings and timeouts.
+     * @return Transport.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private static HTTPTransport buildTransport(String transportMode, String endpointKey,
+                                                HTTPClientConfiguration configuration) throws ComplianceException {
+
+        switch (transportMode) {
+            case ComplianceConstants.HttpClientConstants.ASYNC_TRANSPORT:
+                return new AsyncHTTPTransport(configuration);
+            case ComplianceConstants.HttpClientConstants.HTTP2_TRANSPORT:
+                return new HTTP2Transport(configuration);
+            case ComplianceConstants.HttpClientConstants.BLOCKING_TRANSPORT:
+                return new BlockingHTTPTransport(getOrCreateHttpClient(endpointKey, configuration),
+                        configuration.getMaxConnectionsPerRoute());
+        }
+        throw new ComplianceException("Unknown transport mode " + transportMode);
+    }
+
+    /**
+     * Get the scheme, host and port of the url, which identifies the target endpoint.
+     *
+     * @param url Url of the endpoint.
+     * @return Key of the endpoint.
+     */
+    private static String getEndpointKey(String url) {
+
+        if (url == null) {
+            return DEFAULT_CLIENT_KEY;
+        }
+        try {
+            URI uri = new URI(url);
+            if (uri.getHost() == null) {
+                return url;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Build a http client backed by a connection pool.
+     *
+     * @param clientConfiguration Connection pool settings and timeouts.
+     * @return Http client.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private static CloseableHttpClient buildHttpClient(final HTTPClientConfiguration clientConfiguration)
+            throws ComplianceException {
+
+        HostnameVerifier allHostsValid = (hostname, session) -> true;
+        SSLConnectionSocketFactory ssl = new SSLConnectionSocketFactory(createSSLContext(), allHostsValid);
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register(ComplianceConstants.RequestCodeConstants.HTTP,
+                        PlainConnectionSocketFactory.getSocketFactory())
+                .register(ComplianceConstants.RequestCodeConstants.HTTPS, ssl)
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                socketFactoryRegistry, null, null, null, clientConfiguration.getConnectionTimeToLive(),
+                TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(clientConfiguration.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(clientConfiguration.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(clientConfiguration.getValidateAfterInactivity());
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(createRequestConfig(clientConfiguration))
+                .setKeepAliveStrategy(createKeepAliveStrategy(clientConfiguration))
+                .evictExpiredConnections()
+                .evictIdleConnections(clientConfiguration.getIdleConnectionTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Create a ssl context which trusts the certificates of all the service providers under test.
+     *
+     * @return Ssl context.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    static SSLContext createSSLContext() throws ComplianceException {
+
+        TrustStrategy trustAllStrategy = (chain, authType) -> true;
+        SSLContextBuilder builder = new SSLContextBuilder();
+        try {
+            builder.loadTrustMaterial(trustAllStrategy);
+            return builder.build();
+        } catch (NoSuchAlgorithmException | KeyStoreException | KeyManagementException e) {
+            throw new ComplianceException("Error in setting up the http client");
+        }
+    }
+
+    /**
+     * Create the request settings with the timeouts of the configuration, so a service provider which does not
+     * answer fails the test instead of blocking it.
+     *
+     * @param clientConfiguration Connection pool settings and timeouts.
+     * @return Request settings.
+     */
+    static RequestConfig createRequestConfig(HTTPClientConfiguration clientConfiguration) {
+
+        return RequestConfig.custom()
+                .setConnectTimeout(clientConfiguration.getConnectTimeout())
+                .setSocketTimeout(clientConfiguration.getSocketTimeout())
+                .setConnectionRequestTimeout(clientConfiguration.getConnectionRequestTimeout())
+                .build();
+    }
+
+    /**
+     * Create a keep alive strategy which honours the keep alive header of the server and falls back to the
+     * configured duration.
+     *
+     * @param clientConfiguration Connection pool settings.
+     * @return Keep alive strategy.
+     */
+    static ConnectionKeepAliveStrategy createKeepAliveStrategy(final HTTPClientConfiguration clientConfiguration) {
+
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : clientConfiguration.getKeepAlive();
+        };
+    }
+
+    /**
+     * Builds a shared client.
+     *
+     * @param <T> Type of the client.
+     */
+    private interface Builder<T> {
+
+        T build() throws ComplianceException;
+    }
+
+    /**
+     * Shared client and the time it was last handed out.
+     *
+     * @param <T> Type of the client.
+     */
+    private static class Shared<T> {
+
+        private final T value;
+        private long lastUsed;
+
+        Shared(T value) {
+
+            this.value = value;
+        }
     }
 
     public static HttpRequestBase setAuthorizationHeader(ComplianceTestMetaDataHolder complianceTestMetaDataHolder,
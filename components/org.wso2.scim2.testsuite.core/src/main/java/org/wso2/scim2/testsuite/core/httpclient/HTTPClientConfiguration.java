@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+/**
+ * Connection pool settings and timeouts of the http client. Durations are in milliseconds.
+ * <p>
+ * The settings of a run default to the system properties maxConnectionsPerRoute, maxConnections, connectTimeout,
+ * socketTimeout and connectionRequestTimeout.
+ */
+public class HTTPClientConfiguration {
+
+    private int maxConnectionsPerRoute = ComplianceConstants.HttpClientConstants.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private int maxConnections = ComplianceConstants.HttpClientConstants.DEFAULT_MAX_CONNECTIONS;
+    private long idleConnectionTimeout = ComplianceConstants.HttpClientConstants.DEFAULT_IDLE_CONNECTION_TIMEOUT;
+    private long connectionTimeToLive = ComplianceConstants.HttpClientConstants.DEFAULT_CONNECTION_TIME_TO_LIVE;
+    private long keepAlive = ComplianceConstants.HttpClientConstants.DEFAULT_KEEP_ALIVE;
+    private int validateAfterInactivity = ComplianceConstants.HttpClientConstants.DEFAULT_VALIDATE_AFTER_INACTIVITY;
+    private int maxConcurrentStreams = ComplianceConstants.HttpClientConstants.DEFAULT_MAX_CONCURRENT_STREAMS;
+    private int connectTimeout = ComplianceConstants.HttpClientConstants.DEFAULT_CONNECT_TIMEOUT;
+    private int socketTimeout = ComplianceConstants.HttpClientConstants.DEFAULT_SOCKET_TIMEOUT;
+    private int connectionRequestTimeout = ComplianceConstants.HttpClientConstants.DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+
+    /**
+     * Create the settings defined by the system properties.
+     *
+     * @return Settings with the defaults for the properties which are not set.
+     */
+    public static HTTPClientConfiguration fromSystemProperties() {
+
+        HTTPClientConfiguration configuration = new HTTPClientConfiguration();
+        configuration.setMaxConnectionsPerRoute(Integer.getInteger("maxConnectionsPerRoute",
+                configuration.getMaxConnectionsPerRoute()));
+        configuration.setMaxConnections(Integer.getInteger("maxConnections", configuration.getMaxConnections()));
+        configuration.setConnectTimeout(Integer.getInteger("connectTimeout", configuration.getConnectTimeout()));
+        configuration.setSocketTimeout(Integer.getInteger("socketTimeout", configuration.getSocketTimeout()));
+        configuration.setConnectionRequestTimeout(Integer.getInteger("connectionRequestTimeout",
+                configuration.getConnectionRequestTimeout()));
+        return configuration;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public int getMaxConnections() {
+
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+
+        this.maxConnections = maxConnections;
+    }
+
+    public long getIdleConnectionTimeout() {
+
+        return idleConnectionTimeout;
+    }
+
+    public void setIdleConnectionTimeout(long idleConnectionTimeout) {
+
+        this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+    public long getConnectionTimeToLive() {
+
+        return connectionTimeToLive;
+    }
+
+    public void setConnectionTimeToLive(long connectionTimeToLive) {
+
+        this.connectionTimeToLive = connectionTimeToLive;
+    }
+
+    public long getKeepAlive() {
+
+        return keepAlive;
+    }
+
+    public void setKeepAlive(long keepAlive) {
+
+        this.keepAlive = keepAlive;
+    }
+
+    public int getValidateAfterInactivity() {
+
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(int validateAfterInactivity) {
+
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public int getMaxConcurrentStreams() {
+
+        return maxConcurrentStreams;
+    }
+
+    public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    public int getConnectTimeout() {
+
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getSocketTimeout() {
+
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(int socketTimeout) {
+
+        this.socketTimeout = socketTimeout;
+    }
+
+    public int getConnectionRequestTimeout() {
+
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    /**
+     * Get a key which is equal for equal settings, so runs with the same settings share their clients.
+     *
+     * @return Key of the settings.
+     */
+    public String getKey() {
+
+        return maxConnectionsPerRoute + "/" + maxConnections + "/" + idleConnectionTimeout + "/" +
+                connectionTimeToLive + "/" + keepAlive + "/" + validateAfterInactivity + "/" + maxConcurrentStreams +
+                "/" + connectTimeout + "/" + socketTimeout + "/" + connectionRequestTimeout;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport used to send requests to the service provider.
+ * <p>
+ * Responses are fully buffered, so they can be read on any thread once the request is completed.
+ */
+public interface HTTPTransport extends Closeable {
+
+    /**
+     * Send the request and wait for the response.
+     *
+     * @param request Request to send.
+     * @return Response of the service provider.
+     * @throws IOException Error in sending the request or reading the response.
+     */
+    HttpResponse execute(HttpRequestBase request) throws IOException;
+
+    /**
+     * Send the request without waiting for the response.
+     *
+     * @param request Request to send.
+     * @return Future which completes with the response of the service provider.
+     */
+    CompletableFuture<HttpResponse> executeAsync(HttpRequestBase request);
+}
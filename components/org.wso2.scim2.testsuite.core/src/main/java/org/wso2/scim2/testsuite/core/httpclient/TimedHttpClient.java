@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Http client which records the network time of each request, from sending the request until the response body
+ * is read, in the latency recorder of the run.
+ */
+public class TimedHttpClient extends CloseableHttpClient {
+
+    private final HttpClient httpClient;
+    private final LatencyRecorder latencyRecorder;
+    private final String baseUrl;
+
+    /**
+     * Initialize.
+     *
+     * @param httpClient      Http client which sends the requests.
+     * @param latencyRecorder Latency recorder of the run.
+     * @param baseUrl         Url of the service provider.
+     */
+    public TimedHttpClient(HttpClient httpClient, LatencyRecorder latencyRecorder, String baseUrl) {
+
+        this.httpClient = httpClient;
+        this.latencyRecorder = latencyRecorder;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException {
+
+        long startTime = System.nanoTime();
+        HttpResponse response = httpClient.execute(target, request, context);
+        if (response.getEntity() != null) {
+            // Read the body, so it is part of the network time and the connection is released.
+            response.setEntity(new BufferedHttpEntity(response.getEntity()));
+        }
+        long latency = System.nanoTime() - startTime;
+        URI uri = request instanceof HttpUriRequest ? ((HttpUriRequest) request).getURI() :
+                URI.create(request.getRequestLine().getUri());
+        latencyRecorder.recordNetwork(LatencyRecorder.getOperation(request.getRequestLine().getMethod(), uri,
+                baseUrl), latency);
+        if (response instanceof CloseableHttpResponse) {
+            return (CloseableHttpResponse) response;
+        }
+        return new TimedResponse(response);
+    }
+
+    @Override
+    public void close() {
+
+        // The wrapped client is shared, hence it is closed by HTTPClient.
+    }
+
+    @Override
+    @Deprecated
+    public HttpParams getParams() {
+
+        return httpClient.getParams();
+    }
+
+    @Override
+    @Deprecated
+    public ClientConnectionManager getConnectionManager() {
+
+        return httpClient.getConnectionManager();
+    }
+
+    /**
+     * Fully buffered response which holds no connection.
+     */
+    private static class TimedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        TimedResponse(HttpResponse response) {
+
+            super(response.getStatusLine());
+            setHeaders(response.getAllHeaders());
+            setEntity(response.getEntity());
+        }
+
+        @Override
+        public void close() {
+
+            // Nothing to release.
+        }
+    }
+}
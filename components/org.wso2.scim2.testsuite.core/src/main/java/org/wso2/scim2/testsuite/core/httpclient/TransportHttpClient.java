@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.httpclient;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * Http client which sends the requests through a {@link HTTPTransport}, so the tests can run on any transport
+ * without changes.
+ * <p>
+ * The deprecated {@link #getParams()} and {@link #getConnectionManager()} accessors delegate to the pooled http
+ * client when the requests go through the blocking transport. Other transports have no connection manager, hence
+ * {@link #getConnectionManager()} throws {@link UnsupportedOperationException} for them.
+ */
+public class TransportHttpClient extends CloseableHttpClient {
+
+    private final HTTPTransport transport;
+
+    /**
+     * Initialize.
+     *
+     * @param transport Transport to send the requests.
+     */
+    public TransportHttpClient(HTTPTransport transport) {
+
+        this.transport = transport;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+            throws IOException {
+
+        if (!(request instanceof HttpRequestBase)) {
+            throw new ClientProtocolException("Unsupported request type " + request.getClass().getName());
+        }
+        return new BufferedResponse(transport.execute((HttpRequestBase) request));
+    }
+
+    @Override
+    public void close() {
+
+        // The transport is shared, hence it is closed by HTTPClient.
+    }
+
+    @Override
+    @Deprecated
+    public HttpParams getParams() {
+
+        HttpClient httpClient = getBlockingHttpClient();
+        return httpClient == null ? new BasicHttpParams() : httpClient.getParams();
+    }
+
+    @Override
+    @Deprecated
+    public ClientConnectionManager getConnectionManager() {
+
+        HttpClient httpClient = getBlockingHttpClient();
+        if (httpClient == null) {
+            throw new UnsupportedOperationException("Connection manager is owned by the transport");
+        }
+        return httpClient.getConnectionManager();
+    }
+
+    /**
+     * Get the pooled http client of the transport, looking through a recording cassette.
+     *
+     * @return Pooled http client, or null if the transport is not the blocking transport.
+     */
+    private HttpClient getBlockingHttpClient() {
+
+        HTTPTransport target = transport;
+        if (target instanceof CassetteHTTPTransport) {
+            target = ((CassetteHTTPTransport) target).getTransport();
+        }
+        return target instanceof BlockingHTTPTransport ? ((BlockingHTTPTransport) target).getHttpClient() : null;
+    }
+
+    /**
+     * Fully buffered response which holds no connection.
+     */
+    private static class BufferedResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+        BufferedResponse(HttpResponse response) {
+
+            super(response.getStatusLine());
+            setHeaders(response.getAllHeaders());
+            setEntity(response.getEntity());
+        }
+
+        @Override
+        public void close() {
+
+            // Nothing to release.
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.load;
+
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+/**
+ * Settings of a load run. Durations are in milliseconds.
+ */
+public class LoadConfiguration {
+
+    private String mix = ComplianceConstants.LoadConstants.DEFAULT_MIX;
+    private int concurrency = ComplianceConstants.LoadConstants.DEFAULT_CONCURRENCY;
+    private double rate = ComplianceConstants.LoadConstants.DEFAULT_RATE;
+    private long duration = ComplianceConstants.LoadConstants.DEFAULT_DURATION;
+    private long warmUp = ComplianceConstants.LoadConstants.DEFAULT_WARM_UP;
+    private int seedResources = ComplianceConstants.LoadConstants.DEFAULT_SEED_RESOURCES;
+
+    public String getMix() {
+
+        return mix;
+    }
+
+    /**
+     * Set the operations of the run and their weights, e.g. getUser:8,patchUser:2. An operation without a weight
+     * has the weight 1.
+     *
+     * @param mix Operation mix defined with the operations in {@link ComplianceConstants.LoadConstants}.
+     */
+    public void setMix(String mix) {
+
+        this.mix = mix;
+    }
+
+    public int getConcurrency() {
+
+        return concurrency;
+    }
+
+    /**
+     * Set the number of workers which send requests at the same time.
+     *
+     * @param concurrency Number of workers.
+     */
+    public void setConcurrency(int concurrency) {
+
+        this.concurrency = concurrency;
+    }
+
+    public double getRate() {
+
+        return rate;
+    }
+
+    /**
+     * Set the number of requests per second sent by all the workers together. When the service provider falls
+     * behind the rate, the latency is measured from the time a request should have been sent.
+     *
+     * @param rate Requests per second, or zero to send requests as fast as the workers can.
+     */
+    public void setRate(double rate) {
+
+        this.rate = rate;
+    }
+
+    public long getDuration() {
+
+        return duration;
+    }
+
+    /**
+     * Set the time for which the requests are recorded, which starts after the warm up.
+     *
+     * @param duration Duration of the run.
+     */
+    public void setDuration(long duration) {
+
+        this.duration = duration;
+    }
+
+    public long getWarmUp() {
+
+        return warmUp;
+    }
+
+    /**
+     * Set the time at the start of the run in which requests are sent but not recorded.
+     *
+     * @param warmUp Warm up time.
+     */
+    public void setWarmUp(long warmUp) {
+
+        this.warmUp = warmUp;
+    }
+
+    public int getSeedResources() {
+
+        return seedResources;
+    }
+
+    /**
+     * Set the number of users and groups which are created before the run for the read and update operations.
+     *
+     * @param seedResources Number of users and of groups.
+     */
+    public void setSeedResources(int seedResources) {
+
+        this.seedResources = seedResources;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.load;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONException;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends a mix of the requests of the compliance tests to the service provider for a fixed time, and records the
+ * throughput, latency and errors of each operation.
+ * <p>
+ * Without a rate each worker sends its next request as soon as the previous one completes. With a rate the
+ * requests are sent on a fixed schedule, and the latency of a request is measured from its scheduled time, so a
+ * slow service provider is not hidden by the requests which were sent late.
+ */
+public class LoadGenerator {
+
+    private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final LoadConfiguration configuration;
+    private final LoadWorkload workload;
+    private final Map<String, OperationStatistics> statistics = new LinkedHashMap<>();
+    private final AtomicLong slot = new AtomicLong();
+    private long startTime;
+    private long recordTime;
+    private long endTime;
+
+    /**
+     * Initialize.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to send the requests.
+     * @param configuration                Settings of the run.
+     * @throws ComplianceException If the operation mix is not valid, or needs seed resources and there are none.
+     */
+    public LoadGenerator(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, LoadConfiguration configuration)
+            throws ComplianceException {
+
+        this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        this.configuration = configuration;
+        this.workload = new LoadWorkload(complianceTestMetaDataHolder, configuration.getMix(),
+                configuration.getSeedResources());
+        for (String operation : workload.getOperations()) {
+            statistics.put(operation, new OperationStatistics(operation));
+        }
+    }
+
+    /**
+     * Seed the resources, run the load and schedule the deletion of the created resources on the clean up queue
+     * of the holder.
+     *
+     * @return Results of the run.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
+     */
+    public LoadReport run() throws ComplianceException, GeneralComplianceException {
+
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(configuration.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "scim2-load-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            workload.seed();
+            startTime = System.nanoTime();
+            recordTime = startTime + TimeUnit.MILLISECONDS.toNanos(configuration.getWarmUp());
+            endTime = recordTime + TimeUnit.MILLISECONDS.toNanos(configuration.getDuration());
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < configuration.getConcurrency(); i++) {
+                futures.add(workers.submit(() -> work(client)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new ComplianceException("Load generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComplianceException("Load generation was interrupted", e);
+        } finally {
+            workers.shutdownNow();
+            workload.close();
+        }
+        List<OperationStatistics> operations = new ArrayList<>(statistics.values());
+        for (OperationStatistics operation : operations) {
+            operation.setDuration(configuration.getDuration());
+        }
+        return new LoadReport(configuration, operations);
+    }
+
+    /**
+     * Send requests until the end of the run.
+     *
+     * @param client Http client of the service provider.
+     */
+    private void work(HttpClient client) {
+
+        while (!Thread.currentThread().isInterrupted()) {
+            String operation = workload.nextOperation();
+            HttpRequestBase request = workload.newRequest(operation);
+            if (request == null) {
+                // Nothing to work on yet, e.g. a delete before any resource was created, hence wait for the other
+                // workers instead of spinning.
+                if (System.nanoTime() - endTime >= 0) {
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(
+                        ComplianceConstants.LoadConstants.IDLE_WAIT));
+                continue;
+            }
+            long scheduledTime = nextScheduledTime();
+            if (scheduledTime - endTime >= 0) {
+                return;
+            }
+            waitUntil(scheduledTime);
+            boolean error;
+            try {
+                HttpResponse response = client.execute(request);
+                String body = response.getEntity() == null ? null : EntityUtils.toString(response.getEntity());
+                error = response.getStatusLine().getStatusCode() >= 400;
+                if (!error) {
+                    workload.onResponse(operation, body);
+                }
+            } catch (IOException | JSONException e) {
+                error = true;
+            }
+            long latency = System.nanoTime() - scheduledTime;
+            if (scheduledTime - recordTime >= 0) {
+                statistics.get(operation).record(latency, error);
+            }
+        }
+    }
+
+    /**
+     * Get the time at which the next request should be sent.
+     *
+     * @return Time in {@link System#nanoTime()} units.
+     */
+    private long nextScheduledTime() {
+
+        if (configuration.getRate() <= 0) {
+            return System.nanoTime();
+        }
+        return startTime + (long) (slot.getAndIncrement() * (TimeUnit.SECONDS.toNanos(1) / configuration.getRate()));
+    }
+
+    private static void waitUntil(long time) {
+
+        long delay;
+        while ((delay = time - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+}
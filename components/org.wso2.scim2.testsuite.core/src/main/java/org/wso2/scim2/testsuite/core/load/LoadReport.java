@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of a load run.
+ */
+public class LoadReport {
+
+    private final LoadConfiguration configuration;
+    private final List<OperationStatistics> operations;
+    private List<String> leftovers = new ArrayList<>();
+
+    /**
+     * Initialize.
+     *
+     * @param configuration Settings of the run.
+     * @param operations    Statistics of the operations of the run.
+     */
+    public LoadReport(LoadConfiguration configuration, List<OperationStatistics> operations) {
+
+        this.configuration = configuration;
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    public LoadConfiguration getConfiguration() {
+
+        return configuration;
+    }
+
+    public List<OperationStatistics> getOperations() {
+
+        return operations;
+    }
+
+    /**
+     * Get the locations of the resources created by the run which are left on the service provider after the
+     * clean up.
+     *
+     * @return Locations of the left over resources.
+     */
+    public List<String> getLeftovers() {
+
+        return leftovers;
+    }
+
+    public void setLeftovers(List<String> leftovers) {
+
+        this.leftovers = leftovers;
+    }
+
+    public long getRequests() {
+
+        long requests = 0;
+        for (OperationStatistics operation : operations) {
+            requests += operation.getRequests();
+        }
+        return requests;
+    }
+
+    public long getErrors() {
+
+        long errors = 0;
+        for (OperationStatistics operation : operations) {
+            errors += operation.getErrors();
+        }
+        return errors;
+    }
+
+    public double getErrorRate() {
+
+        return getRequests() == 0 ? 0 : (double) getErrors() / getRequests();
+    }
+
+    /**
+     * Get the number of requests per second of all the operations.
+     *
+     * @return Throughput of the run.
+     */
+    public double getThroughput() {
+
+        return configuration.getDuration() == 0 ? 0 : getRequests() * 1000.0 / configuration.getDuration();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.load;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClientConfiguration;
+import org.wso2.scim2.testsuite.core.protocol.EndpointFactory;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.File;
+
+/**
+ * This class runs the load generation mode against a service provider.
+ * <p>
+ * The run is configured with the system properties url, userName, password, token, mix, concurrency, rate,
+ * duration, warmUp and seedResources, e.g. -Dmix=getUser:8,patchUser:2 -Dconcurrency=16 -Dduration=120000.
+ */
+public class LoadTest {
+
+    private static final Log logger = LogFactory.getLog(LoadTest.class);
+
+    public static void main(String[] arg) {
+
+        LoadConfiguration configuration = new LoadConfiguration();
+        configuration.setMix(System.getProperty("mix", ComplianceConstants.LoadConstants.DEFAULT_MIX));
+        configuration.setConcurrency(Integer.getInteger("concurrency",
+                ComplianceConstants.LoadConstants.DEFAULT_CONCURRENCY));
+        configuration.setRate(Double.parseDouble(System.getProperty("rate",
+                String.valueOf(ComplianceConstants.LoadConstants.DEFAULT_RATE))));
+        configuration.setDuration(Long.getLong("duration", ComplianceConstants.LoadConstants.DEFAULT_DURATION));
+        configuration.setWarmUp(Long.getLong("warmUp", ComplianceConstants.LoadConstants.DEFAULT_WARM_UP));
+        configuration.setSeedResources(Integer.getInteger("seedResources",
+                ComplianceConstants.LoadConstants.DEFAULT_SEED_RESOURCES));
+
+        EndpointFactory endFactory = new EndpointFactory(System.getProperty("url", "https://localhost:9443/scim2"),
+                System.getProperty("userName", "admin"), System.getProperty("password", "admin"),
+                System.getProperty("token", ""));
+        // Each worker needs a connection of its own.
+        HTTPClientConfiguration clientConfiguration = endFactory.getHttpClientConfiguration();
+        clientConfiguration.setMaxConnectionsPerRoute(Math.max(configuration.getConcurrency(),
+                clientConfiguration.getMaxConnectionsPerRoute()));
+        clientConfiguration.setMaxConnections(Math.max(configuration.getConcurrency(),
+                clientConfiguration.getMaxConnections()));
+        try {
+            LoadReport report = new LoadGenerator(endFactory.getRunContext().newMetaDataHolder(), configuration).run();
+            logger.info(String.format("%-14s %9s %8s %9s %9s %9s %9s %9s %9s", "Operation", "Requests", "Errors",
+                    "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms"));
+            for (OperationStatistics operation : report.getOperations()) {
+                logger.info(String.format("%-14s %9d %7.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                        operation.getName(), operation.getRequests(), operation.getErrorRate() * 100,
+                        operation.getThroughput(), operation.getLatency50(), operation.getLatency90(),
+                        operation.getLatency99(), operation.getLatency999(), operation.getMaxLatency()));
+            }
+            logger.info(String.format("Total %d requests, %.1f requests per second, %.2f%% errors",
+                    report.getRequests(), report.getThroughput(), report.getErrorRate() * 100));
+            // The clean up is verified before the report is written, so the report contains its leftovers.
+            report.setLeftovers(endFactory.getCleanupQueue().close());
+
+            File reportFile = new File(System.getProperty("user.dir") +
+                    "/components/org.wso2.scim2.testsuite.core/target",
+                    ComplianceConstants.LoadConstants.LOAD_REPORT_FILE_NAME);
+            new ObjectMapper().writer().withDefaultPrettyPrinter().writeValue(reportFile, report);
+            logger.info("Load report is saved at " + reportFile.getAbsolutePath());
+        } catch (Exception e) {
+            logger.error("Load generation failed with error : ", e);
+        } finally {
+            endFactory.getCleanupQueue().close();
+            HTTPClient.shutdown();
+        }
+    }
+}
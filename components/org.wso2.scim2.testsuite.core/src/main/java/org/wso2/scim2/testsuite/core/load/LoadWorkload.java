@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.load;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPatch;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureProvisioner;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the requests of the operations of a load run from the payloads of the compliance tests, and keeps track
+ * of the resources the run creates.
+ */
+class LoadWorkload {
+
+    private static final String USERS = ComplianceConstants.TestConstants.USERS_ENDPOINT;
+    private static final String GROUPS = ComplianceConstants.TestConstants.GROUPS_ENDPOINT;
+    private static final String SEARCH = "/.search";
+    // Scope of the deletions of the resources created by the run, see CleanupQueue.
+    private static final String CLEANUP_SCOPE = ComplianceConstants.LoadConstants.LOAD_TEST;
+
+    private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private final int seedResources;
+
+    // Names of the resources of a run start with a prefix of their own, so runs do not collide.
+    private final String prefix = "load" + Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> userNames = new ArrayList<>();
+    private final List<String> groupIds = new ArrayList<>();
+    private final Queue<String> createdUsers = new ConcurrentLinkedQueue<>();
+    private final Queue<String> createdGroups = new ConcurrentLinkedQueue<>();
+    private final Queue<String> createdLocations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Initialize.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to send the requests.
+     * @param mix                          Operations and their weights, e.g. getUser:8,patchUser:2.
+     * @param seedResources                Number of users and of groups created before the run.
+     * @throws ComplianceException If the mix is not valid.
+     */
+    LoadWorkload(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String mix, int seedResources)
+            throws ComplianceException {
+
+        this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        this.seedResources = seedResources;
+        Map<String, Integer> weights = parseMix(mix);
+        operations = weights.keySet().toArray(new String[0]);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (weights.containsKey(ComplianceConstants.LoadConstants.DELETE_USER) &&
+                !weights.containsKey(ComplianceConstants.LoadConstants.CREATE_USER)) {
+            throw new ComplianceException("The deleteUser operation needs the createUser operation in the mix");
+        }
+        if (weights.containsKey(ComplianceConstants.LoadConstants.DELETE_GROUP) &&
+                !weights.containsKey(ComplianceConstants.LoadConstants.CREATE_GROUP)) {
+            throw new ComplianceException("The deleteGroup operation needs the createGroup operation in the mix");
+        }
+        if (seedResources < 1) {
+            for (String operation : operations) {
+                if (isSeedOperation(operation)) {
+                    throw new ComplianceException("The " + operation + " operation needs seed resources");
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the operations of the mix.
+     *
+     * @return Operation names.
+     */
+    String[] getOperations() {
+
+        return operations.clone();
+    }
+
+    /**
+     * Create the users and groups which are read and updated by the run.
+     *
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
+     */
+    void seed() throws ComplianceException, GeneralComplianceException {
+
+        List<String> users = new ArrayList<>();
+        List<String> groups = new ArrayList<>();
+        for (int i = 0; i < seedResources; i++) {
+            String userName = nextName();
+            userNames.add(userName);
+            users.add(newUser(ComplianceConstants.DefinedInstances.definedUser1, userName));
+            groups.add(newGroup());
+        }
+        FixtureProvisioner provisioner = new FixtureProvisioner(complianceTestMetaDataHolder, CLEANUP_SCOPE);
+        userIds.addAll(provisioner.createResources(USERS, users, ComplianceConstants.LoadConstants.LOAD_TEST));
+        groupIds.addAll(provisioner.createResources(GROUPS, groups, ComplianceConstants.LoadConstants.LOAD_TEST));
+    }
+
+    /**
+     * Pick an operation according to the weights of the mix.
+     *
+     * @return Operation name.
+     */
+    String nextOperation() {
+
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Build the request of an operation.
+     *
+     * @param operation Operation name.
+     * @return Request, or null if the operation has no resource to work on at the moment.
+     */
+    HttpRequestBase newRequest(String operation) {
+
+        String url = complianceTestMetaDataHolder.getUrl();
+        HttpRequestBase request;
+        switch (operation) {
+            case ComplianceConstants.LoadConstants.CREATE_USER:
+                request = withBody(new HttpPost(url + USERS),
+                        newUser(ComplianceConstants.DefinedInstances.definedUser1, nextName()));
+                break;
+            case ComplianceConstants.LoadConstants.GET_USER:
+                request = new HttpGet(url + USERS + "/" + randomSeed(userIds));
+                break;
+            case ComplianceConstants.LoadConstants.LIST_USERS:
+                request = new HttpGet(url + USERS + "?startIndex=1&count=10");
+                break;
+            case ComplianceConstants.LoadConstants.SEARCH_USERS:
+                request = withBody(new HttpPost(url + USERS + SEARCH),
+                        ComplianceConstants.DefinedInstances.definedSearchUsersPayload1);
+                break;
+            case ComplianceConstants.LoadConstants.PATCH_USER:
+                request = withBody(new HttpPatch(url + USERS + "/" + randomSeed(userIds)),
+                        ComplianceConstants.DefinedInstances.definedPatchUserPayload1);
+                break;
+            case ComplianceConstants.LoadConstants.PUT_USER:
+                int index = ThreadLocalRandom.current().nextInt(userIds.size());
+                request = withBody(new HttpPut(url + USERS + "/" + userIds.get(index)),
+                        newUser(ComplianceConstants.DefinedInstances.definedUpdatedUser1, userNames.get(index)));
+                break;
+            case ComplianceConstants.LoadConstants.DELETE_USER:
+                String userId = createdUsers.poll();
+                request = userId == null ? null : new HttpDelete(url + USERS + "/" + userId);
+                break;
+            case ComplianceConstants.LoadConstants.CREATE_GROUP:
+                request = withBody(new HttpPost(url + GROUPS), newGroup());
+                break;
+            case ComplianceConstants.LoadConstants.GET_GROUP:
+                request = new HttpGet(url + GROUPS + "/" + randomSeed(groupIds));
+                break;
+            case ComplianceConstants.LoadConstants.LIST_GROUPS:
+                request = new HttpGet(url + GROUPS + "?startIndex=1&count=10");
+                break;
+            case ComplianceConstants.LoadConstants.SEARCH_GROUPS:
+                request = withBody(new HttpPost(url + GROUPS + SEARCH),
+                        ComplianceConstants.DefinedInstances.getDefinedSearchGroupsPayload1);
+                break;
+            case ComplianceConstants.LoadConstants.PATCH_GROUP:
+                request = withBody(new HttpPatch(url + GROUPS + "/" + randomSeed(groupIds)),
+                        String.format(ComplianceConstants.LoadConstants.PATCH_GROUP_PAYLOAD, randomSeed(userIds)));
+                break;
+            case ComplianceConstants.LoadConstants.DELETE_GROUP:
+                String groupId = createdGroups.poll();
+                request = groupId == null ? null : new HttpDelete(url + GROUPS + "/" + groupId);
+                break;
+            case ComplianceConstants.LoadConstants.BULK:
+                request = withBody(new HttpPost(url + ComplianceConstants.TestConstants.BULK_ENDPOINT), newBulk());
+                break;
+            default:
+                return null;
+        }
+        if (request == null) {
+            return null;
+        }
+        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, request);
+        request.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
+                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        return request;
+    }
+
+    /**
+     * Keep track of the resources created by a successful request.
+     *
+     * @param operation Operation name.
+     * @param body      Response body.
+     */
+    void onResponse(String operation, String body) {
+
+        switch (operation) {
+            case ComplianceConstants.LoadConstants.CREATE_USER:
+                createdUsers.add(new JSONObject(body).getString("id"));
+                break;
+            case ComplianceConstants.LoadConstants.CREATE_GROUP:
+                createdGroups.add(new JSONObject(body).getString("id"));
+                break;
+            case ComplianceConstants.LoadConstants.BULK:
+                JSONArray results = new JSONObject(body).getJSONArray(ComplianceConstants.BulkConstants.OPERATIONS);
+                for (int i = 0; i < results.length(); i++) {
+                    String location = results.getJSONObject(i).optString(ComplianceConstants.BulkConstants.LOCATION);
+                    if (StringUtils.isNotEmpty(location)) {
+                        createdLocations.add(location);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Schedule the deletion of all the resources the run created.
+     */
+    void close() {
+
+        List<String> users = new ArrayList<>(userIds);
+        users.addAll(createdUsers);
+        List<String> groups = new ArrayList<>(groupIds);
+        groups.addAll(createdGroups);
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE, GROUPS, groups);
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE, USERS, users);
+        for (String location : createdLocations) {
+            complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE, location);
+        }
+    }
+
+    private String nextName() {
+
+        return prefix + "-" + sequence.incrementAndGet();
+    }
+
+    private String newUser(String definition, String userName) {
+
+        return new JSONObject(definition).put("userName", userName).toString();
+    }
+
+    private String newGroup() {
+
+        return new JSONObject().put("displayName", nextName()).toString();
+    }
+
+    private String newBulk() {
+
+        JSONArray bulkOperations = new JSONArray();
+        for (int i = 0; i < ComplianceConstants.LoadConstants.BULK_OPERATIONS; i++) {
+            JSONObject operation = new JSONObject();
+            operation.put(ComplianceConstants.BulkConstants.METHOD, HttpPost.METHOD_NAME);
+            operation.put(ComplianceConstants.BulkConstants.PATH, USERS);
+            operation.put(ComplianceConstants.BulkConstants.BULK_ID, prefix + i);
+            operation.put(ComplianceConstants.BulkConstants.DATA,
+                    new JSONObject(newUser(ComplianceConstants.DefinedInstances.definedUser1, nextName())));
+            bulkOperations.put(operation);
+        }
+        JSONObject bulkRequest = new JSONObject();
+        bulkRequest.put(ComplianceConstants.BulkConstants.SCHEMAS,
+                new JSONArray().put(ComplianceConstants.BulkConstants.BULK_REQUEST_SCHEMA));
+        bulkRequest.put(ComplianceConstants.BulkConstants.OPERATIONS, bulkOperations);
+        return bulkRequest.toString();
+    }
+
+    private static String randomSeed(List<String> ids) {
+
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static HttpRequestBase withBody(HttpEntityEnclosingRequestBase request, String body) {
+
+        request.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        return request;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) throws ComplianceException {
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : StringUtils.split(mix, ',')) {
+            String[] pair = StringUtils.split(entry.trim(), ':');
+            if (pair.length == 0) {
+                continue;
+            }
+            int weight;
+            try {
+                weight = pair.length == 1 ? 1 : Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new ComplianceException("Invalid weight in the operation mix: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(pair[0].trim(), weight);
+            }
+        }
+        for (String operation : weights.keySet()) {
+            if (!isOperation(operation)) {
+                throw new ComplianceException("Unknown operation in the operation mix: " + operation);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new ComplianceException("The operation mix is empty");
+        }
+        return weights;
+    }
+
+    /**
+     * Check whether an operation works on the seeded users and groups.
+     *
+     * @param operation Operation name.
+     * @return true if the operation picks one of the seeded resources.
+     */
+    private static boolean isSeedOperation(String operation) {
+
+        switch (operation) {
+            case ComplianceConstants.LoadConstants.GET_USER:
+            case ComplianceConstants.LoadConstants.PATCH_USER:
+            case ComplianceConstants.LoadConstants.PUT_USER:
+            case ComplianceConstants.LoadConstants.GET_GROUP:
+            case ComplianceConstants.LoadConstants.PATCH_GROUP:
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isOperation(String operation) {
+
+        switch (operation) {
+            case ComplianceConstants.LoadConstants.CREATE_USER:
+            case ComplianceConstants.LoadConstants.GET_USER:
+            case ComplianceConstants.LoadConstants.LIST_USERS:
+            case ComplianceConstants.LoadConstants.SEARCH_USERS:
+            case ComplianceConstants.LoadConstants.PATCH_USER:
+            case ComplianceConstants.LoadConstants.PUT_USER:
+            case ComplianceConstants.LoadConstants.DELETE_USER:
+            case ComplianceConstants.LoadConstants.CREATE_GROUP:
+            case ComplianceConstants.LoadConstants.GET_GROUP:
+            case ComplianceConstants.LoadConstants.LIST_GROUPS:
+            case ComplianceConstants.LoadConstants.SEARCH_GROUPS:
+            case ComplianceConstants.LoadConstants.PATCH_GROUP:
+            case ComplianceConstants.LoadConstants.DELETE_GROUP:
+            case ComplianceConstants.LoadConstants.BULK:
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput, latency percentiles and error rate of an operation of a load run. Latencies are in milliseconds.
+ */
+public class OperationStatistics {
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(
+            ComplianceConstants.LatencyConstants.HIGHEST_TRACKABLE_LATENCY,
+            ComplianceConstants.LatencyConstants.SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private long duration;
+
+    /**
+     * Initialize.
+     *
+     * @param name Name of the operation.
+     */
+    public OperationStatistics(String name) {
+
+        this.name = name;
+    }
+
+    /**
+     * Record a request.
+     *
+     * @param latency Latency of the request in nanoseconds.
+     * @param error   Whether the request failed.
+     */
+    void record(long latency, boolean error) {
+
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latency),
+                ComplianceConstants.LatencyConstants.HIGHEST_TRACKABLE_LATENCY));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Set the time in which the requests were recorded.
+     *
+     * @param duration Duration in milliseconds.
+     */
+    void setDuration(long duration) {
+
+        this.duration = duration;
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public long getRequests() {
+
+        return latencies.getTotalCount();
+    }
+
+    public long getErrors() {
+
+        return errors.sum();
+    }
+
+    public double getErrorRate() {
+
+        return getRequests() == 0 ? 0 : (double) getErrors() / getRequests();
+    }
+
+    /**
+     * Get the number of requests per second.
+     *
+     * @return Throughput of the operation.
+     */
+    public double getThroughput() {
+
+        return duration == 0 ? 0 : getRequests() * 1000.0 / duration;
+    }
+
+    public double getMeanLatency() {
+
+        return latencies.getMean() / 1000;
+    }
+
+    public double getLatency50() {
+
+        return getLatencyAtPercentile(50);
+    }
+
+    public double getLatency90() {
+
+        return getLatencyAtPercentile(90);
+    }
+
+    public double getLatency99() {
+
+        return getLatencyAtPercentile(99);
+    }
+
+    public double getLatency999() {
+
+        return getLatencyAtPercentile(99.9);
+    }
+
+    public double getMaxLatency() {
+
+        return latencies.getMaxValue() / 1000.0;
+    }
+
+    private double getLatencyAtPercentile(double percentile) {
+
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
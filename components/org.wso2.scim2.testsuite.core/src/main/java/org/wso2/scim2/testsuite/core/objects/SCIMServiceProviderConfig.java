@@ -46,6 +46,23 @@ public class SCIMServiceProviderConfig extends AbstractSCIMObject {
         return ((SimpleAttribute) (patchAttribute.getSubAttribute("supported"))).getBooleanValue();
     }
 
+    /**
+     * Get the maximum number of operations in a bulk request.
+     *
+     * @return Maximum number of operations, or 0 if the service provider does not define it.
+     * @throws CharonException Exception in reading the bulk attribute.
+     */
+    public int getBulkMaxOperations() throws CharonException {
+
+        Attribute bulkAttribute = getAttribute("bulk");
+        Attribute maxOperations = bulkAttribute.getSubAttribute("maxOperations");
+        if (maxOperations == null) {
+            return 0;
+        }
+        Object value = ((SimpleAttribute) maxOperations).getValue();
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
     public boolean getFilterSupported() throws CharonException {
 
         Attribute patchAttribute = getAttribute("filter");
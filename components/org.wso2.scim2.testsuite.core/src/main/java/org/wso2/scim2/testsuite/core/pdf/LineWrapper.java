@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.pdf;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps text into lines which fit a given width.
+ * <p>
+ * The advance width of each character is measured once per font and cached, and a text is wrapped in a single pass
+ * over the prefix sums of its character widths. A wrapper is shared by all the reports written with its font.
+ */
+public class LineWrapper {
+
+    private static final Map<PDFont, LineWrapper> wrappers = new ConcurrentHashMap<>();
+
+    private final PDFont font;
+
+    // Widths of the characters in 1/1000 text space units, NaN until measured.
+    private final float[] widths = new float[Character.MAX_VALUE + 1];
+
+    private LineWrapper(PDFont font) {
+
+        this.font = font;
+        Arrays.fill(widths, Float.NaN);
+    }
+
+    /**
+     * Get the wrapper of a font.
+     *
+     * @param font Font the text is shown in.
+     * @return Wrapper of the font.
+     */
+    public static LineWrapper forFont(PDFont font) {
+
+        return wrappers.computeIfAbsent(font, LineWrapper::new);
+    }
+
+    /**
+     * Wrap a text into lines. A line is broken after the last word which fits, or within a word if the word alone
+     * does not fit. The spaces at a line break are dropped.
+     *
+     * @param text     Text to wrap.
+     * @param fontSize Font size of the text.
+     * @param width    Maximum width of a line.
+     * @return lines List of lines of text.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public List<String> wrap(String text, float fontSize, float width) throws IOException {
+
+        List<String> lines = new ArrayList<>();
+        int length = text.length();
+        double maxWidth = (double) width * 1000 / fontSize;
+        // Prefix sums of the advance widths, so the width of any part of the text is a subtraction.
+        double[] offsets = new double[length + 1];
+        for (int i = 0; i < length; i++) {
+            offsets[i + 1] = offsets[i] + getWidth(text.charAt(i));
+        }
+        int start = skipSpaces(text, 0);
+        int lastSpace = -1;
+        for (int i = start; i < length; i++) {
+            char character = text.charAt(i);
+            if (character == ' ') {
+                lastSpace = i;
+            }
+            if (offsets[i + 1] - offsets[start] > maxWidth) {
+                int end;
+                if (lastSpace > start) {
+                    end = lastSpace;
+                } else {
+                    // The word does not fit on its own, hence it is broken, keeping at least one character.
+                    end = Math.max(i, start + 1);
+                }
+                lines.add(text.substring(start, end));
+                start = skipSpaces(text, end);
+                lastSpace = -1;
+                i = start - 1;
+            }
+        }
+        if (start < length) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    /**
+     * Get the advance width of a character, measuring it on first use.
+     *
+     * @param character Character to measure.
+     * @return Width in 1/1000 text space units.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private float getWidth(char character) throws IOException {
+
+        float width = widths[character];
+        if (Float.isNaN(width)) {
+            // The font caches widths in a map which is not thread safe, hence it is measured under a lock.
+            // Concurrent writers of the array store the same value, hence that race is harmless.
+            synchronized (font) {
+                width = font.getStringWidth(String.valueOf(character));
+            }
+            widths[character] = width;
+        }
+        return width;
+    }
+
+    private static int skipSpaces(String text, int index) {
+
+        while (index < text.length() && text.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+}
@@ -19,6 +19,7 @@
 package org.wso2.scim2.testsuite.core.pdf;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -28,46 +29,63 @@ import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
+import org.wso2.scim2.testsuite.core.entities.LatencyStatistics;
 import org.wso2.scim2.testsuite.core.entities.Result;
 import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 import java.awt.Color;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class handle the PDF report generation for the test suite.
  */
 public class PDFGenerator {
 
-    private static PDDocument document = null;
+    private static final PDRectangle PAGE_SIZE = PDRectangle.LETTER;
+    private static final float MARGIN = 42;
 
     /**
-     * Init report generation.
+     * Create an empty report document. The content streams of the pages are kept in memory up to a limit and in a
+     * scratch file beyond it, so the memory used does not grow with the number of results.
      *
-     * @param finalResults Array of test results.
+     * @return Report document.
      */
-    private static void init(Result finalResults) {
+    private static PDDocument createDocument() {
 
-        document = new PDDocument();
-        if (!finalResults.getErrorMessage().equals(StringUtils.EMPTY)) {
-            // Creating a blank page.
-            PDPage blankPage = new PDPage();
-            // Adding the blank page to the document.
-            document.addPage(blankPage);
+        return new PDDocument(MemoryUsageSetting.setupMixed(
+                ComplianceConstants.ReportConstants.MAX_MAIN_MEMORY_BYTES));
+    }
 
-        } else {
-            for (int i = 0; i < finalResults.getResults().size() * 2; i++) {
-                // Creating a blank page.
-                PDPage blankPage = new PDPage();
-                // Adding the blank page to the document.
-                document.addPage(blankPage);
-            }
-        }
+    /**
+     * Add a new page at the end of the document.
+     *
+     * @param document Report document.
+     * @return The added page.
+     */
+    private static PDPage addPage(PDDocument document) {
+
+        // Creating a blank page.
+        PDPage page = new PDPage(PAGE_SIZE);
+        // Adding the blank page to the document.
+        document.addPage(page);
+        return page;
     }
 
     /**
@@ -80,187 +98,81 @@ public class PDFGenerator {
      */
     public static String generatePdfResults(Result finalResults, String fullPath) throws IOException {
 
-        init(finalResults);
-        int pageNo = 0;
-        for (TestResult testResult : finalResults.getResults()) {
-            // Retrieving the pages of the document.
-            PDPage page = document.getPage(pageNo);
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
-
-            PDFont pdfFont = PDType1Font.HELVETICA;
-            float titleFont = 10;
-            float fontSize = 8;
-            float smallFontSize = 7;
-            float leading = 1.5f * fontSize;
-
-            PDRectangle mediaBox = page.getMediaBox();
-            float margin = 42;
-            float width = mediaBox.getWidth() - 2 * margin;
-            float startX = mediaBox.getLowerLeftX() + margin;
-            float startY = mediaBox.getUpperRightY() - margin;
-
-            ArrayList<String> toServer = new ArrayList<>();
-            ArrayList<String> fromServer = new ArrayList<>();
-            ArrayList<String> subTests = new ArrayList<>();
-            if (testResult.getWire() != null) {
-                toServer = removeUnsupportedCharacters(testResult.getWire().getToServer());
-                fromServer = removeUnsupportedCharacters(testResult.getWire().getFromServer());
-                subTests = removeUnsupportedCharacters(testResult.getWire().getTests());
-            }
-
-            List<String> testName = getLines(testResult.getName(), fontSize, pdfFont, width);
-            List<String> testMessage = getLines(testResult.getMessage(), fontSize, pdfFont, width);
-            List<String> testLabel = getLines(testResult.getStatusText(), fontSize, pdfFont, width);
-            List<String> responseBody = new ArrayList<>();
-            List<String> requestBody = new ArrayList<>();
-            if (!toServer.isEmpty()) {
-                requestBody = getLines(toServer.get(toServer.size() - 1), fontSize, pdfFont, width);
-                toServer.remove(toServer.size() - 1);
-            }
-            if (!fromServer.isEmpty()) {
-                responseBody = getLines(fromServer.get(fromServer.size() - 1), fontSize, pdfFont, width);
-                fromServer.remove(fromServer.size() - 1);
-            }
-            List<String> emptyLine = new ArrayList<>();
-            emptyLine.add(" ");
-
-            // Drawing a rectangle.
-            contentStream.addRect(startX, startY - 5, width, 1);
-
-            // Begin text printing.
-            contentStream.fill();
-            contentStream.beginText();
-            contentStream.setFont(PDType1Font.TIMES_ITALIC, fontSize);
-            contentStream.newLineAtOffset(startX, startY);
+        Calendar cal = Calendar.getInstance();
+        SimpleDateFormat sdf = new SimpleDateFormat("HHmmss");
+        return generatePdfReport(finalResults, fullPath + "\\" + sdf.format(cal.getTime()) + ".pdf");
+    }
 
-            contentStream.showText("SCIM 2.0 Compliance Test Suite - Auto Generated Test Report");
-            printResult(contentStream, leading, emptyLine);
-            printResult(contentStream, leading, emptyLine);
-            Color titleColor = new Color(102, 0, 153);
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream.setNonStrokingColor(Color.BLACK);
-            contentStream.showText("Test Case Name : ");
-            contentStream.setFont(PDType1Font.COURIER_BOLD, titleFont);
-            contentStream.setNonStrokingColor(titleColor);
-            printResult(contentStream, leading, emptyLine);
-            printResult(contentStream, leading, testName);
-            printResult(contentStream, leading, emptyLine);
+    /**
+     * Method to generate the report of a run in PDF format. Runs which finish at the same time write to different
+     * files as long as their names differ.
+     *
+     * @param finalResults Array of test results.
+     * @param directory    Directory to save pdf.
+     * @param name         Name of the report file without the extension, e.g. the id of the run.
+     * @return url Location of saved document.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public static String generatePdfResults(Result finalResults, File directory, String name) throws IOException {
 
-            Color timeColor = new Color(149, 69, 19);
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream.setNonStrokingColor(Color.BLACK);
-            contentStream.showText("Test Case Elapsed Time(ms) : ");
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream.setNonStrokingColor(timeColor);
-            printResult(contentStream, leading, emptyLine);
-            contentStream.showText(Long.toString(testResult.getElapsedTime()));
-            printResult(contentStream, leading, emptyLine);
-            printResult(contentStream, leading, emptyLine);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create the report directory " + directory.getAbsolutePath());
+        }
+        return generatePdfReport(finalResults, new File(directory, name + ".pdf").getAbsolutePath());
+    }
 
-            if (!testMessage.isEmpty()) {
-                contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-                contentStream.setNonStrokingColor(Color.BLACK);
-                contentStream.showText("Test Case Errors : ");
-                contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-                contentStream.setNonStrokingColor(Color.RED);
-                printResult(contentStream, leading, emptyLine);
-                printResult(contentStream, leading, testMessage);
-                printResult(contentStream, leading, emptyLine);
-            }
-            Color statusColor = new Color(0, 102, 0);
-            Color statusColor2 = new Color(204, 204, 0);
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream.setNonStrokingColor(Color.BLACK);
-            contentStream.showText("Test Case Status : ");
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            if (testResult.getStatusText().equals("Success")) {
-                contentStream.setNonStrokingColor(statusColor);
-            } else if (testResult.getStatusText().equals("Failed")) {
-                contentStream.setNonStrokingColor(Color.red);
-            } else {
-                contentStream.setNonStrokingColor(statusColor2);
-            }
-            printResult(contentStream, leading, emptyLine);
-            printResult(contentStream, leading, testLabel);
-            printResult(contentStream, leading, emptyLine);
+    /**
+     * Generate the report in PDF format to a file.
+     *
+     * @param finalResults Array of test results.
+     * @param url          Location to save pdf.
+     * @return url Location of saved document.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private static String generatePdfReport(Result finalResults, String url) throws IOException {
+
+        PDDocument document = createDocument();
+        try {
+            return writeReport(document, finalResults, url);
+        } finally {
+            // Closing the document deletes the scratch file.
+            document.close();
+        }
+    }
 
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream.setNonStrokingColor(Color.BLACK);
-            contentStream.showText(("Request : "));
-            contentStream.setFont(PDType1Font.COURIER, smallFontSize);
-            contentStream.setNonStrokingColor(Color.BLUE);
-            printResult(contentStream, leading, emptyLine);
-            printResult(contentStream, leading, toServer);
-            printResult(contentStream, leading, requestBody);
-            printResult(contentStream, leading, emptyLine);
-            // Convert text to object.
-            JSONObject json;
-            String r;
-            try {
-                r = testResult.getWire().getResponseBody();
-                json = new JSONObject(r);
-            } catch (Exception e) {
-                json = null;
-            }
+    /**
+     * Write the report pages, adding each page only when it is needed, and save the document.
+     *
+     * @param document     Report document.
+     * @param finalResults Array of test results.
+     * @param url          Location to save pdf.
+     * @return url Location of saved document.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private static String writeReport(PDDocument document, Result finalResults, String url)
+            throws IOException {
 
-            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream.setNonStrokingColor(Color.BLACK);
-            contentStream.showText("Response : ");
-            contentStream.setFont(PDType1Font.COURIER, smallFontSize);
-            contentStream.setNonStrokingColor(Color.BLUE);
-            printResult(contentStream, leading, fromServer);
-            if (json != null) {
-                try {
-                    if (json.getInt("totalResults") > 10) {
-                        contentStream.showText("Response contains more than 10 results which is larger to show in one" +
-                                " page.");
-                    } else {
-                        printResult(contentStream, leading, responseBody);
-                    }
-                } catch (JSONException e) {
-                    printResult(contentStream, leading, responseBody);
+        List<TestResult> results = finalResults.getResults();
+        int threads = ComplianceConstants.ReportConstants.LAYOUT_THREADS;
+        // Results are laid out ahead of the writer only within a window, so the memory used stays bounded.
+        int window = threads * ComplianceConstants.ReportConstants.LAYOUT_WINDOW_PER_THREAD;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<ResultLayout>> layouts = new ArrayDeque<>();
+            int next = 0;
+            for (int i = 0; i < results.size(); i++) {
+                while (next < results.size() && layouts.size() < window) {
+                    final TestResult testResult = results.get(next++);
+                    layouts.add(executor.submit(() -> layout(testResult)));
                 }
+                // Pages are written by this thread only, in the order of the results.
+                writeResult(document, getLayout(layouts.poll()));
             }
-            printResult(contentStream, leading, emptyLine);
-            // Ending the content stream.
-            contentStream.endText();
-            contentStream.close();
-            pageNo++;
-
-            // Retrieving the pages of the document.
-            PDPage page2 = document.getPage(pageNo);
-            PDPageContentStream contentStream2 = new PDPageContentStream(document, page2);
-            // Drawing a rectangle.
-            contentStream2.addRect(startX, startY - 5, width, 1);
-            // Begin text printing.
-            contentStream2.fill();
-            contentStream2.beginText();
-            contentStream2.setFont(PDType1Font.TIMES_ITALIC, fontSize);
-            contentStream2.newLineAtOffset(startX, startY);
-            contentStream2.showText("SCIM 2.0 Compliance Test Suite - Auto Generated Test Report");
-            printResult(contentStream2, leading, emptyLine);
-            printResult(contentStream2, leading, emptyLine);
-
-            contentStream2.setFont(PDType1Font.COURIER_BOLD, fontSize);
-            contentStream2.setNonStrokingColor(Color.BLACK);
-            contentStream2.showText("Assertions : ");
-            contentStream2.setFont(PDType1Font.COURIER, fontSize);
-            contentStream2.setNonStrokingColor(Color.BLUE);
-            printResult(contentStream2, leading, emptyLine);
-            printResult(contentStream2, leading, subTests);
-            printResult(contentStream2, leading, emptyLine);
-
-            // Ending the content stream.
-            contentStream2.endText();
-            contentStream2.close();
-            pageNo++;
+        } finally {
+            executor.shutdownNow();
         }
         // Last page.
-        PDPage blankPage = new PDPage();
-        // Adding the blank page to the document.
-        document.addPage(blankPage);
-        // Retrieving the pages of the document.
-        PDPage page = document.getPage(pageNo);
+        PDPage page = addPage(document);
         PDPageContentStream contentStream = new PDPageContentStream(document, page);
 
         float typeWriterFont = 12;
@@ -269,10 +181,9 @@ public class PDFGenerator {
         float leading = 1.5f * fontSize;
 
         PDRectangle mediaBox = page.getMediaBox();
-        float margin = 42;
-        float width = mediaBox.getWidth() - 2 * margin;
-        float startX = mediaBox.getLowerLeftX() + margin;
-        float startY = mediaBox.getUpperRightY() - margin;
+        float width = mediaBox.getWidth() - 2 * MARGIN;
+        float startX = mediaBox.getLowerLeftX() + MARGIN;
+        float startY = mediaBox.getUpperRightY() - MARGIN;
         List<String> emptyLine = new ArrayList<>();
         emptyLine.add(" ");
 
@@ -349,17 +260,277 @@ public class PDFGenerator {
         contentStream.endText();
         contentStream.close();
 
-        // Save the document.
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat sdf = new SimpleDateFormat("HHmmss");
-        String url = fullPath + "\\" + sdf.format(cal.getTime()) + ".pdf";
-        document.save(new File(url));
+        writeLatencies(document, finalResults.getStatistics().getLatencies());
 
-        // Closing the document.
-        document.close();
+        // Save the document.
+        // The page contents are copied from the scratch file to the report as it is written.
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(url))) {
+            document.save(out);
+        }
         return url;
     }
 
+    /**
+     * Write the latency percentiles of the run as a table on pages following the summary.
+     *
+     * @param document  Report document.
+     * @param latencies Latency percentiles of the run.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private static void writeLatencies(PDDocument document, List<LatencyStatistics> latencies) throws IOException {
+
+        if (latencies == null || latencies.isEmpty()) {
+            return;
+        }
+        float fontSize = 8;
+        float leading = 1.5f * fontSize;
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-40s %-10s %8s %10s %10s %10s %10s", "Operation", "Phase", "Count",
+                "p50(ms)", "p95(ms)", "p99(ms)", "Max(ms)"));
+        for (LatencyStatistics latency : latencies) {
+            lines.add(String.format(Locale.ROOT, "%-40s %-10s %8d %10.3f %10.3f %10.3f %10.3f",
+                    StringUtils.abbreviate(latency.getOperation(), 40), latency.getPhase(), latency.getCount(),
+                    latency.getP50(), latency.getP95(), latency.getP99(), latency.getMax()));
+        }
+        int linesPerPage = (int) ((PAGE_SIZE.getHeight() - 2 * MARGIN) / leading) - 2;
+        for (int from = 0; from < lines.size(); from += linesPerPage) {
+            PDPage page = addPage(document);
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                contentStream.beginText();
+                contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+                contentStream.newLineAtOffset(page.getMediaBox().getLowerLeftX() + MARGIN,
+                        page.getMediaBox().getUpperRightY() - MARGIN);
+                contentStream.showText("Latency : ");
+                contentStream.newLineAtOffset(0, -2 * leading);
+                contentStream.setFont(PDType1Font.COURIER, fontSize);
+                printResult(contentStream, leading, lines.subList(from, Math.min(from + linesPerPage,
+                        lines.size())));
+                contentStream.endText();
+            }
+        }
+    }
+
+    /**
+     * Wait for the layout of a result.
+     *
+     * @param layout Layout in progress.
+     * @return Layout of the result.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private static ResultLayout getLayout(Future<ResultLayout> layout) throws IOException {
+
+        try {
+            return layout.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Report generation was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Could not lay out a test result", e.getCause());
+        }
+    }
+
+    /**
+     * Sanitize and wrap the text of a test result. This does not touch the document, hence results are laid out
+     * concurrently.
+     *
+     * @param testResult Test result.
+     * @return Layout of the result.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private static ResultLayout layout(TestResult testResult) throws IOException {
+
+        PDFont pdfFont = PDType1Font.HELVETICA;
+        float fontSize = 8;
+        float width = PAGE_SIZE.getWidth() - 2 * MARGIN;
+
+        ArrayList<String> toServer = new ArrayList<>();
+        ArrayList<String> fromServer = new ArrayList<>();
+        ArrayList<String> subTests = new ArrayList<>();
+        if (testResult.getWire() != null) {
+            toServer = removeUnsupportedCharacters(testResult.getWire().getToServer());
+            fromServer = removeUnsupportedCharacters(testResult.getWire().getFromServer());
+            subTests = removeUnsupportedCharacters(testResult.getWire().getTests());
+        }
+
+        List<String> testName = getLines(testResult.getName(), fontSize, pdfFont, width);
+        List<String> testMessage = getLines(testResult.getMessage(), fontSize, pdfFont, width);
+        List<String> testLabel = getLines(testResult.getStatusText(), fontSize, pdfFont, width);
+        List<String> responseBody = new ArrayList<>();
+        List<String> requestBody = new ArrayList<>();
+        if (!toServer.isEmpty()) {
+            requestBody = getLines(toServer.get(toServer.size() - 1), fontSize, pdfFont, width);
+            toServer.remove(toServer.size() - 1);
+        }
+        if (!fromServer.isEmpty()) {
+            responseBody = getLines(fromServer.get(fromServer.size() - 1), fontSize, pdfFont, width);
+            fromServer.remove(fromServer.size() - 1);
+        }
+        // Convert text to object.
+        JSONObject json;
+        String r;
+        try {
+            r = testResult.getWire().getResponseBody();
+            json = new JSONObject(r);
+        } catch (Exception e) {
+            json = null;
+        }
+        boolean tooManyResults = false;
+        if (json != null) {
+            try {
+                tooManyResults = json.getInt("totalResults") > 10;
+            } catch (JSONException e) {
+                tooManyResults = false;
+            }
+        }
+        return new ResultLayout(testResult, testName, testMessage, testLabel, toServer, requestBody, fromServer,
+                json == null ? null : responseBody, tooManyResults, subTests);
+    }
+
+    /**
+     * Write the pages of a laid out test result.
+     *
+     * @param document Report document.
+     * @param layout   Layout of the result.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private static void writeResult(PDDocument document, ResultLayout layout) throws IOException {
+
+        TestResult testResult = layout.testResult;
+        PDPage page = addPage(document);
+        PDPageContentStream contentStream = new PDPageContentStream(document, page);
+
+        float titleFont = 10;
+        float fontSize = 8;
+        float smallFontSize = 7;
+        float leading = 1.5f * fontSize;
+
+        PDRectangle mediaBox = page.getMediaBox();
+        float width = mediaBox.getWidth() - 2 * MARGIN;
+        float startX = mediaBox.getLowerLeftX() + MARGIN;
+        float startY = mediaBox.getUpperRightY() - MARGIN;
+
+        List<String> emptyLine = new ArrayList<>();
+        emptyLine.add(" ");
+
+        // Drawing a rectangle.
+        contentStream.addRect(startX, startY - 5, width, 1);
+
+        // Begin text printing.
+        contentStream.fill();
+        contentStream.beginText();
+        contentStream.setFont(PDType1Font.TIMES_ITALIC, fontSize);
+        contentStream.newLineAtOffset(startX, startY);
+
+        contentStream.showText("SCIM 2.0 Compliance Test Suite - Auto Generated Test Report");
+        printResult(contentStream, leading, emptyLine);
+        printResult(contentStream, leading, emptyLine);
+        Color titleColor = new Color(102, 0, 153);
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream.setNonStrokingColor(Color.BLACK);
+        contentStream.showText("Test Case Name : ");
+        contentStream.setFont(PDType1Font.COURIER_BOLD, titleFont);
+        contentStream.setNonStrokingColor(titleColor);
+        printResult(contentStream, leading, emptyLine);
+        printResult(contentStream, leading, layout.testName);
+        printResult(contentStream, leading, emptyLine);
+
+        Color timeColor = new Color(149, 69, 19);
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream.setNonStrokingColor(Color.BLACK);
+        contentStream.showText("Test Case Elapsed Time(ms) : ");
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream.setNonStrokingColor(timeColor);
+        printResult(contentStream, leading, emptyLine);
+        contentStream.showText(Long.toString(testResult.getElapsedTime()));
+        printResult(contentStream, leading, emptyLine);
+        printResult(contentStream, leading, emptyLine);
+
+        if (!layout.testMessage.isEmpty()) {
+            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+            contentStream.setNonStrokingColor(Color.BLACK);
+            contentStream.showText("Test Case Errors : ");
+            contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+            contentStream.setNonStrokingColor(Color.RED);
+            printResult(contentStream, leading, emptyLine);
+            printResult(contentStream, leading, layout.testMessage);
+            printResult(contentStream, leading, emptyLine);
+        }
+        Color statusColor = new Color(0, 102, 0);
+        Color statusColor2 = new Color(204, 204, 0);
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream.setNonStrokingColor(Color.BLACK);
+        contentStream.showText("Test Case Status : ");
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        if (testResult.getStatusText().equals("Success")) {
+            contentStream.setNonStrokingColor(statusColor);
+        } else if (testResult.getStatusText().equals("Failed")) {
+            contentStream.setNonStrokingColor(Color.red);
+        } else {
+            contentStream.setNonStrokingColor(statusColor2);
+        }
+        printResult(contentStream, leading, emptyLine);
+        printResult(contentStream, leading, layout.testLabel);
+        printResult(contentStream, leading, emptyLine);
+
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream.setNonStrokingColor(Color.BLACK);
+        contentStream.showText(("Request : "));
+        contentStream.setFont(PDType1Font.COURIER, smallFontSize);
+        contentStream.setNonStrokingColor(Color.BLUE);
+        printResult(contentStream, leading, emptyLine);
+        printResult(contentStream, leading, layout.toServer);
+        printResult(contentStream, leading, layout.requestBody);
+        printResult(contentStream, leading, emptyLine);
+
+        contentStream.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream.setNonStrokingColor(Color.BLACK);
+        contentStream.showText("Response : ");
+        contentStream.setFont(PDType1Font.COURIER, smallFontSize);
+        contentStream.setNonStrokingColor(Color.BLUE);
+        printResult(contentStream, leading, layout.fromServer);
+        if (layout.tooManyResults) {
+            contentStream.showText("Response contains more than 10 results which is larger to show in one" +
+                    " page.");
+        } else if (layout.responseBody != null) {
+            printResult(contentStream, leading, layout.responseBody);
+        }
+        printResult(contentStream, leading, emptyLine);
+        // Ending the content stream.
+        contentStream.endText();
+        contentStream.close();
+
+        PDPage page2 = addPage(document);
+        PDPageContentStream contentStream2 = new PDPageContentStream(document, page2);
+        // Drawing a rectangle.
+        contentStream2.addRect(startX, startY - 5, width, 1);
+        // Begin text printing.
+        contentStream2.fill();
+        contentStream2.beginText();
+        contentStream2.setFont(PDType1Font.TIMES_ITALIC, fontSize);
+        contentStream2.newLineAtOffset(startX, startY);
+        contentStream2.showText("SCIM 2.0 Compliance Test Suite - Auto Generated Test Report");
+        printResult(contentStream2, leading, emptyLine);
+        printResult(contentStream2, leading, emptyLine);
+
+        contentStream2.setFont(PDType1Font.COURIER_BOLD, fontSize);
+        contentStream2.setNonStrokingColor(Color.BLACK);
+        contentStream2.showText("Assertions : ");
+        contentStream2.setFont(PDType1Font.COURIER, fontSize);
+        contentStream2.setNonStrokingColor(Color.BLUE);
+        printResult(contentStream2, leading, emptyLine);
+        printResult(contentStream2, leading, layout.subTests);
+        printResult(contentStream2, leading, emptyLine);
+
+        // Ending the content stream.
+        contentStream2.endText();
+        contentStream2.close();
+    }
+
     /**
      * Print the results to PDF.
      *
@@ -391,51 +562,7 @@ public class PDFGenerator {
     private static List<String> getLines(String text, float fontSize, PDFont pdfFont, float width)
             throws IOException {
 
-        width = width - 150;
-        List<String> lines = new ArrayList<>();
-        int lastSpace = -1;
-        while (text.length() > 0) {
-            int spaceIndex = text.indexOf(' ', lastSpace + 1);
-            if (spaceIndex < 0) {
-                spaceIndex = text.length();
-            }
-            String subString = text.substring(0, spaceIndex);
-            float size = fontSize * pdfFont.getStringWidth(subString) / 1000;
-            if (size > width) {
-                float requiredSize = (width * 1000) / fontSize;
-                //if (lastSpace < 0)
-                lastSpace = getCharacterCount(requiredSize, subString, pdfFont);
-                subString = text.substring(0, lastSpace);
-                lines.add(subString);
-                text = text.substring(lastSpace).trim();
-                lastSpace = -1;
-            } else if (spaceIndex == text.length()) {
-                lines.add(text);
-                text = StringUtils.EMPTY;
-            } else {
-                lastSpace = spaceIndex;
-            }
-        }
-        return lines;
-    }
-
-    /**
-     * This return the character count of a given text.
-     *
-     * @param requiredSize Expected size.
-     * @param subString    String to get character count.
-     * @param pdfFont      Font use in pdf.
-     * @return length Character count of string.
-     * @throws IOException Exception is related to Input and Output operations.
-     */
-    private static int getCharacterCount(float requiredSize, String subString, PDFont pdfFont) throws IOException {
-
-        double factor = 0.95;
-        String string = subString;
-        while (pdfFont.getStringWidth(string) > requiredSize) {
-            string = string.substring(0, (int) Math.round(string.length() * factor));
-        }
-        return string.length();
+        return LineWrapper.forFont(pdfFont).wrap(text, fontSize, width - 150);
     }
 
     /**
@@ -460,4 +587,37 @@ public class PDFGenerator {
         return textToBeShown;
     }
 
+    /**
+     * Sanitized and wrapped text of a test result, ready to be written.
+     */
+    private static final class ResultLayout {
+
+        private final TestResult testResult;
+        private final List<String> testName;
+        private final List<String> testMessage;
+        private final List<String> testLabel;
+        private final List<String> toServer;
+        private final List<String> requestBody;
+        private final List<String> fromServer;
+        // Null if the response body is not json.
+        private final List<String> responseBody;
+        private final boolean tooManyResults;
+        private final List<String> subTests;
+
+        ResultLayout(TestResult testResult, List<String> testName, List<String> testMessage, List<String> testLabel,
+                     List<String> toServer, List<String> requestBody, List<String> fromServer,
+                     List<String> responseBody, boolean tooManyResults, List<String> subTests) {
+
+            this.testResult = testResult;
+            this.testName = Collections.unmodifiableList(testName);
+            this.testMessage = Collections.unmodifiableList(testMessage);
+            this.testLabel = Collections.unmodifiableList(testLabel);
+            this.toServer = Collections.unmodifiableList(toServer);
+            this.requestBody = Collections.unmodifiableList(requestBody);
+            this.fromServer = Collections.unmodifiableList(fromServer);
+            this.responseBody = responseBody == null ? null : Collections.unmodifiableList(responseBody);
+            this.tooManyResults = tooManyResults;
+            this.subTests = Collections.unmodifiableList(subTests);
+        }
+    }
 }
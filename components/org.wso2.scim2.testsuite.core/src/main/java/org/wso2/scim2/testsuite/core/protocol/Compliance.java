@@ -18,17 +18,26 @@
 
 package org.wso2.scim2.testsuite.core.protocol;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.scim2.testsuite.core.entities.Result;
 import org.wso2.scim2.testsuite.core.entities.Statistics;
 import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.httpclient.Cassette;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.pdf.PDFGenerator;
+import org.wso2.scim2.testsuite.core.report.ReportSink;
+import org.wso2.scim2.testsuite.core.report.ReportSinkFactory;
 import org.wso2.scim2.testsuite.core.tests.ResourceType;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class invoke all tests in compliance test suite.
@@ -39,7 +48,38 @@ public class Compliance {
 
     public static void main(String[] arg) {
 
-        EndpointFactory endFactory = new EndpointFactory("https://localhost:9443/scim2", "admin", "admin", "");
+        // The service provider under test, e.g. -Durl=http://localhost:9090/scim2 for the embedded server.
+        EndpointFactory endFactory = new EndpointFactory(System.getProperty("url", "https://localhost:9443/scim2"),
+                System.getProperty("userName", "admin"), System.getProperty("password", "admin"),
+                System.getProperty("token", ""));
+        endFactory.setSubTestThreads(Integer.getInteger("subTestThreads",
+                ComplianceConstants.ExecutionConstants.DEFAULT_SUB_TEST_THREADS));
+        endFactory.setTransportMode(System.getProperty("transportMode",
+                ComplianceConstants.HttpClientConstants.BLOCKING_TRANSPORT));
+        endFactory.setWireCapture(System.getProperty("wireCapture",
+                ComplianceConstants.WireCaptureConstants.CAPTURE_FULL));
+        endFactory.setMaxWireBodySize(Integer.getInteger("maxWireBodySize",
+                ComplianceConstants.WireCaptureConstants.DEFAULT_MAX_BODY_SIZE));
+        endFactory.setWireStoreDirectory(System.getProperty("wireStoreDirectory"));
+        endFactory.setRefreshDiscovery(Boolean.getBoolean("refreshDiscovery"));
+
+        // Record the exchanges of the run, or replay a recorded run offline, e.g. -Dcassette=replay.
+        String cassetteMode = System.getProperty("cassette", ComplianceConstants.CassetteConstants.CASSETTE_OFF);
+        Cassette cassette = null;
+        if (!ComplianceConstants.CassetteConstants.CASSETTE_OFF.equals(cassetteMode)) {
+            File cassetteFile = new File(System.getProperty("cassetteFile", System.getProperty("user.dir") +
+                    "/components/org.wso2.scim2.testsuite.core/target/" +
+                    ComplianceConstants.CassetteConstants.DEFAULT_CASSETTE_FILE_NAME));
+            try {
+                cassette = new Cassette(cassetteMode, cassetteFile);
+                endFactory.setCassette(cassette);
+                // Requests sent concurrently reach the cassette in any order, hence the tests run one at a time.
+                endFactory.setSubTestThreads(1);
+            } catch (ComplianceException e) {
+                logger.error("Could not open the cassette", e);
+                return;
+            }
+        }
         ResourceType user = endFactory.getInstance(ComplianceConstants.EndPointConstants.USER);
         ResourceType group = endFactory.getInstance(ComplianceConstants.EndPointConstants.GROUP);
         ResourceType serviceProviderConfig =
@@ -49,117 +89,73 @@ public class Compliance {
         ResourceType self = endFactory.getInstance(ComplianceConstants.EndPointConstants.ME);
         ResourceType bulk = endFactory.getInstance(ComplianceConstants.EndPointConstants.BULK);
 
+        int workerThreads = cassette != null ? 1 : Integer.getInteger("workerThreads",
+                ComplianceConstants.ExecutionConstants.DEFAULT_WORKER_THREADS);
+        TestScheduler scheduler = new TestScheduler(workerThreads);
+        scheduler.setFixtures(endFactory.getFixtureRegistry(), endFactory.getCleanupQueue());
+        scheduler.setWireCapturePolicy(endFactory.getWireCapturePolicy());
+        scheduler.setLatencyRecorder(endFactory.getRunContext().getLatencyRecorder());
+
+        // Streaming reports, e.g. -DreportFormats=ndjson,junit,html.
+        List<ReportSink> reportSinks = new ArrayList<>();
+        String reportDirectory = System.getProperty("reportDirectory", System.getProperty("user.dir") +
+                "/components/org.wso2.scim2.testsuite.core/target");
+        for (String format : StringUtils.split(System.getProperty("reportFormats", StringUtils.EMPTY), ',')) {
+            try {
+                ReportSink reportSink = ReportSinkFactory.create(format.trim(), new File(reportDirectory),
+                        ComplianceConstants.ReportConstants.REPORT_FILE_NAME);
+                reportSinks.add(reportSink);
+                scheduler.addReportSink(reportSink);
+            } catch (ComplianceException e) {
+                logger.error("Could not create the " + format + " report", e);
+            }
+        }
+
+        // Discovery tests are independent of each other but must finish before the resource tests.
+        scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_SERVICE_PROVIDER_CONFIG_LANE,
+                serviceProviderConfig::getMethodTest);
+        scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_RESOURCE_TYPES_LANE,
+                resourceType::getMethodTest);
+        scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_SCHEMAS_LANE, schema::getMethodTest);
+        scheduler.nextStage();
+
+        // User, group, me and bulk tests create users with their own user names, hence each has its own lane.
+        String userLane = ComplianceConstants.ExecutionConstants.USER_LANE;
+        String groupLane = ComplianceConstants.ExecutionConstants.GROUP_LANE;
+        String meLane = ComplianceConstants.ExecutionConstants.ME_LANE;
+        String bulkLane = ComplianceConstants.ExecutionConstants.BULK_LANE;
+        // The get, search and get by id tests lease the shared users and count the users, hence their ranks run
+        // them before the tests which create other users or delete the shared ones. The results keep this order.
+        scheduler.add(userLane, 0, user::getMethodTest);
+        scheduler.add(userLane, 3, user::postMethodTest);
+        scheduler.add(userLane, 4, user::patchMethodTest);
+        scheduler.add(userLane, 1, user::searchMethodTest);
+        scheduler.add(userLane, 5, user::putMethodTest);
+        scheduler.add(userLane, 6, user::deleteMethodTest);
+        scheduler.add(userLane, 2, user::getByIdMethodTest);
+
+        scheduler.add(groupLane, group::getMethodTest);
+        scheduler.add(groupLane, group::postMethodTest);
+        scheduler.add(groupLane, group::patchMethodTest);
+        scheduler.add(groupLane, group::searchMethodTest);
+        scheduler.add(groupLane, group::putMethodTest);
+        scheduler.add(groupLane, group::deleteMethodTest);
+        scheduler.add(groupLane, group::getByIdMethodTest);
+
+        scheduler.add(meLane, self::getMethodTest);
+        scheduler.add(meLane, self::postMethodTest);
+        scheduler.add(meLane, self::patchMethodTest);
+        scheduler.add(meLane, self::putMethodTest);
+        scheduler.add(meLane, self::deleteMethodTest);
+
+        scheduler.add(bulkLane, bulk::postMethodTest);
+        scheduler.add(bulkLane, bulk::patchMethodTest);
+        scheduler.add(bulkLane, bulk::putMethodTest);
+        scheduler.add(bulkLane, bulk::deleteMethodTest);
+
         try {
-            // Invoke ServiceProviderConfig test.
-            ArrayList<TestResult> serviceProviderResult;
-            serviceProviderResult = serviceProviderConfig.getMethodTest();
-            ArrayList<TestResult> results = new ArrayList<>(serviceProviderResult);
-
-            // Invoke ResourceTypes test.
-            ArrayList<TestResult> resourceTypeResult;
-            resourceTypeResult = resourceType.getMethodTest();
-            results.addAll(resourceTypeResult);
-
-            // Invoke schemas test.
-            ArrayList<TestResult> schemaTestResult;
-            schemaTestResult = schema.getMethodTest();
-            results.addAll(schemaTestResult);
-
-            // Invoke user related tests.
-            ArrayList<TestResult> userGetResult;
-            userGetResult = user.getMethodTest();
-            results.addAll(userGetResult);
-
-            ArrayList<TestResult> userPostResult;
-            userPostResult = user.postMethodTest();
-            results.addAll(userPostResult);
-
-            ArrayList<TestResult> userPatchResult;
-            userPatchResult = user.patchMethodTest();
-            results.addAll(userPatchResult);
-
-            ArrayList<TestResult> userSearchResult;
-            userSearchResult = user.searchMethodTest();
-            results.addAll(userSearchResult);
-
-            ArrayList<TestResult> userPutResult;
-            userPutResult = user.putMethodTest();
-            results.addAll(userPutResult);
-
-            ArrayList<TestResult> userDeleteResult;
-            userDeleteResult = user.deleteMethodTest();
-            results.addAll(userDeleteResult);
-
-            ArrayList<TestResult> userGetByIDResult;
-            userGetByIDResult = user.getByIdMethodTest();
-            results.addAll(userGetByIDResult);
-
-            // Invoke group related tests.
-            ArrayList<TestResult> groupGetResult;
-            groupGetResult = group.getMethodTest();
-            results.addAll(groupGetResult);
-
-            ArrayList<TestResult> groupPostResult;
-            groupPostResult = group.postMethodTest();
-            results.addAll(groupPostResult);
-
-            ArrayList<TestResult> groupPatchResult;
-            groupPatchResult = group.patchMethodTest();
-            results.addAll(groupPatchResult);
-
-            ArrayList<TestResult> groupSearchResult;
-            groupSearchResult = group.searchMethodTest();
-            results.addAll(groupSearchResult);
-
-            ArrayList<TestResult> groupPutResult;
-            groupPutResult = group.putMethodTest();
-            results.addAll(groupPutResult);
-
-            ArrayList<TestResult> groupDeleteResult;
-            groupDeleteResult = group.deleteMethodTest();
-            results.addAll(groupDeleteResult);
-
-            ArrayList<TestResult> groupGetByIDResult;
-            groupGetByIDResult = group.getByIdMethodTest();
-            results.addAll(groupGetByIDResult);
-
-            // Invoke Me related tests.
-            ArrayList<TestResult> meGetResult;
-            meGetResult = self.getMethodTest();
-            results.addAll(meGetResult);
-
-            ArrayList<TestResult> mePostResult;
-            mePostResult = self.postMethodTest();
-            results.addAll(mePostResult);
-
-            ArrayList<TestResult> mePatchResult;
-            mePatchResult = self.patchMethodTest();
-            results.addAll(mePatchResult);
-
-            ArrayList<TestResult> mePutResult;
-            mePutResult = self.putMethodTest();
-            results.addAll(mePutResult);
-
-            ArrayList<TestResult> meDeleteResult;
-            meDeleteResult = self.deleteMethodTest();
-            results.addAll(meDeleteResult);
-
-            // Invoke Bulk related tests.
-            ArrayList<TestResult> bulkPostResult;
-            bulkPostResult = bulk.postMethodTest();
-            results.addAll(bulkPostResult);
-
-            ArrayList<TestResult> bulkPatchResult;
-            bulkPatchResult = bulk.patchMethodTest();
-            results.addAll(bulkPatchResult);
-
-            ArrayList<TestResult> bulkPutResult;
-            bulkPutResult = bulk.putMethodTest();
-            results.addAll(bulkPutResult);
-
-            ArrayList<TestResult> bulkDeleteResult;
-            bulkDeleteResult = bulk.deleteMethodTest();
-            results.addAll(bulkDeleteResult);
+            // Invoke all the scheduled tests.
+            ArrayList<TestResult> results = scheduler.run();
 
             // Calculate test statistics.
             Statistics statistics = new Statistics();
@@ -182,6 +178,8 @@ public class Compliance {
                 time += result.getElapsedTime();
             }
             statistics.setTime(time);
+            statistics.setLatencies(endFactory.getRunContext().getLatencyRecorder().getStatistics());
+            statistics.setLeftovers(scheduler.getLeftovers());
 
             Result finalResults = new Result(statistics, results);
             // Get absolute path of root directory.
@@ -198,6 +196,19 @@ public class Compliance {
             }
         } catch (Exception e) {
             logger.error("Test execution failed with error : ", e);
+        } finally {
+            for (ReportSink reportSink : reportSinks) {
+                IOUtils.closeQuietly(reportSink);
+            }
+            if (cassette != null) {
+                try {
+                    // The clean up requests are recorded too, hence the cassette is written last.
+                    cassette.close();
+                } catch (IOException e) {
+                    logger.error("Could not write the cassette " + cassette.getFile().getAbsolutePath(), e);
+                }
+            }
+            HTTPClient.shutdown();
         }
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.protocol;
+
+import org.wso2.scim2.testsuite.core.httpclient.Cassette;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClientConfiguration;
+import org.wso2.scim2.testsuite.core.objects.SCIMResourceType;
+import org.wso2.scim2.testsuite.core.objects.SCIMSchema;
+import org.wso2.scim2.testsuite.core.objects.SCIMServiceProviderConfig;
+import org.wso2.scim2.testsuite.core.tests.common.CleanupQueue;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureRegistry;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+/**
+ * State of a single compliance run, shared by the test endpoints of the run.
+ * <p>
+ * It carries the target and credentials of the run and the capabilities discovered by the discovery tests, so
+ * runs against different service providers in the same JVM do not see each other's configuration.
+ */
+public class ComplianceRunContext {
+
+    private final String url;
+    private final String userName;
+    private final String password;
+    private final String token;
+    private int subTestThreads = ComplianceConstants.ExecutionConstants.DEFAULT_SUB_TEST_THREADS;
+    private String transportMode = ComplianceConstants.HttpClientConstants.BLOCKING_TRANSPORT;
+    private boolean refreshDiscovery;
+    private HTTPClientConfiguration httpClientConfiguration = HTTPClientConfiguration.fromSystemProperties();
+    private final FixtureRegistry fixtureRegistry = new FixtureRegistry();
+    private CleanupQueue cleanupQueue;
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private Cassette cassette;
+    private volatile SCIMServiceProviderConfig scimServiceProviderConfig;
+    private volatile SCIMResourceType scimResourceType;
+
+    /**
+     * @param url      Service Provider endpoint.
+     * @param userName For basic authentication.
+     * @param password For basic authentication.
+     * @param token    For bearer token based authentication.
+     */
+    public ComplianceRunContext(String url, String userName, String password, String token) {
+
+        this.url = url;
+        this.userName = userName;
+        this.password = password;
+        this.token = token;
+    }
+
+    public String getUrl() {
+
+        return url;
+    }
+
+    public String getUserName() {
+
+        return userName;
+    }
+
+    public String getPassword() {
+
+        return password;
+    }
+
+    public String getToken() {
+
+        return token;
+    }
+
+    public int getSubTestThreads() {
+
+        return subTestThreads;
+    }
+
+    public void setSubTestThreads(int subTestThreads) {
+
+        this.subTestThreads = subTestThreads;
+    }
+
+    public String getTransportMode() {
+
+        return transportMode;
+    }
+
+    public void setTransportMode(String transportMode) {
+
+        this.transportMode = transportMode;
+    }
+
+    public HTTPClientConfiguration getHttpClientConfiguration() {
+
+        return httpClientConfiguration;
+    }
+
+    public void setHttpClientConfiguration(HTTPClientConfiguration httpClientConfiguration) {
+
+        this.httpClientConfiguration = httpClientConfiguration;
+    }
+
+    public boolean isRefreshDiscovery() {
+
+        return refreshDiscovery;
+    }
+
+    public void setRefreshDiscovery(boolean refreshDiscovery) {
+
+        this.refreshDiscovery = refreshDiscovery;
+    }
+
+    public FixtureRegistry getFixtureRegistry() {
+
+        return fixtureRegistry;
+    }
+
+    /**
+     * Get the queue which deletes the resources created by the tests of the run.
+     *
+     * @return Clean up queue of the run.
+     */
+    public synchronized CleanupQueue getCleanupQueue() {
+
+        if (cleanupQueue == null) {
+            cleanupQueue = new CleanupQueue(newMetaDataHolder());
+        }
+        return cleanupQueue;
+    }
+
+    public LatencyRecorder getLatencyRecorder() {
+
+        return latencyRecorder;
+    }
+
+    /**
+     * Get the cassette the exchanges of the run are recorded to or replayed from.
+     *
+     * @return Cassette of the run, or null if the requests go to the service provider only.
+     */
+    public Cassette getCassette() {
+
+        return cassette;
+    }
+
+    public void setCassette(Cassette cassette) {
+
+        this.cassette = cassette;
+    }
+
+    public SCIMServiceProviderConfig getScimServiceProviderConfig() {
+
+        return scimServiceProviderConfig;
+    }
+
+    public void setScimServiceProviderConfig(SCIMServiceProviderConfig scimServiceProviderConfig) {
+
+        this.scimServiceProviderConfig = scimServiceProviderConfig;
+    }
+
+    public SCIMResourceType getScimResourceType() {
+
+        return scimResourceType;
+    }
+
+    public void setScimResourceType(SCIMResourceType scimResourceType) {
+
+        this.scimResourceType = scimResourceType;
+    }
+
+    /**
+     * Create the meta data holder of a test endpoint of the run. Each endpoint gets a schema of its own, since the
+     * schema test fills its schema while the other discovery tests run.
+     *
+     * @return Meta data holder backed by this run.
+     */
+    public ComplianceTestMetaDataHolder newMetaDataHolder() {
+
+        ComplianceTestMetaDataHolder complianceTestMetaDataHolder = new ComplianceTestMetaDataHolder(this);
+        complianceTestMetaDataHolder.setUrl(url);
+        complianceTestMetaDataHolder.setUsername(userName);
+        complianceTestMetaDataHolder.setPassword(password);
+        complianceTestMetaDataHolder.setAuthorization_header(token);
+        complianceTestMetaDataHolder.setSubTestThreads(subTestThreads);
+        complianceTestMetaDataHolder.setTransportMode(transportMode);
+
+        // Set the scim schema object.
+        complianceTestMetaDataHolder.setScimSchema(new SCIMSchema());
+        return complianceTestMetaDataHolder;
+    }
+}
@@ -20,9 +20,13 @@ package org.wso2.scim2.testsuite.core.protocol;
 import org.wso2.scim2.testsuite.core.objects.SCIMResourceType;
 import org.wso2.scim2.testsuite.core.objects.SCIMSchema;
 import org.wso2.scim2.testsuite.core.objects.SCIMServiceProviderConfig;
+import org.wso2.scim2.testsuite.core.tests.common.CleanupQueue;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureRegistry;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 /**
- * This contains the meta data that need to configure the test suite.
+ * This contains the meta data that need to configure the test suite. The state discovered during a run is kept in
+ * the {@link ComplianceRunContext} of the run, which is shared by the holders of all the test endpoints.
  */
 public class ComplianceTestMetaDataHolder {
 
@@ -34,18 +38,42 @@ public class ComplianceTestMetaDataHolder {
     private String authorizationServer;
     private String authorizationHeader;
     private String authorizationMethod;
-    private static SCIMServiceProviderConfig scimServiceProviderConfig;
-    private SCIMResourceType scimResourceType;
     private SCIMSchema scimSchema;
+    private int subTestThreads = ComplianceConstants.ExecutionConstants.DEFAULT_SUB_TEST_THREADS;
+    private String transportMode = ComplianceConstants.HttpClientConstants.BLOCKING_TRANSPORT;
+    private final ComplianceRunContext runContext;
+
+    /**
+     * Initialize a holder with a run context of its own.
+     */
+    public ComplianceTestMetaDataHolder() {
+
+        this(new ComplianceRunContext(null, null, null, null));
+    }
+
+    /**
+     * Initialize a holder of a test endpoint of a run.
+     *
+     * @param runContext Context of the run.
+     */
+    public ComplianceTestMetaDataHolder(ComplianceRunContext runContext) {
+
+        this.runContext = runContext;
+    }
+
+    public ComplianceRunContext getRunContext() {
+
+        return runContext;
+    }
 
     public SCIMServiceProviderConfig getScimServiceProviderConfig() {
 
-        return scimServiceProviderConfig;
+        return runContext.getScimServiceProviderConfig();
     }
 
     public void setScimServiceProviderConfig(SCIMServiceProviderConfig scimServiceProviderConfig) {
 
-        ComplianceTestMetaDataHolder.scimServiceProviderConfig = scimServiceProviderConfig;
+        runContext.setScimServiceProviderConfig(scimServiceProviderConfig);
     }
 
     public String getUrl() {
@@ -130,12 +158,12 @@ public class ComplianceTestMetaDataHolder {
 
     public void setScimResourceType(SCIMResourceType scimResourceType) {
 
-        this.scimResourceType = scimResourceType;
+        runContext.setScimResourceType(scimResourceType);
     }
 
     public SCIMResourceType getScimResourceType() {
 
-        return scimResourceType;
+        return runContext.getScimResourceType();
     }
 
     public SCIMSchema getScimSchema() {
@@ -147,5 +175,35 @@ public class ComplianceTestMetaDataHolder {
 
         this.scimSchema = scimSchema;
     }
+
+    public int getSubTestThreads() {
+
+        return subTestThreads;
+    }
+
+    public void setSubTestThreads(int subTestThreads) {
+
+        this.subTestThreads = subTestThreads;
+    }
+
+    public String getTransportMode() {
+
+        return transportMode;
+    }
+
+    public void setTransportMode(String transportMode) {
+
+        this.transportMode = transportMode;
+    }
+
+    public FixtureRegistry getFixtureRegistry() {
+
+        return runContext.getFixtureRegistry();
+    }
+
+    public CleanupQueue getCleanupQueue() {
+
+        return runContext.getCleanupQueue();
+    }
 }
 
@@ -21,7 +21,10 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.RequestLine;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.util.EntityUtils;
 import org.wso2.scim2.testsuite.core.entities.Wire;
 import org.wso2.scim2.testsuite.core.exception.ComplianceException;
@@ -49,45 +52,24 @@ public class ComplianceUtils {
                                String headerString, String responseStatus,
                                ArrayList<String> subTests) throws ComplianceException {
 
-        StringBuilder toServer = new StringBuilder();
-        StringBuilder fromServer = new StringBuilder();
-        StringBuilder subTestsPerformed = new StringBuilder();
-        StringBuilder requestUri = new StringBuilder();
-        StringBuilder requestType = new StringBuilder();
-        StringBuilder requestHeaders = new StringBuilder();
-        StringBuilder requestBody = new StringBuilder();
-
-        toServer.append(method.getRequestLine().getMethod()).append(" ");
-        requestType.append(method.getRequestLine().getMethod());
-        toServer.append(method.getRequestLine().getUri()).append("\n");
-        requestUri.append(method.getRequestLine().getUri());
-        toServer.append(method.getRequestLine().getProtocolVersion().getProtocol());
-        for (org.apache.http.Header header : method.getAllHeaders()) {
-            toServer.append(header.getName()).append(": ").append(header.getValue()).append("\n");
-            requestHeaders.append(header.getName()).append(": ").append(header.getValue()).append("\n");
-        }
-        toServer.append("\n");
+        HttpEntity entity = null;
         if (!method.getMethod().equals(HttpMethod.GET) && !method.getMethod().equals(HttpMethod.DELETE)) {
-            // With constants.
-            try {
-                HttpEntity entity = ((HttpEntityEnclosingRequest) method).getEntity();
-                toServer.append(EntityUtils.toString(entity));
-                requestBody.append(EntityUtils.toString(entity));
-            } catch (Exception e) {
+            entity = ((HttpEntityEnclosingRequest) method).getEntity();
+            if (entity == null) {
                 throw new ComplianceException(500, "Error in getting the request payload");
             }
+            if (!entity.isRepeatable()) {
+                // The payload can be read only once, hence it is copied now instead of on first access.
+                try {
+                    entity = new ByteArrayEntity(EntityUtils.toByteArray(entity), ContentType.get(entity));
+                } catch (Exception e) {
+                    throw new ComplianceException(500, "Error in getting the request payload");
+                }
+            }
         }
-        fromServer.append("\n" + "Headers : " + "\n");
-        fromServer.append(headerString).append("\n");
-        fromServer.append("\n" + "Status : ");
-        fromServer.append(responseStatus).append("\n");
-        fromServer.append("\n").append(responseBody);
-        for (String subTest : subTests) {
-            subTestsPerformed.append(subTest).append("\n");
-        }
-        return new Wire(toServer.toString(), fromServer.toString(), subTestsPerformed.toString(), responseBody,
-                headerString, responseStatus, requestType.toString(), requestUri.toString(), requestBody.toString(),
-                requestHeaders.toString());
+        RequestLine requestLine = method.getRequestLine();
+        return new Wire(requestLine.getMethod(), requestLine.getUri(), requestLine.getProtocolVersion().getProtocol(),
+                method.getAllHeaders(), entity, responseBody, headerString, responseStatus, new ArrayList<>(subTests));
     }
 
     public static Wire getWire(Throwable e) {
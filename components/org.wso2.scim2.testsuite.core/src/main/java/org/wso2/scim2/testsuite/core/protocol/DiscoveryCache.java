@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.protocol;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the discovery documents of the service providers and the objects built from them.
+ * <p>
+ * Entries are keyed by the document, the base url and a hash of the credentials, so runs against the same service
+ * provider with the same credentials share them. An entry is used without asking the service provider for the
+ * time to live, after which it is validated with its ETag. An entry which can not be validated is dropped, and the
+ * least recently used entries are dropped once the cache is full, so runs against many service providers do not
+ * fill the memory.
+ */
+public class DiscoveryCache {
+
+    private static final DiscoveryCache INSTANCE = new DiscoveryCache();
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16,
+            0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+
+            return size() > ComplianceConstants.DiscoveryCacheConstants.MAX_ENTRIES;
+        }
+    });
+    private volatile long ttl = ComplianceConstants.DiscoveryCacheConstants.DEFAULT_TTL;
+
+    public static DiscoveryCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Set the time for which an entry is used without asking the service provider.
+     *
+     * @param ttl Time to live in milliseconds.
+     */
+    public void setTtl(long ttl) {
+
+        this.ttl = ttl;
+    }
+
+    /**
+     * Get the cached entry of a document.
+     *
+     * @param complianceTestMetaDataHolder Stores the target and the credentials of the run.
+     * @param document                     Discovery endpoint, e.g. /Schemas.
+     * @return Cached entry, or null if the document is not cached or the run asked for a refresh.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public Entry get(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String document)
+            throws ComplianceException {
+
+        if (complianceTestMetaDataHolder.getRunContext().isRefreshDiscovery()) {
+            return null;
+        }
+        return entries.get(getKey(complianceTestMetaDataHolder, document));
+    }
+
+    /**
+     * Get the cached entry of a document if it can be used, i.e. it is fresh or the service provider confirms it
+     * has not changed.
+     *
+     * @param complianceTestMetaDataHolder Stores the target and the credentials of the run.
+     * @param document                     Discovery endpoint, e.g. /Schemas.
+     * @return Usable cached entry, or null if the document must be fetched again.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public Entry getValid(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String document)
+            throws ComplianceException {
+
+        Entry entry = get(complianceTestMetaDataHolder, document);
+        if (entry == null || entry.isFresh() || isNotModified(complianceTestMetaDataHolder, document, entry)) {
+            return entry;
+        }
+        // The document is fetched again, hence the stale entry is dropped unless it was replaced meanwhile.
+        entries.remove(getKey(complianceTestMetaDataHolder, document), entry);
+        return null;
+    }
+
+    /**
+     * Ask the service provider whether a cached document has changed.
+     *
+     * @param complianceTestMetaDataHolder Stores the target and the credentials of the run.
+     * @param document                     Discovery endpoint, e.g. /Schemas.
+     * @param entry                        Cached document.
+     * @return True if the service provider answered 304.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private static boolean isNotModified(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String document,
+                                         Entry entry) throws ComplianceException {
+
+        if (entry.getEtag() == null) {
+            return false;
+        }
+        HttpGet method = new HttpGet(complianceTestMetaDataHolder.getUrl() + document);
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
+        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
+        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
+                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        method.setHeader(ComplianceConstants.DiscoveryCacheConstants.IF_NONE_MATCH, entry.getEtag());
+        try {
+            HttpResponse response = client.execute(method);
+            EntityUtils.consume(response.getEntity());
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                entry.validated();
+                return true;
+            }
+        } catch (IOException e) {
+            // Fetch the document again.
+        }
+        return false;
+    }
+
+    /**
+     * Cache a document and the object built from it.
+     *
+     * @param complianceTestMetaDataHolder Stores the target and the credentials of the run.
+     * @param document                     Discovery endpoint, e.g. /Schemas.
+     * @param response                     Response which returned the document.
+     * @param body                         Body of the response.
+     * @param value                        Object built from the body.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public void put(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String document,
+                    HttpResponse response, String body, Object value) throws ComplianceException {
+
+        Header etag = response.getFirstHeader(ComplianceConstants.DiscoveryCacheConstants.ETAG);
+        entries.put(getKey(complianceTestMetaDataHolder, document),
+                new Entry(body, etag == null ? null : etag.getValue(), value));
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear() {
+
+        entries.clear();
+    }
+
+    private static String getKey(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String document)
+            throws ComplianceException {
+
+        String credentials = complianceTestMetaDataHolder.getUsername() + ":" +
+                complianceTestMetaDataHolder.getPassword() + ":" +
+                complianceTestMetaDataHolder.getAuthorization_header();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(credentials.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(document).append(' ')
+                    .append(complianceTestMetaDataHolder.getUrl()).append(' ');
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new ComplianceException("Could not compute the discovery cache key", e);
+        }
+    }
+
+    /**
+     * A cached discovery document.
+     */
+    public final class Entry {
+
+        private final String body;
+        private final String etag;
+        private final Object value;
+        private volatile long validatedAt = System.currentTimeMillis();
+
+        private Entry(String body, String etag, Object value) {
+
+            this.body = body;
+            this.etag = etag;
+            this.value = value;
+        }
+
+        public String getBody() {
+
+            return body;
+        }
+
+        public String getEtag() {
+
+            return etag;
+        }
+
+        public Object getValue() {
+
+            return value;
+        }
+
+        /**
+         * Check whether the entry can be used without asking the service provider.
+         *
+         * @return True if the entry is younger than the time to live.
+         */
+        public boolean isFresh() {
+
+            return System.currentTimeMillis() - validatedAt < ttl;
+        }
+
+        /**
+         * Mark the entry as validated by the service provider, e.g. after a 304 response.
+         */
+        public void validated() {
+
+            validatedAt = System.currentTimeMillis();
+        }
+    }
+}
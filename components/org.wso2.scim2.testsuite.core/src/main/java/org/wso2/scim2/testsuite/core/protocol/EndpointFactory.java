@@ -18,7 +18,8 @@
 
 package org.wso2.scim2.testsuite.core.protocol;
 
-import org.wso2.scim2.testsuite.core.objects.SCIMSchema;
+import org.wso2.scim2.testsuite.core.httpclient.Cassette;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClientConfiguration;
 import org.wso2.scim2.testsuite.core.tests.BulkTestImpl;
 import org.wso2.scim2.testsuite.core.tests.GroupTestImpl;
 import org.wso2.scim2.testsuite.core.tests.MeTestImpl;
@@ -28,6 +29,8 @@ import org.wso2.scim2.testsuite.core.tests.RolesTestImpl;
 import org.wso2.scim2.testsuite.core.tests.SchemaTestImpl;
 import org.wso2.scim2.testsuite.core.tests.ServiceProviderConfigTestImpl;
 import org.wso2.scim2.testsuite.core.tests.UserTestImpl;
+import org.wso2.scim2.testsuite.core.tests.common.CleanupQueue;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureRegistry;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 /**
@@ -35,10 +38,10 @@ import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
  */
 public class EndpointFactory {
 
-    private final String url;
-    private final String userName;
-    private final String password;
-    private final String token;
+    private final ComplianceRunContext runContext;
+    private String wireCapture = ComplianceConstants.WireCaptureConstants.CAPTURE_FULL;
+    private int maxWireBodySize = ComplianceConstants.WireCaptureConstants.DEFAULT_MAX_BODY_SIZE;
+    private String wireStoreDirectory;
 
     /**
      * @param url      Service Provider endpoint.
@@ -48,10 +51,145 @@ public class EndpointFactory {
      */
     public EndpointFactory(String url, String userName, String password, String token) {
 
-        this.url = url;
-        this.userName = userName;
-        this.password = password;
-        this.token = token;
+        this.runContext = new ComplianceRunContext(url, userName, password, token);
+    }
+
+    /**
+     * Get the context of the run, which is shared by all the test endpoints of this factory.
+     *
+     * @return Run context.
+     */
+    public ComplianceRunContext getRunContext() {
+
+        return runContext;
+    }
+
+    /**
+     * Set the number of threads used to run the independent sub tests of a test, such as the list, filter, sort and
+     * pagination requests of the get tests. A single thread runs them one after another.
+     *
+     * @param subTestThreads Number of threads.
+     */
+    public void setSubTestThreads(int subTestThreads) {
+
+        runContext.setSubTestThreads(subTestThreads);
+    }
+
+    /**
+     * Set the transport used to send the requests of the tests. The http2 mode multiplexes all the requests to the
+     * service provider over a single connection.
+     *
+     * @param transportMode Transport mode defined in {@link ComplianceConstants.HttpClientConstants}.
+     */
+    public void setTransportMode(String transportMode) {
+
+        runContext.setTransportMode(transportMode);
+    }
+
+    /**
+     * Get the connection pool settings and timeouts of the http clients of the run. They default to the system
+     * properties and apply to the clients built after they are changed.
+     *
+     * @return Http client settings of the run.
+     */
+    public HTTPClientConfiguration getHttpClientConfiguration() {
+
+        return runContext.getHttpClientConfiguration();
+    }
+
+    /**
+     * Set the connection pool settings and timeouts of the http clients of the run.
+     *
+     * @param httpClientConfiguration Http client settings of the run.
+     */
+    public void setHttpClientConfiguration(HTTPClientConfiguration httpClientConfiguration) {
+
+        runContext.setHttpClientConfiguration(httpClientConfiguration);
+    }
+
+    /**
+     * Force the discovery documents of the run to be fetched and built again instead of being taken from the
+     * {@link DiscoveryCache}.
+     *
+     * @param refreshDiscovery True to ignore the cached discovery documents.
+     */
+    public void setRefreshDiscovery(boolean refreshDiscovery) {
+
+        runContext.setRefreshDiscovery(refreshDiscovery);
+    }
+
+    /**
+     * Record the exchanges of the run to a cassette, or replay them from it without contacting the service provider.
+     *
+     * @param cassette Cassette of the run, or null to send the requests to the service provider only.
+     */
+    public void setCassette(Cassette cassette) {
+
+        runContext.setCassette(cassette);
+    }
+
+    /**
+     * Set which test results keep their wire. The failures mode drops the wire of successful tests.
+     *
+     * @param wireCapture Capture mode defined in {@link ComplianceConstants.WireCaptureConstants}.
+     */
+    public void setWireCapture(String wireCapture) {
+
+        this.wireCapture = wireCapture;
+    }
+
+    /**
+     * Set the maximum number of characters kept of a request or response body. Longer bodies are truncated and
+     * end with a truncation marker.
+     *
+     * @param maxWireBodySize Maximum body size. A negative size keeps the bodies as they are.
+     */
+    public void setMaxWireBodySize(int maxWireBodySize) {
+
+        this.maxWireBodySize = maxWireBodySize;
+    }
+
+    /**
+     * Set the directory to store the full bodies of truncated wires in.
+     *
+     * @param wireStoreDirectory Directory of the wire store, or null to drop the truncated part.
+     */
+    public void setWireStoreDirectory(String wireStoreDirectory) {
+
+        this.wireStoreDirectory = wireStoreDirectory;
+    }
+
+    /**
+     * Get the policy to apply to the results of the run.
+     *
+     * @return Wire capture policy.
+     */
+    public WireCapturePolicy getWireCapturePolicy() {
+
+        WireStore wireStore = wireStoreDirectory == null ? null : new WireStore(wireStoreDirectory);
+        return new WireCapturePolicy(wireCapture, maxWireBodySize, wireStore);
+    }
+
+    /**
+     * Get the fixtures shared by the test endpoints of this factory. The registry must be closed at the end of the
+     * run to delete the pooled fixtures.
+     *
+     * @return Fixture registry of the run.
+     */
+    public FixtureRegistry getFixtureRegistry() {
+
+        return runContext.getFixtureRegistry();
+    }
+
+    /**
+     * Get the queue which deletes the resources created by the test endpoints of this factory. The queue must be
+     * closed at the end of the run to delete the rest of the resources.
+     *
+     * @return Clean up queue of the run.
+     */
+    public CleanupQueue getCleanupQueue() {
+
+        return runContext.getCleanupQueue();
     }
 
     /**
@@ -62,16 +200,7 @@ public class EndpointFactory {
      */
     public ResourceType getInstance(String endpoint) {
 
-        ComplianceTestMetaDataHolder complianceTestMetaDataHolder = new ComplianceTestMetaDataHolder();
-        complianceTestMetaDataHolder.setUrl(url);
-        complianceTestMetaDataHolder.setUsername(userName);
-        complianceTestMetaDataHolder.setPassword(password);
-        complianceTestMetaDataHolder.setAuthorization_header(token);
-
-        SCIMSchema scimSchema = new SCIMSchema();
-
-        // Set the scim schema object.
-        complianceTestMetaDataHolder.setScimSchema(scimSchema);
+        ComplianceTestMetaDataHolder complianceTestMetaDataHolder = runContext.newMetaDataHolder();
 
         switch (endpoint) {
             case ComplianceConstants.EndPointConstants.SERVICEPROVIDERCONFIG:
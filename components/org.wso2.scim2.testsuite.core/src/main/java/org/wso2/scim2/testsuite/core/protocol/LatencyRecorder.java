@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.protocol;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.wso2.scim2.testsuite.core.entities.LatencyStatistics;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latencies of the requests of a run in histograms per endpoint, HTTP method and phase.
+ * <p>
+ * The network time of a request is recorded by the http client, which also remembers the request as the current
+ * request of the thread. The decode and validation times which follow on the same thread are recorded against
+ * that request. The current request must be cleared when a task of the run ends, since pooled threads outlive runs.
+ */
+public class LatencyRecorder {
+
+    private static final ThreadLocal<CurrentRequest> currentRequest = new ThreadLocal<>();
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Record the network time of a request and make it the current request of the thread.
+     *
+     * @param operation Endpoint and HTTP method, e.g. GET /Users.
+     * @param latency   Network time in nanoseconds.
+     */
+    public void recordNetwork(String operation, long latency) {
+
+        record(operation, ComplianceConstants.LatencyConstants.NETWORK, latency);
+        currentRequest.set(new CurrentRequest(this, operation));
+    }
+
+    /**
+     * Record the time spent decoding the response of the current request of the thread.
+     *
+     * @param startTime Value of {@link System#nanoTime()} when the decoding started.
+     */
+    public static void recordDecode(long startTime) {
+
+        recordCurrent(ComplianceConstants.LatencyConstants.DECODE, startTime);
+    }
+
+    /**
+     * Record the time spent validating the response of the current request of the thread.
+     *
+     * @param startTime Value of {@link System#nanoTime()} when the validation started.
+     */
+    public static void recordValidation(long startTime) {
+
+        recordCurrent(ComplianceConstants.LatencyConstants.VALIDATION, startTime);
+    }
+
+    /**
+     * Forget the current request of the thread, so later tasks on the thread do not record against it or keep its
+     * recorder reachable.
+     */
+    public static void clearCurrentRequest() {
+
+        currentRequest.remove();
+    }
+
+    /**
+     * Get the latency percentiles of all the recorded operations and phases.
+     *
+     * @return Latency statistics ordered by operation and phase.
+     */
+    public List<LatencyStatistics> getStatistics() {
+
+        List<LatencyStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            String[] key = entry.getKey().split("\n");
+            Histogram histogram = entry.getValue();
+            statistics.add(new LatencyStatistics(key[0], key[1], histogram.getTotalCount(),
+                    histogram.getMean() / 1000, histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(95) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0));
+        }
+        return statistics;
+    }
+
+    /**
+     * Get the operation of a request, which is its HTTP method and the endpoint without the resource id, e.g.
+     * PATCH /Groups or POST /Users/.search.
+     *
+     * @param method  HTTP method.
+     * @param uri     Request uri.
+     * @param baseUrl Url of the service provider.
+     * @return Operation of the request.
+     */
+    public static String getOperation(String method, URI uri, String baseUrl) {
+
+        String path = uri.toString();
+        if (baseUrl != null && path.startsWith(baseUrl)) {
+            path = path.substring(baseUrl.length());
+        } else if (uri.getRawPath() != null) {
+            path = uri.getRawPath();
+        }
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        String[] segments = path.split("/");
+        StringBuilder endpoint = new StringBuilder();
+        if (segments.length > 1) {
+            endpoint.append('/').append(segments[1]);
+        }
+        if (segments.length > 2 && segments[2].startsWith(".")) {
+            endpoint.append('/').append(segments[2]);
+        }
+        return method + " " + (endpoint.length() == 0 ? "/" : endpoint.toString());
+    }
+
+    private void record(String operation, String phase, long latency) {
+
+        Histogram histogram = histograms.computeIfAbsent(operation + "\n" + phase, key -> new ConcurrentHistogram(
+                ComplianceConstants.LatencyConstants.HIGHEST_TRACKABLE_LATENCY,
+                ComplianceConstants.LatencyConstants.SIGNIFICANT_DIGITS));
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latency),
+                ComplianceConstants.LatencyConstants.HIGHEST_TRACKABLE_LATENCY));
+    }
+
+    private static void recordCurrent(String phase, long startTime) {
+
+        long latency = System.nanoTime() - startTime;
+        CurrentRequest request = currentRequest.get();
+        if (request != null) {
+            request.recorder.record(request.operation, phase, latency);
+        }
+    }
+
+    /**
+     * Last request sent by a thread.
+     */
+    private static final class CurrentRequest {
+
+        private final LatencyRecorder recorder;
+        private final String operation;
+
+        private CurrentRequest(LatencyRecorder recorder, String operation) {
+
+            this.recorder = recorder;
+            this.operation = operation;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.protocol;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.report.ReportSink;
+import org.wso2.scim2.testsuite.core.tests.common.CleanupQueue;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Schedules test groups on a worker pool.
+ * <p>
+ * Tests are added to stages and lanes. Stages run one after another, so every test of a stage finishes before
+ * the next stage starts. Within a stage each lane runs on its own worker and the tests of a lane run in the order
+ * they were added, unless they are given a rank. Tests which touch the same fixtures on the service provider must
+ * share a lane. Results are always returned, and passed to the report sinks, in the order the tests were added, so
+ * the outcome matches a sequential run.
+ */
+public class TestScheduler {
+
+    private static final Log logger = LogFactory.getLog(TestScheduler.class);
+
+    private final int workerThreads;
+
+    private final List<List<ScheduledTest>> stages = new ArrayList<>();
+
+    private WireCapturePolicy wireCapturePolicy;
+
+    private LatencyRecorder latencyRecorder;
+
+    private FixtureRegistry fixtureRegistry;
+
+    private CleanupQueue cleanupQueue;
+
+    private final List<ReportSink> reportSinks = new ArrayList<>();
+
+    private final Statistics statistics = new Statistics();
+
+    // Number of tests of the running stage whose results are passed to the report sinks.
+    private int publishedTests;
+
+    /**
+     * Initialize.
+     *
+     * @param workerThreads Maximum number of lanes to run concurrently.
+     */
+    public TestScheduler(int workerThreads) {
+
+        this.workerThreads = Math.max(1, workerThreads);
+        stages.add(new ArrayList<ScheduledTest>());
+    }
+
+    /**
+     * Set the policy applied to the results of each test group as soon as the group is finished, so the dropped
+     * wire data is not held until the end of the run.
+     *
+     * @param wireCapturePolicy Wire capture policy of the run.
+     * @return This scheduler.
+     */
+    public TestScheduler setWireCapturePolicy(WireCapturePolicy wireCapturePolicy) {
+
+        this.wireCapturePolicy = wireCapturePolicy;
+        return this;
+    }
+
+    /**
+     * Set the recorder whose latency percentiles are added to the statistics passed to the report sinks.
+     *
+     * @param latencyRecorder Latency recorder of the run.
+     * @return This scheduler.
+     */
+    public TestScheduler setLatencyRecorder(LatencyRecorder latencyRecorder) {
+
+        this.latencyRecorder = latencyRecorder;
+        return this;
+    }
+
+    /**
+     * Set the fixtures of the run. They are cleaned up after the last test and before the report sinks are
+     * finished, so the resources left on the service provider are part of the statistics of the reports.
+     *
+     * @param fixtureRegistry Shared fixtures of the run.
+     * @param cleanupQueue    Deletions of the resources created by the tests.
+     * @return This scheduler.
+     */
+    public TestScheduler setFixtures(FixtureRegistry fixtureRegistry, CleanupQueue cleanupQueue) {
+
+        this.fixtureRegistry = fixtureRegistry;
+        this.cleanupQueue = cleanupQueue;
+        return this;
+    }
+
+    /**
+     * Get the resources left on the service provider after the clean up of the last run.
+     *
+     * @return Locations of the left over resources.
+     */
+    public List<String> getLeftovers() {
+
+        synchronized (reportSinks) {
+            return new ArrayList<>(statistics.getLeftovers());
+        }
+    }
+
+    /**
+     * Add a sink which receives the results of each test group as soon as the group is finished.
+     *
+     * @param reportSink Report sink. It is not closed by the scheduler.
+     * @return This scheduler.
+     */
+    public TestScheduler addReportSink(ReportSink reportSink) {
+
+        reportSinks.add(reportSink);
+        return this;
+    }
+
+    /**
+     * Test group to be scheduled.
+     */
+    public interface TestTask {
+
+        /**
+         * Run the test group.
+         *
+         * @return Array containing test results.
+         * @throws GeneralComplianceException General exceptions.
+         * @throws ComplianceException Constructed new exception with the specified detail message.
+         */
+        ArrayList<TestResult> execute() throws GeneralComplianceException, ComplianceException;
+    }
+
+    /**
+     * Add a test group to the given lane of the current stage.
+     *
+     * @param lane Name of the lane.
+     * @param task Test group to run.
+     * @return This scheduler.
+     */
+    public TestScheduler add(String lane, TestTask task) {
+
+        return add(lane, stages.get(stages.size() - 1).size(), task);
+    }
+
+    /**
+     * Add a test group to the given lane of the current stage. The tests of a lane run in ascending rank, while
+     * their results keep the order in which the tests were added.
+     *
+     * @param lane Name of the lane.
+     * @param rank Position of the test in the execution order of the lane.
+     * @param task Test group to run.
+     * @return This scheduler.
+     */
+    public TestScheduler add(String lane, int rank, TestTask task) {
+
+        stages.get(stages.size() - 1).add(new ScheduledTest(lane, rank, task));
+        return this;
+    }
+
+    /**
+     * Start a new stage. Tests added after this run only after all the tests added before have finished.
+     *
+     * @return This scheduler.
+     */
+    public TestScheduler nextStage() {
+
+        if (!stages.get(stages.size() - 1).isEmpty()) {
+            stages.add(new ArrayList<ScheduledTest>());
+        }
+        return this;
+    }
+
+    /**
+     * Run all the scheduled tests.
+     *
+     * @return Array containing test results in the order the tests were added.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public ArrayList<TestResult> run() throws GeneralComplianceException, ComplianceException {
+
+        ArrayList<TestResult> results = new ArrayList<>();
+        for (ReportSink reportSink : reportSinks) {
+            try {
+                reportSink.start();
+            } catch (IOException e) {
+                logger.error("Could not start the report", e);
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(workerThreads);
+        try {
+            for (List<ScheduledTest> stage : stages) {
+                runStage(stage, executor);
+                // Collect the results of the stage in declared order.
+                for (ScheduledTest test : stage) {
+                    if (test.results != null) {
+                        results.addAll(test.results);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            // The clean up runs before the reports are finished, so the reports contain its leftovers.
+            if (fixtureRegistry != null) {
+                fixtureRegistry.close();
+            }
+            List<String> leftovers = cleanupQueue == null ? new ArrayList<String>() : cleanupQueue.close();
+            // Finish the reports of a failed run as well, so the sinks release their streams.
+            synchronized (reportSinks) {
+                statistics.setLeftovers(leftovers);
+                if (latencyRecorder != null) {
+                    statistics.setLatencies(latencyRecorder.getStatistics());
+                }
+                for (ReportSink reportSink : reportSinks) {
+                    try {
+                        reportSink.finish(statistics);
+                    } catch (IOException e) {
+                        logger.error("Could not finish the report", e);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Send the results of the finished tests of a stage to the report sinks, in the order the tests were added. The
+     * results of a test are held until all the tests added before it are finished.
+     *
+     * @param stage Tests of the running stage.
+     */
+    private void publishInOrder(List<ScheduledTest> stage) {
+
+        synchronized (reportSinks) {
+            while (publishedTests < stage.size() && stage.get(publishedTests).finished) {
+                ArrayList<TestResult> results = stage.get(publishedTests).results;
+                if (results != null) {
+                    publish(results);
+                }
+                publishedTests++;
+            }
+        }
+    }
+
+    /**
+     * Send the results of a finished test group to the report sinks.
+     *
+     * @param results Results of the test group.
+     */
+    private void publish(List<TestResult> results) {
+
+        // Lanes finish concurrently, hence the sinks receive one group at a time.
+        synchronized (reportSinks) {
+            for (TestResult result : results) {
+                switch (result.getStatus()) {
+                    case TestResult.ERROR:
+                        statistics.incFailed();
+                        break;
+                    case TestResult.SUCCESS:
+                        statistics.incSuccess();
+                        break;
+                    case TestResult.SKIPPED:
+                        statistics.incSkipped();
+                        break;
+                }
+                statistics.setTime(statistics.getTime() + result.getElapsedTime());
+                for (ReportSink reportSink : reportSinks) {
+                    try {
+                        reportSink.accept(result);
+                    } catch (IOException e) {
+                        logger.error("Could not add the result " + result.getName() + " to the report", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Run independent tests concurrently and gather their results in the given order. The tests run on the caller
+     * thread one after another when a single worker thread is requested.
+     *
+     * @param tasks         Tests to run.
+     * @param workerThreads Maximum number of tests to run concurrently.
+     * @return Array containing test results in the order of the given tests.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public static ArrayList<TestResult> runInOrder(List<TestTask> tasks, int workerThreads)
+            throws GeneralComplianceException, ComplianceException {
+
+        ArrayList<TestResult> results = new ArrayList<>();
+        if (workerThreads <= 1 || tasks.size() <= 1) {
+            for (TestTask task : tasks) {
+                results.addAll(task.execute());
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workerThreads, tasks.size()));
+        try {
+            List<Future<ArrayList<TestResult>>> futures = new ArrayList<>();
+            for (final TestTask task : tasks) {
+                futures.add(executor.submit(new Callable<ArrayList<TestResult>>() {
+                    @Override
+                    public ArrayList<TestResult> call() throws Exception {
+
+                        try {
+                            return task.execute();
+                        } finally {
+                            LatencyRecorder.clearCurrentRequest();
+                        }
+                    }
+                }));
+            }
+            for (Future<ArrayList<TestResult>> future : futures) {
+                try {
+                    results.addAll(future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ComplianceException("Test execution was interrupted.", e);
+                } catch (ExecutionException e) {
+                    throwFailure(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Rethrow the failure of a test.
+     *
+     * @param failure Failure of the test.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private static void throwFailure(Throwable failure) throws GeneralComplianceException, ComplianceException {
+
+        if (failure instanceof GeneralComplianceException) {
+            throw (GeneralComplianceException) failure;
+        } else if (failure instanceof ComplianceException) {
+            throw (ComplianceException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new ComplianceException("Test execution failed.", failure);
+    }
+
+    /**
+     * Run the lanes of a stage concurrently and wait until all of them are finished.
+     *
+     * @param stage    Tests of the stage.
+     * @param executor Executor to run the lanes.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private void runStage(List<ScheduledTest> stage, ExecutorService executor)
+            throws GeneralComplianceException, ComplianceException {
+
+        synchronized (reportSinks) {
+            publishedTests = 0;
+        }
+        // Group the tests by lane in the order of their ranks.
+        Map<String, List<ScheduledTest>> lanes = new LinkedHashMap<>();
+        for (ScheduledTest test : stage) {
+            List<ScheduledTest> lane = lanes.get(test.lane);
+            if (lane == null) {
+                lane = new ArrayList<>();
+                lanes.put(test.lane, lane);
+            }
+            lane.add(test);
+        }
+        for (List<ScheduledTest> lane : lanes.values()) {
+            lane.sort(Comparator.comparingInt(test -> test.rank));
+        }
+        List<Future<Void>> futures = new ArrayList<>();
+        for (final List<ScheduledTest> lane : lanes.values()) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+
+                    try {
+                        for (ScheduledTest test : lane) {
+                            // A cancelled run stops at the next test, since a blocked request can not be
+                            // interrupted.
+                            if (Thread.currentThread().isInterrupted()) {
+                                test.failure = new ComplianceException("Test execution was interrupted.");
+                                break;
+                            }
+                            try {
+                                ArrayList<TestResult> results = test.task.execute();
+                                if (wireCapturePolicy != null) {
+                                    wireCapturePolicy.apply(results);
+                                }
+                                test.results = results;
+                            } catch (Exception e) {
+                                test.failure = e;
+                                // A failed test stops the rest of its lane as it would in a sequential run.
+                                break;
+                            } finally {
+                                LatencyRecorder.clearCurrentRequest();
+                                test.finished = true;
+                                publishInOrder(stage);
+                            }
+                        }
+                    } finally {
+                        // Tests which did not run do not hold back the results of the other lanes.
+                        for (ScheduledTest test : lane) {
+                            test.finished = true;
+                        }
+                        publishInOrder(stage);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ComplianceException("Test execution was interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new ComplianceException("Test execution failed.", e.getCause());
+            }
+        }
+        // Report the failure of the first test in declared order.
+        for (ScheduledTest test : stage) {
+            if (test.failure != null) {
+                throwFailure(test.failure);
+            }
+        }
+    }
+
+    /**
+     * Test group with its lane and outcome.
+     */
+    private static class ScheduledTest {
+
+        private final String lane;
+        private final int rank;
+        private final TestTask task;
+        private volatile ArrayList<TestResult> results;
+        private volatile Exception failure;
+        private volatile boolean finished;
+
+        ScheduledTest(String lane, int rank, TestTask task) {
+
+            this.lane = lane;
+            this.rank = rank;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.protocol;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.entities.Wire;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.util.List;
+
+/**
+ * Decides how much of the wire of a test result is kept in the results of a run.
+ * <p>
+ * The wire of a result is dropped, i.e. replaced with {@link Wire#EMPTY}, or kept as defined by the capture mode,
+ * and the bodies of a kept wire are cut to the maximum body size. When a wire store is given, the full bodies of a
+ * truncated wire are stored in it and referenced from the wire.
+ */
+public class WireCapturePolicy {
+
+    private static final Log logger = LogFactory.getLog(WireCapturePolicy.class);
+
+    private final String mode;
+    private final int maxBodySize;
+    private final WireStore wireStore;
+
+    /**
+     * Initialize.
+     *
+     * @param mode        Capture mode defined in {@link ComplianceConstants.WireCaptureConstants}.
+     * @param maxBodySize Maximum number of characters of a body. A negative size keeps the bodies as they are.
+     * @param wireStore   Store for the full bodies of truncated wires, or null to drop them.
+     */
+    public WireCapturePolicy(String mode, int maxBodySize, WireStore wireStore) {
+
+        this.mode = mode;
+        this.maxBodySize = maxBodySize;
+        this.wireStore = wireStore;
+    }
+
+    /**
+     * Apply the policy to test results.
+     *
+     * @param results Test results to apply the policy to.
+     */
+    public void apply(List<TestResult> results) {
+
+        for (TestResult result : results) {
+            if (result.getWire() == null) {
+                continue;
+            }
+            if (!isCaptured(result)) {
+                // Clients read the wire of every result, hence a dropped wire is replaced rather than removed.
+                result.setWire(Wire.EMPTY);
+            } else if (maxBodySize >= 0 && result.getWire().hasRequest()) {
+                result.setWire(truncate(result.getWire()));
+            }
+        }
+    }
+
+    private boolean isCaptured(TestResult result) {
+
+        switch (mode) {
+            case ComplianceConstants.WireCaptureConstants.CAPTURE_NONE:
+                return false;
+            case ComplianceConstants.WireCaptureConstants.CAPTURE_FAILURES:
+                return result.getStatus() != TestResult.SUCCESS;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Cut the bodies of a wire to the maximum body size.
+     *
+     * @param wire Wire to truncate.
+     * @return The given wire if its bodies fit, otherwise a truncated copy.
+     */
+    private Wire truncate(Wire wire) {
+
+        String requestBody = wire.getRequestBody();
+        String responseBody = wire.getResponseBody();
+        boolean requestTruncated = requestBody != null && requestBody.length() > maxBodySize;
+        boolean responseTruncated = responseBody != null && responseBody.length() > maxBodySize;
+        if (!requestTruncated && !responseTruncated) {
+            return wire;
+        }
+        String requestBodyReference = null;
+        String responseBodyReference = null;
+        if (requestTruncated) {
+            requestBodyReference = store(requestBody);
+            requestBody = truncate(requestBody, requestBodyReference);
+        }
+        if (responseTruncated) {
+            responseBodyReference = store(responseBody);
+            responseBody = truncate(responseBody, responseBodyReference);
+        }
+        return wire.withBodies(requestBody, responseBody, requestBodyReference, responseBodyReference);
+    }
+
+    private String store(String body) {
+
+        if (wireStore == null) {
+            return null;
+        }
+        try {
+            return wireStore.store(body);
+        } catch (ComplianceException e) {
+            // The body is truncated without a reference rather than failing the test.
+            logger.warn("Could not store the full body of a truncated wire", e);
+            return null;
+        }
+    }
+
+    private String truncate(String body, String reference) {
+
+        int end = maxBodySize;
+        // Do not split a surrogate pair.
+        if (end > 0 && Character.isHighSurrogate(body.charAt(end - 1))) {
+            end--;
+        }
+        int removed = body.length() - end;
+        if (reference == null) {
+            return body.substring(0, end) +
+                    String.format(ComplianceConstants.WireCaptureConstants.TRUNCATION_MARKER, removed);
+        }
+        return body.substring(0, end) +
+                String.format(ComplianceConstants.WireCaptureConstants.STORED_BODY_MARKER, removed, reference);
+    }
+}
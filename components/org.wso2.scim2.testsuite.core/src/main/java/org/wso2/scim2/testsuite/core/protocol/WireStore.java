@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.protocol;
+
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content addressed store for the full bodies of truncated wires.
+ * <p>
+ * A body is stored in a file named after the SHA-256 digest of its content, so a body returned by many requests,
+ * such as a list response, is written only once.
+ */
+public class WireStore {
+
+    private final Path directory;
+
+    /**
+     * Initialize.
+     *
+     * @param directory Directory to store the bodies in. It is created if it does not exist.
+     */
+    public WireStore(String directory) {
+
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Store a body.
+     *
+     * @param body Body to store.
+     * @return Location of the stored body.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public String store(String body) throws ComplianceException {
+
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        Path file = directory.resolve(digest(content));
+        if (!Files.exists(file)) {
+            try {
+                Files.createDirectories(directory);
+                // Write to a temporary file first, so a reader never sees a partially written body.
+                Path temporary = Files.createTempFile(directory, "body", ".tmp");
+                Files.write(temporary, content);
+                try {
+                    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored concurrently by another test.
+                    Files.deleteIfExists(temporary);
+                }
+            } catch (IOException e) {
+                throw new ComplianceException("Could not store the wire body in " + directory, e);
+            }
+        }
+        return file.toAbsolutePath().toString();
+    }
+
+    private static String digest(byte[] content) throws ComplianceException {
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new ComplianceException("Could not compute the digest of the wire body", e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.report;
+
+import org.apache.commons.lang.StringEscapeUtils;
+import org.wso2.scim2.testsuite.core.entities.LatencyStatistics;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes the results as a static HTML page. Each test result is a row of a table, with its wire in a collapsed
+ * section, and the summary of the run and the latency percentiles follow the table.
+ */
+public class HtmlReportSink implements ReportSink {
+
+    private static final String STYLE = "body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;"
+            + "width:100%}th,td{border:1px solid #ccc;padding:4px 8px;text-align:left;vertical-align:top}"
+            + "pre{white-space:pre-wrap;word-break:break-all;font-size:smaller}.Success{color:#006600}"
+            + ".Failed{color:#cc0000}.Skipped{color:#999900}";
+
+    private final Writer writer;
+    private boolean tableOpen;
+    private boolean closed;
+
+    /**
+     * Initialize.
+     *
+     * @param out Stream to write the report to. It is closed with the sink.
+     */
+    public HtmlReportSink(OutputStream out) {
+
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start() throws IOException {
+
+        writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>");
+        writer.write(escape(ComplianceConstants.ReportConstants.REPORT_NAME));
+        writer.write("</title>\n<style>" + STYLE + "</style>\n</head>\n<body>\n<h1>");
+        writer.write(escape(ComplianceConstants.ReportConstants.REPORT_NAME));
+        writer.write("</h1>\n<table>\n<tr><th>Test Case</th><th>Status</th><th>Elapsed Time(ms)</th>"
+                + "<th>Details</th></tr>\n");
+        tableOpen = true;
+    }
+
+    @Override
+    public void accept(TestResult result) throws IOException {
+
+        writer.write("<tr><td>");
+        writer.write(escape(result.getName()));
+        writer.write("</td><td class=\"" + escape(result.getStatusText()) + "\">");
+        writer.write(escape(result.getStatusText()));
+        writer.write("</td><td>" + result.getElapsedTime() + "</td><td>");
+        writer.write(escape(result.getMessage()));
+        if (result.getWire() != null) {
+            writer.write("<details><summary>Request</summary><pre>");
+            writer.write(escape(result.getWire().getToServer()));
+            writer.write("</pre></details><details><summary>Response</summary><pre>");
+            writer.write(escape(result.getWire().getFromServer()));
+            writer.write("</pre></details><details><summary>Assertions</summary><pre>");
+            writer.write(escape(result.getWire().getTests()));
+            writer.write("</pre></details>");
+        }
+        writer.write("</td></tr>\n");
+    }
+
+    @Override
+    public void finish(Statistics statistics) throws IOException {
+
+        closeTable();
+        writer.write("<h2>Summary</h2>\n<table>\n");
+        writer.write("<tr><th>Success Test cases</th><td>" + statistics.getSuccess() + "</td></tr>\n");
+        writer.write("<tr><th>Failed Test cases</th><td>" + statistics.getFailed() + "</td></tr>\n");
+        writer.write("<tr><th>Skipped Test cases</th><td>" + statistics.getSkipped() + "</td></tr>\n");
+        writer.write("<tr><th>Total Test cases</th><td>" + statistics.getTotal() + "</td></tr>\n");
+        writer.write("<tr><th>Time elapsed to run all Test cases(ms)</th><td>" + statistics.getTime() +
+                "</td></tr>\n</table>\n");
+        if (!statistics.getLeftovers().isEmpty()) {
+            writer.write("<h2>Resources left after the clean up</h2>\n<ul>\n");
+            for (String location : statistics.getLeftovers()) {
+                writer.write("<li>" + escape(location) + "</li>\n");
+            }
+            writer.write("</ul>\n");
+        }
+        if (statistics.getLatencies().isEmpty()) {
+            return;
+        }
+        writer.write("<h2>Latency (ms)</h2>\n<table>\n<tr><th>Operation</th><th>Phase</th><th>Count</th>" +
+                "<th>p50</th><th>p95</th><th>p99</th><th>Max</th></tr>\n");
+        for (LatencyStatistics latency : statistics.getLatencies()) {
+            writer.write("<tr><td>" + escape(latency.getOperation()) + "</td><td>" + escape(latency.getPhase()) +
+                    "</td><td>" + latency.getCount() + "</td><td>" + format(latency.getP50()) + "</td><td>" +
+                    format(latency.getP95()) + "</td><td>" + format(latency.getP99()) + "</td><td>" +
+                    format(latency.getMax()) + "</td></tr>\n");
+        }
+        writer.write("</table>\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            closeTable();
+            writer.write("</body>\n</html>\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void closeTable() throws IOException {
+
+        if (tableOpen) {
+            writer.write("</table>\n");
+            tableOpen = false;
+        }
+    }
+
+    private static String format(double millis) {
+
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    private static String escape(String text) {
+
+        return text == null ? "" : StringEscapeUtils.escapeHtml(text);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.report;
+
+import org.wso2.scim2.testsuite.core.entities.LatencyStatistics;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes the results in the JUnit XML format read by CI dashboards. Each test result is a test case of a single
+ * test suite, and the wire of a failed test is added as its output.
+ * <p>
+ * The test cases are written as they complete, hence the test suite element does not carry the counts of the run.
+ * The dashboards count the test case elements instead.
+ */
+public class JUnitXmlReportSink implements ReportSink {
+
+    private final OutputStream out;
+    private final XMLStreamWriter writer;
+    private boolean closed;
+
+    /**
+     * Initialize.
+     *
+     * @param out Stream to write the report to. It is closed with the sink.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public JUnitXmlReportSink(OutputStream out) throws IOException {
+
+        this.out = new BufferedOutputStream(out);
+        try {
+            this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(this.out,
+                    StandardCharsets.UTF_8.name());
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not create the JUnit XML report", e);
+        }
+    }
+
+    @Override
+    public void start() throws IOException {
+
+        try {
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("name", ComplianceConstants.ReportConstants.REPORT_NAME);
+            writer.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write the JUnit XML report", e);
+        }
+    }
+
+    @Override
+    public void accept(TestResult result) throws IOException {
+
+        try {
+            writer.writeStartElement("testcase");
+            writer.writeAttribute("classname", ComplianceConstants.ReportConstants.REPORT_NAME);
+            writer.writeAttribute("name", toXml(result.getName()));
+            writer.writeAttribute("time", String.format(Locale.ROOT, "%.3f", result.getElapsedTime() / 1000.0));
+            if (result.getStatus() == TestResult.ERROR) {
+                writer.writeStartElement("failure");
+                writer.writeAttribute("message", toXml(result.getMessage()));
+                writer.writeEndElement();
+                if (result.getWire() != null) {
+                    writer.writeStartElement("system-out");
+                    writer.writeCharacters(toXml(result.getWire().getToServer() + "\n" +
+                            result.getWire().getFromServer() + "\n\n" + result.getWire().getTests()));
+                    writer.writeEndElement();
+                }
+            } else if (result.getStatus() == TestResult.SKIPPED) {
+                writer.writeEmptyElement("skipped");
+                writer.writeAttribute("message", toXml(result.getMessage()));
+            }
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write the JUnit XML report", e);
+        }
+    }
+
+    @Override
+    public void finish(Statistics statistics) throws IOException {
+
+        if (!statistics.getLeftovers().isEmpty()) {
+            // Resources left on the service provider fail the run on the dashboards.
+            try {
+                writer.writeStartElement("testcase");
+                writer.writeAttribute("classname", ComplianceConstants.ReportConstants.REPORT_NAME);
+                writer.writeAttribute("name", ComplianceConstants.FixtureConstants.FIXTURE_CLEAN_UP);
+                writer.writeStartElement("failure");
+                writer.writeAttribute("message", statistics.getLeftovers().size() +
+                        " resource(s) created by the tests are left on the service provider");
+                writer.writeCharacters(toXml(String.join("\n", statistics.getLeftovers())));
+                writer.writeEndElement();
+                writer.writeEndElement();
+                writer.writeCharacters("\n");
+            } catch (XMLStreamException e) {
+                throw new IOException("Could not write the JUnit XML report", e);
+            }
+        }
+        if (statistics.getLatencies().isEmpty()) {
+            return;
+        }
+        // The latency percentiles are the output of the test suite.
+        StringBuilder latencies = new StringBuilder("operation\tphase\tcount\tp50(ms)\tp95(ms)\tp99(ms)\tmax(ms)\n");
+        for (LatencyStatistics latency : statistics.getLatencies()) {
+            latencies.append(String.format(Locale.ROOT, "%s\t%s\t%d\t%.3f\t%.3f\t%.3f\t%.3f%n",
+                    latency.getOperation(), latency.getPhase(), latency.getCount(), latency.getP50(),
+                    latency.getP95(), latency.getP99(), latency.getMax()));
+        }
+        try {
+            writer.writeStartElement("system-out");
+            writer.writeCharacters(toXml(latencies.toString()));
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write the JUnit XML report", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // Closes the test suite element.
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write the JUnit XML report", e);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Remove the characters which are not allowed in XML.
+     *
+     * @param text Text to write.
+     * @return Text which can be written to XML.
+     */
+    private static String toXml(String text) {
+
+        if (text == null) {
+            return "";
+        }
+        StringBuilder xml = null;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            boolean allowed = character == '\t' || character == '\n' || character == '\r' ||
+                    (character >= 0x20 && character <= 0xFFFD);
+            if (!allowed && xml == null) {
+                xml = new StringBuilder(text.substring(0, i));
+            } else if (allowed && xml != null) {
+                xml.append(character);
+            }
+        }
+        return xml == null ? text : xml.toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.report;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the results as newline delimited JSON, one test result per line, followed by a line with the statistics
+ * of the run. A result is written in the same form as in the JSON response of the test suite.
+ */
+public class NdjsonReportSink implements ReportSink {
+
+    private final Writer writer;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Initialize.
+     *
+     * @param out Stream to write the report to. It is closed with the sink.
+     */
+    public NdjsonReportSink(OutputStream out) {
+
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // A generator is opened per line and must not close the shared writer.
+        jsonFactory.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        this.objectMapper = new ObjectMapper(jsonFactory);
+    }
+
+    @Override
+    public void start() {
+
+    }
+
+    @Override
+    public void accept(TestResult result) throws IOException {
+
+        JsonGenerator generator = jsonFactory.createJsonGenerator(writer);
+        objectMapper.writeValue(generator, result);
+        generator.close();
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish(Statistics statistics) throws IOException {
+
+        JsonGenerator generator = jsonFactory.createJsonGenerator(writer);
+        generator.writeStartObject();
+        generator.writeFieldName("statistics");
+        objectMapper.writeValue(generator, statistics);
+        generator.writeEndObject();
+        generator.close();
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        writer.close();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.report;
+
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives the results of a run as the tests complete, so a report can be written without holding all the results
+ * in memory.
+ * <p>
+ * The test scheduler calls {@link #start()} once, {@link #accept(TestResult)} for each result in the order the test
+ * groups complete, and {@link #finish(Statistics)} once the run is complete. The calls are never concurrent. The
+ * owner of the sink closes it, also when the run fails.
+ */
+public interface ReportSink extends Closeable {
+
+    /**
+     * Start the report.
+     *
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    void start() throws IOException;
+
+    /**
+     * Add a test result to the report.
+     *
+     * @param result Completed test result.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    void accept(TestResult result) throws IOException;
+
+    /**
+     * Add the statistics of a completed run to the report.
+     *
+     * @param statistics Statistics of the run.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    void finish(Statistics statistics) throws IOException;
+
+    /**
+     * Complete the report and release its output. A report of a failed run ends after the last accepted result.
+     *
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.report;
+
+import org.apache.commons.io.IOUtils;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Creates the report sinks which write to files.
+ */
+public class ReportSinkFactory {
+
+    /**
+     * Create a sink which writes a report file in the given format.
+     *
+     * @param format    Report format defined in {@link ComplianceConstants.ReportConstants}.
+     * @param directory Directory to write the report file to. It is created if it does not exist.
+     * @param name      Name of the report file without the extension. Runs which share a directory need distinct
+     *                  names, since an existing file is overwritten.
+     * @return Report sink.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public static ReportSink create(String format, File directory, String name) throws ComplianceException {
+
+        String extension;
+        switch (format) {
+            case ComplianceConstants.ReportConstants.NDJSON_FORMAT:
+                extension = ".ndjson";
+                break;
+            case ComplianceConstants.ReportConstants.JUNIT_XML_FORMAT:
+                extension = ".xml";
+                break;
+            case ComplianceConstants.ReportConstants.HTML_FORMAT:
+                extension = ".html";
+                break;
+            default:
+                throw new ComplianceException("Unknown report format " + format);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ComplianceException("Could not create the report directory " + directory);
+        }
+        File file = new File(directory, name + extension);
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            switch (format) {
+                case ComplianceConstants.ReportConstants.NDJSON_FORMAT:
+                    return new NdjsonReportSink(out);
+                case ComplianceConstants.ReportConstants.JUNIT_XML_FORMAT:
+                    return new JUnitXmlReportSink(out);
+                default:
+                    return new HtmlReportSink(out);
+            }
+        } catch (IOException e) {
+            IOUtils.closeQuietly(out);
+            throw new ComplianceException("Could not create the report " + file, e);
+        }
+    }
+}
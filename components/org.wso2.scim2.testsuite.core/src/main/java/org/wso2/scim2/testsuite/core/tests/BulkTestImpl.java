@@ -24,27 +24,19 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.BasicResponseHandler;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.wso2.charon3.core.encoder.JSONDecoder;
-import org.wso2.charon3.core.exceptions.BadRequestException;
-import org.wso2.charon3.core.exceptions.CharonException;
-import org.wso2.charon3.core.exceptions.InternalErrorException;
-import org.wso2.charon3.core.objects.Group;
-import org.wso2.charon3.core.objects.User;
-import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
-import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.scim2.testsuite.core.entities.TestResult;
 import org.wso2.scim2.testsuite.core.exception.ComplianceException;
 import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
 import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureProvisioner;
 import org.wso2.scim2.testsuite.core.tests.model.RequestPath;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
@@ -56,7 +48,11 @@ import java.util.ArrayList;
  */
 public class BulkTestImpl implements ResourceType {
 
+    // Scope of the deletions of the resources created by the tests, see CleanupQueue.
+    private static final String CLEANUP_SCOPE = ComplianceConstants.FixtureConstants.BULK_USER_NAME_PREFIX;
+
     private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final FixtureProvisioner fixtureProvisioner;
     private final String url;
 
     /**
@@ -67,6 +63,7 @@ public class BulkTestImpl implements ResourceType {
     public BulkTestImpl(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
 
         this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        fixtureProvisioner = new FixtureProvisioner(complianceTestMetaDataHolder, CLEANUP_SCOPE);
 
         url = complianceTestMetaDataHolder.getUrl() +
                 ComplianceConstants.TestConstants.BULK_ENDPOINT;
@@ -113,6 +110,19 @@ public class BulkTestImpl implements ResourceType {
         return statusCodes;
     }
 
+    /**
+     * Give the users of a definition the user names of this test, bulkUser1 to bulkUser5, so the test runs
+     * concurrently with the other tests which create users.
+     *
+     * @param definition Json definition.
+     * @return Json definition with the user names of this test.
+     */
+    private static String laneDefinition(String definition) {
+
+        return FixtureProvisioner.withUserNamePrefix(definition,
+                ComplianceConstants.FixtureConstants.BULK_USER_NAME_PREFIX);
+    }
+
     /**
      * Create test users for test cases.
      *
@@ -124,78 +134,20 @@ public class BulkTestImpl implements ResourceType {
     private ArrayList<String> createTestsUsers(String noOfUsers) throws ComplianceException,
             GeneralComplianceException {
 
-        String url = complianceTestMetaDataHolder.getUrl() +
-                ComplianceConstants.TestConstants.USERS_ENDPOINT;
-
         ArrayList<String> definedUsers = new ArrayList<>();
-        ArrayList<String> userIDs = new ArrayList<>();
 
         if (noOfUsers.equals("One")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.defineUser);
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.defineUser));
         } else if (noOfUsers.equals("Many")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser1);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser2);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser3);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser4);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser5);
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser1));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser2));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser3));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser4));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser5));
         }
 
-        HttpPost method = new HttpPost(url);
-        // Create users.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedUser : definedUsers) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create Users.
-                HttpEntity entity = new ByteArrayEntity(definedUser.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to the user.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    User user;
-                    try {
-                        user = jsonDecoder.decodeResource(responseString, schema, new User());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                                "Could not decode the server response of users create.",
-                                ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                        subTests), stopTime - startTime));
-                    }
-                    userIDs.add(user.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                        "Could not create default users at url " + url,
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests), stopTime - startTime));
-            }
-        }
-        return userIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.USERS_ENDPOINT, definedUsers,
+                "List Users");
     }
 
     /**
@@ -210,102 +162,42 @@ public class BulkTestImpl implements ResourceType {
     private ArrayList<String> createTestsGroups(ArrayList<String> userIDs, String noOfGroups) throws
             ComplianceException, GeneralComplianceException {
 
-        String url = complianceTestMetaDataHolder.getUrl() +
-                ComplianceConstants.TestConstants.GROUPS_ENDPOINT;
-
-        ArrayList<String> groupIDs = new ArrayList<>();
         ArrayList<String> definedGroups = new ArrayList<>();
 
         if (noOfGroups.equals("One")) {
             definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"]," +
-                    "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"displayName" +
-                    "\":\"loginUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl() +
+                    "\"displayName\":\"BulkXwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) +
+                    "\",\"displayName\":\"bulkUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl() +
                     ComplianceConstants.TestConstants.USERS_ENDPOINT + "/" + userIDs.get(0) + "\"}," +
-                    "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"loginUser2\"},{\"value\":\"" +
-                    userIDs.get(2) + "\",\"displayName\":\"loginUser3\"},{\"value\":\"" + userIDs.get(3) +
-                    "\",\"displayName" + "\":\"loginUser4" + "\"}," +
-                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"loginUser5\"}]}");
+                    "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"bulkUser2\"},{\"value\":\"" +
+                    userIDs.get(2) + "\",\"displayName\":\"bulkUser3\"},{\"value\":\"" + userIDs.get(3) +
+                    "\",\"displayName" + "\":\"bulkUser4" + "\"}," +
+                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"bulkUser5\"}]}");
         } else if (noOfGroups.equals("Many")) {
-            definedGroups.add("{\"displayName\": \"EYtXcD21\"}");
-            definedGroups.add("{\"displayName\": \"BktqER22\"}");
-            definedGroups.add("{\"displayName\": \"ZwLtOP23\"}");
+            definedGroups.add("{\"displayName\": \"BulkEYtXcD21\"}");
+            definedGroups.add("{\"displayName\": \"BulkBktqER22\"}");
+            definedGroups.add("{\"displayName\": \"BulkZwLtOP23\"}");
             definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"]," +
-                    "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"displayName" +
-                    "\":\"loginUser1\"}," + "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"loginUser2\"}," +
-                    "{\"value\":\"" + userIDs.get(2) + "\",\"displayName\":\"loginUser3\"},{\"value\":\"" +
-                    userIDs.get(3) + "\",\"displayName" + "\":\"loginUser4" + "\"}," +
-                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"loginUser5\"}]}");
+                    "\"displayName\":\"BulkXwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) +
+                    "\",\"displayName\":\"bulkUser1\"}," + "{\"value\":\"" + userIDs.get(1) +
+                    "\",\"displayName\":\"bulkUser2\"}," +
+                    "{\"value\":\"" + userIDs.get(2) + "\",\"displayName\":\"bulkUser3\"},{\"value\":\"" +
+                    userIDs.get(3) + "\",\"displayName" + "\":\"bulkUser4" + "\"}," +
+                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"bulkUser5\"}]}");
         }
 
-        HttpPost method = new HttpPost(url);
-        // Create groups.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder();
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedGroup : definedGroups) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create the group.
-                HttpEntity entity = new ByteArrayEntity(definedGroup.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to group.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    Group group;
-                    try {
-                        group = jsonDecoder.decodeResource(responseString, schema, new Group());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
-                                "Could not decode the server response of groups create.",
-                                ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                        subTests), stopTime - startTime));
-                    }
-                    groupIDs.add(group.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
-                        "Could not create default groups at url " + url,
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests), stopTime - startTime));
-            }
-        }
-        return groupIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.GROUPS_ENDPOINT, definedGroups,
+                "List Groups");
     }
 
     /**
-     * This method cleans up resources.
+     * This method schedules the clean up of resources.
      *
      * @param location Resource location.
      * @param testName Related test case name.
-     * @throws GeneralComplianceException General exceptions.
-     * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
-    private void cleanUp(String location, String testName) throws GeneralComplianceException, ComplianceException {
+    private void cleanUp(String location, String testName) {
 
-        long startTime = System.currentTimeMillis();
         String deleteUserURL;
 
         if (testName.equals("User")) {
@@ -320,53 +212,7 @@ public class BulkTestImpl implements ResourceType {
             deleteUserURL = location;
         }
 
-        HttpDelete method = new HttpDelete(deleteUserURL);
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        try {
-            response = client.execute(method);
-            // Read the response body.
-            responseString = new BasicResponseHandler().handleResponse(response);
-            // Get all headers.
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-
-        } catch (Exception e) {
-            /*
-             Read the response body.
-             Get all headers.
-             */
-            assert response != null;
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                            subTests), stopTime - startTime));
-        }
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                            subTests), stopTime - startTime));
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE, deleteUserURL);
     }
 
     /**
@@ -506,7 +352,7 @@ public class BulkTestImpl implements ResourceType {
                 "            \"bulkId\": \"qwerty\",\n" +
                 "            \"data\": {\n" +
                 "                \"schemas\": [\"urn:ietf:params:scim:schemas:core:2.0:User\"],\n" +
-                "                \"userName\": \"loginUser-11\",\n" +
+                "                \"userName\": \"bulkUser-11\",\n" +
                 "                \"password\":\"kim123\",\n" +
                 "                \"name\": {\n" +
                 "                    \"givenName\": \"Kim\",\n" +
@@ -627,7 +473,7 @@ public class BulkTestImpl implements ResourceType {
             long startTime = System.currentTimeMillis();
             HttpPost method = new HttpPost(url);
             // Create test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -763,10 +609,10 @@ public class BulkTestImpl implements ResourceType {
                 boolean failOnErrorPass = true;
                 for (Integer status : resourceStatusCodes) {
                     if (n == 0 && status == HttpStatus.SC_CREATED) {
-                        addAssertion("First resource - loginUser21", "Created the resource hence " +
+                        addAssertion("First resource - bulkUser21", "Created the resource hence " +
                                 "given 201.", ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
                     } else if (n == 1 && status == HttpStatus.SC_CONFLICT) {
-                        addAssertion("Second resource - loginUser1", "User already exists hence " +
+                        addAssertion("Second resource - bulkUser1", "User already exists hence " +
                                 "given 409.", ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
                     } else {
                         addAssertion("Third resource", "Fail on errors is not working",
@@ -834,9 +680,8 @@ public class BulkTestImpl implements ResourceType {
             }
         }
         // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUp(id, "User");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, userIDs);
         return testResults;
     }
 
@@ -911,7 +756,7 @@ public class BulkTestImpl implements ResourceType {
                 "                       \"op\": \"add\",\n" +
                 "                       \"value\": {\"members\":[\n" +
                 "                           {\n" +
-                "                           \"display\": \"loginUser1\",\n" +
+                "                           \"display\": \"bulkUser1\",\n" +
                 "                           \"value\": \"" + userIDs.get(0) + "\"\n" +
                 "                           }\n" +
                 "                       ]}\n" +
@@ -946,7 +791,7 @@ public class BulkTestImpl implements ResourceType {
                 "                       \"op\": \"add\",\n" +
                 "                       \"value\": {\"members\":[\n" +
                 "                           {\n" +
-                "                           \"display\": \"loginUser1\",\n" +
+                "                           \"display\": \"bulkUser1\",\n" +
                 "                           \"value\": \"" + userIDs.get(0) + "\"\n" +
                 "                           }\n" +
                 "                       ]}\n" +
@@ -1002,7 +847,7 @@ public class BulkTestImpl implements ResourceType {
             long startTime = System.currentTimeMillis();
             HttpPost method = new HttpPost(url);
             // Create test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1101,13 +946,11 @@ public class BulkTestImpl implements ResourceType {
             }
         }
         // Clean up users.
-        for (String id : userIDs) {
-            cleanUp(id, "User");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, userIDs);
         // Clean up groups.
-        for (String id : groupIDs) {
-            cleanUp(id, "Group");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.GROUPS_ENDPOINT, groupIDs);
         return testResults;
     }
 
@@ -1141,7 +984,7 @@ public class BulkTestImpl implements ResourceType {
                 "            \"bulkId\": \"qwerty\",\n" +
                 "            \"data\":{\n" +
                 "                \"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\n" +
-                "                \"userName\": \"loginUser1\",\n" +
+                "                \"userName\": \"bulkUser1\",\n" +
                 "                \"name\": {\n" +
                 "                    \"givenName\": \"John\",\n" +
                 "                    \"familyName\": \"Berry\"\n" +
@@ -1163,7 +1006,7 @@ public class BulkTestImpl implements ResourceType {
                 "                \"urn:ietf:params:scim:schemas:core:2.0:User\",\n" +
                 "                \"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"\n" +
                 "                ],\n" +
-                "                \"userName\":\"loginUser2\",\n" +
+                "                \"userName\":\"bulkUser2\",\n" +
                 "                \"name\": {\n" +
                 "                    \"givenName\": \"Smith\",\n" +
                 "                    \"familyName\": \"Berry\"\n" +
@@ -1187,7 +1030,7 @@ public class BulkTestImpl implements ResourceType {
                 "                \"displayName\": \"xs5231771\",\n" +
                 "                \"members\": [\n" +
                 "                    {\n" +
-                "                    \"display\": \"loginUser1\",\n" +
+                "                    \"display\": \"bulkUser1\",\n" +
                 "                    \"value\": \"" + userIDs.get(0) + "\"\n" +
                 "                    }\n" +
                 "                ]\n" +
@@ -1200,7 +1043,7 @@ public class BulkTestImpl implements ResourceType {
                 "                \"displayName\": \"Fvs132312\",\n" +
                 "                \"members\": [\n" +
                 "                    {\n" +
-                "                    \"display\": \"loginUser2\",\n" +
+                "                    \"display\": \"bulkUser2\",\n" +
                 "                    \"value\": \"" + userIDs.get(1) + "\"\n" +
                 "                    }\n" +
                 "            ] \n" +
@@ -1219,7 +1062,7 @@ public class BulkTestImpl implements ResourceType {
                 "            \"bulkId\": \"qwerty\",\n" +
                 "            \"data\":{\n" +
                 "                \"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\n" +
-                "                \"userName\": \"loginUser3\",\n" +
+                "                \"userName\": \"bulkUser3\",\n" +
                 "                \"name\": {\n" +
                 "                    \"givenName\": \"John\",\n" +
                 "                    \"familyName\": \"Berry\"\n" +
@@ -1239,7 +1082,7 @@ public class BulkTestImpl implements ResourceType {
                 "                \"displayName\": \"gfS232324\",\n" +
                 "                \"members\": [\n" +
                 "                    {\n" +
-                "                    \"display\": \"loginUser4\",\n" +
+                "                    \"display\": \"bulkUser4\",\n" +
                 "                    \"value\": \"" + userIDs.get(3) + "\"\n" +
                 "                    }\n" +
                 "            ] \n" +
@@ -1283,7 +1126,7 @@ public class BulkTestImpl implements ResourceType {
             long startTime = System.currentTimeMillis();
             HttpPost method = new HttpPost(url);
             // Create test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1382,13 +1225,11 @@ public class BulkTestImpl implements ResourceType {
             }
         }
         // Clean up users.
-        for (String id : userIDs) {
-            cleanUp(id, "User");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, userIDs);
         // Clean up groups.
-        for (String id : groupIDs) {
-            cleanUp(id, "Group");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.GROUPS_ENDPOINT, groupIDs);
         return testResults;
     }
 
@@ -1502,7 +1343,7 @@ public class BulkTestImpl implements ResourceType {
             long startTime = System.currentTimeMillis();
             HttpPost method = new HttpPost(url);
             // Create test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1604,13 +1445,11 @@ public class BulkTestImpl implements ResourceType {
 
         if (error) {
             // Clean up users.
-            for (String id : userIDs) {
-                cleanUp(id, "User");
-            }
+            complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                    ComplianceConstants.TestConstants.USERS_ENDPOINT, userIDs);
             // Clean up groups.
-            for (String id : groupIDs) {
-                cleanUp(id, "Group");
-            }
+            complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                    ComplianceConstants.TestConstants.GROUPS_ENDPOINT, groupIDs);
         }
         return testResults;
     }
@@ -20,8 +20,10 @@ package org.wso2.scim2.testsuite.core.tests;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.Header;
@@ -36,7 +38,6 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.BasicResponseHandler;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.wso2.charon3.core.encoder.JSONDecoder;
@@ -44,7 +45,6 @@ import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
 import org.wso2.charon3.core.objects.Group;
-import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.scim2.testsuite.core.entities.TestResult;
@@ -53,6 +53,11 @@ import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
 import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
+import org.wso2.scim2.testsuite.core.protocol.TestScheduler;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureProvisioner;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureRegistry;
+import org.wso2.scim2.testsuite.core.tests.common.ListResponse;
 import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
 import org.wso2.scim2.testsuite.core.tests.model.RequestPath;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
@@ -62,8 +67,13 @@ import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
  */
 public class GroupTestImpl implements ResourceType {
 
+    // Scope of the deletions of the resources created by the tests, see CleanupQueue.
+    private static final String CLEANUP_SCOPE = ComplianceConstants.FixtureConstants.GROUP_USER_NAME_PREFIX;
+
     private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
 
+    private final FixtureProvisioner fixtureProvisioner;
+
     private final String url;
 
     /**
@@ -74,152 +84,42 @@ public class GroupTestImpl implements ResourceType {
     public GroupTestImpl(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
 
         this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        fixtureProvisioner = new FixtureProvisioner(complianceTestMetaDataHolder, CLEANUP_SCOPE);
 
         url = complianceTestMetaDataHolder.getUrl() + ComplianceConstants.TestConstants.GROUPS_ENDPOINT;
     }
 
     /**
-     * Create test users for test cases.
+     * Give the users of a definition the user names of this test, groupUser1 to groupUser5, so the test runs
+     * concurrently with the other tests which create users.
      *
-     * @param noOfUsers Specify the number of users needs to create.
-     * @return userIDS of created users.
-     * @throws ComplianceException Constructed new exception with the specified detail message.
-     * @throws GeneralComplianceException General exceptions.
+     * @param definition Json definition.
+     * @return Json definition with the user names of this test.
      */
-    private ArrayList<String> createTestsUsers(String noOfUsers)
-            throws ComplianceException, GeneralComplianceException {
-
-        String url = complianceTestMetaDataHolder.getUrl() + ComplianceConstants.TestConstants.USERS_ENDPOINT;
+    private static String laneDefinition(String definition) {
 
-        ArrayList<String> definedUsers = new ArrayList<>();
-        ArrayList<String> userIDs = new ArrayList<>();
-
-        if (noOfUsers.equals("One")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.defineUser);
-        } else if (noOfUsers.equals("Many")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser1);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser2);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser3);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser4);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser5);
-        }
-
-        HttpPost method = new HttpPost(url);
-        // Create users.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedUser : definedUsers) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create Users.
-                HttpEntity entity = new ByteArrayEntity(definedUser.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to the user.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    User user;
-                    try {
-                        user = jsonDecoder.decodeResource(responseString, schema, new User());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                                "Could not decode the server response of users create.", ComplianceUtils.getWire(method,
-                                        responseString, headerString.toString(), responseStatus, subTests),
-                                stopTime - startTime));
-                    }
-                    userIDs.add(user.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                        "Could not create default users at url " + url, ComplianceUtils.getWire(method, responseString,
-                                headerString.toString(), responseStatus, subTests),
-                        stopTime - startTime));
-            }
-        }
-        return userIDs;
+        return FixtureProvisioner.withUserNamePrefix(definition,
+                ComplianceConstants.FixtureConstants.GROUP_USER_NAME_PREFIX);
     }
 
     /**
-     * Delete a user after test execution.
+     * Lease the shared test users, groupUser1 to groupUser5. The users are created once per run and must not be
+     * modified by the test.
      *
-     * @param id User id to delete a user.
-     * @param testName Respective test case.
-     * @throws GeneralComplianceException General exceptions.
+     * @return Lease of the users.
      * @throws ComplianceException Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
      */
-    private void cleanUpUser(String id, String testName) throws GeneralComplianceException, ComplianceException {
-
-        long startTime = System.currentTimeMillis();
-        String url = complianceTestMetaDataHolder.getUrl() + ComplianceConstants.TestConstants.USERS_ENDPOINT;
-        String deleteUserURL = url + "/" + id;
-        HttpDelete method = new HttpDelete(deleteUserURL);
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        try {
-            response = client.execute(method);
-            // Read the response body.
-            responseString = new BasicResponseHandler().handleResponse(response);
-            // Get all headers.
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-        } catch (Exception e) {
-            /*
-             * Read the response body. Get all headers.
-             */
-            assert response != null;
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus, subTests),
-                    stopTime - startTime));
-        }
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus, subTests),
-                    stopTime - startTime));
-        }
+    private FixtureRegistry.Lease leaseTestsUsers() throws ComplianceException, GeneralComplianceException {
+
+        return complianceTestMetaDataHolder.getFixtureRegistry().lease(
+                ComplianceConstants.FixtureConstants.SHARED_GROUP_USERS, fixtureProvisioner,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT,
+                Arrays.asList(laneDefinition(ComplianceConstants.DefinedInstances.definedUser1),
+                        laneDefinition(ComplianceConstants.DefinedInstances.definedUser2),
+                        laneDefinition(ComplianceConstants.DefinedInstances.definedUser3),
+                        laneDefinition(ComplianceConstants.DefinedInstances.definedUser4),
+                        laneDefinition(ComplianceConstants.DefinedInstances.definedUser5)), "List Users");
     }
 
     /**
@@ -234,147 +134,42 @@ public class GroupTestImpl implements ResourceType {
     private ArrayList<String> createTestsGroups(ArrayList<String> userIDs, String noOfGroups)
             throws ComplianceException, GeneralComplianceException {
 
-        ArrayList<String> groupIDs = new ArrayList<>();
         ArrayList<String> definedGroups = new ArrayList<>();
 
         if (noOfGroups.equals("One")) {
             definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"],"
                     + "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"display"
-                    + "\":\"loginUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl()
+                    + "\":\"groupUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl()
                     + ComplianceConstants.TestConstants.USERS_ENDPOINT + "/" + userIDs.get(0) + "\"}," + "{\"value\":\""
-                    + userIDs.get(1) + "\",\"display\":\"loginUser2\"},{\"value\":\"" + userIDs.get(2)
-                    + "\",\"display\":\"loginUser3\"},{\"value\":\"" + userIDs.get(3) + "\",\"display"
-                    + "\":\"loginUser4" + "\"}," + "{\"value\":\"" + userIDs.get(4)
-                    + "\",\"display\":\"loginUser5\"}]}");
+                    + userIDs.get(1) + "\",\"display\":\"groupUser2\"},{\"value\":\"" + userIDs.get(2)
+                    + "\",\"display\":\"groupUser3\"},{\"value\":\"" + userIDs.get(3) + "\",\"display"
+                    + "\":\"groupUser4" + "\"}," + "{\"value\":\"" + userIDs.get(4)
+                    + "\",\"display\":\"groupUser5\"}]}");
         } else if (noOfGroups.equals("Many")) {
             definedGroups.add("{\"displayName\": \"EYtXcD21\"}");
             definedGroups.add("{\"displayName\": \"BktqER22\"}");
             definedGroups.add("{\"displayName\": \"ZwLtOP23\"}");
             definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"],"
                     + "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"display"
-                    + "\":\"loginUser1\"}," + "{\"value\":\"" + userIDs.get(1) + "\",\"display\":\"loginUser2\"},"
-                    + "{\"value\":\"" + userIDs.get(2) + "\",\"display\":\"loginUser3\"},{\"value\":\"" + userIDs.get(3)
-                    + "\",\"display" + "\":\"loginUser4" + "\"}," + "{\"value\":\"" + userIDs.get(4)
-                    + "\",\"display\":\"loginUser5\"}]}");
+                    + "\":\"groupUser1\"}," + "{\"value\":\"" + userIDs.get(1) + "\",\"display\":\"groupUser2\"},"
+                    + "{\"value\":\"" + userIDs.get(2) + "\",\"display\":\"groupUser3\"},{\"value\":\"" + userIDs.get(3)
+                    + "\",\"display" + "\":\"groupUser4" + "\"}," + "{\"value\":\"" + userIDs.get(4)
+                    + "\",\"display\":\"groupUser5\"}]}");
         }
 
-        HttpPost method = new HttpPost(url);
-        // create groups
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder();
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedGroup : definedGroups) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create the group.
-                HttpEntity entity = new ByteArrayEntity(definedGroup.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to group.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    Group group;
-                    try {
-                        group = jsonDecoder.decodeResource(responseString, schema, new Group());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
-                                "Could not decode the server response of groups create.",
-                                ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                        subTests),
-                                stopTime - startTime));
-                    }
-                    groupIDs.add(group.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
-                        "Could not create default groups at url " + url, ComplianceUtils.getWire(method, responseString,
-                                headerString.toString(), responseStatus, subTests),
-                        stopTime - startTime));
-            }
-        }
-        return groupIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.GROUPS_ENDPOINT, definedGroups,
+                "List Groups");
     }
 
     /**
-     * This method cleans the group with the given groupId and the user with the given id.
+     * Schedule the deletion of the group with the given groupId after test execution.
      *
      * @param groupId Contains group id.
-     * @param testName Contains name of the test.
-     * @throws GeneralComplianceException General exceptions.
-     * @throws ComplianceException Constructed new exception with the specified detail message.
      */
-    private void cleanUpGroup(String groupId, String testName) throws GeneralComplianceException, ComplianceException {
+    private void cleanUpGroup(String groupId) {
 
-        long startTime = System.currentTimeMillis();
-        String deleteGroupURL;
-        deleteGroupURL = url + "/" + groupId;
-        HttpDelete method = new HttpDelete(deleteGroupURL);
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        try {
-            response = client.execute(method);
-            // Read the response body.
-            responseString = new BasicResponseHandler().handleResponse(response);
-            // Get all headers.
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-        } catch (Exception e) {
-            /*
-             * Read the response body. Get all headers.
-             */
-            assert response != null;
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default group at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus, subTests),
-                    stopTime - startTime));
-        }
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default group at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus, subTests),
-                    stopTime - startTime));
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.GROUPS_ENDPOINT, Collections.singletonList(groupId));
     }
 
     /**
@@ -395,16 +190,6 @@ public class GroupTestImpl implements ResourceType {
         return sorted;
     }
 
-    /**
-     * Generating unique numbers.
-     *
-     * @return unique number.
-     */
-    private static String generateUniqueID() {
-
-        return UUID.randomUUID().toString();
-    }
-
     /**
      * Add assertion details.
      *
@@ -450,11 +235,28 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> getMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return getMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the get tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> getMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults = new ArrayList<>();
-        ArrayList<String> userIDs;
         ArrayList<String> groupIDs;
-        // Create 5 test users to assign for groups.
-        userIDs = createTestsUsers("Many");
         // Create test groups with users.
         groupIDs = createTestsGroups(userIDs, "Many");
 
@@ -604,196 +406,207 @@ public class GroupTestImpl implements ResourceType {
         requestPaths = new RequestPath[] { requestPath1, requestPath2, requestPath3, requestPath4, requestPath5,
                 requestPath6, requestPath7, requestPath8, requestPath9, requestPath10, requestPath11, requestPath12,
                 requestPath13, requestPath14, requestPath15, requestPath16, requestPath17, requestPath18 };
+        // Run the sub tests, concurrently when it is enabled.
+        ArrayList<TestScheduler.TestTask> subTestTasks = new ArrayList<>();
         for (RequestPath requestPath : requestPaths) {
-            long startTime = System.currentTimeMillis();
-            String requestUrl = url + requestPath.getUrl();
-            HttpGet method = new HttpGet(requestUrl);
-            HttpClient client = HTTPClient.getHttpClient();
-            HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-            method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                    ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-            HttpResponse response = null;
-            String responseString = StringUtils.EMPTY;
-            StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-            String responseStatus;
-            int startIndex;
-            int count;
-            ArrayList<String> subTests = new ArrayList<>();
-            boolean errorOccur = false;
-            try {
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                // Get all headers.
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-            } catch (Exception e) {
-                /*
-                 * Read the response body. Get all headers.
-                 */
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                if (requestPath.getTestSupported()
-                        && response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED) {
-                    // Check for status returned.
-                    addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
-                            String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
-                            ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                    long stopTime = System.currentTimeMillis();
-                    testResults.add(
-                            new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Could not list the groups at url " + url, ComplianceUtils.getWire(method,
-                                            responseString, headerString.toString(), responseStatus, subTests),
-                                    stopTime - startTime));
-                    continue;
-                }
+            subTestTasks.add(() -> getGroupsSubTest(requestPath, groupIDs));
+        }
+        testResults.addAll(TestScheduler.runInOrder(subTestTasks, complianceTestMetaDataHolder.getSubTestThreads()));
+        // Clean up groups.
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.GROUPS_ENDPOINT, groupIDs);
+        return testResults;
+    }
+
+    /**
+     * Run a single get groups sub test.
+     *
+     * @param requestPath Contains the sub test details.
+     * @param groupIDs Ids of the created test groups.
+     * @return testResults Array containing test results of the sub test.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> getGroupsSubTest(RequestPath requestPath, ArrayList<String> groupIDs)
+            throws GeneralComplianceException, ComplianceException {
+
+        ArrayList<TestResult> testResults = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+        String requestUrl = url + requestPath.getUrl();
+        HttpGet method = new HttpGet(requestUrl);
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
+        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
+        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
+                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        HttpResponse response = null;
+        String responseString = StringUtils.EMPTY;
+        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
+        String responseStatus;
+        int startIndex;
+        int count;
+        ArrayList<String> subTests = new ArrayList<>();
+        boolean errorOccur = false;
+        try {
+            response = client.execute(method);
+            // Read the response body.
+            responseString = new BasicResponseHandler().handleResponse(response);
+            // Get all headers.
+            Header[] headers = response.getAllHeaders();
+            for (Header header : headers) {
+                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
             }
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+            responseStatus = response.getStatusLine().getStatusCode() + " "
+                    + response.getStatusLine().getReasonPhrase();
+        } catch (Exception e) {
+            /*
+             * Read the response body. Get all headers.
+             */
+            assert response != null;
+            Header[] headers = response.getAllHeaders();
+            for (Header header : headers) {
+                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
+            }
+            responseStatus = response.getStatusLine().getStatusCode() + " "
+                    + response.getStatusLine().getReasonPhrase();
+            if (requestPath.getTestSupported()
+                    && response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED) {
                 // Check for status returned.
                 addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
                         String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
-                        ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                // Obtain the schema corresponding to group.
-                SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-                JSONDecoder jsonDecoder = new JSONDecoder();
-                JSONObject jsonObjResponse;
-                ArrayList<Group> groupList = new ArrayList<>();
-                try {
-                    JSONObject jsonObj = new JSONObject(responseString);
-                    jsonObjResponse = jsonObj;
-                    JSONArray groupsArray = jsonObj.getJSONArray("Resources");
-                    startIndex = (int) jsonObjResponse.get("startIndex");
-                    count = (int) jsonObjResponse.get("totalResults");
-                    JSONObject tmp;
-                    for (int j = 0; j < groupsArray.length(); j++) {
-                        tmp = groupsArray.getJSONObject(j);
-                        groupList.add(jsonDecoder.decodeResource(tmp.toString(), schema, new Group()));
-                        try {
-                            ResponseValidateTests.runValidateTests(groupList.get(j), schema, null, null, method,
-                                    responseString, headerString.toString(), responseStatus, subTests);
-                        } catch (BadRequestException | CharonException e) {
-                            subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
-                            subTests.add(StringUtils.EMPTY);
-                            long stopTime = System.currentTimeMillis();
-                            testResults.add(
-                                    new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                            "Response Validation Error", ComplianceUtils.getWire(method, responseString,
-                                                    headerString.toString(), responseStatus, subTests),
-                                            stopTime - startTime));
-                            errorOccur = true;
-                            break;
-                        }
+                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                long stopTime = System.currentTimeMillis();
+                testResults.add(
+                        new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Could not list the groups at url " + url, ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                return testResults;
+            }
+        }
+        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+            // Check for status returned.
+            addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
+                    String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
+                    ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+            // Obtain the schema corresponding to group.
+            SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
+            JSONDecoder jsonDecoder = new JSONDecoder();
+            ArrayList<Group> groupList = new ArrayList<>();
+            try {
+                // The resources are decoded from their own part of the response, which is scanned once.
+                ListResponse listResponse = ListResponse.parse(responseString);
+                List<String> resources = listResponse.getResources();
+                startIndex = listResponse.getStartIndex();
+                count = listResponse.getTotalResults();
+                for (int j = 0; j < resources.size(); j++) {
+                    long decodeStart = System.nanoTime();
+                    groupList.add(jsonDecoder.decodeResource(resources.get(j), schema, new Group()));
+                    LatencyRecorder.recordDecode(decodeStart);
+                    try {
+                        ResponseValidateTests.runValidateTests(groupList.get(j), schema, null, null, method,
+                                responseString, headerString.toString(), responseStatus, subTests);
+                    } catch (BadRequestException | CharonException e) {
+                        subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
+                        subTests.add(StringUtils.EMPTY);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(
+                                new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                        "Response Validation Error", ComplianceUtils.getWire(method, responseString,
+                                                headerString.toString(), responseStatus, subTests),
+                                        stopTime - startTime));
+                        errorOccur = true;
+                        break;
                     }
-                } catch (JSONException | BadRequestException | CharonException | InternalErrorException e) {
-                    long stopTime = System.currentTimeMillis();
-                    testResults.add(
-                            new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Could not decode the server response", ComplianceUtils.getWire(method,
-                                            responseString, headerString.toString(), responseStatus, subTests),
-                                    stopTime - startTime));
-                    continue;
                 }
-                switch (requestPath.getTestCaseName()) {
-                    case "List groups":
-                    case "List groups with only using startIndex":
-                        // check for all created groups
-                        ArrayList<String> returnedGroupIDs = new ArrayList<>();
-                        for (Group group : groupList) {
-                            returnedGroupIDs.add(group.getId());
-                        }
-                        for (String id : groupIDs) {
-                            if (!returnedGroupIDs.contains(id)) {
-                                addAssertion(ComplianceConstants.TestConstants.ALL_GROUPS_IN_TEST,
-                                        "Check the created 5 groups are listed.",
-                                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain all the created groups",
-                                        ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                                responseStatus, subTests),
-                                        stopTime - startTime));
-                                errorOccur = true;
-                                break;
-                            }
-                        }
-                        if (!errorOccur) {
+            } catch (JSONException | BadRequestException | CharonException | InternalErrorException e) {
+                long stopTime = System.currentTimeMillis();
+                testResults.add(
+                        new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Could not decode the server response", ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                return testResults;
+            }
+            switch (requestPath.getTestCaseName()) {
+                case "List groups":
+                case "List groups with only using startIndex":
+                    // check for all created groups
+                    ArrayList<String> returnedGroupIDs = new ArrayList<>();
+                    for (Group group : groupList) {
+                        returnedGroupIDs.add(group.getId());
+                    }
+                    for (String id : groupIDs) {
+                        if (!returnedGroupIDs.contains(id)) {
                             addAssertion(ComplianceConstants.TestConstants.ALL_GROUPS_IN_TEST,
                                     "Check the created 5 groups are listed.",
-                                    ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        }
-                        break;
-                    case "Get groups with displayName as filter":
-                    case "List groups by filtering - displayName eq with only" + " using startIndex":
-                    case "List groups by f" + "iltering - displayName eq to check case insensitivity of attribute":
-                    case "List groups by filtering - displayName eq to check " + "case insensitivity of operator":
-                    case "List groups by filtering - displayName co":
-                    case "List groups by filtering - displayName sw":
-                    case "List groups by filtering - displayName ew": {
-                        String value = "EYtXcD21";
-                        for (Group group : groupList) {
-                            if (!Objects.equals(value, group.getDisplayName())) {
-                                addAssertion(requestPath.getTestCaseName() + " test",
-                                        "displayName:" + group.getDisplayName(), "displayName:" + value,
-                                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the expected groups", ComplianceUtils.getWire(method,
-                                                responseString, headerString.toString(), responseStatus, subTests),
-                                        stopTime - startTime));
-                                errorOccur = true;
-                                break;
-                            }
-                        }
-                        if (!errorOccur) {
-                            addAssertion(requestPath.getTestCaseName() + " test", "displayName:" + value,
-                                    "displayName:" + value, ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        }
-                        break;
-                    }
-                    case "Get groups with index pagination and count":
-                    case "Get users having negative number as index":
-                        if (groupList.size() != 2) {
-                            addAssertion(requestPath.getTestCaseName() + "Test",
-                                    "startIndex:" + startIndex + ",totalResults:" + groupList.size(),
-                                    "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
-                                    subTests);
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Response does not contain right number of paginated groups",
+                                    "Response does not contain all the created groups",
                                     ComplianceUtils.getWire(method, responseString, headerString.toString(),
                                             responseStatus, subTests),
                                     stopTime - startTime));
-                            continue;
+                            errorOccur = true;
+                            break;
+                        }
+                    }
+                    if (!errorOccur) {
+                        addAssertion(ComplianceConstants.TestConstants.ALL_GROUPS_IN_TEST,
+                                "Check the created 5 groups are listed.",
+                                ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    }
+                    break;
+                case "Get groups with displayName as filter":
+                case "List groups by filtering - displayName eq with only" + " using startIndex":
+                case "List groups by f" + "iltering - displayName eq to check case insensitivity of attribute":
+                case "List groups by filtering - displayName eq to check " + "case insensitivity of operator":
+                case "List groups by filtering - displayName co":
+                case "List groups by filtering - displayName sw":
+                case "List groups by filtering - displayName ew": {
+                    String value = "EYtXcD21";
+                    for (Group group : groupList) {
+                        if (!Objects.equals(value, group.getDisplayName())) {
+                            addAssertion(requestPath.getTestCaseName() + " test",
+                                    "displayName:" + group.getDisplayName(), "displayName:" + value,
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                            long stopTime = System.currentTimeMillis();
+                            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                    "Response does not contain the expected groups", ComplianceUtils.getWire(method,
+                                            responseString, headerString.toString(), responseStatus, subTests),
+                                    stopTime - startTime));
+                            errorOccur = true;
+                            break;
                         }
+                    }
+                    if (!errorOccur) {
+                        addAssertion(requestPath.getTestCaseName() + " test", "displayName:" + value,
+                                "displayName:" + value, ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    }
+                    break;
+                }
+                case "Get groups with index pagination and count":
+                case "Get users having negative number as index":
+                    if (groupList.size() != 2) {
                         addAssertion(requestPath.getTestCaseName() + "Test",
                                 "startIndex:" + startIndex + ",totalResults:" + groupList.size(),
-                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_SUCCESS,
+                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
                                 subTests);
-                        break;
-                    case "Get groups with group id sorting and " + "ascending order":
-                        try {
-                            if (!isGroupListSorted(groupList)) {
-                                addAssertion(ComplianceConstants.TestConstants.SORT_GROUPS_TEST,
-                                        "Check created groups are sorted or not.",
-                                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the sorted list of groups",
-                                        ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                                responseStatus, subTests),
-                                        stopTime - startTime));
-                                continue;
-                            }
-                        } catch (CharonException e) {
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain right number of paginated groups",
+                                ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                        responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    addAssertion(requestPath.getTestCaseName() + "Test",
+                            "startIndex:" + startIndex + ",totalResults:" + groupList.size(),
+                            "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_SUCCESS,
+                            subTests);
+                    break;
+                case "Get groups with group id sorting and " + "ascending order":
+                    try {
+                        if (!isGroupListSorted(groupList)) {
                             addAssertion(ComplianceConstants.TestConstants.SORT_GROUPS_TEST,
                                     "Check created groups are sorted or not.",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
@@ -803,103 +616,106 @@ public class GroupTestImpl implements ResourceType {
                                     ComplianceUtils.getWire(method, responseString, headerString.toString(),
                                             responseStatus, subTests),
                                     stopTime - startTime));
-                            continue;
+                            return testResults;
                         }
+                    } catch (CharonException e) {
                         addAssertion(ComplianceConstants.TestConstants.SORT_GROUPS_TEST,
                                 "Check created groups are sorted or not.",
-                                ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        break;
-                    case "Get groups with displayName as filter and " + "with pagination": {
-                        if (groupList.size() != 1) {
+                                ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain the sorted list of groups",
+                                ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                        responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    addAssertion(ComplianceConstants.TestConstants.SORT_GROUPS_TEST,
+                            "Check created groups are sorted or not.",
+                            ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    break;
+                case "Get groups with displayName as filter and " + "with pagination": {
+                    if (groupList.size() != 1) {
+                        addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
+                                "startIndex:" + startIndex + ",totalResults:" + groupList.size(),
+                                "startIndex:1,totalResults:1", ComplianceConstants.TestConstants.STATUS_FAILED,
+                                subTests);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain right number of users.", ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    String value = "EYtXcD21";
+                    for (Group group : groupList) {
+                        if (!Objects.equals(value, group.getDisplayName())) {
                             addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                    "startIndex:" + startIndex + ",totalResults:" + groupList.size(),
-                                    "startIndex:1,totalResults:1", ComplianceConstants.TestConstants.STATUS_FAILED,
-                                    subTests);
+                                    "startIndex:" + startIndex + ",totalResults:" + groupList.size()
+                                            + ",displayName:" + group.getDisplayName(),
+                                    "startIndex:1,totalResults:1,displayName:groupUser1",
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Response does not contain right number of users.", ComplianceUtils.getWire(method,
+                                    "Response does not contain the expected groups", ComplianceUtils.getWire(method,
                                             responseString, headerString.toString(), responseStatus, subTests),
                                     stopTime - startTime));
-                            continue;
-                        }
-                        String value = "EYtXcD21";
-                        for (Group group : groupList) {
-                            if (!Objects.equals(value, group.getDisplayName())) {
-                                addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                        "startIndex:" + startIndex + ",totalResults:" + groupList.size()
-                                                + ",displayName:" + group.getDisplayName(),
-                                        "startIndex:1,totalResults:1,displayName:loginUser1",
-                                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the expected groups", ComplianceUtils.getWire(method,
-                                                responseString, headerString.toString(), responseStatus, subTests),
-                                        stopTime - startTime));
-                                errorOccur = true;
-                                break;
-                            }
-                        }
-                        if (!errorOccur) {
-                            addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                    "startIndex:1,totalResults:1,displayName:loginUser1",
-                                    "startIndex:1,totalResults:1,displayName:loginUser1",
-                                    ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                            errorOccur = true;
+                            break;
                         }
-                        break;
                     }
-                    case "Get groups without index and only using count":
-                        if (startIndex != 1 && count != 2) {
-                            addAssertion(ComplianceConstants.TestConstants.PAGINATION_USER_TEST,
-                                    "startIndex:" + startIndex + "," + "totalResults:" + count,
-                                    "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
-                                    subTests);
-                            long stopTime = System.currentTimeMillis();
-                            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Response does not contain right number of pagination.",
-                                    ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                            responseStatus, subTests),
-                                    stopTime - startTime));
-                            continue;
-                        }
-                        addAssertion(ComplianceConstants.TestConstants.PAGINATION_USER_TEST,
-                                "startIndex:1,totalResults:2", "startIndex:1,totalResults:2",
+                    if (!errorOccur) {
+                        addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
+                                "startIndex:1,totalResults:1,displayName:groupUser1",
+                                "startIndex:1,totalResults:1,displayName:groupUser1",
                                 ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        break;
-                }
-                long stopTime = System.currentTimeMillis();
-                if (!errorOccur) {
-                    testResults.add(new TestResult(TestResult.SUCCESS, requestPath.getTestCaseName(), StringUtils.EMPTY,
-                            ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                    subTests),
-                            stopTime - startTime));
+                    }
+                    break;
                 }
-            } else if (!requestPath.getTestSupported()
-                    || response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_IMPLEMENTED) {
-                // Check for status returned.
-                addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
-                        String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
-                        ComplianceConstants.TestConstants.STATUS_SKIPPED, subTests);
-                long stopTime = System.currentTimeMillis();
-                testResults.add(new TestResult(TestResult.SKIPPED, requestPath.getTestCaseName(),
-                        "This functionality is not implemented. Hence given status code 501",
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests),
-                        stopTime - startTime));
-            } else {
-                long stopTime = System.currentTimeMillis();
-                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
+                case "Get groups without index and only using count":
+                    if (startIndex != 1 && count != 2) {
+                        addAssertion(ComplianceConstants.TestConstants.PAGINATION_USER_TEST,
+                                "startIndex:" + startIndex + "," + "totalResults:" + count,
+                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
+                                subTests);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain right number of pagination.",
+                                ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                        responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    addAssertion(ComplianceConstants.TestConstants.PAGINATION_USER_TEST,
+                            "startIndex:1,totalResults:2", "startIndex:1,totalResults:2",
+                            ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    break;
+            }
+            long stopTime = System.currentTimeMillis();
+            if (!errorOccur) {
+                testResults.add(new TestResult(TestResult.SUCCESS, requestPath.getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
                                 subTests),
                         stopTime - startTime));
             }
-        }
-        // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "get groups test");
-        }
-        // Clean up groups.
-        for (String id : groupIDs) {
-            cleanUpGroup(id, "Get groups");
+        } else if (!requestPath.getTestSupported()
+                || response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_IMPLEMENTED) {
+            // Check for status returned.
+            addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
+                    String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
+                    ComplianceConstants.TestConstants.STATUS_SKIPPED, subTests);
+            long stopTime = System.currentTimeMillis();
+            testResults.add(new TestResult(TestResult.SKIPPED, requestPath.getTestCaseName(),
+                    "This functionality is not implemented. Hence given status code 501",
+                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
+                            subTests),
+                    stopTime - startTime));
+        } else {
+            long stopTime = System.currentTimeMillis();
+            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
+                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
+                            subTests),
+                    stopTime - startTime));
         }
         return testResults;
     }
@@ -914,11 +730,29 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> getByIdMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return getByIdMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the get by id tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> getByIdMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
-        ArrayList<String> userIDs;
-
         RequestPath[] requestPaths;
 
         RequestPath requestPath1 = new RequestPath();
@@ -934,21 +768,20 @@ public class GroupTestImpl implements ResourceType {
         requestPath3.setTestCaseName("Get a group with excluding members attribute");
 
         RequestPath requestPath4 = new RequestPath();
-        requestPath4.setUrl(generateUniqueID());
+        requestPath4.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         requestPath4.setTestCaseName("Get group with non existing ID and validate group not found error response");
 
         requestPaths = new RequestPath[] { requestPath1, requestPath2, requestPath3, requestPath4 };
 
         for (RequestPath requestPath : requestPaths) {
             long startTime = System.currentTimeMillis();
-            userIDs = createTestsUsers("Many");
             ArrayList<String> groupId = createTestsGroups(userIDs, "One");
             String id = groupId.get(0);
             Group group;
             String getGroupURL;
             getGroupURL = url + "/" + id + requestPath.getUrl();
             HttpGet method = new HttpGet(getGroupURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -977,11 +810,7 @@ public class GroupTestImpl implements ResourceType {
                 }
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
-                // Clean up users.
-                for (String uId : userIDs) {
-                    cleanUpUser(uId, requestPath.getTestCaseName());
-                }
-                cleanUpGroup(id, requestPath.getTestCaseName());
+                cleanUpGroup(id);
                 if (!requestPath.getTestCaseName()
                                 .equals("Get group with non existing ID and validate group "
                                         + "not found error response")) {
@@ -1006,13 +835,11 @@ public class GroupTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     group = jsonDecoder.decodeResource(responseString, schema, new Group());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
-                    // Clean up users.
-                    for (String uId : userIDs) {
-                        cleanUpUser(uId, requestPath.getTestCaseName());
-                    }
-                    cleanUpGroup(id, requestPath.getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(
                             new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
@@ -1027,11 +854,7 @@ public class GroupTestImpl implements ResourceType {
                 } catch (BadRequestException | CharonException e) {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
-                    // Clean up users.
-                    for (String uId : userIDs) {
-                        cleanUpUser(uId, requestPath.getTestCaseName());
-                    }
-                    cleanUpGroup(id, requestPath.getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                             "Response Validation Error", ComplianceUtils.getWire(method, responseString,
@@ -1039,11 +862,7 @@ public class GroupTestImpl implements ResourceType {
                             stopTime - startTime));
                     continue;
                 }
-                // Clean up users.
-                for (String uId : userIDs) {
-                    cleanUpUser(uId, requestPath.getTestCaseName());
-                }
-                cleanUpGroup(id, requestPath.getTestCaseName());
+                cleanUpGroup(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.SUCCESS, requestPath.getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1066,11 +885,7 @@ public class GroupTestImpl implements ResourceType {
                                 subTests),
                         stopTime - startTime));
             } else {
-                // Clean up users.
-                for (String uId : userIDs) {
-                    cleanUpUser(uId, requestPath.getTestCaseName());
-                }
-                cleanUpGroup(id, requestPath.getTestCaseName());
+                cleanUpGroup(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1091,18 +906,38 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> postMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return postMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the post tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> postMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults = new ArrayList<>();
-        ArrayList<String> userIDs;
         ArrayList<String> definedGroups = new ArrayList<>();
         String groupId = null;
-        userIDs = createTestsUsers("Many");
+        // Deleted resources may have the same names as the resources created by this test.
+        complianceTestMetaDataHolder.getCleanupQueue().drain(CLEANUP_SCOPE);
         definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"],"
                 + "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"display"
-                + "\":\"loginUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl()
+                + "\":\"groupUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl()
                 + ComplianceConstants.TestConstants.USERS_ENDPOINT + "/" + userIDs.get(0) + "\"}," + "{\"value\":\""
-                + userIDs.get(1) + "\",\"display\":\"loginUser2\"},{\"value\":\"" + userIDs.get(2)
-                + "\",\"display\":\"loginUser3\"},{\"value\":\"" + userIDs.get(3) + "\",\"display" + "\":\"loginUser4"
-                + "\"}," + "{\"value\":\"" + userIDs.get(4) + "\",\"display\":\"loginUser5\"}]}");
+                + userIDs.get(1) + "\",\"display\":\"groupUser2\"},{\"value\":\"" + userIDs.get(2)
+                + "\",\"display\":\"groupUser3\"},{\"value\":\"" + userIDs.get(3) + "\",\"display" + "\":\"groupUser4"
+                + "\"}," + "{\"value\":\"" + userIDs.get(4) + "\",\"display\":\"groupUser5\"}]}");
         definedGroups.add("{\"displayName\": \"XwLtOP23\"}");
         definedGroups.add("");
 
@@ -1126,7 +961,7 @@ public class GroupTestImpl implements ResourceType {
             definedGroup = definedGroups.get(i);
             HttpPost method = new HttpPost(url);
             // Create group test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1185,7 +1020,9 @@ public class GroupTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     group = jsonDecoder.decodeResource(responseString, schema, new Group());
+                    LatencyRecorder.recordDecode(decodeStart);
                     groupId = group.getId();
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     long stopTime = System.currentTimeMillis();
@@ -1248,12 +1085,8 @@ public class GroupTestImpl implements ResourceType {
                         stopTime - startTime));
             }
         }
-        // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "get users test");
-        }
         // Clean up group.
-        cleanUpGroup(groupId, "Group Create");
+        cleanUpGroup(groupId);
 
         return testResults;
     }
@@ -1268,9 +1101,28 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> patchMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return patchMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the patch tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> patchMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
-        ArrayList<String> userIDs = createTestsUsers("Many");
         ArrayList<String> definedPatchedGroup = new ArrayList<>();
 
         definedPatchedGroup.add("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],"
@@ -1278,13 +1130,13 @@ public class GroupTestImpl implements ResourceType {
         definedPatchedGroup.add("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],"
                 + "\"Operations\":[{\"op\":\"remove\",\"path\":\"members\"}]}");
         definedPatchedGroup.add("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],"
-                + "\"Operations\":[{\"op\":\"replace\",\"value\":{\"members\":[{\"display\":\"loginUser4\",\"value"
+                + "\"Operations\":[{\"op\":\"replace\",\"value\":{\"members\":[{\"display\":\"groupUser4\",\"value"
                 + "\":\"" + userIDs.get(4) + "\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl()
                 + ComplianceConstants.TestConstants.USERS_ENDPOINT + "/" + userIDs.get(0) + "\"}]}}]}");
         definedPatchedGroup.add("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],"
                 + "\"Operations\":[{\"op\":\"remove\",\"path\":\"members\"},{\"op\":\"add\",\"path\":\"members\","
-                + "\"value\":[{\"display\":\"loginUser1\",\"value\":\"" + userIDs.get(0) + "\"}]},"
-                + "{\"op\":\"replace\",\"path\":\"members\",\"value\":[{\"display\":\"loginUser1\",\"value\":\""
+                + "\"value\":[{\"display\":\"groupUser1\",\"value\":\"" + userIDs.get(0) + "\"}]},"
+                + "{\"op\":\"replace\",\"path\":\"members\",\"value\":[{\"display\":\"groupUser1\",\"value\":\""
                 + userIDs.get(0) + "\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl()
                 + ComplianceConstants.TestConstants.USERS_ENDPOINT + "/" + userIDs.get(0) + "\"}]}]}");
         definedPatchedGroup.add("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:PatchOp\"],"
@@ -1341,7 +1193,7 @@ public class GroupTestImpl implements ResourceType {
 
         RequestPath requestPath6 = new RequestPath();
         requestPath6.setTestCaseName("Patch non existing group");
-        requestPath6.setUrl(generateUniqueID());
+        requestPath6.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         try {
             requestPath6.setTestSupported(
                     complianceTestMetaDataHolder.getScimServiceProviderConfig().getPatchSupported());
@@ -1360,7 +1212,7 @@ public class GroupTestImpl implements ResourceType {
             String patchGroupURL;
             patchGroupURL = url + "/" + id + requestPaths[i].getUrl();
             HttpPatch method = new HttpPatch(patchGroupURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             HttpResponse response = null;
             String responseString = StringUtils.EMPTY;
@@ -1395,7 +1247,7 @@ public class GroupTestImpl implements ResourceType {
                 }
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
-                cleanUpGroup(id, "Patch Group");
+                cleanUpGroup(id);
                 if (!requestPaths[i].getTestCaseName().equals("Patch group and validate error response")
                         && !requestPaths[i].getTestCaseName().equals("Patch non existing group")
                         && requestPaths[i].getTestSupported()
@@ -1424,9 +1276,11 @@ public class GroupTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     group = jsonDecoder.decodeResource(responseString, schema, new Group());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
-                    cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(
                             new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
@@ -1441,14 +1295,14 @@ public class GroupTestImpl implements ResourceType {
                 } catch (BadRequestException | CharonException e) {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
-                    cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Response Validation Error", ComplianceUtils.getWire(method, responseString,
                                     headerString.toString(), responseStatus, subTests),
                             stopTime - startTime));
                 }
-                cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                cleanUpGroup(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.SUCCESS, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1503,10 +1357,6 @@ public class GroupTestImpl implements ResourceType {
                         stopTime - startTime));
             }
         }
-        // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "Patch groups test");
-        }
         return testResults;
     }
 
@@ -1520,19 +1370,38 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> putMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return putMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the put tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> putMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
         ArrayList<String> definedGroups = new ArrayList<>();
 
         definedGroups.add("{\n" + "  \"displayName\": \"XwLtOP23-Updated\",\n" + "  \"members\": [\n" + "    {\n"
-                + "      \"display\": \"loginUser1\"\n" + "    },{\n" + "          \"display\": \"loginUser2\"\n"
-                + "    },{\n" + "          \"display\": \"loginUser3\"\n" + "    },{\n"
-                + "          \"display\": \"loginUser4\"\n" + "    },{\n" + "          \"display\": \"loginUser5\"\n"
+                + "      \"display\": \"groupUser1\"\n" + "    },{\n" + "          \"display\": \"groupUser2\"\n"
+                + "    },{\n" + "          \"display\": \"groupUser3\"\n" + "    },{\n"
+                + "          \"display\": \"groupUser4\"\n" + "    },{\n" + "          \"display\": \"groupUser5\"\n"
                 + "    }\n" + "  ]\n" + "}");
         definedGroups.add("{\"displaayName\": \"XwLtOP23-Updated\"}");
         definedGroups.add("{\"displayName\": \"XwLtOP23-UpdatedWithNonExistingId\"}");
-        ArrayList<String> userIDs;
         RequestPath[] requestPaths;
 
         RequestPath requestPath1 = new RequestPath();
@@ -1543,20 +1412,19 @@ public class GroupTestImpl implements ResourceType {
 
         RequestPath requestPath3 = new RequestPath();
         requestPath3.setTestCaseName("Update non existing group and and verify Http status code");
-        requestPath3.setUrl(generateUniqueID());
+        requestPath3.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
 
         requestPaths = new RequestPath[] { requestPath1, requestPath2, requestPath3 };
 
         for (int i = 0; i < requestPaths.length; i++) {
             long startTime = System.currentTimeMillis();
-            userIDs = createTestsUsers("Many");
             ArrayList<String> groupId = createTestsGroups(userIDs, "One");
             String id = groupId.get(0);
             Group group;
             String updateUserURL;
             updateUserURL = url + "/" + id + requestPaths[i].getUrl();
             HttpPut method = new HttpPut(updateUserURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             HttpResponse response = null;
             String responseString = StringUtils.EMPTY;
@@ -1590,11 +1458,7 @@ public class GroupTestImpl implements ResourceType {
                 }
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
-                // Clean up users.
-                for (String uId : userIDs) {
-                    cleanUpUser(uId, requestPaths[i].getTestCaseName());
-                }
-                cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                cleanUpGroup(id);
                 if (requestPaths[i].getTestCaseName().equals("Update Group")) {
                     // Check for status returned.
                     addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
@@ -1620,13 +1484,11 @@ public class GroupTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     group = jsonDecoder.decodeResource(responseString, schema, new Group());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
-                    // Clean up users.
-                    for (String uId : userIDs) {
-                        cleanUpUser(uId, requestPaths[i].getTestCaseName());
-                    }
-                    cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(
                             new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
@@ -1642,11 +1504,7 @@ public class GroupTestImpl implements ResourceType {
                 } catch (BadRequestException | CharonException e) {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
-                    // Clean up users.
-                    for (String uId : userIDs) {
-                        cleanUpUser(uId, requestPaths[i].getTestCaseName());
-                    }
-                    cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Response Validation Error", ComplianceUtils.getWire(method, responseString,
@@ -1654,11 +1512,7 @@ public class GroupTestImpl implements ResourceType {
                             stopTime - startTime));
                     continue;
                 }
-                // Clean up users.
-                for (String uId : userIDs) {
-                    cleanUpUser(uId, requestPaths[i].getTestCaseName());
-                }
-                cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                cleanUpGroup(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.SUCCESS, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1692,11 +1546,7 @@ public class GroupTestImpl implements ResourceType {
                                 responseString, headerString.toString(), responseStatus, subTests),
                         stopTime - startTime));
             } else {
-                // Clean up users.
-                for (String uId : userIDs) {
-                    cleanUpUser(uId, requestPaths[i].getTestCaseName());
-                }
-                cleanUpGroup(id, requestPaths[i].getTestCaseName());
+                cleanUpGroup(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1717,11 +1567,29 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> deleteMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return deleteMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the delete tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> deleteMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
-        ArrayList<String> userIDs;
-        userIDs = createTestsUsers("Many");
         ArrayList<String> groupId = createTestsGroups(userIDs, "One");
         String id = groupId.get(0);
 
@@ -1736,7 +1604,7 @@ public class GroupTestImpl implements ResourceType {
         requestPath2.setTestCaseName("Delete group twice and verify Http status code");
 
         RequestPath requestPath3 = new RequestPath();
-        requestPath3.setUrl(generateUniqueID());
+        requestPath3.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         requestPath3.setTestCaseName("Delete group with non existing ID and validate group not found error response");
 
         requestPaths = new RequestPath[] { requestPath1, requestPath2, requestPath3 };
@@ -1746,7 +1614,7 @@ public class GroupTestImpl implements ResourceType {
             String deleteGroupURL;
             deleteGroupURL = url + "/" + id + requestPath.getUrl();
             HttpDelete method = new HttpDelete(deleteGroupURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1784,7 +1652,7 @@ public class GroupTestImpl implements ResourceType {
                             String.valueOf(HttpStatus.SC_NO_CONTENT), ComplianceConstants.TestConstants.STATUS_FAILED,
                             subTests);
                     // Clean up group.
-                    cleanUpGroup(id, requestPath.getTestCaseName());
+                    cleanUpGroup(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                             "Could not delete the default group at url " + url, ComplianceUtils.getWire(method,
@@ -1827,10 +1695,6 @@ public class GroupTestImpl implements ResourceType {
                         stopTime - startTime));
             }
         }
-        // Clean up users.
-        for (String uId : userIDs) {
-            cleanUpUser(uId, "Delete groups");
-        }
         return testResults;
     }
 
@@ -1844,12 +1708,30 @@ public class GroupTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> searchMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return searchMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the search tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> searchMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         // Store test results.
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
-        // Store userIDS of 5 users.
-        ArrayList<String> userIDs = createTestsUsers("Many");
         ArrayList<String> groupIDs = createTestsGroups(userIDs, "One");
 
         // Post bodies of search methods.
@@ -1881,7 +1763,7 @@ public class GroupTestImpl implements ResourceType {
             searchUsersUrl = url + "/.search";
             HttpPost method = new HttpPost(searchUsersUrl);
             // Create group test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1943,17 +1825,16 @@ public class GroupTestImpl implements ResourceType {
                 // Obtain the schema corresponding to group.
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
-                JSONObject jsonObjResponse;
                 ArrayList<Group> groupList = new ArrayList<>();
                 try {
-                    JSONObject jsonObj = new JSONObject(responseString);
-                    jsonObjResponse = jsonObj;
-                    JSONArray groupsArray = jsonObj.getJSONArray("Resources");
-                    totalResults = (int) jsonObjResponse.get("totalResults");
-                    JSONObject tmp;
-                    for (int j = 0; j < groupsArray.length(); j++) {
-                        tmp = groupsArray.getJSONObject(j);
-                        groupList.add(jsonDecoder.decodeResource(tmp.toString(), schema, new Group()));
+                    // The resources are decoded from their own part of the response, which is scanned once.
+                    ListResponse listResponse = ListResponse.parse(responseString);
+                    List<String> resources = listResponse.getResources();
+                    totalResults = listResponse.getTotalResults();
+                    for (int j = 0; j < resources.size(); j++) {
+                        long decodeStart = System.nanoTime();
+                        groupList.add(jsonDecoder.decodeResource(resources.get(j), schema, new Group()));
+                        LatencyRecorder.recordDecode(decodeStart);
                         try {
                             ResponseValidateTests.runValidateTests(groupList.get(j), schema, null, null, method,
                                     responseString, headerString.toString(), responseStatus, subTests);
@@ -2018,14 +1899,9 @@ public class GroupTestImpl implements ResourceType {
                         stopTime - startTime));
             }
         }
-        // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "Search groups");
-        }
         // Clean up groups.
-        for (String id : groupIDs) {
-            cleanUpGroup(id, "Search groups");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.GROUPS_ENDPOINT, groupIDs);
         return testResults;
     }
 
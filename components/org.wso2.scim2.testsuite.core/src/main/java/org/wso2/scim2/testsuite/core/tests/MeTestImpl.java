@@ -44,19 +44,26 @@ import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
 import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureProvisioner;
 import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
 import org.wso2.scim2.testsuite.core.tests.model.RequestPath;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 
 /**
  * Implementation of Me test cases.
  */
 public class MeTestImpl implements ResourceType {
 
+    // Scope of the deletions of the resources created by the tests, see CleanupQueue.
+    private static final String CLEANUP_SCOPE = ComplianceConstants.FixtureConstants.ME_USER_NAME_PREFIX;
+
     private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final FixtureProvisioner fixtureProvisioner;
     private final String url;
 
     /**
@@ -67,10 +74,24 @@ public class MeTestImpl implements ResourceType {
     public MeTestImpl(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
 
         this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        fixtureProvisioner = new FixtureProvisioner(complianceTestMetaDataHolder, CLEANUP_SCOPE);
         url = complianceTestMetaDataHolder.getUrl() +
                 ComplianceConstants.TestConstants.ME_ENDPOINT;
     }
 
+    /**
+     * Give the users of a definition the user names of this test, meUser1 to meUser5, so the test runs
+     * concurrently with the other tests which create users.
+     *
+     * @param definition Json definition.
+     * @return Json definition with the user names of this test.
+     */
+    private static String laneDefinition(String definition) {
+
+        return FixtureProvisioner.withUserNamePrefix(definition,
+                ComplianceConstants.FixtureConstants.ME_USER_NAME_PREFIX);
+    }
+
     /**
      * Create test users for test cases.
      *
@@ -82,141 +103,31 @@ public class MeTestImpl implements ResourceType {
     private ArrayList<String> createTestsUsers(String noOfUsers) throws ComplianceException,
             GeneralComplianceException {
 
-        String url = complianceTestMetaDataHolder.getUrl() +
-                ComplianceConstants.TestConstants.USERS_ENDPOINT;
-
         ArrayList<String> definedUsers = new ArrayList<>();
-        ArrayList<String> userIDs = new ArrayList<>();
 
         if (noOfUsers.equals("One")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.defineUser);
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.defineUser));
         } else if (noOfUsers.equals("Many")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser1);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser2);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser3);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser4);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser5);
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser1));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser2));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser3));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser4));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser5));
         }
 
-        HttpPost method = new HttpPost(url);
-        // Create users.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedUser : definedUsers) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create Users.
-                HttpEntity entity = new ByteArrayEntity(definedUser.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to the user.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    User user;
-                    try {
-                        user = jsonDecoder.decodeResource(responseString, schema, new User());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                                "Could not decode the server response of users create.",
-                                ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                        subTests), stopTime - startTime));
-                    }
-                    userIDs.add(user.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                        "Could not create default users at url " + url,
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests), stopTime - startTime));
-            }
-        }
-        return userIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.USERS_ENDPOINT, definedUsers,
+                "List Users");
     }
 
     /**
-     * Delete a user after test execution.
+     * Schedule the deletion of a user after test execution.
      *
-     * @param id       User id to delete a user.
-     * @param testName Respective test case.
-     * @throws GeneralComplianceException General exceptions.
-     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     * @param id User id to delete a user.
      */
-    private void cleanUpUser(String id, String testName) throws GeneralComplianceException, ComplianceException {
-
-        long startTime = System.currentTimeMillis();
-        String userEndpointURL = complianceTestMetaDataHolder.getUrl() +
-                ComplianceConstants.TestConstants.USERS_ENDPOINT;
-        String deleteUserURL = userEndpointURL + "/" + id;
-        HttpDelete method = new HttpDelete(deleteUserURL);
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        try {
-            response = client.execute(method);
-            // Read the response body.
-            responseString = new BasicResponseHandler().handleResponse(response);
-            // Get all headers.
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-
-        } catch (Exception e) {
-            /*
-             Read the response body.
-             Get all headers.
-             */
-            assert response != null;
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                            subTests), stopTime - startTime));
-        }
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                            subTests), stopTime - startTime));
-        }
+    private void cleanUpUser(String id) {
+
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, Collections.singletonList(id));
     }
 
     /**
@@ -274,9 +185,9 @@ public class MeTestImpl implements ResourceType {
             User user;
             String getMeURL = url + requestPath.getUrl();
             HttpGet method = new HttpGet(getMeURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(
-                    ComplianceConstants.DefinedInstances.defineUserName,
+                    ComplianceConstants.FixtureConstants.ME_USER_NAME_PREFIX,
                     ComplianceConstants.DefinedInstances.defineUserPassword,
                     method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
@@ -339,7 +250,9 @@ public class MeTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
@@ -408,7 +321,7 @@ public class MeTestImpl implements ResourceType {
             }
         }
         // Clean the created user.
-        cleanUpUser(id, "Get Me");
+        cleanUpUser(id);
         return testResults;
     }
 
@@ -439,6 +352,9 @@ public class MeTestImpl implements ResourceType {
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
+        // Deleted resources may have the same names as the resources created by this test.
+        complianceTestMetaDataHolder.getCleanupQueue().drain(CLEANUP_SCOPE);
+
         RequestPath[] requestPaths;
 
         RequestPath requestPath1 = new RequestPath();
@@ -452,7 +368,7 @@ public class MeTestImpl implements ResourceType {
             HttpPost method = new HttpPost(url);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             //create user test
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
             method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
@@ -465,8 +381,8 @@ public class MeTestImpl implements ResourceType {
             String locationHeader = null;
             try {
                 // Create the user.
-                HttpEntity entity = new ByteArrayEntity
-                        (ComplianceConstants.DefinedInstances.defineUser.getBytes(StandardCharsets.UTF_8));
+                HttpEntity entity = new ByteArrayEntity(laneDefinition(ComplianceConstants.DefinedInstances.defineUser)
+                        .getBytes(StandardCharsets.UTF_8));
                 method.setEntity(entity);
                 response = client.execute(method);
                 // Read the response body.
@@ -520,11 +436,13 @@ public class MeTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     try {
                         assert false;
-                        cleanUpUser(user.getId(), requestPath.getTestCaseName());
+                        cleanUpUser(user.getId());
                     } catch (GeneralComplianceException e1) {
                         long stopTime = System.currentTimeMillis();
                         testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
@@ -554,7 +472,7 @@ public class MeTestImpl implements ResourceType {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
                     try {
-                        cleanUpUser(user.getId(), requestPath.getTestCaseName());
+                        cleanUpUser(user.getId());
                     } catch (GeneralComplianceException e1) {
                         long stopTime = System.currentTimeMillis();
                         testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
@@ -569,7 +487,7 @@ public class MeTestImpl implements ResourceType {
                                     subTests), stopTime - startTime));
                 }
                 try {
-                    cleanUpUser(user.getId(), requestPath.getTestCaseName());
+                    cleanUpUser(user.getId());
                 } catch (GeneralComplianceException e1) {
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
@@ -632,11 +550,11 @@ public class MeTestImpl implements ResourceType {
 
         ArrayList<String> definedUsers = new ArrayList<>();
 
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedPatchUserPayload1);
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedPatchUserPayload2);
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedPatchUserPayload3);
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedPatchUserPayload4);
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedPatchUserPayload5);
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedPatchUserPayload1));
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedPatchUserPayload2));
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedPatchUserPayload3));
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedPatchUserPayload4));
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedPatchUserPayload5));
 
         RequestPath[] requestPaths;
 
@@ -666,9 +584,9 @@ public class MeTestImpl implements ResourceType {
             User user;
             HttpPatch method = new HttpPatch(url);
             // Create user test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(
-                    ComplianceConstants.DefinedInstances.defineUserName,
+                    ComplianceConstants.FixtureConstants.ME_USER_NAME_PREFIX,
                     ComplianceConstants.DefinedInstances.defineUserPassword,
                     method);
             HttpResponse response = null;
@@ -712,7 +630,7 @@ public class MeTestImpl implements ResourceType {
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
                 // Clean the created user.
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED &
                         response.getStatusLine().getStatusCode() != ComplianceConstants.TestConstants.SC_REDIRECT &
                         !requestPaths[i].getTestCaseName().equals("Patch Me error validation")) {
@@ -740,10 +658,12 @@ public class MeTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     // Clean the created user.
-                    cleanUpUser(id, requestPaths[i].getTestCaseName());
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Could not decode the server response",
@@ -767,7 +687,7 @@ public class MeTestImpl implements ResourceType {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
                     // Clean the created user.
-                    cleanUpUser(id, requestPaths[i].getTestCaseName());
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Response Validation Error",
@@ -776,7 +696,7 @@ public class MeTestImpl implements ResourceType {
                     continue;
                 }
                 // Clean the created user.
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult
                         (TestResult.SUCCESS, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
@@ -823,7 +743,7 @@ public class MeTestImpl implements ResourceType {
                                         subTests), stopTime - startTime));
             } else {
                 // Clean the created user.
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult
                         (TestResult.ERROR, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
@@ -849,8 +769,8 @@ public class MeTestImpl implements ResourceType {
 
         ArrayList<String> definedUsers = new ArrayList<>();
 
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedUpdatedUser1);
-        definedUsers.add(ComplianceConstants.DefinedInstances.definedUpdatedUser2);
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUpdatedUser1));
+        definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUpdatedUser2));
         RequestPath[] requestPaths;
 
         RequestPath requestPath1 = new RequestPath();
@@ -869,9 +789,9 @@ public class MeTestImpl implements ResourceType {
             userID = createTestsUsers("One");
             String id = userID.get(0);
             HttpPut method = new HttpPut(url);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(
-                    ComplianceConstants.DefinedInstances.defineUserName,
+                    ComplianceConstants.FixtureConstants.ME_USER_NAME_PREFIX,
                     ComplianceConstants.DefinedInstances.defineUserPassword,
                     method);
             HttpResponse response = null;
@@ -914,7 +834,7 @@ public class MeTestImpl implements ResourceType {
                 }
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED &
                         response.getStatusLine().getStatusCode() != ComplianceConstants.TestConstants.SC_REDIRECT &
                         !requestPaths[i].getTestCaseName().equals("Update Me with schema violation")) {
@@ -941,9 +861,11 @@ public class MeTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
-                    cleanUpUser(id, requestPaths[i].getTestCaseName());
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Could not decode the server response",
@@ -966,7 +888,7 @@ public class MeTestImpl implements ResourceType {
                 } catch (BadRequestException | CharonException e) {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
-                    cleanUpUser(id, requestPaths[i].getTestCaseName());
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Response Validation Error",
@@ -974,7 +896,7 @@ public class MeTestImpl implements ResourceType {
                                     subTests), stopTime - startTime));
                     continue;
                 }
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult
                         (TestResult.SUCCESS, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
@@ -1020,7 +942,7 @@ public class MeTestImpl implements ResourceType {
                                         responseString, headerString.toString(),
                                         responseStatus, subTests), stopTime - startTime));
             } else {
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult
                         (TestResult.ERROR, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
@@ -1059,9 +981,9 @@ public class MeTestImpl implements ResourceType {
             userID = createTestsUsers("One");
             String id = userID.get(0);
             HttpDelete method = new HttpDelete(url);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(
-                    ComplianceConstants.DefinedInstances.defineUserName,
+                    ComplianceConstants.FixtureConstants.ME_USER_NAME_PREFIX,
                     ComplianceConstants.DefinedInstances.defineUserPassword,
                     method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
@@ -1094,7 +1016,7 @@ public class MeTestImpl implements ResourceType {
                 }
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
-                cleanUpUser(id, requestPath.getTestCaseName());
+                cleanUpUser(id);
                 if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED &
                         response.getStatusLine().getStatusCode() != ComplianceConstants.TestConstants.SC_REDIRECT &
                         response.getStatusLine().getStatusCode() != HttpStatus.SC_FORBIDDEN) {
@@ -1160,7 +1082,7 @@ public class MeTestImpl implements ResourceType {
                                 ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
                                         subTests), stopTime - startTime));
             } else {
-                cleanUpUser(id, requestPath.getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult
                         (TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
@@ -51,6 +51,7 @@ import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.objects.SCIMResourceType;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
 import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
@@ -102,7 +103,7 @@ public class ResourceTypeTestImpl implements ResourceType {
                 ComplianceConstants.TestConstants.RESOURCE_TYPE_ENDPOINT;
         // Specify the get request.
         HttpGet method = new HttpGet(url);
-        HttpClient client = HTTPClient.getHttpClient();
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
         HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
         method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                 ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -187,9 +188,11 @@ public class ResourceTypeTestImpl implements ResourceType {
             for (int i = 0; i < resourcesArray.length(); i++) {
                 JSONObject resourceObject = resourcesArray.getJSONObject(i);
                 try {
+                    long decodeStart = System.nanoTime();
                     scimResourceType =
                             jsonDecoder.decodeResource(resourceObject.toString(), schema,
                                     new SCIMResourceType());
+                    LatencyRecorder.recordDecode(decodeStart);
                     complianceTestMetaDataHolder.setScimResourceType(scimResourceType);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     long stopTime = System.currentTimeMillis();
@@ -24,21 +24,16 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.BasicResponseHandler;
-import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
 import org.wso2.charon3.core.encoder.JSONDecoder;
 import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.exceptions.InternalErrorException;
-import org.wso2.charon3.core.objects.Group;
 import org.wso2.charon3.core.objects.Role;
-import org.wso2.charon3.core.objects.User;
 import org.wso2.charon3.core.schema.SCIMResourceSchemaManager;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.scim2.testsuite.core.entities.TestResult;
@@ -47,21 +42,28 @@ import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
 import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureProvisioner;
+import org.wso2.scim2.testsuite.core.tests.common.ListResponse;
 import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
 import org.wso2.scim2.testsuite.core.tests.model.RequestPath;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Implementation of Roles test cases.
  */
 public class RolesTestImpl implements ResourceType {
 
+    // Scope of the deletions of the resources created by the tests, see CleanupQueue.
+    private static final String CLEANUP_SCOPE = ComplianceConstants.FixtureConstants.ROLE_USER_NAME_PREFIX;
+
     private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final FixtureProvisioner fixtureProvisioner;
     private final String url;
 
     /**
@@ -72,11 +74,25 @@ public class RolesTestImpl implements ResourceType {
     public RolesTestImpl(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
 
         this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        fixtureProvisioner = new FixtureProvisioner(complianceTestMetaDataHolder, CLEANUP_SCOPE);
 
         url = complianceTestMetaDataHolder.getUrl() +
                 ComplianceConstants.TestConstants.ROLES_ENDPOINT;
     }
 
+    /**
+     * Give the users of a definition the user names of this test, roleUser1 to roleUser5, so the test does not
+     * collide with the shared users of the user tests.
+     *
+     * @param definition Json definition.
+     * @return Json definition with the user names of this test.
+     */
+    private static String laneDefinition(String definition) {
+
+        return FixtureProvisioner.withUserNamePrefix(definition,
+                ComplianceConstants.FixtureConstants.ROLE_USER_NAME_PREFIX);
+    }
+
     /**
      * Create test users for test cases.
      *
@@ -88,78 +104,20 @@ public class RolesTestImpl implements ResourceType {
     private ArrayList<String> createTestsUsers(String noOfUsers) throws ComplianceException,
             GeneralComplianceException {
 
-        String url = complianceTestMetaDataHolder.getUrl() +
-                ComplianceConstants.TestConstants.USERS_ENDPOINT;
-
         ArrayList<String> definedUsers = new ArrayList<>();
-        ArrayList<String> userIDs = new ArrayList<>();
 
         if (noOfUsers.equals("One")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.defineUser);
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.defineUser));
         } else if (noOfUsers.equals("Many")) {
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser1);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser2);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser3);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser4);
-            definedUsers.add(ComplianceConstants.DefinedInstances.definedUser5);
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser1));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser2));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser3));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser4));
+            definedUsers.add(laneDefinition(ComplianceConstants.DefinedInstances.definedUser5));
         }
 
-        HttpPost method = new HttpPost(url);
-        // Create users.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedUser : definedUsers) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create Users.
-                HttpEntity entity = new ByteArrayEntity(definedUser.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to the user.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    User user;
-                    try {
-                        user = jsonDecoder.decodeResource(responseString, schema, new User());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                                "Could not decode the server response of users create.",
-                                ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                        subTests), stopTime - startTime));
-                    }
-                    userIDs.add(user.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                        "Could not create default users at url " + url,
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests), stopTime - startTime));
-            }
-        }
-        return userIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.USERS_ENDPOINT, definedUsers,
+                "List Users");
     }
 
     /**
@@ -174,89 +132,31 @@ public class RolesTestImpl implements ResourceType {
     private ArrayList<String> createTestsGroups(ArrayList<String> userIDs, String noOfGroups) throws
             ComplianceException, GeneralComplianceException {
 
-        String url = complianceTestMetaDataHolder.getUrl() +
-                ComplianceConstants.TestConstants.GROUPS_ENDPOINT;
-
-        ArrayList<String> groupIDs = new ArrayList<>();
         ArrayList<String> definedGroups = new ArrayList<>();
 
         if (noOfGroups.equals("One")) {
             definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"]," +
                     "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"displayName" +
-                    "\":\"loginUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl() +
+                    "\":\"roleUser1\",\"$ref\":\"" + complianceTestMetaDataHolder.getUrl() +
                     ComplianceConstants.TestConstants.USERS_ENDPOINT + "/" + userIDs.get(0) + "\"}," +
-                    "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"loginUser2\"},{\"value\":\"" +
-                    userIDs.get(2) + "\",\"displayName\":\"loginUser3\"},{\"value\":\"" + userIDs.get(3) +
-                    "\",\"displayName" + "\":\"loginUser4" + "\"}," +
-                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"loginUser5\"}]}");
+                    "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"roleUser2\"},{\"value\":\"" +
+                    userIDs.get(2) + "\",\"displayName\":\"roleUser3\"},{\"value\":\"" + userIDs.get(3) +
+                    "\",\"displayName" + "\":\"roleUser4" + "\"}," +
+                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"roleUser5\"}]}");
         } else if (noOfGroups.equals("Many")) {
             definedGroups.add("{\"displayName\": \"EYtXcD21\"}");
             definedGroups.add("{\"displayName\": \"BktqER22\"}");
             definedGroups.add("{\"displayName\": \"ZwLtOP23\"}");
             definedGroups.add("{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:Group\"]," +
                     "\"displayName\":\"XwLtOP23\",\"members\":[{\"value\":\"" + userIDs.get(0) + "\",\"displayName" +
-                    "\":\"loginUser1\"}," + "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"loginUser2\"}," +
-                    "{\"value\":\"" + userIDs.get(2) + "\",\"displayName\":\"loginUser3\"},{\"value\":\"" +
-                    userIDs.get(3) + "\",\"displayName" + "\":\"loginUser4" + "\"}," +
-                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"loginUser5\"}]}");
+                    "\":\"roleUser1\"}," + "{\"value\":\"" + userIDs.get(1) + "\",\"displayName\":\"roleUser2\"}," +
+                    "{\"value\":\"" + userIDs.get(2) + "\",\"displayName\":\"roleUser3\"},{\"value\":\"" +
+                    userIDs.get(3) + "\",\"displayName" + "\":\"roleUser4" + "\"}," +
+                    "{\"value\":\"" + userIDs.get(4) + "\",\"displayName\":\"roleUser5\"}]}");
         }
 
-        HttpPost method = new HttpPost(url);
-        // Create groups.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder();
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedGroup : definedGroups) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create the group.
-                HttpEntity entity = new ByteArrayEntity(definedGroup.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to group.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    Group group;
-                    try {
-                        group = jsonDecoder.decodeResource(responseString, schema, new Group());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
-                                "Could not decode the server response of groups create.",
-                                ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                        subTests), stopTime - startTime));
-                    }
-                    groupIDs.add(group.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
-                        "Could not create default groups at url " + url,
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests), stopTime - startTime));
-            }
-        }
-        return groupIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.GROUPS_ENDPOINT, definedGroups,
+                "List Groups");
     }
 
     /**
@@ -323,7 +223,7 @@ public class RolesTestImpl implements ResourceType {
 
         HttpPost method = new HttpPost(url);
         // Create groups.
-        HttpClient client = HTTPClient.getHttpClient();
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
         HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
         method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                 ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -350,7 +250,9 @@ public class RolesTestImpl implements ResourceType {
                     JSONDecoder jsonDecoder = new JSONDecoder();
                     Role role;
                     try {
+                        long decodeStart = System.nanoTime();
                         role = jsonDecoder.decodeResource(responseString, schema, new Role());
+                        LatencyRecorder.recordDecode(decodeStart);
                     } catch (BadRequestException | CharonException | InternalErrorException e) {
                         long stopTime = System.currentTimeMillis();
                         throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Groups",
@@ -380,16 +282,13 @@ public class RolesTestImpl implements ResourceType {
     }
 
     /**
-     * This method cleans up resources.
+     * This method schedules the clean up of resources.
      *
      * @param location Resource location.
      * @param testName Related test case name.
-     * @throws GeneralComplianceException General exceptions.
-     * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
-    private void cleanUp(String location, String testName) throws GeneralComplianceException, ComplianceException {
+    private void cleanUp(String location, String testName) {
 
-        long startTime = System.currentTimeMillis();
         String deleteUserURL;
 
         switch (testName) {
@@ -416,52 +315,7 @@ public class RolesTestImpl implements ResourceType {
                 break;
         }
 
-        HttpDelete method = new HttpDelete(deleteUserURL);
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        try {
-            response = client.execute(method);
-            // Read the response body.
-            responseString = new BasicResponseHandler().handleResponse(response);
-            // Get all headers.
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-        } catch (Exception e) {
-            /*
-             Read the response body.
-             Get all headers.
-             */
-            assert response != null;
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                            subTests), stopTime - startTime));
-        }
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                            subTests), stopTime - startTime));
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE, deleteUserURL);
     }
 
     /**
@@ -482,16 +336,6 @@ public class RolesTestImpl implements ResourceType {
         return sorted;
     }
 
-    /**
-     * Generating unique numbers.
-     *
-     * @return unique number.
-     */
-    private static String generateUniqueID() {
-
-        return UUID.randomUUID().toString();
-    }
-
     /**
      * Get role tests.
      *
@@ -569,7 +413,7 @@ public class RolesTestImpl implements ResourceType {
             long startTime = System.currentTimeMillis();
             String requestUrl = url + requestPath.getUrl();
             HttpGet method = new HttpGet(requestUrl);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -618,18 +462,17 @@ public class RolesTestImpl implements ResourceType {
                 // Obtain the schema corresponding to group.
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getRoleResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
-                JSONObject jsonObjResponse;
                 ArrayList<Role> roleList = new ArrayList<>();
                 try {
-                    JSONObject jsonObj = new JSONObject(responseString);
-                    jsonObjResponse = jsonObj;
-                    JSONArray rolesArray = jsonObj.getJSONArray("Resources");
-                    startIndex = (int) jsonObjResponse.get("startIndex");
-                    count = (int) jsonObjResponse.get("totalResults");
-                    JSONObject tmp;
-                    for (int j = 0; j < rolesArray.length(); j++) {
-                        tmp = rolesArray.getJSONObject(j);
-                        roleList.add(jsonDecoder.decodeResource(tmp.toString(), schema, new Role()));
+                    // The resources are decoded from their own part of the response, which is scanned once.
+                    ListResponse listResponse = ListResponse.parse(responseString);
+                    List<String> resources = listResponse.getResources();
+                    startIndex = listResponse.getStartIndex();
+                    count = listResponse.getTotalResults();
+                    for (int j = 0; j < resources.size(); j++) {
+                        long decodeStart = System.nanoTime();
+                        roleList.add(jsonDecoder.decodeResource(resources.get(j), schema, new Role()));
+                        LatencyRecorder.recordDecode(decodeStart);
                         try {
                             ResponseValidateTests.runValidateTests(roleList.get(j), schema,
                                     null, null, method,
@@ -781,13 +624,11 @@ public class RolesTestImpl implements ResourceType {
             }
         }
         // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUp(id, "User");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, userIDs);
         // Clean up groups.
-        for (String id : groupIDs) {
-            cleanUp(id, "Group");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.GROUPS_ENDPOINT, groupIDs);
         // Clean up roles.
         for (String id : roleIDs) {
             cleanUp(id, "Role");
@@ -826,7 +667,7 @@ public class RolesTestImpl implements ResourceType {
         requestPath3.setTestCaseName("Get a role with excluding attributes");
 
         RequestPath requestPath4 = new RequestPath();
-        requestPath4.setUrl(generateUniqueID());
+        requestPath4.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         requestPath4.setTestCaseName("Role not found error response");
 
         requestPaths = new RequestPath[]{requestPath1, requestPath2, requestPath3, requestPath4};
@@ -841,7 +682,7 @@ public class RolesTestImpl implements ResourceType {
             String getRoleURL;
             getRoleURL = url + "/" + id + requestPath.getUrl();
             HttpGet method = new HttpGet(getRoleURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -893,7 +734,9 @@ public class RolesTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     role = jsonDecoder.decodeResource(responseString, schema, new Role());
+                    LatencyRecorder.recordDecode(decodeStart);
 
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     // Clean up users.
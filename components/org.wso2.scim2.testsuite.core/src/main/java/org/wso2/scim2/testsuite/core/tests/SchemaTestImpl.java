@@ -33,6 +33,7 @@ import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.objects.SCIMSchema;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.DiscoveryCache;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 import org.wso2.scim2.testsuite.core.utils.SchemaBuilder;
 
@@ -72,6 +73,39 @@ public class SchemaTestImpl implements ResourceType {
         subTests.add(StringUtils.EMPTY);
     }
 
+    /**
+     * Load the schemas of the service provider without running the schema tests. Cached schemas are reused while
+     * they are fresh or the service provider answers 304 to their ETag.
+     *
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     */
+    public void loadSchemas() throws GeneralComplianceException, ComplianceException {
+
+        DiscoveryCache.Entry entry = DiscoveryCache.getInstance().getValid(complianceTestMetaDataHolder,
+                ComplianceConstants.TestConstants.SCHEMAS_ENDPOINT);
+        if (entry != null) {
+            complianceTestMetaDataHolder.setScimSchema(scimSchema);
+            useCachedSchemas(entry);
+            return;
+        }
+        getMethodTest();
+    }
+
+    /**
+     * Copy the schemas built in an earlier run into the schema of this run.
+     *
+     * @param entry Cached schemas.
+     */
+    private void useCachedSchemas(DiscoveryCache.Entry entry) {
+
+        SCIMSchema builtSchema = (SCIMSchema) entry.getValue();
+        scimSchema.setUserSchema(builtSchema.getUserSchema());
+        scimSchema.setGroupSchema(builtSchema.getGroupSchema());
+        scimSchema.setResourceTypeSchema(builtSchema.getResourceTypeSchema());
+        scimSchema.setServiceProviderConfigSchema(builtSchema.getServiceProviderConfigSchema());
+    }
+
     /**
      * Get schema tests.
      *
@@ -93,7 +127,7 @@ public class SchemaTestImpl implements ResourceType {
                 ComplianceConstants.TestConstants.SCHEMAS_ENDPOINT;
         // Specify the get request.
         HttpGet method = new HttpGet(url);
-        HttpClient client = HTTPClient.getHttpClient();
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
         HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
         method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                 ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -137,10 +171,21 @@ public class SchemaTestImpl implements ResourceType {
             // Check for status returned.
             addAssertion(response.getStatusLine().getStatusCode(), ComplianceConstants.TestConstants.STATUS_SUCCESS,
                     subTests);
-            // Build the schemas according to service provider.
+            DiscoveryCache.Entry entry = DiscoveryCache.getInstance().get(complianceTestMetaDataHolder,
+                    ComplianceConstants.TestConstants.SCHEMAS_ENDPOINT);
             try {
-                SchemaBuilder.buildSchema(responseString, method, headerString.toString(), responseStatus,
-                        subTests, url, scimSchema);
+                if (entry != null && entry.getBody().equals(responseString)) {
+                    // The schemas have not changed since they were built.
+                    useCachedSchemas(entry);
+                    entry.validated();
+                } else {
+                    // Build the schemas according to service provider.
+                    SchemaBuilder.buildSchema(responseString, method, headerString.toString(), responseStatus,
+                            subTests, url, scimSchema);
+                    DiscoveryCache.getInstance().put(complianceTestMetaDataHolder,
+                            ComplianceConstants.TestConstants.SCHEMAS_ENDPOINT, response, responseString,
+                            scimSchema);
+                }
             } catch (CriticalComplianceException e) {
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.ERROR,
@@ -37,6 +37,8 @@ import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.objects.SCIMServiceProviderConfig;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
+import org.wso2.scim2.testsuite.core.protocol.DiscoveryCache;
 import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
@@ -96,7 +98,7 @@ public class ServiceProviderConfigTestImpl implements ResourceType {
                 ComplianceConstants.TestConstants.SERVICE_PROVIDER_ENDPOINT;
         // Specify the get request.
         HttpGet method = new HttpGet(url);
-        HttpClient client = HTTPClient.getHttpClient();
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
         HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
         method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                 ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -147,9 +149,11 @@ public class ServiceProviderConfigTestImpl implements ResourceType {
                     getServiceProviderConfigSchema();
             JSONDecoder jsonDecoder = new JSONDecoder();
             try {
+                long decodeStart = System.nanoTime();
                 scimServiceProviderConfig =
                         jsonDecoder.decodeResource(responseString, schema,
                                 new SCIMServiceProviderConfig());
+                LatencyRecorder.recordDecode(decodeStart);
                 complianceTestMetaDataHolder.setScimServiceProviderConfig(scimServiceProviderConfig);
             } catch (BadRequestException | CharonException | InternalErrorException e) {
                 long stopTime = System.currentTimeMillis();
@@ -182,6 +186,9 @@ public class ServiceProviderConfigTestImpl implements ResourceType {
                 errorOccurred = true;
             }
             if (!errorOccurred) {
+                DiscoveryCache.getInstance().put(complianceTestMetaDataHolder,
+                        ComplianceConstants.TestConstants.SERVICE_PROVIDER_ENDPOINT, response, responseString,
+                        scimServiceProviderConfig);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult
                         (TestResult.SUCCESS, ComplianceConstants.TestConstants.GET_CONFIG, StringUtils.EMPTY,
@@ -198,6 +205,24 @@ public class ServiceProviderConfigTestImpl implements ResourceType {
         return testResults;
     }
 
+    /**
+     * Load the service provider config of the run without reporting a test result. The cached config of the
+     * service provider is used while it is fresh, or once the service provider confirms it has not changed.
+     *
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     */
+    public void loadServiceProviderConfig() throws GeneralComplianceException, ComplianceException {
+
+        DiscoveryCache.Entry entry = DiscoveryCache.getInstance().getValid(complianceTestMetaDataHolder,
+                ComplianceConstants.TestConstants.SERVICE_PROVIDER_ENDPOINT);
+        if (entry != null) {
+            complianceTestMetaDataHolder.setScimServiceProviderConfig((SCIMServiceProviderConfig) entry.getValue());
+            return;
+        }
+        getMethodTest();
+    }
+
     /**
      * Get serviceProviderConfig by id tests. This method is not valid for serviceProviderConfig according to the
      * RFC-7644 https://tools.ietf.org/html/rfc7644#section-4
@@ -20,8 +20,9 @@ package org.wso2.scim2.testsuite.core.tests;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.Header;
@@ -36,7 +37,6 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.impl.client.BasicResponseHandler;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.mortbay.log.Log;
@@ -54,6 +54,11 @@ import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
 import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
+import org.wso2.scim2.testsuite.core.protocol.TestScheduler;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureProvisioner;
+import org.wso2.scim2.testsuite.core.tests.common.FixtureRegistry;
+import org.wso2.scim2.testsuite.core.tests.common.ListResponse;
 import org.wso2.scim2.testsuite.core.tests.common.ResponseValidateTests;
 import org.wso2.scim2.testsuite.core.tests.model.RequestPath;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
@@ -63,8 +68,13 @@ import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
  */
 public class UserTestImpl implements ResourceType {
 
+    // Scope of the deletions of the resources created by the tests, see CleanupQueue.
+    private static final String CLEANUP_SCOPE = ComplianceConstants.DefinedInstances.defineUserName;
+
     private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
 
+    private final FixtureProvisioner fixtureProvisioner;
+
     private final String url;
 
     /**
@@ -75,6 +85,7 @@ public class UserTestImpl implements ResourceType {
     public UserTestImpl(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
 
         this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        fixtureProvisioner = new FixtureProvisioner(complianceTestMetaDataHolder, CLEANUP_SCOPE);
         url = complianceTestMetaDataHolder.getUrl() + ComplianceConstants.TestConstants.USERS_ENDPOINT;
     }
 
@@ -90,7 +101,6 @@ public class UserTestImpl implements ResourceType {
             throws ComplianceException, GeneralComplianceException {
 
         ArrayList<String> definedUsers = new ArrayList<>();
-        ArrayList<String> userIDs = new ArrayList<>();
 
         if (noOfUsers.equals("One")) {
             definedUsers.add(ComplianceConstants.DefinedInstances.defineUser);
@@ -102,122 +112,39 @@ public class UserTestImpl implements ResourceType {
             definedUsers.add(ComplianceConstants.DefinedInstances.definedUser5);
         }
 
-        HttpPost method = new HttpPost(url);
-        // Create users.
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        for (String definedUser : definedUsers) {
-            long startTime = System.currentTimeMillis();
-            try {
-                // Create Users.
-                HttpEntity entity = new ByteArrayEntity(definedUser.getBytes(StandardCharsets.UTF_8));
-                method.setEntity(entity);
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                responseStatus = String.valueOf(response.getStatusLine().getStatusCode());
-                if (responseStatus.equals("201")) {
-                    // Obtain the schema corresponding to the user.
-                    SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
-                    JSONDecoder jsonDecoder = new JSONDecoder();
-                    User user;
-                    try {
-                        user = jsonDecoder.decodeResource(responseString, schema, new User());
-                    } catch (BadRequestException | CharonException | InternalErrorException e) {
-                        long stopTime = System.currentTimeMillis();
-                        throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                                "Could not decode the server response of users create.", ComplianceUtils.getWire(method,
-                                        responseString, headerString.toString(), responseStatus, subTests),
-                                stopTime - startTime));
-                    }
-                    userIDs.add(user.getId());
-                }
-            } catch (Exception e) {
-                // Read the response body.
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                long stopTime = System.currentTimeMillis();
-                throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "List Users",
-                        "Could not create default users at url " + url, ComplianceUtils.getWire(method, responseString,
-                                headerString.toString(), responseStatus, subTests),
-                        stopTime - startTime));
-            }
-        }
-        return userIDs;
+        return fixtureProvisioner.createResources(ComplianceConstants.TestConstants.USERS_ENDPOINT, definedUsers,
+                "List Users");
     }
 
     /**
-     * Delete a user after test execution.
+     * Lease the shared test users, loginUser1 to loginUser5. The users are created once per run and must not be
+     * modified by the test.
      *
-     * @param id User id to delete a user.
-     * @param testName Respective test case.
-     * @throws GeneralComplianceException General exceptions.
+     * @return Lease of the users.
      * @throws ComplianceException Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
      */
-    private void cleanUpUser(String id, String testName) throws GeneralComplianceException, ComplianceException {
+    private FixtureRegistry.Lease leaseTestsUsers() throws ComplianceException, GeneralComplianceException {
+
+        return complianceTestMetaDataHolder.getFixtureRegistry().lease(
+                ComplianceConstants.FixtureConstants.SHARED_USERS, fixtureProvisioner,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT,
+                Arrays.asList(ComplianceConstants.DefinedInstances.definedUser1,
+                        ComplianceConstants.DefinedInstances.definedUser2,
+                        ComplianceConstants.DefinedInstances.definedUser3,
+                        ComplianceConstants.DefinedInstances.definedUser4,
+                        ComplianceConstants.DefinedInstances.definedUser5), "List Users");
+    }
 
-        long startTime = System.currentTimeMillis();
-        String deleteUserURL = url + "/" + id;
-        HttpDelete method = new HttpDelete(deleteUserURL);
-        HttpClient client = HTTPClient.getHttpClient();
-        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        HttpResponse response = null;
-        String responseString = StringUtils.EMPTY;
-        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-        String responseStatus;
-        ArrayList<String> subTests = new ArrayList<>();
-        try {
-            response = client.execute(method);
-            // Read the response body.
-            responseString = new BasicResponseHandler().handleResponse(response);
-            // Get all headers.
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
+    /**
+     * Schedule the deletion of a user after test execution.
+     *
+     * @param id User id to delete a user.
+     */
+    private void cleanUpUser(String id) {
 
-        } catch (Exception e) {
-            /*
-             * Read the response body. Get all headers.
-             */
-            assert response != null;
-            Header[] headers = response.getAllHeaders();
-            for (Header header : headers) {
-                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-            }
-            responseStatus = response.getStatusLine().getStatusCode() + " "
-                    + response.getStatusLine().getReasonPhrase();
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus, subTests),
-                    stopTime - startTime));
-        }
-        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_NO_CONTENT) {
-            long stopTime = System.currentTimeMillis();
-            throw new GeneralComplianceException(new TestResult(TestResult.ERROR, testName,
-                    "Could not delete the default user at url " + url,
-                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus, subTests),
-                    stopTime - startTime));
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, Collections.singletonList(id));
     }
 
     /**
@@ -238,16 +165,6 @@ public class UserTestImpl implements ResourceType {
         return sorted;
     }
 
-    /**
-     * Generating unique numbers.
-     *
-     * @return unique number.
-     */
-    private static String generateUniqueID() {
-
-        return UUID.randomUUID().toString();
-    }
-
     /**
      * Add assertion details.
      *
@@ -512,388 +429,418 @@ public class UserTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> getMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return getMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the get tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> getMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         ArrayList<TestResult> testResults = new ArrayList<>();
-        ArrayList<String> userIDs;
         RequestPath[] requestPaths;
 
-        // Initialize 5 users.
-        userIDs = createTestsUsers("Many");
         // Initiate data necessary for getMethod test.
         requestPaths = initiateData();
 
+        // Run the sub tests, concurrently when it is enabled.
+        ArrayList<TestScheduler.TestTask> subTestTasks = new ArrayList<>();
         for (RequestPath requestPath : requestPaths) {
-            long startTime = System.currentTimeMillis();
-            String requestUrl = url + requestPath.getUrl();
-            HttpGet method = new HttpGet(requestUrl);
-            HttpClient client = HTTPClient.getHttpClient();
-            HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
-            method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
-                    ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-            HttpResponse response = null;
-            String responseString = StringUtils.EMPTY;
-            StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
-            String responseStatus;
-            int startIndex;
-            int count;
-            ArrayList<String> subTests = new ArrayList<>();
-            boolean errorOccur = false;
-            try {
-                response = client.execute(method);
-                // Read the response body.
-                responseString = new BasicResponseHandler().handleResponse(response);
-                // Get all headers.
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-            } catch (Exception e) {
-                /*
-                 * Read the response body. Get all headers.
-                 */
-                assert response != null;
-                Header[] headers = response.getAllHeaders();
-                for (Header header : headers) {
-                    headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
-                }
-                responseStatus = response.getStatusLine().getStatusCode() + " "
-                        + response.getStatusLine().getReasonPhrase();
-                if (requestPath.getTestSupported()
-                        && response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED) {
-                    // Check for status returned.
-                    addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
-                            String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
-                            ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                    long stopTime = System.currentTimeMillis();
-                    testResults.add(
-                            new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Could not list the users at url " + url, ComplianceUtils.getWire(method,
-                                            responseString, headerString.toString(), responseStatus, subTests),
-                                    stopTime - startTime));
-                    continue;
-                }
+            subTestTasks.add(() -> getUsersSubTest(requestPath, userIDs));
+        }
+        testResults.addAll(TestScheduler.runInOrder(subTestTasks, complianceTestMetaDataHolder.getSubTestThreads()));
+        // This should be a array containing results.
+        return testResults;
+    }
+
+    /**
+     * Run a single get users sub test.
+     *
+     * @param requestPath Contains the sub test details.
+     * @param userIDs Ids of the created test users.
+     * @return testResults Array containing test results of the sub test.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> getUsersSubTest(RequestPath requestPath, ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
+        ArrayList<TestResult> testResults = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+        String requestUrl = url + requestPath.getUrl();
+        HttpGet method = new HttpGet(requestUrl);
+        HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
+        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
+        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
+                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        HttpResponse response = null;
+        String responseString = StringUtils.EMPTY;
+        StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
+        String responseStatus;
+        int startIndex;
+        int count;
+        ArrayList<String> subTests = new ArrayList<>();
+        boolean errorOccur = false;
+        try {
+            response = client.execute(method);
+            // Read the response body.
+            responseString = new BasicResponseHandler().handleResponse(response);
+            // Get all headers.
+            Header[] headers = response.getAllHeaders();
+            for (Header header : headers) {
+                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
             }
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+            responseStatus = response.getStatusLine().getStatusCode() + " "
+                    + response.getStatusLine().getReasonPhrase();
+        } catch (Exception e) {
+            /*
+             * Read the response body. Get all headers.
+             */
+            assert response != null;
+            Header[] headers = response.getAllHeaders();
+            for (Header header : headers) {
+                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
+            }
+            responseStatus = response.getStatusLine().getStatusCode() + " "
+                    + response.getStatusLine().getReasonPhrase();
+            if (requestPath.getTestSupported()
+                    && response.getStatusLine().getStatusCode() != HttpStatus.SC_NOT_IMPLEMENTED) {
                 // Check for status returned.
                 addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
                         String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
-                        ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                // Obtain the schema corresponding to user.
-                SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
-                JSONDecoder jsonDecoder = new JSONDecoder();
-                ArrayList<User> userList = new ArrayList<>();
-                JSONObject jsonObjResponse;
-                try {
-                    // Called only for user get by id.
-                    JSONObject jsonObj = new JSONObject(responseString);
-                    jsonObjResponse = jsonObj;
-                    JSONArray usersArray = jsonObj.getJSONArray("Resources");
-                    startIndex = (int) jsonObjResponse.get("startIndex");
-                    count = (int) jsonObjResponse.get("totalResults");
-                    JSONObject tmp;
-                    for (int j = 0; j < usersArray.length(); j++) {
-                        tmp = usersArray.getJSONObject(j);
-                        userList.add(jsonDecoder.decodeResource(tmp.toString(), schema, new User()));
-                        try {
-                            ResponseValidateTests.runValidateTests(userList.get(j), schema, null, null, method,
-                                    responseString, headerString.toString(), responseStatus, subTests);
-                        } catch (BadRequestException | CharonException e) {
-                            subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
-                            subTests.add(StringUtils.EMPTY);
-                            long stopTime = System.currentTimeMillis();
-                            testResults.add(
-                                    new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                            "Response Validation Error", ComplianceUtils.getWire(method, responseString,
-                                                    headerString.toString(), responseStatus, subTests),
-                                            stopTime - startTime));
-                            errorOccur = true;
-                            break;
-                        }
+                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                long stopTime = System.currentTimeMillis();
+                testResults.add(
+                        new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Could not list the users at url " + url, ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                return testResults;
+            }
+        }
+        if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+            // Check for status returned.
+            addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
+                    String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
+                    ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+            // Obtain the schema corresponding to user.
+            SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
+            JSONDecoder jsonDecoder = new JSONDecoder();
+            ArrayList<User> userList = new ArrayList<>();
+            try {
+                // The resources are decoded from their own part of the response, which is scanned once.
+                ListResponse listResponse = ListResponse.parse(responseString);
+                List<String> resources = listResponse.getResources();
+                startIndex = listResponse.getStartIndex();
+                count = listResponse.getTotalResults();
+                for (int j = 0; j < resources.size(); j++) {
+                    long decodeStart = System.nanoTime();
+                    userList.add(jsonDecoder.decodeResource(resources.get(j), schema, new User()));
+                    LatencyRecorder.recordDecode(decodeStart);
+                    try {
+                        ResponseValidateTests.runValidateTests(userList.get(j), schema, null, null, method,
+                                responseString, headerString.toString(), responseStatus, subTests);
+                    } catch (BadRequestException | CharonException e) {
+                        subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
+                        subTests.add(StringUtils.EMPTY);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(
+                                new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                        "Response Validation Error", ComplianceUtils.getWire(method, responseString,
+                                                headerString.toString(), responseStatus, subTests),
+                                        stopTime - startTime));
+                        errorOccur = true;
+                        break;
                     }
-                } catch (JSONException | BadRequestException | CharonException | InternalErrorException e) {
-                    long stopTime = System.currentTimeMillis();
-                    testResults.add(
-                            new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Could not decode the server response", ComplianceUtils.getWire(method,
-                                            responseString, headerString.toString(), responseStatus, subTests),
-                                    stopTime - startTime));
-                    continue;
                 }
-                // Check for all created groups.
-                switch (requestPath.getTestCaseName()) {
-                    case "List Users":
-                    case "Paginate users with positive startIndex and without count param":
-                    case "List users by filtering - userName pr":
-                        // Check for list of users returned.
-                        ArrayList<String> returnedUserIDs = new ArrayList<>();
-                        for (User u : userList) {
-                            returnedUserIDs.add(u.getId());
-                        }
-                        for (String id : userIDs) {
-                            if (!returnedUserIDs.contains(id)) {
-                                addAssertion(ComplianceConstants.TestConstants.ALL_USERS_IN_TEST,
-                                        "Check the created 5 users are listed.",
-                                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain all the created users",
-                                        ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                                responseStatus, subTests),
-                                        stopTime - startTime));
-                                errorOccur = true;
-                                break;
-                            }
-                        }
-                        if (!errorOccur) {
+            } catch (JSONException | BadRequestException | CharonException | InternalErrorException e) {
+                long stopTime = System.currentTimeMillis();
+                testResults.add(
+                        new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Could not decode the server response", ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                return testResults;
+            }
+            // Check for all created groups.
+            switch (requestPath.getTestCaseName()) {
+                case "List Users":
+                case "Paginate users with positive startIndex and without count param":
+                case "List users by filtering - userName pr":
+                    // Check for list of users returned.
+                    ArrayList<String> returnedUserIDs = new ArrayList<>();
+                    for (User u : userList) {
+                        returnedUserIDs.add(u.getId());
+                    }
+                    for (String id : userIDs) {
+                        if (!returnedUserIDs.contains(id)) {
                             addAssertion(ComplianceConstants.TestConstants.ALL_USERS_IN_TEST,
                                     "Check the created 5 users are listed.",
-                                    ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                            long stopTime = System.currentTimeMillis();
+                            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                    "Response does not contain all the created users",
+                                    ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                            responseStatus, subTests),
+                                    stopTime - startTime));
+                            errorOccur = true;
+                            break;
                         }
-                        break;
-                    case "List users by filtering - userName eq":
-                    case "List users by filtering - userName eq with only using startIndex":
-                    case "List users by filtering - userName eq to check case insensitivity of attribute":
-                    case "List users by filtering - userName eq to check case insensitivity of operator":
-                    case "List users by filtering - userName co":
-                    case "List users by filtering - userName sw":
-                    case "List users by filtering - userName ew": {
-                        String value = "loginUser1";
-                        for (User user1 : userList) {
-                            try {
-                                if (!value.equals(user1.getUserName())) {
-                                    addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST,
-                                            "userName:" + user1.getUserName(), "userName:" + value,
-                                            ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                    long stopTime = System.currentTimeMillis();
-                                    testResults.add(
-                                            new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                                    "Response does not contain the expected users",
-                                                    ComplianceUtils.getWire(method, responseString,
-                                                            headerString.toString(), responseStatus, subTests),
-                                                    stopTime - startTime));
-                                    errorOccur = true;
-                                    break;
-                                }
-                            } catch (CharonException e) {
+                    }
+                    if (!errorOccur) {
+                        addAssertion(ComplianceConstants.TestConstants.ALL_USERS_IN_TEST,
+                                "Check the created 5 users are listed.",
+                                ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    }
+                    break;
+                case "List users by filtering - userName eq":
+                case "List users by filtering - userName eq with only using startIndex":
+                case "List users by filtering - userName eq to check case insensitivity of attribute":
+                case "List users by filtering - userName eq to check case insensitivity of operator":
+                case "List users by filtering - userName co":
+                case "List users by filtering - userName sw":
+                case "List users by filtering - userName ew": {
+                    String value = "loginUser1";
+                    for (User user1 : userList) {
+                        try {
+                            if (!value.equals(user1.getUserName())) {
                                 addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST,
-                                        "userName:" + StringUtils.EMPTY, "userName:" + value,
+                                        "userName:" + user1.getUserName(), "userName:" + value,
                                         ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                                 long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the expected users", ComplianceUtils.getWire(method,
-                                                responseString, headerString.toString(), responseStatus, subTests),
-                                        stopTime - startTime));
+                                testResults.add(
+                                        new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                                "Response does not contain the expected users",
+                                                ComplianceUtils.getWire(method, responseString,
+                                                        headerString.toString(), responseStatus, subTests),
+                                                stopTime - startTime));
                                 errorOccur = true;
                                 break;
                             }
+                        } catch (CharonException e) {
+                            addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST,
+                                    "userName:" + StringUtils.EMPTY, "userName:" + value,
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                            long stopTime = System.currentTimeMillis();
+                            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                    "Response does not contain the expected users", ComplianceUtils.getWire(method,
+                                            responseString, headerString.toString(), responseStatus, subTests),
+                                    stopTime - startTime));
+                            errorOccur = true;
+                            break;
                         }
-                        if (!errorOccur) {
-                            addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST, "userName:" + value,
-                                    "userName:" + value, ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        }
-                        break;
                     }
-                    case "List users by filtering - userName ne": {
-                        String value = "loginUser1";
-                        for (User user1 : userList) {
-                            try {
-                                if (value.equals(user1.getUserName())) {
-                                    addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST,
-                                            "userName:" + user1.getUserName(), "userName:" + value,
-                                            ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                    long stopTime = System.currentTimeMillis();
-                                    testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                            "Response contains the unexpected users", ComplianceUtils.getWire(method,
-                                                    responseString, headerString.toString(), responseStatus, subTests),
-                                            stopTime - startTime));
-                                    errorOccur = true;
-                                    break;
-                                }
-                            } catch (CharonException e) {
+                    if (!errorOccur) {
+                        addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST, "userName:" + value,
+                                "userName:" + value, ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    }
+                    break;
+                }
+                case "List users by filtering - userName ne": {
+                    String value = "loginUser1";
+                    for (User user1 : userList) {
+                        try {
+                            if (value.equals(user1.getUserName())) {
                                 addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST,
-                                        "userName:" + StringUtils.EMPTY, "userName:" + value,
+                                        "userName:" + user1.getUserName(), "userName:" + value,
                                         ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                                 long stopTime = System.currentTimeMillis();
                                 testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the expected users", ComplianceUtils.getWire(method,
+                                        "Response contains the unexpected users", ComplianceUtils.getWire(method,
                                                 responseString, headerString.toString(), responseStatus, subTests),
                                         stopTime - startTime));
                                 errorOccur = true;
                                 break;
                             }
-                        }
-                        if (!errorOccur) {
-                            addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST, "userName:" + value,
-                                    "userName:" + value, ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        }
-                        break;
-                    }
-                    case "List users with pagination":
-                    case "Paginate users with a negative startIndex":
-                        String assertionName = null;
-                        if (requestPath.getTestCaseName().equals("List users with pagination")) {
-                            assertionName = "Validate paginated users response";
-                        } else if (requestPath.getTestCaseName().equals("Paginate users with a negative startIndex")) {
-                            assertionName = "Test user pagination when startIndex is not specified";
-                        }
-                        if (userList.size() != 2) {
-                            addAssertion(assertionName,
-                                    "startIndex:" + startIndex + "," + "totalResults:" + userList.size(),
-                                    "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
-                                    subTests);
+                        } catch (CharonException e) {
+                            addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST,
+                                    "userName:" + StringUtils.EMPTY, "userName:" + value,
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Response does not contain right number of pagination.",
-                                    ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                            responseStatus, subTests),
+                                    "Response does not contain the expected users", ComplianceUtils.getWire(method,
+                                            responseString, headerString.toString(), responseStatus, subTests),
                                     stopTime - startTime));
-                            continue;
+                            errorOccur = true;
+                            break;
                         }
+                    }
+                    if (!errorOccur) {
+                        addAssertion(ComplianceConstants.TestConstants.FILTER_CONTENT_TEST, "userName:" + value,
+                                "userName:" + value, ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    }
+                    break;
+                }
+                case "List users with pagination":
+                case "Paginate users with a negative startIndex":
+                    String assertionName = null;
+                    if (requestPath.getTestCaseName().equals("List users with pagination")) {
+                        assertionName = "Validate paginated users response";
+                    } else if (requestPath.getTestCaseName().equals("Paginate users with a negative startIndex")) {
+                        assertionName = "Test user pagination when startIndex is not specified";
+                    }
+                    if (userList.size() != 2) {
                         addAssertion(assertionName,
                                 "startIndex:" + startIndex + "," + "totalResults:" + userList.size(),
-                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_SUCCESS,
+                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
                                 subTests);
-                        break;
-                    case "Sort users by user id without pagination and " + "filtering params":
-                        try {
-                            if (!isUserListSorted(userList)) {
-                                addAssertion(ComplianceConstants.TestConstants.SORT_USERS_TEST,
-                                        "Check the created 5 users are sorted or not.",
-                                        ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the sorted list of users",
-                                        ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                                responseStatus, subTests),
-                                        stopTime - startTime));
-                                continue;
-                            }
-                        } catch (CharonException e) {
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain right number of pagination.",
+                                ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                        responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    addAssertion(assertionName,
+                            "startIndex:" + startIndex + "," + "totalResults:" + userList.size(),
+                            "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_SUCCESS,
+                            subTests);
+                    break;
+                case "Sort users by user id without pagination and " + "filtering params":
+                    try {
+                        if (!isUserListSorted(userList)) {
                             addAssertion(ComplianceConstants.TestConstants.SORT_USERS_TEST,
                                     "Check the created 5 users are sorted or not.",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Could not decode the server response", ComplianceUtils.getWire(method,
-                                            responseString, headerString.toString(), responseStatus, subTests),
+                                    "Response does not contain the sorted list of users",
+                                    ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                            responseStatus, subTests),
                                     stopTime - startTime));
-                            continue;
+                            return testResults;
                         }
+                    } catch (CharonException e) {
                         addAssertion(ComplianceConstants.TestConstants.SORT_USERS_TEST,
                                 "Check the created 5 users are sorted or not.",
-                                ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        break;
-                    case "Filter users by username with pagination " + "params": {
-                        if (userList.size() != 1) {
-                            addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                    "startIndex:" + startIndex + "," + "totalResults:" + userList.size(),
-                                    "startIndex:1,totalResults:1", ComplianceConstants.TestConstants.STATUS_FAILED,
-                                    subTests);
-                            long stopTime = System.currentTimeMillis();
-                            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Response does not contain right number of users.", ComplianceUtils.getWire(method,
-                                            responseString, headerString.toString(), responseStatus, subTests),
-                                    stopTime - startTime));
-                            continue;
-                        }
-                        String value = "loginUser1";
-                        for (User user1 : userList) {
-                            try {
-                                if (!value.equals(user1.getUserName())) {
-                                    addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                            "startIndex:" + startIndex + ",totalResults:" + userList.size()
-                                                    + ",userName:" + user1.getUserName(),
-                                            "startIndex:1,totalResults:1,userName:loginUser1",
-                                            ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
-                                    long stopTime = System.currentTimeMillis();
-                                    testResults.add(
-                                            new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                                    "Response does not contain the expected users",
-                                                    ComplianceUtils.getWire(method, responseString,
-                                                            headerString.toString(), responseStatus, subTests),
-                                                    stopTime - startTime));
-                                    errorOccur = true;
-                                    break;
-                                }
-                            } catch (CharonException e) {
+                                ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Could not decode the server response", ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    addAssertion(ComplianceConstants.TestConstants.SORT_USERS_TEST,
+                            "Check the created 5 users are sorted or not.",
+                            ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    break;
+                case "Filter users by username with pagination " + "params": {
+                    if (userList.size() != 1) {
+                        addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
+                                "startIndex:" + startIndex + "," + "totalResults:" + userList.size(),
+                                "startIndex:1,totalResults:1", ComplianceConstants.TestConstants.STATUS_FAILED,
+                                subTests);
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain right number of users.", ComplianceUtils.getWire(method,
+                                        responseString, headerString.toString(), responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
+                    }
+                    String value = "loginUser1";
+                    for (User user1 : userList) {
+                        try {
+                            if (!value.equals(user1.getUserName())) {
                                 addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                        "startIndex:null,totalResults:null,userName:null",
+                                        "startIndex:" + startIndex + ",totalResults:" + userList.size()
+                                                + ",userName:" + user1.getUserName(),
                                         "startIndex:1,totalResults:1,userName:loginUser1",
                                         ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                                 long stopTime = System.currentTimeMillis();
-                                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                        "Response does not contain the expected users", ComplianceUtils.getWire(method,
-                                                responseString, headerString.toString(), responseStatus, subTests),
-                                        stopTime - startTime));
+                                testResults.add(
+                                        new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                                "Response does not contain the expected users",
+                                                ComplianceUtils.getWire(method, responseString,
+                                                        headerString.toString(), responseStatus, subTests),
+                                                stopTime - startTime));
                                 errorOccur = true;
                                 break;
                             }
-                        }
-                        if (!errorOccur) {
+                        } catch (CharonException e) {
                             addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
-                                    "startIndex:1,totalResults:1,userName:1",
+                                    "startIndex:null,totalResults:null,userName:null",
                                     "startIndex:1,totalResults:1,userName:loginUser1",
-                                    ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
-                        }
-                        break;
-                    }
-                    case "Paginate users without startIndex and with " + "positive count param":
-                        if (startIndex != 1 && count != 2) {
-                            addAssertion("Test user pagination when startIndex is not specified",
-                                    "startIndex:" + startIndex + "," + "totalResults:" + count,
-                                    "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
-                                    subTests);
+                                    ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
-                                    "Response does not contain right number of pagination.",
-                                    ComplianceUtils.getWire(method, responseString, headerString.toString(),
-                                            responseStatus, subTests),
+                                    "Response does not contain the expected users", ComplianceUtils.getWire(method,
+                                            responseString, headerString.toString(), responseStatus, subTests),
                                     stopTime - startTime));
-                            continue;
+                            errorOccur = true;
+                            break;
                         }
+                    }
+                    if (!errorOccur) {
+                        addAssertion(ComplianceConstants.TestConstants.FILTER_USER_WITH_PAGINATION,
+                                "startIndex:1,totalResults:1,userName:1",
+                                "startIndex:1,totalResults:1,userName:loginUser1",
+                                ComplianceConstants.TestConstants.STATUS_SUCCESS, subTests);
+                    }
+                    break;
+                }
+                case "Paginate users without startIndex and with " + "positive count param":
+                    if (startIndex != 1 && count != 2) {
                         addAssertion("Test user pagination when startIndex is not specified",
                                 "startIndex:" + startIndex + "," + "totalResults:" + count,
-                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_SUCCESS,
+                                "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_FAILED,
                                 subTests);
-                        break;
-                    default: {
-                        Log.warn("{} not asserted ", requestPath.getTestCaseName());
+                        long stopTime = System.currentTimeMillis();
+                        testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
+                                "Response does not contain right number of pagination.",
+                                ComplianceUtils.getWire(method, responseString, headerString.toString(),
+                                        responseStatus, subTests),
+                                stopTime - startTime));
+                        return testResults;
                     }
+                    addAssertion("Test user pagination when startIndex is not specified",
+                            "startIndex:" + startIndex + "," + "totalResults:" + count,
+                            "startIndex:1,totalResults:2", ComplianceConstants.TestConstants.STATUS_SUCCESS,
+                            subTests);
+                    break;
+                default: {
+                    Log.warn("{} not asserted ", requestPath.getTestCaseName());
                 }
-                long stopTime = System.currentTimeMillis();
-                if (!errorOccur) {
-                    testResults.add(new TestResult(TestResult.SUCCESS, requestPath.getTestCaseName(), StringUtils.EMPTY,
-                            ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                    subTests),
-                            stopTime - startTime));
-                }
-            } else if (!requestPath.getTestSupported()
-                    || response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_IMPLEMENTED) {
-                // Check for status returned.
-                addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
-                        String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
-                        ComplianceConstants.TestConstants.STATUS_SKIPPED, subTests);
-                long stopTime = System.currentTimeMillis();
-                testResults.add(new TestResult(TestResult.SKIPPED, requestPath.getTestCaseName(),
-                        "This functionality is not implemented. Hence given status code 501",
-                        ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
-                                subTests),
-                        stopTime - startTime));
-            } else {
-                long stopTime = System.currentTimeMillis();
-                testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
+            }
+            long stopTime = System.currentTimeMillis();
+            if (!errorOccur) {
+                testResults.add(new TestResult(TestResult.SUCCESS, requestPath.getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
                                 subTests),
                         stopTime - startTime));
             }
-
-        }
-        // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "get users test");
+        } else if (!requestPath.getTestSupported()
+                || response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_IMPLEMENTED) {
+            // Check for status returned.
+            addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
+                    String.valueOf(response.getStatusLine().getStatusCode()), String.valueOf(HttpStatus.SC_OK),
+                    ComplianceConstants.TestConstants.STATUS_SKIPPED, subTests);
+            long stopTime = System.currentTimeMillis();
+            testResults.add(new TestResult(TestResult.SKIPPED, requestPath.getTestCaseName(),
+                    "This functionality is not implemented. Hence given status code 501",
+                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
+                            subTests),
+                    stopTime - startTime));
+        } else {
+            long stopTime = System.currentTimeMillis();
+            testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
+                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
+                            subTests),
+                    stopTime - startTime));
         }
-        // This should be a array containing results.
         return testResults;
     }
 
@@ -925,7 +872,7 @@ public class UserTestImpl implements ResourceType {
         // requestPath3.setTestCaseName("Get a user with excluding attribute emails");
 
         RequestPath requestPath4 = new RequestPath();
-        requestPath4.setUrl(generateUniqueID());
+        requestPath4.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         requestPath4.setTestCaseName("Get a non existing user and validate user not found error response");
 
         // RequestPath requestPath5 = new RequestPath();
@@ -950,7 +897,7 @@ public class UserTestImpl implements ResourceType {
             String id = userIDs.get(0);
             String getUserURL = url + "/" + id + requestPath.getUrl();
             HttpGet method = new HttpGet(getUserURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -989,7 +936,7 @@ public class UserTestImpl implements ResourceType {
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
                 // Clean the created user.
-                cleanUpUser(id, "Get User");
+                cleanUpUser(id);
                 if (!requestPath.getTestCaseName()
                                 .equals("Get a non existing user and validate user not found " + "error response")) {
                     // Check for status returned.
@@ -1019,7 +966,7 @@ public class UserTestImpl implements ResourceType {
                     jsonObj = new JSONObject(responseString);
                 } catch (JSONException e) {
                     // Clean the created user.
-                    cleanUpUser(id, "Get User");
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                             "Could not decode response from server response", ComplianceUtils.getWire(method,
@@ -1029,10 +976,12 @@ public class UserTestImpl implements ResourceType {
                 }
                 User user;
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     // Clean the created user.
-                    cleanUpUser(id, "Get User");
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(
                             new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
@@ -1056,7 +1005,7 @@ public class UserTestImpl implements ResourceType {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
                     // Clean the created user.
-                    cleanUpUser(id, "Get User");
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                             "Response Validation Error", ComplianceUtils.getWire(method, responseString,
@@ -1073,7 +1022,7 @@ public class UserTestImpl implements ResourceType {
                             addAssertion(requestPath.getTestCaseName() + " test", "givenName:" + null, "givenName:Kim",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Could not decode givenName attribute from server response",
@@ -1089,7 +1038,7 @@ public class UserTestImpl implements ResourceType {
                                     "userName:" + null + "givenName:" + givenName, "userName:loginUser,givenName:Kim",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Could not decode userName attribute from server response",
@@ -1104,7 +1053,7 @@ public class UserTestImpl implements ResourceType {
                                     "userName:loginUser," + "givenName:Kim",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Could not retrieve the expected attributes.", ComplianceUtils.getWire(method,
@@ -1124,7 +1073,7 @@ public class UserTestImpl implements ResourceType {
                             addAssertion(requestPath.getTestCaseName() + " test", "emails:" + null, "emails:null",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Could not decode emails complex multivalued attribute from server response",
@@ -1137,7 +1086,7 @@ public class UserTestImpl implements ResourceType {
                             addAssertion(requestPath.getTestCaseName() + " test", "emails:" + emails, "emails:null",
                                     ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Excluded attribute is present in response.", ComplianceUtils.getWire(method,
@@ -1158,7 +1107,7 @@ public class UserTestImpl implements ResourceType {
                             addAssertion(requestPath.getTestCaseName() + " test", "employeeNumber:" + null,
                                     "employeeNumber:1234A", ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Could not decode employeeNumber attribute from server response",
@@ -1171,7 +1120,7 @@ public class UserTestImpl implements ResourceType {
                             addAssertion(requestPath.getTestCaseName() + " test", "employeeNumber:" + employeeNumber,
                                     "employeeNumber:1234A", ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "Could not retrieve the expected attribute employeeNumber",
@@ -1197,7 +1146,7 @@ public class UserTestImpl implements ResourceType {
                             addAssertion(requestPath.getTestCaseName() + " test", "employeeNumber:" + employeeNumber,
                                     "employeeNumber:null", ComplianceConstants.TestConstants.STATUS_FAILED, subTests);
                             // Clean the created user.
-                            cleanUpUser(id, "Get User");
+                            cleanUpUser(id);
                             long stopTime = System.currentTimeMillis();
                             testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                                     "EmployeeNumber attribute from server response is not excluded as expected",
@@ -1212,7 +1161,7 @@ public class UserTestImpl implements ResourceType {
                     }
                 }
                 // Clean the created user.
-                cleanUpUser(id, "Get User");
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.SUCCESS, requestPath.getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1235,7 +1184,7 @@ public class UserTestImpl implements ResourceType {
                         stopTime - startTime));
             } else {
                 // Clean the created user.
-                cleanUpUser(id, "Get User");
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1259,6 +1208,12 @@ public class UserTestImpl implements ResourceType {
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
+        // The test creates loginUser1, hence the shared users are deleted first.
+        complianceTestMetaDataHolder.getFixtureRegistry().evict(ComplianceConstants.FixtureConstants.SHARED_USERS,
+                "Create User");
+        // Deleted resources may have the same names as the resources created by this test.
+        complianceTestMetaDataHolder.getCleanupQueue().drain(CLEANUP_SCOPE);
+
         ArrayList<String> definedUsers = new ArrayList<>();
 
         definedUsers.add(ComplianceConstants.DefinedInstances.definedUser1);
@@ -1284,7 +1239,7 @@ public class UserTestImpl implements ResourceType {
             User user;
             HttpPost method = new HttpPost(url);
             // Create user test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1364,7 +1319,9 @@ public class UserTestImpl implements ResourceType {
                     continue;
                 }
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                     userIDs.add(user.getId());
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     long stopTime = System.currentTimeMillis();
@@ -1442,9 +1399,8 @@ public class UserTestImpl implements ResourceType {
             }
         }
         // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "Post users test");
-        }
+        complianceTestMetaDataHolder.getCleanupQueue().schedule(CLEANUP_SCOPE,
+                ComplianceConstants.TestConstants.USERS_ENDPOINT, userIDs);
         return testResults;
     }
 
@@ -1529,7 +1485,7 @@ public class UserTestImpl implements ResourceType {
 
         RequestPath requestPath7 = new RequestPath();
         requestPath7.setTestCaseName("Patch non existing user with array of operations");
-        requestPath7.setUrl(generateUniqueID());
+        requestPath7.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         try {
             requestPath7.setTestSupported(
                     complianceTestMetaDataHolder.getScimServiceProviderConfig().getPatchSupported());
@@ -1550,7 +1506,7 @@ public class UserTestImpl implements ResourceType {
             String patchUserURL = url + "/" + id + requestPaths[i].getUrl();
             HttpPatch method = new HttpPatch(patchUserURL);
             // Create user test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             HttpResponse response = null;
             String responseString = StringUtils.EMPTY;
@@ -1591,7 +1547,7 @@ public class UserTestImpl implements ResourceType {
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
                 // Clean the created user.
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 if (!requestPaths[i].getTestCaseName().equals("Patch User - remove attribute without defining a path")
                         && !requestPaths[i].getTestCaseName().equals("Patch non existing user with array of operations")
                         && requestPaths[i].getTestSupported()
@@ -1620,10 +1576,12 @@ public class UserTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     // Clean the created user.
-                    cleanUpUser(id, requestPaths[i].getTestCaseName());
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(
                             new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
@@ -1648,7 +1606,7 @@ public class UserTestImpl implements ResourceType {
                     subTests.add(StringUtils.EMPTY);
                     long stopTime = System.currentTimeMillis();
                     // Clean the created user.
-                    cleanUpUser(id, requestPaths[i].getTestCaseName());
+                    cleanUpUser(id);
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Response Validation Error", ComplianceUtils.getWire(method, responseString,
                                     headerString.toString(), responseStatus, subTests),
@@ -1656,7 +1614,7 @@ public class UserTestImpl implements ResourceType {
                     continue;
                 }
                 // Clean the created user.
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.SUCCESS, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1701,7 +1659,7 @@ public class UserTestImpl implements ResourceType {
                         stopTime - startTime));
             } else {
                 // Clean the created user.
-                cleanUpUser(id, requestPaths[i].getTestCaseName());
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1741,7 +1699,7 @@ public class UserTestImpl implements ResourceType {
 
         RequestPath requestPath3 = new RequestPath();
         requestPath3.setTestCaseName("Update non existing user and and verify Http status code");
-        requestPath3.setUrl(generateUniqueID());
+        requestPath3.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
 
         requestPaths = new RequestPath[] { requestPath1, requestPath2, requestPath3 };
 
@@ -1755,7 +1713,7 @@ public class UserTestImpl implements ResourceType {
             String updateUserURL;
             updateUserURL = url + "/" + id + requestPaths[i].getUrl();
             HttpPut method = new HttpPut(updateUserURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             HttpResponse response = null;
             String responseString = StringUtils.EMPTY;
@@ -1796,7 +1754,7 @@ public class UserTestImpl implements ResourceType {
                 responseStatus = response.getStatusLine().getStatusCode() + " "
                         + response.getStatusLine().getReasonPhrase();
                 // Clean the created user.
-                cleanUpUser(id, "Update User");
+                cleanUpUser(id);
                 if (requestPaths[i].getTestCaseName().equals("Update User")) {
                     // Check for status returned.
                     addAssertion(ComplianceConstants.TestConstants.STATUS_CODE,
@@ -1822,10 +1780,12 @@ public class UserTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 try {
+                    long decodeStart = System.nanoTime();
                     user = jsonDecoder.decodeResource(responseString, schema, new User());
+                    LatencyRecorder.recordDecode(decodeStart);
                 } catch (BadRequestException | CharonException | InternalErrorException e) {
                     // Clean the created user.
-                    cleanUpUser(id, "Update User");
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(
                             new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
@@ -1849,7 +1809,7 @@ public class UserTestImpl implements ResourceType {
                     subTests.add(ComplianceConstants.TestConstants.STATUS_FAILED);
                     subTests.add(StringUtils.EMPTY);
                     // Clean the created user.
-                    cleanUpUser(id, "Update User");
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(),
                             "Response Validation Error", ComplianceUtils.getWire(method, responseString,
@@ -1857,7 +1817,7 @@ public class UserTestImpl implements ResourceType {
                             stopTime - startTime));
                 }
                 // Clean the created user.
-                cleanUpUser(id, "Update User");
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.SUCCESS, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1890,7 +1850,7 @@ public class UserTestImpl implements ResourceType {
                         stopTime - startTime));
             } else {
                 // Clean the created user.
-                cleanUpUser(id, "Update User");
+                cleanUpUser(id);
                 long stopTime = System.currentTimeMillis();
                 testResults.add(new TestResult(TestResult.ERROR, requestPaths[i].getTestCaseName(), StringUtils.EMPTY,
                         ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
@@ -1930,7 +1890,7 @@ public class UserTestImpl implements ResourceType {
         requestPath2.setTestCaseName("Delete user twice and verify Http status code");
 
         RequestPath requestPath3 = new RequestPath();
-        requestPath3.setUrl(generateUniqueID());
+        requestPath3.setUrl(ComplianceConstants.CassetteConstants.MISSING_RESOURCE_ID);
         requestPath3.setTestCaseName("Delete non existing user and validate user not found error response");
 
         requestPaths = new RequestPath[] { requestPath1, requestPath2, requestPath3 };
@@ -1940,7 +1900,7 @@ public class UserTestImpl implements ResourceType {
             String deleteUserURL;
             deleteUserURL = url + "/" + id + requestPath.getUrl();
             HttpDelete method = new HttpDelete(deleteUserURL);
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -1978,7 +1938,7 @@ public class UserTestImpl implements ResourceType {
                             String.valueOf(HttpStatus.SC_NO_CONTENT), ComplianceConstants.TestConstants.STATUS_FAILED,
                             subTests);
                     // Clean the created user.
-                    cleanUpUser(id, "Delete User");
+                    cleanUpUser(id);
                     long stopTime = System.currentTimeMillis();
                     testResults.add(new TestResult(TestResult.ERROR, requestPath.getTestCaseName(),
                             "Could not delete the default user at url " + url, ComplianceUtils.getWire(method,
@@ -2032,13 +1992,30 @@ public class UserTestImpl implements ResourceType {
     @Override
     public ArrayList<TestResult> searchMethodTest() throws GeneralComplianceException, ComplianceException {
 
+        FixtureRegistry.Lease usersLease = leaseTestsUsers();
+        try {
+            return searchMethodTest(usersLease.getIds());
+        } finally {
+            // Release users, also when a test fails.
+            usersLease.release();
+        }
+    }
+
+    /**
+     * Run the search tests with the leased users.
+     *
+     * @param userIDs Ids of the leased users.
+     * @return Array containing test results.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<TestResult> searchMethodTest(ArrayList<String> userIDs)
+            throws GeneralComplianceException, ComplianceException {
+
         // Store test results.
         ArrayList<TestResult> testResults;
         testResults = new ArrayList<>();
 
-        // Store userIDS of 5 users.
-        ArrayList<String> userIDs = createTestsUsers("Many");
-
         // Post bodies of search methods.
         ArrayList<String> definedSearchMethods = new ArrayList<>();
 
@@ -2069,7 +2046,7 @@ public class UserTestImpl implements ResourceType {
             searchUsersUrl = url + "/.search";
             HttpPost method = new HttpPost(searchUsersUrl);
             // Create user test.
-            HttpClient client = HTTPClient.getHttpClient();
+            HttpClient client = HTTPClient.getHttpClient(complianceTestMetaDataHolder);
             HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
             method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
                     ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
@@ -2130,16 +2107,15 @@ public class UserTestImpl implements ResourceType {
                 SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
                 JSONDecoder jsonDecoder = new JSONDecoder();
                 ArrayList<User> userList = new ArrayList<>();
-                JSONObject jsonObjResponse;
                 try {
-                    JSONObject jsonObj = new JSONObject(responseString);
-                    jsonObjResponse = jsonObj;
-                    JSONArray usersArray = jsonObj.getJSONArray("Resources");
-                    totalResults = (int) jsonObjResponse.get("totalResults");
-                    JSONObject tmp;
-                    for (int j = 0; j < usersArray.length(); j++) {
-                        tmp = usersArray.getJSONObject(j);
-                        userList.add(jsonDecoder.decodeResource(tmp.toString(), schema, new User()));
+                    // The resources are decoded from their own part of the response, which is scanned once.
+                    ListResponse listResponse = ListResponse.parse(responseString);
+                    List<String> resources = listResponse.getResources();
+                    totalResults = listResponse.getTotalResults();
+                    for (int j = 0; j < resources.size(); j++) {
+                        long decodeStart = System.nanoTime();
+                        userList.add(jsonDecoder.decodeResource(resources.get(j), schema, new User()));
+                        LatencyRecorder.recordDecode(decodeStart);
                         try {
                             ResponseValidateTests.runValidateTests(userList.get(j), schema, null, null, method,
                                     responseString, headerString.toString(), responseStatus, subTests);
@@ -2204,10 +2180,6 @@ public class UserTestImpl implements ResourceType {
                         stopTime - startTime));
             }
         }
-        // Clean up users after all tasks.
-        for (String id : userIDs) {
-            cleanUpUser(id, "Search users");
-        }
         return testResults;
     }
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The attributes and excludedAttributes parameters of a request, as hashed sets of attribute paths, e.g.
+ * name.givenName. The parents of the requested paths are kept too, so that a response attribute without any
+ * requested sub attribute is ruled out without building the paths of its sub attributes.
+ */
+final class AttributeProjection {
+
+    // Projection of a request without attributes or excludedAttributes parameters.
+    static final AttributeProjection NONE = new AttributeProjection(null, null);
+
+    private final boolean attributes;
+    private final boolean excludedAttributes;
+    private final Set<String> requested;
+    private final Set<String> requestedParents;
+    private final Set<String> excluded;
+
+    private AttributeProjection(String requestedAttributes, String requestedExcludingAttributes) {
+
+        attributes = requestedAttributes != null;
+        excludedAttributes = requestedExcludingAttributes != null;
+        requested = toSet(requestedAttributes);
+        excluded = toSet(requestedExcludingAttributes);
+        requestedParents = new HashSet<>();
+        for (String path : requested) {
+            for (int i = path.indexOf('.'); i > 0; i = path.indexOf('.', i + 1)) {
+                requestedParents.add(path.substring(0, i));
+            }
+        }
+    }
+
+    /**
+     * Create the projection of a request.
+     *
+     * @param requestedAttributes          Comma separated attributes parameter, or null.
+     * @param requestedExcludingAttributes Comma separated excludedAttributes parameter, or null.
+     * @return Projection.
+     */
+    static AttributeProjection of(String requestedAttributes, String requestedExcludingAttributes) {
+
+        if (requestedAttributes == null && requestedExcludingAttributes == null) {
+            return NONE;
+        }
+        return new AttributeProjection(requestedAttributes, requestedExcludingAttributes);
+    }
+
+    /**
+     * Check whether the request has neither attributes nor excludedAttributes parameters.
+     *
+     * @return True if the default set of attributes is expected.
+     */
+    boolean isDefault() {
+
+        return !attributes && !excludedAttributes;
+    }
+
+    /**
+     * Check whether the request has an attributes parameter, which takes precedence over excludedAttributes.
+     *
+     * @return True if only the requested attributes are expected.
+     */
+    boolean hasAttributes() {
+
+        return attributes;
+    }
+
+    /**
+     * Check whether an attribute path is requested.
+     *
+     * @param path Attribute path.
+     * @return True if requested.
+     */
+    boolean isRequested(String path) {
+
+        return requested.contains(path);
+    }
+
+    /**
+     * Check whether a sub attribute of an attribute path is requested.
+     *
+     * @param path Attribute path.
+     * @return True if a path below it is requested.
+     */
+    boolean hasRequestedSubAttribute(String path) {
+
+        return requestedParents.contains(path);
+    }
+
+    /**
+     * Check whether an attribute path is excluded.
+     *
+     * @param path Attribute path.
+     * @return True if excluded.
+     */
+    boolean isExcluded(String path) {
+
+        return excluded.contains(path);
+    }
+
+    private static Set<String> toSet(String commaSeparated) {
+
+        if (commaSeparated == null) {
+            return Collections.emptySet();
+        }
+        Set<String> paths = new HashSet<>();
+        Collections.addAll(paths, commaSeparated.split(","));
+        return paths;
+    }
+}
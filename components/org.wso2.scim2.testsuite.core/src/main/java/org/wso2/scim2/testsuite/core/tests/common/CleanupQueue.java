@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes the resources created by the tests in the background, so the clean up is not part of the measured time
+ * of a test.
+ * <p>
+ * Deletions are collected into batches, which are sent through /Bulk when it is supported and as concurrent
+ * requests otherwise. Each deletion belongs to a scope, the user name prefix of the lane which created the
+ * resource. Lanes create resources with distinct names, hence before creating resources which may have the same
+ * names as deleted ones, a test only has to {@link #drain(String)} the deletions of its own scope. At the end of
+ * the run {@link #close()} deletes the rest and reports the resources which are left on the service provider.
+ * <p>
+ * A run with a cassette deletes each resource when it is scheduled, with a request of its own, since the batches
+ * depend on the timing of the lanes and a replayed run must send the same requests as the recorded one.
+ */
+public class CleanupQueue {
+
+    private static final Log logger = LogFactory.getLog(CleanupQueue.class);
+
+    private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final FixtureProvisioner provisioner;
+    private final int batchSize;
+    private final long linger;
+    private final boolean synchronous;
+
+    // Scheduled locations by scope.
+    private final Map<String, List<String>> pending = new LinkedHashMap<>();
+    // Number of locations by scope which are being deleted.
+    private final Map<String, Integer> inFlight = new HashMap<>();
+    private final List<String> deleted = new ArrayList<>();
+    private final List<String> failed = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService executor;
+    private boolean flushScheduled;
+    private List<String> leftovers;
+    private int pendingCount;
+
+    /**
+     * Initialize.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to send the deletions.
+     */
+    public CleanupQueue(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
+
+        this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        this.provisioner = new FixtureProvisioner(complianceTestMetaDataHolder);
+        this.batchSize = ComplianceConstants.FixtureConstants.DEFAULT_CLEAN_UP_BATCH_SIZE;
+        this.linger = ComplianceConstants.FixtureConstants.DEFAULT_CLEAN_UP_LINGER;
+        this.synchronous = complianceTestMetaDataHolder.getRunContext().getCassette() != null;
+    }
+
+    /**
+     * Schedule the deletion of resources of an endpoint.
+     *
+     * @param scope    User name prefix of the lane which created the resources.
+     * @param endpoint Resource endpoint, e.g. /Users.
+     * @param ids      Ids of the resources.
+     */
+    public void schedule(String scope, String endpoint, List<String> ids) {
+
+        for (String id : ids) {
+            schedule(scope, complianceTestMetaDataHolder.getUrl() + endpoint + "/" + id);
+        }
+    }
+
+    /**
+     * Schedule the deletion of a resource.
+     *
+     * @param scope    User name prefix of the lane which created the resource.
+     * @param location Absolute location of the resource.
+     */
+    public void schedule(String scope, String location) {
+
+        if (synchronous) {
+            Map<String, List<String>> batch = Collections.singletonMap(scope, Collections.singletonList(location));
+            synchronized (this) {
+                startDeletion(batch);
+            }
+            try {
+                delete(batch);
+            } catch (ComplianceException e) {
+                logger.error("Could not delete the resource " + location, e);
+            }
+            return;
+        }
+        synchronized (this) {
+            pending.computeIfAbsent(scope, key -> new ArrayList<>()).add(location);
+            pendingCount++;
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "scim2-cleanup-queue");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            if (pendingCount >= batchSize) {
+                executor.execute(this::flushInBackground);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                executor.schedule(this::flushInBackground, linger, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Delete the scheduled resources of a scope and wait until they are deleted. The deletions of the other scopes
+     * are not waited for.
+     *
+     * @param scope User name prefix of the lane.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public void drain(String scope) throws ComplianceException {
+
+        Map<String, List<String>> batch = new HashMap<>();
+        synchronized (this) {
+            List<String> locations = pending.remove(scope);
+            if (locations != null) {
+                pendingCount -= locations.size();
+                batch.put(scope, locations);
+                startDeletion(batch);
+            }
+        }
+        if (!batch.isEmpty()) {
+            delete(batch);
+        }
+        synchronized (this) {
+            // A background batch may still be deleting resources of the scope.
+            while (inFlight.containsKey(scope)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ComplianceException("Interrupted while deleting the resources of " + scope, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete all the scheduled resources and wait until they are deleted.
+     *
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public void drain() throws ComplianceException {
+
+        flush();
+        synchronized (this) {
+            while (!inFlight.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ComplianceException("Interrupted while deleting the resources of the tests", e);
+                }
+            }
+        }
+    }
+    /**
+     * Drain the queue, then check that all the deleted resources are gone. Failures are logged, since the test
+     * results are already complete. Closing the queue again returns the same leftovers.
+     *
+     * @return Locations of the resources which are left on the service provider.
+     */
+    public synchronized List<String> close() {
+
+        if (leftovers != null) {
+            return new ArrayList<>(leftovers);
+        }
+        leftovers = new ArrayList<>();
+        try {
+            drain();
+            List<String> toVerify;
+            synchronized (this) {
+                toVerify = new ArrayList<>(deleted);
+                leftovers.addAll(failed);
+            }
+            for (String location : provisioner.findExisting(toVerify)) {
+                if (!leftovers.contains(location)) {
+                    leftovers.add(location);
+                }
+            }
+        } catch (ComplianceException e) {
+            logger.error("Could not clean up the resources created by the tests", e);
+        } finally {
+            synchronized (this) {
+                if (executor != null) {
+                    executor.shutdownNow();
+                    executor = null;
+                }
+            }
+        }
+        for (String location : leftovers) {
+            logger.warn("Resource created by the tests is left at " + location);
+        }
+        return new ArrayList<>(leftovers);
+    }
+
+    private void flushInBackground() {
+
+        try {
+            flush();
+        } catch (ComplianceException e) {
+            logger.error("Could not clean up the resources created by the tests", e);
+        }
+    }
+
+    /**
+     * Delete the scheduled resources of all the scopes. Only one batch is sent at a time.
+     *
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private void flush() throws ComplianceException {
+
+        flushLock.lock();
+        try {
+            Map<String, List<String>> batch;
+            synchronized (this) {
+                batch = new LinkedHashMap<>(pending);
+                pending.clear();
+                pendingCount = 0;
+                flushScheduled = false;
+                startDeletion(batch);
+            }
+            if (!batch.isEmpty()) {
+                delete(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Mark the locations of a batch as being deleted. The caller holds the lock of the queue.
+     *
+     * @param batch Locations by scope.
+     */
+    private void startDeletion(Map<String, List<String>> batch) {
+
+        for (Map.Entry<String, List<String>> entry : batch.entrySet()) {
+            inFlight.merge(entry.getKey(), entry.getValue().size(), Integer::sum);
+        }
+    }
+
+    /**
+     * Delete the locations of a batch and record the result.
+     *
+     * @param batch Locations by scope.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private void delete(Map<String, List<String>> batch) throws ComplianceException {
+
+        List<String> locations = new ArrayList<>();
+        for (List<String> scopeLocations : batch.values()) {
+            locations.addAll(scopeLocations);
+        }
+        List<String> batchFailures = null;
+        try {
+            batchFailures = provisioner.deleteLocations(locations);
+        } finally {
+            synchronized (this) {
+                for (Map.Entry<String, List<String>> entry : batch.entrySet()) {
+                    for (String location : entry.getValue()) {
+                        if (batchFailures == null || batchFailures.contains(location)) {
+                            failed.add(location);
+                        } else {
+                            deleted.add(location);
+                        }
+                    }
+                    if (inFlight.merge(entry.getKey(), -entry.getValue().size(), Integer::sum) == 0) {
+                        inFlight.remove(entry.getKey());
+                    }
+                }
+                notifyAll();
+            }
+        }
+    }
+}
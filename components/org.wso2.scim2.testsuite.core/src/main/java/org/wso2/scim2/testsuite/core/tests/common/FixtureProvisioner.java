@@ -0,0 +1,635 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.charon3.core.exceptions.CharonException;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPTransport;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceTestMetaDataHolder;
+import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Creates and deletes the fixture resources used by the tests.
+ * <p>
+ * When the service provider supports bulk operations the fixtures are sent through /Bulk, in requests of at most
+ * bulk.maxOperations operations. Otherwise, or if a bulk request is rejected, the fixtures are sent as individual
+ * requests in parallel.
+ */
+public class FixtureProvisioner {
+
+    private final ComplianceTestMetaDataHolder complianceTestMetaDataHolder;
+    private final String cleanupScope;
+
+    /**
+     * Initialize a provisioner which does not wait for scheduled deletions before creating resources.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to run tests.
+     */
+    public FixtureProvisioner(ComplianceTestMetaDataHolder complianceTestMetaDataHolder) {
+
+        this(complianceTestMetaDataHolder, null);
+    }
+
+    /**
+     * Initialize.
+     *
+     * @param complianceTestMetaDataHolder Stores data required to run tests.
+     * @param cleanupScope                 Scope of the {@link CleanupQueue} deletions which may have the same names
+     *                                     as the created resources, or null.
+     */
+    public FixtureProvisioner(ComplianceTestMetaDataHolder complianceTestMetaDataHolder, String cleanupScope) {
+
+        this.complianceTestMetaDataHolder = complianceTestMetaDataHolder;
+        this.cleanupScope = cleanupScope;
+    }
+
+    /**
+     * Replace the loginUser user names of a definition, e.g. loginUser1 becomes groupUser1 with the groupUser
+     * prefix, so tests which run concurrently do not create users with the same user names.
+     *
+     * @param definition     Json definition.
+     * @param userNamePrefix Prefix of the user names.
+     * @return Json definition with the given user names.
+     */
+    public static String withUserNamePrefix(String definition, String userNamePrefix) {
+
+        return definition.replace(ComplianceConstants.DefinedInstances.defineUserName, userNamePrefix);
+    }
+
+    /**
+     * Create resources at the given endpoint.
+     *
+     * @param endpoint    Resource endpoint, e.g. /Users.
+     * @param definitions Json definitions of the resources.
+     * @param testName    Name of the test to report the errors under.
+     * @return Ids of the created resources, in the order of the definitions.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
+     */
+    public ArrayList<String> createResources(String endpoint, List<String> definitions, String testName)
+            throws ComplianceException, GeneralComplianceException {
+
+        if (definitions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Resources deleted by earlier tests of the lane may have the same names as the fixtures.
+        if (cleanupScope != null) {
+            complianceTestMetaDataHolder.getCleanupQueue().drain(cleanupScope);
+        }
+        if (isBulkSupported()) {
+            ArrayList<String> ids = createResourcesInBulk(endpoint, definitions);
+            if (ids != null) {
+                return ids;
+            }
+        }
+        return createResourcesInParallel(endpoint, definitions, testName);
+    }
+
+    /**
+     * Delete resources from the given endpoint.
+     *
+     * @param endpoint Resource endpoint, e.g. /Users.
+     * @param ids      Ids of the resources to delete.
+     * @param testName Name of the test to report the errors under.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
+     */
+    public void deleteResources(String endpoint, List<String> ids, String testName)
+            throws ComplianceException, GeneralComplianceException {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (isBulkSupported() && deleteResourcesInBulk(endpoint, ids)) {
+            return;
+        }
+        deleteResourcesInParallel(endpoint, ids, testName);
+    }
+
+    /**
+     * Delete resources by location. Failures do not stop the deletion of the other resources, instead the
+     * locations which could not be deleted are returned.
+     *
+     * @param locations Absolute locations of the resources.
+     * @return Locations which could not be deleted.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public List<String> deleteLocations(List<String> locations) throws ComplianceException {
+
+        List<String> remaining = new ArrayList<>(locations);
+        if (!remaining.isEmpty() && isBulkSupported()) {
+            remaining = deleteLocationsInBulk(remaining);
+        }
+        List<HttpRequestBase> methods = new ArrayList<>();
+        for (String location : remaining) {
+            HttpDelete method = new HttpDelete(location);
+            setRequestHeaders(method, null);
+            methods.add(method);
+        }
+        List<Integer> statusCodes = getStatusCodes(methods);
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < remaining.size(); i++) {
+            // A resource which is already gone does not need to be deleted.
+            if (statusCodes.get(i) != HttpStatus.SC_NO_CONTENT && statusCodes.get(i) != HttpStatus.SC_NOT_FOUND) {
+                failed.add(remaining.get(i));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Find the resources which still exist.
+     *
+     * @param locations Absolute locations of the resources.
+     * @return Locations which did not return 404 Not Found.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public List<String> findExisting(List<String> locations) throws ComplianceException {
+
+        List<HttpRequestBase> methods = new ArrayList<>();
+        for (String location : locations) {
+            HttpGet method = new HttpGet(location);
+            setRequestHeaders(method, null);
+            methods.add(method);
+        }
+        List<Integer> statusCodes = getStatusCodes(methods);
+        List<String> existing = new ArrayList<>();
+        for (int i = 0; i < locations.size(); i++) {
+            if (statusCodes.get(i) != HttpStatus.SC_NOT_FOUND) {
+                existing.add(locations.get(i));
+            }
+        }
+        return existing;
+    }
+
+    private boolean isBulkSupported() {
+
+        try {
+            return complianceTestMetaDataHolder.getScimServiceProviderConfig() != null &&
+                    complianceTestMetaDataHolder.getScimServiceProviderConfig().getBulkSupported();
+        } catch (CharonException | RuntimeException e) {
+            // A service provider config without the bulk attribute does not support bulk operations.
+            return false;
+        }
+    }
+
+    /**
+     * Create resources with bulk requests. If any resource is not created, the created ones are deleted again.
+     *
+     * @param endpoint    Resource endpoint.
+     * @param definitions Json definitions of the resources.
+     * @return Ids of the created resources, or null if the bulk requests were not successful.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private ArrayList<String> createResourcesInBulk(String endpoint, List<String> definitions)
+            throws ComplianceException {
+
+        JSONArray operations = new JSONArray();
+        try {
+            for (int i = 0; i < definitions.size(); i++) {
+                JSONObject operation = new JSONObject();
+                operation.put(ComplianceConstants.BulkConstants.METHOD, HttpPost.METHOD_NAME);
+                operation.put(ComplianceConstants.BulkConstants.PATH, endpoint);
+                operation.put(ComplianceConstants.BulkConstants.BULK_ID,
+                        ComplianceConstants.BulkConstants.FIXTURE_BULK_ID_PREFIX + i);
+                operation.put(ComplianceConstants.BulkConstants.DATA, new JSONObject(definitions.get(i)));
+                operations.put(operation);
+            }
+        } catch (JSONException e) {
+            throw new ComplianceException("Invalid fixture definition for " + endpoint, e);
+        }
+        JSONArray results = sendBulkRequests(operations, true);
+        // The results need not be in the order of the operations, hence they are matched by bulk id. Every result
+        // is read, so all the created resources are known for the roll back.
+        Map<String, String> createdIds = new HashMap<>();
+        List<String> unmatchedIds = new ArrayList<>();
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.optJSONObject(i);
+            if (result == null || getStatusCode(result) != HttpStatus.SC_CREATED) {
+                continue;
+            }
+            String location = result.optString(ComplianceConstants.BulkConstants.LOCATION);
+            if (StringUtils.isEmpty(location)) {
+                continue;
+            }
+            String id = location.substring(location.lastIndexOf('/') + 1);
+            String bulkId = result.optString(ComplianceConstants.BulkConstants.BULK_ID);
+            if (StringUtils.isEmpty(bulkId)) {
+                unmatchedIds.add(id);
+            } else {
+                createdIds.put(bulkId, id);
+            }
+        }
+        ArrayList<String> ids = new ArrayList<>();
+        for (int i = 0; i < definitions.size(); i++) {
+            String id = createdIds.get(ComplianceConstants.BulkConstants.FIXTURE_BULK_ID_PREFIX + i);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        if (ids.size() != definitions.size()) {
+            // Roll back the partial result, so the individual requests do not conflict with it.
+            List<String> createdList = new ArrayList<>(createdIds.values());
+            createdList.addAll(unmatchedIds);
+            deleteLocations(toLocations(endpoint, createdList));
+            return null;
+        }
+        return ids;
+    }
+
+    /**
+     * Delete resources with bulk requests.
+     *
+     * @param endpoint Resource endpoint.
+     * @param ids      Ids of the resources to delete.
+     * @return True if all the resources were deleted.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private boolean deleteResourcesInBulk(String endpoint, List<String> ids) throws ComplianceException {
+
+        if (ids.isEmpty()) {
+            return true;
+        }
+        JSONArray operations = new JSONArray();
+        try {
+            for (String id : ids) {
+                JSONObject operation = new JSONObject();
+                operation.put(ComplianceConstants.BulkConstants.METHOD, HttpDelete.METHOD_NAME);
+                operation.put(ComplianceConstants.BulkConstants.PATH, endpoint + "/" + id);
+                operations.put(operation);
+            }
+        } catch (JSONException e) {
+            throw new ComplianceException("Error in building the bulk delete request for " + endpoint, e);
+        }
+        JSONArray results = sendBulkRequests(operations, false);
+        if (results.length() != ids.size()) {
+            return false;
+        }
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.optJSONObject(i);
+            if (result == null || getStatusCode(result) != HttpStatus.SC_NO_CONTENT) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Delete resources by location with bulk requests.
+     *
+     * @param locations Absolute locations of the resources.
+     * @return Locations which were not deleted by the bulk request.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private List<String> deleteLocationsInBulk(List<String> locations) throws ComplianceException {
+
+        String baseUrl = complianceTestMetaDataHolder.getUrl();
+        List<String> bulkLocations = new ArrayList<>();
+        List<String> remaining = new ArrayList<>();
+        JSONArray operations = new JSONArray();
+        try {
+            for (String location : locations) {
+                if (!location.startsWith(baseUrl)) {
+                    // Only resources of the service provider can be addressed by a bulk operation.
+                    remaining.add(location);
+                    continue;
+                }
+                JSONObject operation = new JSONObject();
+                operation.put(ComplianceConstants.BulkConstants.METHOD, HttpDelete.METHOD_NAME);
+                operation.put(ComplianceConstants.BulkConstants.PATH, location.substring(baseUrl.length()));
+                operations.put(operation);
+                bulkLocations.add(location);
+            }
+        } catch (JSONException e) {
+            throw new ComplianceException("Error in building the bulk delete request", e);
+        }
+        if (bulkLocations.isEmpty()) {
+            return remaining;
+        }
+        JSONArray results = sendBulkRequests(operations, false);
+        if (results.length() != bulkLocations.size()) {
+            remaining.addAll(bulkLocations);
+            return remaining;
+        }
+        for (int i = 0; i < results.length(); i++) {
+            JSONObject result = results.optJSONObject(i);
+            int statusCode = result == null ? -1 : getStatusCode(result);
+            if (statusCode != HttpStatus.SC_NO_CONTENT && statusCode != HttpStatus.SC_NOT_FOUND) {
+                remaining.add(bulkLocations.get(i));
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Send the operations to the bulk endpoint, split into requests of at most bulk.maxOperations operations.
+     *
+     * @param operations   Bulk operations.
+     * @param failOnErrors Whether the service provider stops at the first error. No further request is sent after
+     *                     a request with an error then.
+     * @return Operation results of the requests which succeeded. Results are missing for the operations of a
+     * request which failed and of the requests after it.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private JSONArray sendBulkRequests(JSONArray operations, boolean failOnErrors) throws ComplianceException {
+
+        int maxOperations = getBulkMaxOperations();
+        JSONArray results = new JSONArray();
+        for (int start = 0; start < operations.length(); start += maxOperations) {
+            JSONArray chunk = new JSONArray();
+            for (int i = start; i < Math.min(start + maxOperations, operations.length()); i++) {
+                chunk.put(operations.opt(i));
+            }
+            JSONArray chunkResults = sendBulkRequest(chunk, failOnErrors);
+            if (chunkResults == null) {
+                break;
+            }
+            boolean errorOccurred = false;
+            for (int i = 0; i < chunkResults.length(); i++) {
+                JSONObject result = chunkResults.optJSONObject(i);
+                int statusCode = result == null ? -1 : getStatusCode(result);
+                errorOccurred |= statusCode < HttpStatus.SC_OK || statusCode >= HttpStatus.SC_MULTIPLE_CHOICES;
+                results.put(result);
+            }
+            if (errorOccurred && failOnErrors) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private int getBulkMaxOperations() {
+
+        try {
+            int maxOperations = complianceTestMetaDataHolder.getScimServiceProviderConfig().getBulkMaxOperations();
+            return maxOperations > 0 ? maxOperations : Integer.MAX_VALUE;
+        } catch (CharonException | RuntimeException e) {
+            // A service provider config without the limit does not limit the operations.
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private List<String> toLocations(String endpoint, List<String> ids) {
+
+        List<String> locations = new ArrayList<>();
+        for (String id : ids) {
+            locations.add(complianceTestMetaDataHolder.getUrl() + endpoint + "/" + id);
+        }
+        return locations;
+    }
+
+    /**
+     * Send the operations to the bulk endpoint.
+     *
+     * @param operations   Bulk operations.
+     * @param failOnErrors Whether the service provider stops at the first error.
+     * @return Operation results of the bulk response, or null if the request failed.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private JSONArray sendBulkRequest(JSONArray operations, boolean failOnErrors) throws ComplianceException {
+
+        HttpPost method = new HttpPost(complianceTestMetaDataHolder.getUrl() +
+                ComplianceConstants.TestConstants.BULK_ENDPOINT);
+        try {
+            JSONObject bulkRequest = new JSONObject();
+            bulkRequest.put(ComplianceConstants.BulkConstants.SCHEMAS,
+                    new JSONArray().put(ComplianceConstants.BulkConstants.BULK_REQUEST_SCHEMA));
+            if (failOnErrors) {
+                bulkRequest.put(ComplianceConstants.BulkConstants.FAIL_ON_ERRORS, 1);
+            }
+            bulkRequest.put(ComplianceConstants.BulkConstants.OPERATIONS, operations);
+            setRequestHeaders(method, bulkRequest.toString());
+            HttpResponse response = HTTPClient.getTransport(complianceTestMetaDataHolder).execute(method);
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || response.getEntity() == null) {
+                return null;
+            }
+            return new JSONObject(EntityUtils.toString(response.getEntity()))
+                    .optJSONArray(ComplianceConstants.BulkConstants.OPERATIONS);
+        } catch (IOException | JSONException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the status code of a bulk operation result. The status is either a string, a number or an object with
+     * the code.
+     *
+     * @param result Bulk operation result.
+     * @return Status code, or -1 if it is missing.
+     */
+    private static int getStatusCode(JSONObject result) {
+
+        Object status = result.opt(ComplianceConstants.BulkConstants.STATUS);
+        if (status instanceof JSONObject) {
+            status = ((JSONObject) status).opt(ComplianceConstants.BulkConstants.CODE);
+        }
+        if (status instanceof Number) {
+            return ((Number) status).intValue();
+        }
+        if (status instanceof String) {
+            try {
+                return Integer.parseInt(((String) status).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private ArrayList<String> createResourcesInParallel(String endpoint, List<String> definitions, String testName)
+            throws ComplianceException, GeneralComplianceException {
+
+        String url = complianceTestMetaDataHolder.getUrl() + endpoint;
+        List<HttpPost> methods = new ArrayList<>();
+        for (String definition : definitions) {
+            HttpPost method = new HttpPost(url);
+            setRequestHeaders(method, definition);
+            methods.add(method);
+        }
+        ArrayList<String> ids = new ArrayList<>();
+        for (FixtureResponse fixtureResponse : executeAll(methods)) {
+            if (fixtureResponse.getStatusCode() != HttpStatus.SC_CREATED) {
+                throw fixtureResponse.toException(testName, "Could not create default resources at url " + url);
+            }
+            try {
+                ids.add(new JSONObject(fixtureResponse.getResponseString()).getString("id"));
+            } catch (JSONException e) {
+                throw fixtureResponse.toException(testName, "Could not decode the server response of " +
+                        "resource create at url " + url);
+            }
+        }
+        return ids;
+    }
+
+    private void deleteResourcesInParallel(String endpoint, List<String> ids, String testName)
+            throws ComplianceException, GeneralComplianceException {
+
+        String url = complianceTestMetaDataHolder.getUrl() + endpoint;
+        List<HttpDelete> methods = new ArrayList<>();
+        for (String id : ids) {
+            HttpDelete method = new HttpDelete(url + "/" + id);
+            setRequestHeaders(method, null);
+            methods.add(method);
+        }
+        for (FixtureResponse fixtureResponse : executeAll(methods)) {
+            if (fixtureResponse.getStatusCode() != HttpStatus.SC_NO_CONTENT) {
+                throw fixtureResponse.toException(testName, "Could not delete the default resource at url " +
+                        fixtureResponse.method.getURI());
+            }
+        }
+    }
+
+    /**
+     * Send all the requests at once and wait for the responses.
+     *
+     * @param methods Requests to send.
+     * @return Responses, in the order of the requests.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private List<FixtureResponse> executeAll(List<? extends HttpRequestBase> methods) throws ComplianceException {
+
+        HTTPTransport transport = HTTPClient.getTransport(complianceTestMetaDataHolder);
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+        for (HttpRequestBase method : methods) {
+            futures.add(transport.executeAsync(method));
+        }
+        List<FixtureResponse> fixtureResponses = new ArrayList<>();
+        for (int i = 0; i < methods.size(); i++) {
+            HttpRequestBase method = methods.get(i);
+            try {
+                fixtureResponses.add(new FixtureResponse(method, futures.get(i).get(), startTime));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ComplianceException("Interrupted while sending request to " + method.getURI(), e);
+            } catch (ExecutionException | IOException e) {
+                throw new ComplianceException("Error in sending request to " + method.getURI(), e);
+            }
+        }
+        return fixtureResponses;
+    }
+
+    /**
+     * Send all the requests at once and get the status codes of the responses.
+     *
+     * @param methods Requests to send.
+     * @return Status codes, in the order of the requests. -1 for a request which failed.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    private List<Integer> getStatusCodes(List<? extends HttpRequestBase> methods) throws ComplianceException {
+
+        HTTPTransport transport = HTTPClient.getTransport(complianceTestMetaDataHolder);
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+        for (HttpRequestBase method : methods) {
+            futures.add(transport.executeAsync(method));
+        }
+        List<Integer> statusCodes = new ArrayList<>();
+        for (CompletableFuture<HttpResponse> future : futures) {
+            try {
+                statusCodes.add(future.get().getStatusLine().getStatusCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ComplianceException("Interrupted while sending the requests", e);
+            } catch (ExecutionException e) {
+                statusCodes.add(-1);
+            }
+        }
+        return statusCodes;
+    }
+
+    private void setRequestHeaders(HttpRequestBase method, String body) {
+
+        HTTPClient.setAuthorizationHeader(complianceTestMetaDataHolder, method);
+        method.setHeader(ComplianceConstants.RequestCodeConstants.ACCEPT,
+                ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        if (body != null) {
+            method.setHeader(ComplianceConstants.RequestCodeConstants.CONTENT_TYPE,
+                    ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+            ((HttpPost) method).setEntity(new ByteArrayEntity(body.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Buffered response of a fixture request.
+     */
+    private static class FixtureResponse {
+
+        private final HttpRequestBase method;
+        private final HttpResponse response;
+        private final String responseString;
+        private final long elapsedTime;
+
+        FixtureResponse(HttpRequestBase method, HttpResponse response, long startTime) throws IOException {
+
+            this.method = method;
+            this.response = response;
+            this.responseString = response.getEntity() != null ? EntityUtils.toString(response.getEntity()) :
+                    StringUtils.EMPTY;
+            this.elapsedTime = System.currentTimeMillis() - startTime;
+        }
+
+        int getStatusCode() {
+
+            return response.getStatusLine().getStatusCode();
+        }
+
+        String getResponseString() {
+
+            return responseString;
+        }
+
+        GeneralComplianceException toException(String testName, String message) throws ComplianceException {
+
+            StringBuilder headerString = new StringBuilder(StringUtils.EMPTY);
+            for (Header header : response.getAllHeaders()) {
+                headerString.append(String.format("%s : %s \n", header.getName(), header.getValue()));
+            }
+            String responseStatus = response.getStatusLine().getStatusCode() + " "
+                    + response.getStatusLine().getReasonPhrase();
+            return new GeneralComplianceException(new TestResult(TestResult.ERROR, testName, message,
+                    ComplianceUtils.getWire(method, responseString, headerString.toString(), responseStatus,
+                            new ArrayList<>()), elapsedTime));
+        }
+    }
+}
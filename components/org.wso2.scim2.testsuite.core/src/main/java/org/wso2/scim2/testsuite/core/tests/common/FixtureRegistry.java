@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Pool of read only fixtures shared by the tests of a run.
+ * <p>
+ * A fixture is created on the first lease and kept until it is evicted or the run is over, so tests which only
+ * read the fixture do not create and delete it again. Tests which modify a fixture, or create resources which
+ * conflict with it, must evict it first and create their own. A fixture can only be evicted once all its leases
+ * are released.
+ * <p>
+ * The lock of the registry only guards the pool. The fixtures are created and deleted outside of it, so a lane
+ * which creates a fixture does not block the leases and releases of the other lanes. A lease of a fixture which
+ * is being created waits for its creation.
+ */
+public class FixtureRegistry {
+
+    private static final Log logger = LogFactory.getLog(FixtureRegistry.class);
+
+    private final Map<String, CompletableFuture<PooledFixture>> fixtures = new LinkedHashMap<>();
+
+    /**
+     * Lease a fixture, creating it if it is not in the pool.
+     *
+     * @param name         Name of the fixture.
+     * @param provisioner  Provisioner to create and delete the fixture resources.
+     * @param endpoint     Resource endpoint, e.g. /Users.
+     * @param definitions  Json definitions of the resources.
+     * @param testName     Name of the test to report the errors under.
+     * @return Lease of the fixture.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
+     */
+    public Lease lease(String name, FixtureProvisioner provisioner, String endpoint, List<String> definitions,
+                       String testName) throws ComplianceException, GeneralComplianceException {
+
+        while (true) {
+            CompletableFuture<PooledFixture> future;
+            boolean create = false;
+            synchronized (this) {
+                future = fixtures.get(name);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    fixtures.put(name, future);
+                    create = true;
+                }
+            }
+            if (create) {
+                try {
+                    ArrayList<String> ids = provisioner.createResources(endpoint, definitions, testName);
+                    future.complete(new PooledFixture(provisioner, endpoint, ids));
+                } catch (ComplianceException | GeneralComplianceException | RuntimeException e) {
+                    synchronized (this) {
+                        fixtures.remove(name, future);
+                    }
+                    future.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            PooledFixture fixture = await(future);
+            synchronized (this) {
+                // The fixture may have been evicted while it was awaited, then it is leased again.
+                if (fixtures.get(name) == future) {
+                    fixture.leases++;
+                    return new Lease(fixture);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete a fixture from the service provider and remove it from the pool.
+     *
+     * @param name     Name of the fixture.
+     * @param testName Name of the test to report the errors under.
+     * @throws ComplianceException        If the fixture still has active leases, or constructed new exception with
+     *                                    the specified detail message.
+     * @throws GeneralComplianceException General exceptions.
+     */
+    public void evict(String name, String testName) throws ComplianceException, GeneralComplianceException {
+
+        CompletableFuture<PooledFixture> future;
+        synchronized (this) {
+            future = fixtures.get(name);
+        }
+        if (future == null) {
+            return;
+        }
+        PooledFixture fixture;
+        try {
+            fixture = await(future);
+        } catch (ComplianceException | GeneralComplianceException e) {
+            // The fixture could not be created, hence there is nothing to delete.
+            return;
+        }
+        synchronized (this) {
+            if (fixtures.get(name) != future) {
+                return;
+            }
+            if (fixture.leases > 0) {
+                throw new ComplianceException("Fixture " + name + " can not be evicted while it has " +
+                        fixture.leases + " active lease(s)");
+            }
+            fixtures.remove(name);
+        }
+        fixture.provisioner.deleteResources(fixture.endpoint, fixture.ids, testName);
+    }
+
+    /**
+     * Delete all the pooled fixtures at the end of the run, newest first. Failures are logged, since the test
+     * results are already complete.
+     */
+    public void close() {
+
+        List<Map.Entry<String, CompletableFuture<PooledFixture>>> entries;
+        synchronized (this) {
+            entries = new ArrayList<>(fixtures.entrySet());
+            fixtures.clear();
+        }
+        Collections.reverse(entries);
+        for (Map.Entry<String, CompletableFuture<PooledFixture>> entry : entries) {
+            try {
+                PooledFixture fixture = await(entry.getValue());
+                synchronized (this) {
+                    if (fixture.leases > 0) {
+                        logger.warn("Deleting fixture " + entry.getKey() + " which still has " + fixture.leases +
+                                " active lease(s) at the end of the run");
+                    }
+                }
+                fixture.provisioner.deleteResources(fixture.endpoint, fixture.ids,
+                        ComplianceConstants.FixtureConstants.FIXTURE_CLEAN_UP);
+            } catch (ComplianceException | GeneralComplianceException e) {
+                logger.error("Could not delete the fixture " + entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Wait for the creation of a fixture.
+     *
+     * @param future Fixture being created.
+     * @return Created fixture.
+     * @throws ComplianceException        If the creation failed or the thread is interrupted.
+     * @throws GeneralComplianceException If the creation failed.
+     */
+    private static PooledFixture await(CompletableFuture<PooledFixture> future)
+            throws ComplianceException, GeneralComplianceException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComplianceException("Interrupted while waiting for a fixture", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ComplianceException) {
+                throw (ComplianceException) e.getCause();
+            }
+            if (e.getCause() instanceof GeneralComplianceException) {
+                throw (GeneralComplianceException) e.getCause();
+            }
+            throw new ComplianceException("Could not create a fixture", e.getCause());
+        }
+    }
+
+    /**
+     * Fixture held in the pool.
+     */
+    private static class PooledFixture {
+
+        private final FixtureProvisioner provisioner;
+        private final String endpoint;
+        private final ArrayList<String> ids;
+        private int leases;
+
+        PooledFixture(FixtureProvisioner provisioner, String endpoint, ArrayList<String> ids) {
+
+            this.provisioner = provisioner;
+            this.endpoint = endpoint;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * Read only access to a pooled fixture.
+     */
+    public class Lease {
+
+        private final PooledFixture fixture;
+        private boolean released;
+
+        private Lease(PooledFixture fixture) {
+
+            this.fixture = fixture;
+        }
+
+        /**
+         * Get the ids of the fixture resources.
+         *
+         * @return Ids, in the order of the definitions.
+         */
+        public ArrayList<String> getIds() {
+
+            return new ArrayList<>(fixture.ids);
+        }
+
+        /**
+         * Return the fixture to the pool. Releasing a lease more than once has no effect.
+         */
+        public void release() {
+
+            synchronized (FixtureRegistry.this) {
+                if (!released) {
+                    released = true;
+                    fixture.leases--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List response of a SCIM search, scanned in a single pass.
+ * <p>
+ * The resources are not parsed here: each of them is kept as its own part of the response, which is what the
+ * charon decoder takes, so a resource is parsed once instead of being parsed with the list, serialized and parsed
+ * again. Only startIndex and totalResults are read from the other members of the list response.
+ */
+public final class ListResponse {
+
+    private static final String RESOURCES = "Resources";
+    private static final String START_INDEX = "startIndex";
+    private static final String TOTAL_RESULTS = "totalResults";
+
+    private final String json;
+    private final List<String> resources = new ArrayList<>();
+    private boolean resourcesFound;
+    private String startIndex;
+    private String totalResults;
+    private int position;
+
+    private ListResponse(String json) {
+
+        this.json = json;
+    }
+
+    /**
+     * Scan a list response.
+     *
+     * @param responseString Json response by service provider.
+     * @return List response.
+     * @throws JSONException If the response is not a single Json object or Resources is not an array of objects.
+     */
+    public static ListResponse parse(String responseString) throws JSONException {
+
+        ListResponse listResponse = new ListResponse(responseString);
+        listResponse.readObject();
+        listResponse.skipWhitespace();
+        if (listResponse.position < responseString.length()) {
+            throw listResponse.syntaxError("A JSONObject text must end with '}'");
+        }
+        return listResponse;
+    }
+
+    /**
+     * Get the resources of the list response.
+     *
+     * @return Json of each resource, in the order of the response.
+     * @throws JSONException If the list response has no Resources.
+     */
+    public List<String> getResources() throws JSONException {
+
+        if (!resourcesFound) {
+            throw new JSONException("JSONObject[\"" + RESOURCES + "\"] not found.");
+        }
+        return resources;
+    }
+
+    /**
+     * Get the startIndex of the list response.
+     *
+     * @return Start index.
+     * @throws JSONException If the list response has no startIndex or it is not an int.
+     */
+    public int getStartIndex() throws JSONException {
+
+        return getInt(START_INDEX, startIndex);
+    }
+
+    /**
+     * Get the totalResults of the list response.
+     *
+     * @return Total results.
+     * @throws JSONException If the list response has no totalResults or it is not an int.
+     */
+    public int getTotalResults() throws JSONException {
+
+        return getInt(TOTAL_RESULTS, totalResults);
+    }
+
+    /**
+     * Convert a member to an int like JSONObject.getInt, which also takes other numbers, e.g. 10.0, and strings
+     * holding a number, e.g. "10".
+     *
+     * @param name  Name of the member.
+     * @param value Json text of the member.
+     * @return Int value.
+     * @throws JSONException If the member is missing or is not a number.
+     */
+    private static int getInt(String name, String value) throws JSONException {
+
+        if (value == null) {
+            throw new JSONException("JSONObject[\"" + name + "\"] not found.");
+        }
+        Object number = value.startsWith("\"") ? new JSONTokener(value).nextValue() : JSONObject.stringToValue(value);
+        if (number instanceof String) {
+            number = JSONObject.stringToValue(((String) number).trim());
+        }
+        if (!(number instanceof Number)) {
+            throw new JSONException("JSONObject[\"" + name + "\"] is not an int.");
+        }
+        return ((Number) number).intValue();
+    }
+
+    private void readObject() throws JSONException {
+
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            String name = readName();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            if (RESOURCES.equals(name)) {
+                readResources();
+            } else {
+                int start = position;
+                skipValue();
+                if (START_INDEX.equals(name)) {
+                    startIndex = json.substring(start, position);
+                } else if (TOTAL_RESULTS.equals(name)) {
+                    totalResults = json.substring(start, position);
+                }
+            }
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw syntaxError("Expected a ',' or '}'");
+            }
+        }
+    }
+
+    private void readResources() throws JSONException {
+
+        if (peek() != '[') {
+            throw new JSONException("JSONObject[\"" + RESOURCES + "\"] is not a JSONArray.");
+        }
+        position++;
+        resourcesFound = true;
+        resources.clear();
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '{') {
+                throw new JSONException("JSONArray[" + resources.size() + "] is not a JSONObject.");
+            }
+            int start = position;
+            skipValue();
+            resources.add(json.substring(start, position));
+            skipWhitespace();
+            char c = next();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
+
+    private String readName() throws JSONException {
+
+        if (peek() != '"') {
+            throw syntaxError("A JSONObject text must have a quoted key");
+        }
+        int start = position;
+        skipString();
+        String name = json.substring(start + 1, position - 1);
+        if (name.indexOf('\\') >= 0) {
+            // Escaped names are rare, hence leave them to the json library.
+            name = (String) new JSONTokener(json.substring(start, position)).nextValue();
+        }
+        return name;
+    }
+
+    private void skipValue() throws JSONException {
+
+        char c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            // Only the nesting is tracked, the resources are checked when they are decoded.
+            int depth = 0;
+            do {
+                c = peek();
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                position++;
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            // A number, true, false or null.
+            int start = position;
+            while (position < json.length() && ",:]} \t\r\n".indexOf(json.charAt(position)) < 0) {
+                position++;
+            }
+            if (position == start) {
+                throw syntaxError("Missing value");
+            }
+        }
+    }
+
+    private void skipString() throws JSONException {
+
+        position++;
+        while (true) {
+            char c = next();
+            if (c == '\\') {
+                next();
+            } else if (c == '"') {
+                return;
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private void expect(char expected) throws JSONException {
+
+        if (next() != expected) {
+            throw syntaxError("Expected a '" + expected + "'");
+        }
+    }
+
+    private char peek() throws JSONException {
+
+        if (position >= json.length()) {
+            throw syntaxError("Unexpected end of the list response");
+        }
+        return json.charAt(position);
+    }
+
+    private char next() throws JSONException {
+
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private JSONException syntaxError(String message) {
+
+        return new JSONException(message + " at character " + position);
+    }
+}
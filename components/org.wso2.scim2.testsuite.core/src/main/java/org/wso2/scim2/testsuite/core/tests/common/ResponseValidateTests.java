@@ -27,17 +27,16 @@ import org.wso2.charon3.core.exceptions.BadRequestException;
 import org.wso2.charon3.core.exceptions.CharonException;
 import org.wso2.charon3.core.objects.AbstractSCIMObject;
 import org.wso2.charon3.core.objects.SCIMObject;
-import org.wso2.charon3.core.schema.AttributeSchema;
 import org.wso2.charon3.core.schema.SCIMDefinitions;
 import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
 import org.wso2.scim2.testsuite.core.entities.TestResult;
 import org.wso2.scim2.testsuite.core.exception.ComplianceException;
 import org.wso2.scim2.testsuite.core.exception.GeneralComplianceException;
 import org.wso2.scim2.testsuite.core.protocol.ComplianceUtils;
+import org.wso2.scim2.testsuite.core.protocol.LatencyRecorder;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -47,7 +46,8 @@ import java.util.Map;
 public class ResponseValidateTests {
 
     /**
-     * Main method to handle validation tests.
+     * Main method to handle validation tests. The time spent is recorded as the validation time of the last
+     * request of the thread.
      *
      * @param scimObject                   Resource object.
      * @param schema                       Resource schema.
@@ -74,6 +74,43 @@ public class ResponseValidateTests {
                                         ArrayList<String> subTests)
             throws BadRequestException, CharonException, GeneralComplianceException, ComplianceException {
 
+        long startTime = System.nanoTime();
+        try {
+            validate(scimObject, schema, requestedAttributes, requestedExcludingAttributes, method, responseString,
+                    headerString, responseStatus, subTests);
+        } finally {
+            LatencyRecorder.recordValidation(startTime);
+        }
+    }
+
+    /**
+     * Run the validation tests.
+     *
+     * @param scimObject                   Resource object.
+     * @param schema                       Resource schema.
+     * @param requestedAttributes          Requested attributes.
+     * @param requestedExcludingAttributes Excluded attribute from request.
+     * @param method                       Http request type.
+     * @param responseString               Json response by service provider.
+     * @param headerString                 Response headers from service provider.
+     * @param responseStatus               Status code of response.
+     * @param subTests                     Assertions done for each test case.
+     * @throws BadRequestException        Exception for bad request.
+     * @throws CharonException            Exceptions by chron library.
+     * @throws GeneralComplianceException General exceptions.
+     * @throws ComplianceException        Constructed new exception with the specified detail message.
+     */
+    private static void validate(SCIMObject scimObject,
+                                SCIMResourceTypeSchema schema,
+                                String requestedAttributes,
+                                String requestedExcludingAttributes,
+                                HttpRequestBase method,
+                                String responseString,
+                                String headerString,
+                                String responseStatus,
+                                ArrayList<String> subTests)
+            throws BadRequestException, CharonException, GeneralComplianceException, ComplianceException {
+
         boolean requiredTest = false;
         boolean schemaTest = false;
         boolean definitionTest = false;
@@ -138,45 +175,44 @@ public class ResponseValidateTests {
                                                                 ArrayList<String> subTests)
             throws CharonException, GeneralComplianceException, ComplianceException {
 
-        // Get attributes from schema.
-        List<AttributeSchema> attributeSchemaList = resourceSchema.getAttributesList();
         // Get attribute list from scim object.
         Map<String, Attribute> attributeList = scimObject.getAttributeList();
-        for (AttributeSchema attributeSchema : attributeSchemaList) {
+        // Only the attributes which are, or have, required attributes are in the plan.
+        for (ValidationPlan.Step step : ValidationPlan.of(resourceSchema).getSteps()) {
             // Check for required attributes.
-            if (attributeSchema.getRequired()) {
-                if (!attributeList.containsKey(attributeSchema.getName())) {
-                    String error = "Required attribute " + attributeSchema.getName() + " is missing in the SCIM " +
-                            "Object.";
-                    throw new GeneralComplianceException
-                            (new TestResult(TestResult.ERROR, "Required Attribute Test",
-                                    error, ComplianceUtils.getWire(method, responseString,
-                                    headerString, responseStatus, subTests)));
-                }
+            if (step.isRequired() && !attributeList.containsKey(step.getName())) {
+                String error = "Required attribute " + step.getName() + " is missing in the SCIM " +
+                        "Object.";
+                throw new GeneralComplianceException
+                        (new TestResult(TestResult.ERROR, "Required Attribute Test",
+                                error, ComplianceUtils.getWire(method, responseString,
+                                headerString, responseStatus, subTests)));
             }
             // Check for required sub attributes.
-            AbstractAttribute attribute = (AbstractAttribute) attributeList.get(attributeSchema.getName());
-            validateSCIMObjectForRequiredSubAttributes(attribute, attributeSchema,
-                    method, responseString, headerString, responseStatus, subTests);
+            if (step.getSubAttributes() != null) {
+                AbstractAttribute attribute = (AbstractAttribute) attributeList.get(step.getName());
+                validateSCIMObjectForRequiredSubAttributes(attribute, step.getSubAttributes(),
+                        method, responseString, headerString, responseStatus, subTests);
+            }
         }
     }
 
     /**
-     * Validate SCIMObject for required sub attributes given the object and the corresponding schema.
+     * Validate SCIMObject for required sub attributes given the object and the checks of its sub attributes.
      *
-     * @param attribute       Attribute for validation.
-     * @param attributeSchema Attribute definitions.
-     * @param method          Http request type.
-     * @param responseString  Json response by service provider.
-     * @param headerString    Response headers from service provider.
-     * @param responseStatus  Status code of response.
-     * @param subTests        Assertions done for each test case.
+     * @param attribute      Attribute for validation.
+     * @param subAttributes  Checks of the sub attributes.
+     * @param method         Http request type.
+     * @param responseString Json response by service provider.
+     * @param headerString   Response headers from service provider.
+     * @param responseStatus Status code of response.
+     * @param subTests       Assertions done for each test case.
      * @throws GeneralComplianceException General exceptions.
      * @throws CharonException            Exceptions by chron library.
      * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
     private static void validateSCIMObjectForRequiredSubAttributes(AbstractAttribute attribute,
-                                                                   AttributeSchema attributeSchema,
+                                                                   ValidationPlan.Step[] subAttributes,
                                                                    HttpRequestBase method,
                                                                    String responseString,
                                                                    String headerString,
@@ -184,60 +220,50 @@ public class ResponseValidateTests {
                                                                    ArrayList<String> subTests)
             throws GeneralComplianceException, CharonException, ComplianceException {
 
-        if (attribute != null) {
-            List<AttributeSchema> subAttributesSchemaList =
-                    attributeSchema.getSubAttributeSchemas();
-
-            if (subAttributesSchemaList != null) {
-                for (AttributeSchema subAttributeSchema : subAttributesSchemaList) {
-                    if (subAttributeSchema.getRequired()) {
-
-                        if (attribute instanceof ComplexAttribute) {
-                            if (attribute.getSubAttribute(subAttributeSchema.getName()) == null) {
-                                String error = "Required sub attribute: " + subAttributeSchema.getName()
-                                        + " is missing in the SCIM Attribute: " + attribute.getName();
-                                throw new GeneralComplianceException
-                                        (new TestResult(TestResult.ERROR, "Required Attribute Test",
-                                                error, ComplianceUtils.getWire(method, responseString, headerString,
-                                                responseStatus, subTests)));
-                            }
-                        } else if (attribute instanceof MultiValuedAttribute) {
-                            List<Attribute> values =
-                                    ((MultiValuedAttribute) attribute).getAttributeValues();
-                            for (Attribute value : values) {
-                                if (value instanceof ComplexAttribute) {
-                                    if (value.getSubAttribute(subAttributeSchema.getName()) == null) {
-                                        String error = "Required sub attribute: " + subAttributeSchema.getName()
-                                                + ", is missing in the SCIM Attribute: " + attribute.getName();
-                                        throw new GeneralComplianceException
-                                                (new TestResult(TestResult.ERROR, "Required Attribute Test",
-                                                        error, ComplianceUtils.getWire(method, responseString,
-                                                        headerString, responseStatus, subTests)));
-                                    }
-                                }
-                            }
-                        }
+        if (attribute == null) {
+            return;
+        }
+        for (ValidationPlan.Step subAttributeStep : subAttributes) {
+            String subAttributeName = subAttributeStep.getName();
+            if (subAttributeStep.isRequired()) {
+                if (attribute instanceof ComplexAttribute) {
+                    if (attribute.getSubAttribute(subAttributeName) == null) {
+                        String error = "Required sub attribute: " + subAttributeName
+                                + " is missing in the SCIM Attribute: " + attribute.getName();
+                        throw new GeneralComplianceException
+                                (new TestResult(TestResult.ERROR, "Required Attribute Test",
+                                        error, ComplianceUtils.getWire(method, responseString, headerString,
+                                        responseStatus, subTests)));
                     }
-                    // Following is only applicable for extension schema validation.
-                    AbstractAttribute subAttribute = null;
-                    if (attribute instanceof ComplexAttribute) {
-                        subAttribute = (AbstractAttribute) attribute.getSubAttribute
-                                (subAttributeSchema.getName());
-                    } else if (attribute instanceof MultiValuedAttribute) {
-                        List<Attribute> subAttributeList = ((MultiValuedAttribute) attribute).getAttributeValues();
-                        for (Attribute tempSubAttribute : subAttributeList) {
-                            if (tempSubAttribute.getName().equals(subAttributeSchema.getName())) {
-                                subAttribute = (AbstractAttribute) tempSubAttribute;
-                            }
+                } else if (attribute instanceof MultiValuedAttribute) {
+                    List<Attribute> values = ((MultiValuedAttribute) attribute).getAttributeValues();
+                    for (Attribute value : values) {
+                        if (value instanceof ComplexAttribute && value.getSubAttribute(subAttributeName) == null) {
+                            String error = "Required sub attribute: " + subAttributeName
+                                    + ", is missing in the SCIM Attribute: " + attribute.getName();
+                            throw new GeneralComplianceException
+                                    (new TestResult(TestResult.ERROR, "Required Attribute Test",
+                                            error, ComplianceUtils.getWire(method, responseString,
+                                            headerString, responseStatus, subTests)));
                         }
                     }
-                    List<AttributeSchema> subSubAttributesSchemaList =
-                            subAttributeSchema.getSubAttributeSchemas();
-                    if (subSubAttributesSchemaList != null) {
-                        validateSCIMObjectForRequiredSubAttributes(subAttribute, subAttributeSchema,
-                                method, responseString, headerString, responseStatus, subTests);
+                }
+            }
+            // Following is only applicable for extension schema validation.
+            if (subAttributeStep.getSubAttributes() != null) {
+                AbstractAttribute subAttribute = null;
+                if (attribute instanceof ComplexAttribute) {
+                    subAttribute = (AbstractAttribute) attribute.getSubAttribute(subAttributeName);
+                } else if (attribute instanceof MultiValuedAttribute) {
+                    List<Attribute> subAttributeList = ((MultiValuedAttribute) attribute).getAttributeValues();
+                    for (Attribute tempSubAttribute : subAttributeList) {
+                        if (tempSubAttribute.getName().equals(subAttributeName)) {
+                            subAttribute = (AbstractAttribute) tempSubAttribute;
+                        }
                     }
                 }
+                validateSCIMObjectForRequiredSubAttributes(subAttribute, subAttributeStep.getSubAttributes(),
+                        method, responseString, headerString, responseStatus, subTests);
             }
         }
     }
@@ -304,18 +330,9 @@ public class ResponseValidateTests {
                                                   ArrayList<String> subTests) throws GeneralComplianceException,
             ComplianceException {
 
-        List<String> requestedAttributesList = null;
-        List<String> requestedExcludingAttributesList = null;
-
-        if (requestedAttributes != null) {
-            // Make a list from the comma separated requestedAttributes.
-            requestedAttributesList = Arrays.asList(requestedAttributes.split(","));
-        }
-        if (requestedExcludingAttributes != null) {
-            // Make a list from the comma separated requestedExcludingAttributes.
-            requestedExcludingAttributesList = Arrays.asList(requestedExcludingAttributes.split(","));
-        }
+        AttributeProjection projection = AttributeProjection.of(requestedAttributes, requestedExcludingAttributes);
         Map<String, Attribute> attributeList = scimObject.getAttributeList();
+        // Attributes returned on request are deleted from the object, hence need to traverse on a copy.
         ArrayList<Attribute> attributeTemporaryList = new ArrayList<>(attributeList.values());
         for (Attribute attribute : attributeTemporaryList) {
             // Check for never/request attributes.
@@ -328,21 +345,21 @@ public class ResponseValidateTests {
              If the returned property is request, need to check whether is it specifically requested by the user.
              If so return it.
              */
-            if (requestedAttributes == null && requestedExcludingAttributes == null) {
+            if (projection.isDefault()) {
                 if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
                     scimObject.deleteAttribute(attribute.getName());
                 }
             } else {
                 // A request should only contains either attributes or exclude attribute params. Not both.
-                if (requestedAttributes != null) {
+                if (projection.hasAttributes()) {
                     /*
                      If attributes are set, delete all the request and default attributes
                      and add only the requested attributes.
                      */
                     if ((attribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
                             || attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                            && (!requestedAttributesList.contains(attribute.getName())
-                            && !isSubAttributeExistsInList(requestedAttributesList, attribute))) {
+                            && (!projection.isRequested(attribute.getName())
+                            && !isSubAttributeExistsInList(projection, attribute))) {
                         throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability " +
                                 "Test ",
                                 "Attribute : " + attribute.getName() + " violates mutability condition.",
@@ -363,7 +380,7 @@ public class ResponseValidateTests {
                      removed from the default set of attributes
                      */
                     if ((attribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                            && requestedExcludingAttributesList.contains(attribute.getName())) {
+                            && projection.isExcluded(attribute.getName())) {
                         throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability " +
                                 "Test ",
                                 "Attribute : " + attribute.getName() + " violates mutability condition.",
@@ -377,31 +394,20 @@ public class ResponseValidateTests {
              requestedExcludingAttributes parameter.
              */
 
-            // Check the same for sub attributes.
+            // Check the same for sub attributes. Nothing is deleted below the top level, hence no copies are needed.
             if (attribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
                 if (attribute.getMultiValued()) {
                     List<Attribute> valuesList = ((MultiValuedAttribute) attribute).getAttributeValues();
 
                     for (Attribute subAttribute : valuesList) {
-                        Map<String, Attribute> valuesSubAttributeList = ((ComplexAttribute) subAttribute)
-                                .getSubAttributesList();
-                        /*
-                         As we are deleting the attributes form the list, list size will change,
-                         hence need to traverse on a copy.
-                         */
-                        ArrayList<Attribute> valuesSubAttributeTemporaryList =
-                                new ArrayList<>(valuesSubAttributeList.values());
-                        for (Attribute subSimpleAttribute : valuesSubAttributeTemporaryList) {
+                        for (Attribute subSimpleAttribute : ((ComplexAttribute) subAttribute).getSubAttributesList()
+                                .values()) {
                             removeValuesSubAttributeOnReturn(subSimpleAttribute, subAttribute, attribute,
-                                    requestedAttributes, requestedExcludingAttributes, requestedAttributesList,
-                                    requestedExcludingAttributesList, method,
-                                    responseString, headerString, responseStatus, subTests);
+                                    projection, method, responseString, headerString, responseStatus, subTests);
                         }
                     }
                 } else {
-                    Map<String, Attribute> subAttributeList = ((ComplexAttribute) attribute).getSubAttributesList();
-                    ArrayList<Attribute> subAttributeTemporaryList = new ArrayList<>(subAttributeList.values());
-                    for (Attribute subAttribute : subAttributeTemporaryList) {
+                    for (Attribute subAttribute : ((ComplexAttribute) attribute).getSubAttributesList().values()) {
                         if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
                             // This applicable for extension schema only.
                             if (subAttribute.getMultiValued()) {
@@ -409,38 +415,23 @@ public class ResponseValidateTests {
                                 List<Attribute> valuesList = ((MultiValuedAttribute) subAttribute).getAttributeValues();
 
                                 for (Attribute subSubValue : valuesList) {
-                                    Map<String, Attribute> subValuesSubAttributeList = ((ComplexAttribute)
-                                            subSubValue).getSubAttributesList();
-                                    /*
-                                     As we are deleting the attributes form the list, list size will change,
-                                     hence need to traverse on a copy.
-                                     */
-                                    ArrayList<Attribute> valuesSubSubAttributeTemporaryList =
-                                            new ArrayList<>(subValuesSubAttributeList.values());
-                                    for (Attribute subSubSimpleAttribute : valuesSubSubAttributeTemporaryList) {
+                                    for (Attribute subSubSimpleAttribute : ((ComplexAttribute) subSubValue)
+                                            .getSubAttributesList().values()) {
                                         removeValuesSubSubAttributeOnReturn(attribute, subAttribute,
-                                                subSubSimpleAttribute,
-                                                requestedAttributes, requestedExcludingAttributes,
-                                                requestedAttributesList, requestedExcludingAttributesList,
+                                                subSubSimpleAttribute, projection,
                                                 method, responseString, headerString, responseStatus, subTests);
                                     }
                                 }
                             } else {
-                                Map<String, Attribute> subSubAttributeList = ((ComplexAttribute) subAttribute)
-                                        .getSubAttributesList();
-                                ArrayList<Attribute> subSubAttributeTemporaryList =
-                                        new ArrayList<>(subSubAttributeList.values());
-                                for (Attribute subSubAttribute : subSubAttributeTemporaryList) {
+                                for (Attribute subSubAttribute : ((ComplexAttribute) subAttribute)
+                                        .getSubAttributesList().values()) {
                                     removeSubSubAttributesOnReturn(attribute, subAttribute, subSubAttribute,
-                                            requestedAttributes, requestedExcludingAttributes,
-                                            requestedAttributesList, requestedExcludingAttributesList,
-                                            method, responseString, headerString, responseStatus, subTests);
+                                            projection, method, responseString, headerString, responseStatus,
+                                            subTests);
                                 }
                             }
                         }
-                        removeSubAttributesOnReturn(subAttribute, attribute, requestedAttributes,
-                                requestedExcludingAttributes,
-                                requestedAttributesList, requestedExcludingAttributesList,
+                        removeSubAttributesOnReturn(subAttribute, attribute, projection,
                                 method, responseString, headerString, responseStatus, subTests);
                     }
                 }
@@ -452,51 +443,42 @@ public class ResponseValidateTests {
      * This checks whether, within the 'requestedAttributes', is there a sub attribute of the 'attribute'.
      * If so we should not delete the 'attribute'.
      *
-     * @param requestedAttributes List of attributes to get checked in the method.
-     * @param attribute           Attribute to get checked in the method.
+     * @param projection Requested attributes to get checked in the method.
+     * @param attribute  Attribute to get checked in the method.
      * @return boolean True or false.
      */
-    private static boolean isSubAttributeExistsInList(List<String> requestedAttributes,
-                                                      Attribute attribute) {
+    private static boolean isSubAttributeExistsInList(AttributeProjection projection, Attribute attribute) {
 
-        List<Attribute> subAttributes;
+        // Most attributes have no requested sub attribute at all.
+        if (!projection.hasRequestedSubAttribute(attribute.getName())) {
+            return false;
+        }
         if (attribute instanceof MultiValuedAttribute) {
-            subAttributes =
-                    ((MultiValuedAttribute) attribute).getAttributeValues();
+            List<Attribute> subAttributes = ((MultiValuedAttribute) attribute).getAttributeValues();
             if (subAttributes != null) {
                 for (Attribute subAttribute : subAttributes) {
-                    ArrayList<Attribute> subSimpleAttributes = new ArrayList<>((
-                            (ComplexAttribute) subAttribute).getSubAttributesList().values());
-                    for (Attribute subSimpleAttribute : subSimpleAttributes) {
-                        if (requestedAttributes.contains(attribute.getName() + "." + subSimpleAttribute.getName())) {
+                    for (Attribute subSimpleAttribute : ((ComplexAttribute) subAttribute).getSubAttributesList()
+                            .values()) {
+                        if (projection.isRequested(attribute.getName() + "." + subSimpleAttribute.getName())) {
                             return true;
                         }
                     }
                     // This case is only valid for extension schema.
-                    if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                        boolean isSubSubAttributeExists = isSubSubAttributeExistsInList(requestedAttributes,
-                                attribute, subAttribute);
-                        if (isSubSubAttributeExists) {
-                            return true;
-                        }
+                    if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)
+                            && isSubSubAttributeExistsInList(projection, attribute, subAttribute)) {
+                        return true;
                     }
                 }
             }
         } else if (attribute instanceof ComplexAttribute) {
-            // Complex attributes have sub attribute map, hence need conversion to arraylist.
-            subAttributes = new ArrayList<Attribute>
-                    (((Map) (((ComplexAttribute) attribute).getSubAttributesList())).values());
-            for (Attribute subAttribute : subAttributes) {
-                if (requestedAttributes.contains(attribute.getName() + "." + subAttribute.getName())) {
+            for (Attribute subAttribute : ((ComplexAttribute) attribute).getSubAttributesList().values()) {
+                if (projection.isRequested(attribute.getName() + "." + subAttribute.getName())) {
                     return true;
                 }
                 // This case is only valid for extension schema.
-                if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)) {
-                    boolean isSubSubAttributeExists = isSubSubAttributeExistsInList(requestedAttributes,
-                            attribute, subAttribute);
-                    if (isSubSubAttributeExists) {
-                        return true;
-                    }
+                if (subAttribute.getType().equals(SCIMDefinitions.DataType.COMPLEX)
+                        && isSubSubAttributeExistsInList(projection, attribute, subAttribute)) {
+                    return true;
                 }
             }
         }
@@ -508,36 +490,36 @@ public class ResponseValidateTests {
      * If so we should not delete the 'attribute'.
      * This case is only applicable for extension.
      *
-     * @param requestedAttributes  List of attributes to get checked in the method.
+     * @param projection           Requested attributes to get checked in the method.
      * @param grandParentAttribute Grandparent attribute.
      * @param parentAttribute      Parent attribute.
      * @return boolean True or false.
      */
-    private static boolean isSubSubAttributeExistsInList(List<String> requestedAttributes,
+    private static boolean isSubSubAttributeExistsInList(AttributeProjection projection,
                                                          Attribute grandParentAttribute, Attribute parentAttribute) {
 
-        List<Attribute> subAttributes;
+        if (!projection.hasRequestedSubAttribute(grandParentAttribute.getName())) {
+            return false;
+        }
+        String parentPath = grandParentAttribute.getName() + "." + parentAttribute.getName();
+        if (!projection.hasRequestedSubAttribute(parentPath)) {
+            return false;
+        }
         if (parentAttribute instanceof MultiValuedAttribute) {
-            subAttributes = ((MultiValuedAttribute) parentAttribute).getAttributeValues();
+            List<Attribute> subAttributes = ((MultiValuedAttribute) parentAttribute).getAttributeValues();
             if (subAttributes != null) {
                 for (Attribute subAttribute : subAttributes) {
-                    ArrayList<Attribute> subSimpleAttributes = new ArrayList<>((
-                            (ComplexAttribute) subAttribute).getSubAttributesList().values());
-                    for (Attribute subSimpleAttribute : subSimpleAttributes) {
-                        if (requestedAttributes.contains(grandParentAttribute.getName() + "." +
-                                parentAttribute.getName() + "." + subSimpleAttribute.getName())) {
+                    for (Attribute subSimpleAttribute : ((ComplexAttribute) subAttribute).getSubAttributesList()
+                            .values()) {
+                        if (projection.isRequested(parentPath + "." + subSimpleAttribute.getName())) {
                             return true;
                         }
                     }
                 }
             }
         } else if (parentAttribute instanceof ComplexAttribute) {
-            // Complex attributes have sub attribute map, hence need conversion to arraylist.
-            subAttributes = new ArrayList<Attribute>
-                    (((Map) (((ComplexAttribute) parentAttribute).getSubAttributesList())).values());
-            for (Attribute subAttribute : subAttributes) {
-                if (requestedAttributes.contains(grandParentAttribute.getName() + "." +
-                        parentAttribute.getName() + "." + subAttribute.getName())) {
+            for (Attribute subAttribute : ((ComplexAttribute) parentAttribute).getSubAttributesList().values()) {
+                if (projection.isRequested(parentPath + "." + subAttribute.getName())) {
                     return true;
                 }
             }
@@ -549,26 +531,21 @@ public class ResponseValidateTests {
      * This method is to remove any defined and requested sub attributes and include requested sub attributes
      * from multivalued attributes.
      *
-     * @param subSimpleAttribute               Sub simple attribute.
-     * @param subAttribute                     Sub attribute.
-     * @param attribute                        Attribute.
-     * @param requestedAttributes              Requested attribute.
-     * @param requestedExcludingAttributes     Requested excluded attribute.
-     * @param requestedAttributesList          List of attributes to get checked in the method.
-     * @param requestedExcludingAttributesList List of excluded attributes to get checked in the method.
-     * @param method                           Http request type.
-     * @param responseString                   Json response by service provider.
-     * @param headerString                     Response headers from service provider.
-     * @param responseStatus                   Status code of response.
-     * @param subTests                         Assertions done for each test case.
+     * @param subSimpleAttribute Sub simple attribute.
+     * @param subAttribute       Sub attribute.
+     * @param attribute          Attribute.
+     * @param projection         Requested and excluded attributes of the request.
+     * @param method             Http request type.
+     * @param responseString     Json response by service provider.
+     * @param headerString       Response headers from service provider.
+     * @param responseStatus     Status code of response.
+     * @param subTests           Assertions done for each test case.
      * @throws GeneralComplianceException General exceptions.
      * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
     private static void removeValuesSubAttributeOnReturn(Attribute subSimpleAttribute, Attribute subAttribute,
-                                                         Attribute attribute, String requestedAttributes,
-                                                         String requestedExcludingAttributes,
-                                                         List<String> requestedAttributesList,
-                                                         List<String> requestedExcludingAttributesList,
+                                                         Attribute attribute,
+                                                         AttributeProjection projection,
                                                          HttpRequestBase method,
                                                          String responseString,
                                                          String headerString,
@@ -583,7 +560,7 @@ public class ResponseValidateTests {
                             "condition.",
                     ComplianceUtils.getWire(method, responseString, headerString, responseStatus, subTests)));
         }
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
+        if (projection.isDefault()) {
             if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
                 throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                         "Attribute : " + attribute.getName() + "." +
@@ -593,17 +570,16 @@ public class ResponseValidateTests {
             }
         } else {
             // A request should only contains either attributes or exclude attribute params. Not the both.
-            if (requestedAttributes != null) {
+            if (projection.hasAttributes()) {
                 /*
                  If attributes are set, delete all the request and default attributes
                  and add only the requested attributes.
                  */
                 if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
                         || subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (!requestedAttributesList.contains(
-                        attribute.getName() + "." + subSimpleAttribute.getName()) &&
-                        !requestedAttributesList.contains(attribute.getName()) &&
-                        !isSubSubAttributeExistsInList(requestedAttributesList, attribute, subSimpleAttribute))) {
+                        && (!projection.isRequested(attribute.getName() + "." + subSimpleAttribute.getName()) &&
+                        !projection.isRequested(attribute.getName()) &&
+                        !isSubSubAttributeExistsInList(projection, attribute, subSimpleAttribute))) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + "." + subSimpleAttribute.getName() + " violates " +
@@ -624,8 +600,7 @@ public class ResponseValidateTests {
                  removed from the default set of attributes.
                  */
                 if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.contains(
-                        attribute.getName() + "." + subSimpleAttribute.getName())) {
+                        && projection.isExcluded(attribute.getName() + "." + subSimpleAttribute.getName())) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + "." + subSimpleAttribute.getName() + " violates " +
@@ -641,27 +616,21 @@ public class ResponseValidateTests {
      * This method is to remove any defined and requested sub attributes and include requested sub attributes
      * from multivalued attributes.
      *
-     * @param attribute                        Attribute.
-     * @param subAttribute                     Sub attribute.
-     * @param subSimpleAttribute               Sub simple attribute.
-     * @param requestedAttributes              Requested attribute.
-     * @param requestedExcludingAttributes     Requested excluded attribute.
-     * @param requestedAttributesList          List of attributes to get checked in the method.
-     * @param requestedExcludingAttributesList List of excluded attributes to get checked in the method.
-     * @param method                           Http request type.
-     * @param responseString                   Json response by service provider.
-     * @param headerString                     Response headers from service provider.
-     * @param responseStatus                   Status code of response.
-     * @param subTests                         Assertions done for each test case.
+     * @param attribute          Attribute.
+     * @param subAttribute       Sub attribute.
+     * @param subSimpleAttribute Sub simple attribute.
+     * @param projection         Requested and excluded attributes of the request.
+     * @param method             Http request type.
+     * @param responseString     Json response by service provider.
+     * @param headerString       Response headers from service provider.
+     * @param responseStatus     Status code of response.
+     * @param subTests           Assertions done for each test case.
      * @throws GeneralComplianceException General exceptions.
      * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
     private static void removeValuesSubSubAttributeOnReturn(Attribute attribute, Attribute subAttribute,
                                                             Attribute subSimpleAttribute,
-                                                            String requestedAttributes,
-                                                            String requestedExcludingAttributes,
-                                                            List<String> requestedAttributesList,
-                                                            List<String> requestedExcludingAttributesList,
+                                                            AttributeProjection projection,
                                                             HttpRequestBase method,
                                                             String responseString,
                                                             String headerString,
@@ -676,7 +645,7 @@ public class ResponseValidateTests {
                             "condition.",
                     ComplianceUtils.getWire(method, responseString, headerString, responseStatus, subTests)));
         }
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
+        if (projection.isDefault()) {
             if (attribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
                 throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                         "Attribute : " + attribute.getName() + "." +
@@ -685,18 +654,18 @@ public class ResponseValidateTests {
                         ComplianceUtils.getWire(method, responseString, headerString, responseStatus, subTests)));
             }
         } else {
+            String subAttributePath = attribute.getName() + "." + subAttribute.getName();
             // A request should only contains either attributes or exclude attribute params. Not the both.
-            if (requestedAttributes != null) {
+            if (projection.hasAttributes()) {
                 /*
                  If attributes are set, delete all the request and default attributes
                  and add only the requested attributes
                  */
                 if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
                         || subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (!requestedAttributesList.contains(
-                        attribute.getName() + "." + subAttribute.getName() + "." + subSimpleAttribute.getName()) &&
-                        !requestedAttributesList.contains(attribute.getName()) &&
-                        !requestedAttributesList.contains(attribute.getName() + "." + subAttribute.getName()))) {
+                        && (!projection.isRequested(subAttributePath + "." + subSimpleAttribute.getName()) &&
+                        !projection.isRequested(attribute.getName()) &&
+                        !projection.isRequested(subAttributePath))) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + "." + subSimpleAttribute.getName() + " violates " +
@@ -717,8 +686,7 @@ public class ResponseValidateTests {
                  removed from the default set of attributes.
                  */
                 if ((subSimpleAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.contains(
-                        attribute.getName() + "." + subAttribute.getName() + "." + subSimpleAttribute.getName())) {
+                        && projection.isExcluded(subAttributePath + "." + subSimpleAttribute.getName())) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + "." + subSimpleAttribute.getName() + " violates " +
@@ -733,28 +701,22 @@ public class ResponseValidateTests {
      * This method is to remove any defined and requested sub attributes and include requested sub attributes
      * from complex attributes.
      *
-     * @param attribute                        Attribute.
-     * @param subAttribute                     Sub attribute.
-     * @param subSubAttribute                  Attribute is sub attribute of another sub attribute.
-     * @param requestedAttributes              Requested attribute.
-     * @param requestedExcludingAttributes     Requested excluded attribute.
-     * @param requestedAttributesList          List of attributes to get checked in the method.
-     * @param requestedExcludingAttributesList List of excluded attributes to get checked in the method.
-     * @param method                           Http request type.
-     * @param responseString                   Json response by service provider.
-     * @param headerString                     Response headers from service provider.
-     * @param responseStatus                   Status code of response.
-     * @param subTests                         Assertions done for each test case.
+     * @param attribute       Attribute.
+     * @param subAttribute    Sub attribute.
+     * @param subSubAttribute Attribute is sub attribute of another sub attribute.
+     * @param projection      Requested and excluded attributes of the request.
+     * @param method          Http request type.
+     * @param responseString  Json response by service provider.
+     * @param headerString    Response headers from service provider.
+     * @param responseStatus  Status code of response.
+     * @param subTests        Assertions done for each test case.
      * @throws GeneralComplianceException General exceptions.
      * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
     private static void removeSubSubAttributesOnReturn(Attribute attribute,
                                                        Attribute subAttribute,
                                                        Attribute subSubAttribute,
-                                                       String requestedAttributes,
-                                                       String requestedExcludingAttributes,
-                                                       List<String> requestedAttributesList,
-                                                       List<String> requestedExcludingAttributesList,
+                                                       AttributeProjection projection,
                                                        HttpRequestBase method,
                                                        String responseString,
                                                        String headerString,
@@ -772,7 +734,7 @@ public class ResponseValidateTests {
          If the returned property is request, need to check whether is it specifically requested by the user.
          If so return it.
          */
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
+        if (projection.isDefault()) {
             if (subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
                 throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                         "Attribute : " + attribute.getName() + "." +
@@ -780,18 +742,18 @@ public class ResponseValidateTests {
                         ComplianceUtils.getWire(method, responseString, headerString, responseStatus, subTests)));
             }
         } else {
+            String subAttributePath = attribute.getName() + "." + subAttribute.getName();
             // A request should only contains either attributes or exclude attribute params. Not the both.
-            if (requestedAttributes != null) {
+            if (projection.hasAttributes()) {
                 /*
                  If attributes are set, delete all the request and default attributes
                  and add only the requested attributes.
                  */
                 if ((subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
                         || subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (!requestedAttributesList.contains(
-                        attribute.getName() + "." + subAttribute.getName() + "." + subSubAttribute.getName()) &&
-                        !requestedAttributesList.contains(attribute.getName()) &&
-                        !requestedAttributesList.contains(attribute.getName() + "." + subAttribute.getName()) &&
+                        && (!projection.isRequested(subAttributePath + "." + subSubAttribute.getName()) &&
+                        !projection.isRequested(attribute.getName()) &&
+                        !projection.isRequested(subAttributePath) &&
                         !subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.ALWAYS))) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
@@ -811,8 +773,7 @@ public class ResponseValidateTests {
                  removed from the default set of attributes.
                  */
                 if ((subSubAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.contains(
-                        attribute.getName() + "." + subAttribute.getName() + "." + subSubAttribute.getName())) {
+                        && projection.isExcluded(subAttributePath + "." + subSubAttribute.getName())) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + " violates mutability condition.",
@@ -826,26 +787,20 @@ public class ResponseValidateTests {
      * This method is to remove any defined and requested sub attributes and include requested sub attributes
      * from complex attributes.
      *
-     * @param subAttribute                     Sub attribute.
-     * @param attribute                        Attribute.
-     * @param requestedAttributes              Requested attribute.
-     * @param requestedExcludingAttributes     Requested excluded attribute.
-     * @param requestedAttributesList          List of attributes to get checked in the method.
-     * @param requestedExcludingAttributesList List of excluded attributes to get checked in the method.
-     * @param method                           Http request type.
-     * @param responseString                   Json response by service provider.
-     * @param headerString                     Response headers from service provider.
-     * @param responseStatus                   Status code of response.
-     * @param subTests                         Assertions done for each test case.
+     * @param subAttribute   Sub attribute.
+     * @param attribute      Attribute.
+     * @param projection     Requested and excluded attributes of the request.
+     * @param method         Http request type.
+     * @param responseString Json response by service provider.
+     * @param headerString   Response headers from service provider.
+     * @param responseStatus Status code of response.
+     * @param subTests       Assertions done for each test case.
      * @throws GeneralComplianceException General exceptions.
      * @throws ComplianceException        Constructed new exception with the specified detail message.
      */
     private static void removeSubAttributesOnReturn(Attribute subAttribute,
                                                     Attribute attribute,
-                                                    String requestedAttributes,
-                                                    String requestedExcludingAttributes,
-                                                    List<String> requestedAttributesList,
-                                                    List<String> requestedExcludingAttributesList,
+                                                    AttributeProjection projection,
                                                     HttpRequestBase method,
                                                     String responseString,
                                                     String headerString,
@@ -863,7 +818,7 @@ public class ResponseValidateTests {
          If the returned property is request, need to check whether is it specifically requested by the user.
          If so return it.
          */
-        if (requestedAttributes == null && requestedExcludingAttributes == null) {
+        if (projection.isDefault()) {
             if (subAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST)) {
                 throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                         "Attribute : " + attribute.getName() + "." +
@@ -872,17 +827,16 @@ public class ResponseValidateTests {
             }
         } else {
             // A request should only contains either attributes or exclude attribute params. Not the both.
-            if (requestedAttributes != null) {
+            if (projection.hasAttributes()) {
                 /*
                  If attributes are set, delete all the request and default attributes
                  and add only the requested attributes.
                  */
                 if ((subAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT)
                         || subAttribute.getReturned().equals(SCIMDefinitions.Returned.REQUEST))
-                        && (!requestedAttributesList.contains(
-                        attribute.getName() + "." + subAttribute.getName()) &&
-                        !requestedAttributesList.contains(attribute.getName()) &&
-                        !isSubSubAttributeExistsInList(requestedAttributesList, attribute, subAttribute))) {
+                        && (!projection.isRequested(attribute.getName() + "." + subAttribute.getName()) &&
+                        !projection.isRequested(attribute.getName()) &&
+                        !isSubSubAttributeExistsInList(projection, attribute, subAttribute))) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + " violates mutability condition.",
@@ -901,8 +855,7 @@ public class ResponseValidateTests {
                  removed from the default set of attributes.
                  */
                 if ((subAttribute.getReturned().equals(SCIMDefinitions.Returned.DEFAULT))
-                        && requestedExcludingAttributesList.contains(
-                        attribute.getName() + "." + subAttribute.getName())) {
+                        && projection.isExcluded(attribute.getName() + "." + subAttribute.getName())) {
                     throw new GeneralComplianceException(new TestResult(TestResult.ERROR, "Attribute Mutability Test",
                             "Attribute : " + attribute.getName() + "." +
                                     subAttribute.getName() + " violates mutability condition.",
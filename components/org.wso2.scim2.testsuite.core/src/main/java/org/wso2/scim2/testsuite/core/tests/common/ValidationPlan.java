@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import org.wso2.charon3.core.schema.AttributeSchema;
+import org.wso2.charon3.core.schema.SCIMResourceTypeSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Required attribute checks of a resource schema, compiled once so the resources of a list response are not
+ * validated by walking the schema tree again for each of them.
+ * <p>
+ * The plan keeps, in schema order, only the attributes which are required or have required sub attributes at any
+ * depth. Plans are cached per schema instance, and a schema whose attribute list has been replaced since, e.g. by
+ * the schema builder, is compiled again.
+ */
+final class ValidationPlan {
+
+    private static final Map<SCIMResourceTypeSchema, ValidationPlan> plans =
+            Collections.synchronizedMap(new WeakHashMap<SCIMResourceTypeSchema, ValidationPlan>());
+
+    private final List<AttributeSchema> attributeSchemaList;
+    private final Step[] steps;
+
+    private ValidationPlan(List<AttributeSchema> attributeSchemaList) {
+
+        this.attributeSchemaList = attributeSchemaList;
+        this.steps = compile(attributeSchemaList);
+    }
+
+    /**
+     * Get the plan of a schema, compiling it on first use.
+     *
+     * @param schema Resource schema.
+     * @return Validation plan.
+     */
+    static ValidationPlan of(SCIMResourceTypeSchema schema) {
+
+        List<AttributeSchema> attributeSchemaList = schema.getAttributesList();
+        ValidationPlan plan = plans.get(schema);
+        if (plan == null || plan.attributeSchemaList != attributeSchemaList) {
+            plan = new ValidationPlan(attributeSchemaList);
+            plans.put(schema, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Get the checks of the top level attributes.
+     *
+     * @return Checks in schema order.
+     */
+    Step[] getSteps() {
+
+        return steps;
+    }
+
+    private static Step[] compile(List<AttributeSchema> attributeSchemaList) {
+
+        List<Step> steps = new ArrayList<>();
+        for (AttributeSchema attributeSchema : attributeSchemaList) {
+            Step step = compile(attributeSchema);
+            if (step != null) {
+                steps.add(step);
+            }
+        }
+        return steps.toArray(new Step[0]);
+    }
+
+    private static Step compile(AttributeSchema attributeSchema) {
+
+        List<AttributeSchema> subAttributeSchemaList = attributeSchema.getSubAttributeSchemas();
+        Step[] subAttributes = null;
+        if (subAttributeSchemaList != null) {
+            subAttributes = compile(subAttributeSchemaList);
+            if (subAttributes.length == 0) {
+                // Nothing below this attribute can be missing.
+                subAttributes = null;
+            }
+        }
+        if (!attributeSchema.getRequired() && subAttributes == null) {
+            return null;
+        }
+        return new Step(attributeSchema.getName(), attributeSchema.getRequired(), subAttributes);
+    }
+
+    /**
+     * Check of an attribute: whether it must be present, and the checks of its sub attributes.
+     */
+    static final class Step {
+
+        private final String name;
+        private final boolean required;
+        private final Step[] subAttributes;
+
+        private Step(String name, boolean required, Step[] subAttributes) {
+
+            this.name = name;
+            this.required = required;
+            this.subAttributes = subAttributes;
+        }
+
+        String getName() {
+
+            return name;
+        }
+
+        boolean isRequired() {
+
+            return required;
+        }
+
+        /**
+         * Get the checks of the sub attributes.
+         *
+         * @return Checks in schema order, or null if none of the sub attributes can be missing.
+         */
+        Step[] getSubAttributes() {
+
+            return subAttributes;
+        }
+    }
+}
@@ -162,6 +162,300 @@ public class ComplianceConstants {
         public static final String ROLE = "Role";
     }
 
+    /**
+     * This method contains the constants used to schedule test execution.
+     */
+    public static class ExecutionConstants {
+
+        public static final int DEFAULT_WORKER_THREADS = 4;
+
+        public static final int DEFAULT_SUB_TEST_THREADS = 1;
+
+        // Lanes of the test scheduler.
+        public static final String DISCOVERY_SERVICE_PROVIDER_CONFIG_LANE = "discovery-serviceProviderConfig";
+
+        public static final String DISCOVERY_RESOURCE_TYPES_LANE = "discovery-resourceTypes";
+
+        public static final String DISCOVERY_SCHEMAS_LANE = "discovery-schemas";
+
+        // Each resource type creates users with its own user names, hence their tests run concurrently.
+        public static final String USER_LANE = "users";
+
+        public static final String GROUP_LANE = "groups";
+
+        public static final String ME_LANE = "me";
+
+        public static final String BULK_LANE = "bulk";
+    }
+
+    /**
+     * This method contains the default settings of the http client connection pool.
+     */
+    public static class HttpClientConstants {
+
+        public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+
+        public static final int DEFAULT_MAX_CONNECTIONS = 50;
+
+        // Durations in milliseconds.
+        public static final long DEFAULT_IDLE_CONNECTION_TIMEOUT = 30000;
+
+        public static final long DEFAULT_CONNECTION_TIME_TO_LIVE = 300000;
+
+        public static final long DEFAULT_KEEP_ALIVE = 30000;
+
+        public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+        public static final int DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+
+        // Shared clients and transports kept for other endpoints or settings, and the time in milliseconds after
+        // which an unused one is closed. It is longer than a run, since a run only gets its clients once per test.
+        public static final int MAX_SHARED_CLIENTS = 16;
+
+        public static final long SHARED_CLIENT_IDLE_TIME = 3600000;
+
+        // Time to establish a connection.
+        public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+
+        // Time a request waits for data from the service provider.
+        public static final int DEFAULT_SOCKET_TIMEOUT = 60000;
+
+        // Time a request waits for a connection of the pool.
+        public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 30000;
+
+        // Transport modes.
+        public static final String BLOCKING_TRANSPORT = "blocking";
+
+        public static final String ASYNC_TRANSPORT = "async";
+
+        public static final String HTTP2_TRANSPORT = "http2";
+    }
+
+    /**
+     * This method contains the constants used to build bulk requests.
+     */
+    public static class BulkConstants {
+
+        public static final String BULK_REQUEST_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:BulkRequest";
+
+        public static final String SCHEMAS = "schemas";
+
+        public static final String OPERATIONS = "Operations";
+
+        public static final String FAIL_ON_ERRORS = "failOnErrors";
+
+        public static final String METHOD = "method";
+
+        public static final String PATH = "path";
+
+        public static final String BULK_ID = "bulkId";
+
+        public static final String DATA = "data";
+
+        public static final String LOCATION = "location";
+
+        public static final String STATUS = "status";
+
+        public static final String CODE = "code";
+
+        public static final String FIXTURE_BULK_ID_PREFIX = "fixture";
+    }
+
+    /**
+     * This method contains the names of the fixtures shared by the tests of a run.
+     */
+    public static class FixtureConstants {
+
+        // Users loginUser1 to loginUser5.
+        public static final String SHARED_USERS = "sharedUsers";
+
+        // Users groupUser1 to groupUser5, the members of the groups of the group tests.
+        public static final String SHARED_GROUP_USERS = "sharedGroupUsers";
+
+        // User names of the group, me, bulk and roles tests start with these instead of loginUser.
+        public static final String GROUP_USER_NAME_PREFIX = "groupUser";
+
+        public static final String ME_USER_NAME_PREFIX = "meUser";
+
+        public static final String BULK_USER_NAME_PREFIX = "bulkUser";
+
+        public static final String ROLE_USER_NAME_PREFIX = "roleUser";
+
+        public static final String FIXTURE_CLEAN_UP = "Fixture clean up";
+
+        // Number of deletions which are sent together by the clean up queue.
+        public static final int DEFAULT_CLEAN_UP_BATCH_SIZE = 50;
+
+        // Time in milliseconds a deletion waits for other deletions to be batched with.
+        public static final long DEFAULT_CLEAN_UP_LINGER = 200;
+    }
+
+    /**
+     * This method contains the policies for capturing the wire of test results.
+     */
+    public static class WireCaptureConstants {
+
+        // Keep no wire data.
+        public static final String CAPTURE_NONE = "none";
+
+        // Keep the wire data of failed and skipped tests only.
+        public static final String CAPTURE_FAILURES = "failures";
+
+        public static final String CAPTURE_FULL = "full";
+
+        // A negative size keeps the bodies as they are.
+        public static final int DEFAULT_MAX_BODY_SIZE = -1;
+
+        public static final String TRUNCATION_MARKER = "\n... [truncated %d characters]";
+
+        public static final String STORED_BODY_MARKER = "\n... [truncated %d characters, full body at %s]";
+    }
+
+    /**
+     * This method contains the modes of the cassette which records and replays the exchanges of a run.
+     */
+    public static class CassetteConstants {
+
+        // Send the requests to the service provider without recording them.
+        public static final String CASSETTE_OFF = "off";
+
+        public static final String CASSETTE_RECORD = "record";
+
+        // Answer the requests from the cassette without contacting the service provider.
+        public static final String CASSETTE_REPLAY = "replay";
+
+        public static final String DEFAULT_CASSETTE_FILE_NAME = "compliance.cassette";
+
+        // Id of a resource which no service provider holds, requested by the not found tests.
+        public static final String MISSING_RESOURCE_ID = "00000000-0000-4000-8000-000000000404";
+    }
+
+    /**
+     * This method contains the settings of the report generation.
+     */
+    public static class ReportConstants {
+
+        // Page contents beyond this size are kept in a scratch file.
+        public static final long MAX_MAIN_MEMORY_BYTES = 16 * 1024 * 1024;
+
+        // Threads which lay out the results while a single thread writes the pages.
+        public static final int LAYOUT_THREADS = Runtime.getRuntime().availableProcessors();
+
+        // Number of results each layout thread may work ahead of the writer.
+        public static final int LAYOUT_WINDOW_PER_THREAD = 4;
+
+        public static final String REPORT_NAME = "SCIM 2.0 Compliance Test Suite";
+
+        public static final String REPORT_FILE_NAME = "scim2-compliance-report";
+
+        // Formats of the streaming report sinks.
+        public static final String NDJSON_FORMAT = "ndjson";
+
+        public static final String JUNIT_XML_FORMAT = "junit";
+
+        public static final String HTML_FORMAT = "html";
+    }
+
+    /**
+     * This method contains the constants of the discovery cache.
+     */
+    public static class DiscoveryCacheConstants {
+
+        // Time for which a cached discovery document is used without asking the service provider.
+        public static final long DEFAULT_TTL = 10 * 60 * 1000;
+
+        // Number of cached discovery documents, i.e. three per service provider and credentials.
+        public static final int MAX_ENTRIES = 192;
+
+        public static final String ETAG = "ETag";
+
+        public static final String IF_NONE_MATCH = "If-None-Match";
+    }
+
+    /**
+     * This method contains the constants of the latency statistics.
+     */
+    public static class LatencyConstants {
+
+        // Phases of a request.
+        public static final String NETWORK = "network";
+
+        public static final String DECODE = "decode";
+
+        public static final String VALIDATION = "validation";
+
+        // Latencies are recorded in microseconds, up to a minute with three significant digits.
+        public static final long HIGHEST_TRACKABLE_LATENCY = 60L * 1000 * 1000;
+
+        public static final int SIGNIFICANT_DIGITS = 3;
+    }
+
+    /**
+     * This method contains the constants of the load generation mode.
+     */
+    public static class LoadConstants {
+
+        // Operations which can be part of the mix.
+        public static final String CREATE_USER = "createUser";
+
+        public static final String GET_USER = "getUser";
+
+        public static final String LIST_USERS = "listUsers";
+
+        public static final String SEARCH_USERS = "searchUsers";
+
+        public static final String PATCH_USER = "patchUser";
+
+        public static final String PUT_USER = "putUser";
+
+        public static final String DELETE_USER = "deleteUser";
+
+        public static final String CREATE_GROUP = "createGroup";
+
+        public static final String GET_GROUP = "getGroup";
+
+        public static final String LIST_GROUPS = "listGroups";
+
+        public static final String SEARCH_GROUPS = "searchGroups";
+
+        public static final String PATCH_GROUP = "patchGroup";
+
+        public static final String DELETE_GROUP = "deleteGroup";
+
+        public static final String BULK = "bulk";
+
+        // Weights of the operations, as operation:weight pairs.
+        public static final String DEFAULT_MIX = "getUser:40,listUsers:10,searchUsers:10,patchUser:10,putUser:5,"
+                + "createUser:10,deleteUser:5,getGroup:5,patchGroup:5";
+
+        public static final int DEFAULT_CONCURRENCY = 8;
+
+        // Requests per second over all the workers. Zero sends the next request as soon as a worker is free.
+        public static final double DEFAULT_RATE = 0;
+
+        public static final long DEFAULT_DURATION = 60 * 1000;
+
+        // Time in milliseconds at the start of the run which is not recorded.
+        public static final long DEFAULT_WARM_UP = 10 * 1000;
+
+        // Users and groups which are created before the run for the read and update operations.
+        public static final int DEFAULT_SEED_RESOURCES = 20;
+
+        // Time in milliseconds a worker waits when its operation has nothing to work on.
+        public static final long IDLE_WAIT = 5;
+
+        // Users created by a bulk operation.
+        public static final int BULK_OPERATIONS = 2;
+
+        public static final String LOAD_TEST = "Load test";
+
+        public static final String LOAD_REPORT_FILE_NAME = "scim2-load-report.json";
+
+        public static final String PATCH_GROUP_PAYLOAD = "{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:"
+                + "PatchOp\"],\"Operations\":[{\"op\":\"add\",\"path\":\"members\",\"value\":[{\"value\":"
+                + "\"%s\"}]}]}";
+    }
+
     /**
      * This method contains the defined constants used in tests.
      */
@@ -293,9 +587,9 @@ public class ComplianceConstants {
                 + "[\"urn:ietf:params:scim:api:messages:2.0:BulkRequest\"],\"Operations\":"
                 + "[{\"method\": \"POST\",\"path\": \"/Users\",\"bulkId\": \"qwerty\",\"data\":"
                 + "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\": "
-                + "\"loginUser6\",\"password\":\"pw12435\"}},{\"method\": \"POST\",\"path\": \"/Users\","
+                + "\"bulkUser6\",\"password\":\"pw12435\"}},{\"method\": \"POST\",\"path\": \"/Users\","
                 + "\"bulkId\":\"ytrewq\",\"data\":{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\","
-                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"loginUser7\","
+                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"bulkUser7\","
                 + "\"password\":\"pw13424\"}}]}";
 
         public static String defineBulkRequest2 = " {\n"
@@ -315,18 +609,18 @@ public class ComplianceConstants {
                 + "[\"urn:ietf:params:scim:api:messages:2.0:BulkRequest\"],\"Operations\":"
                 + "[{\"method\": \"POST\",\"path\": \"/Users\",\"data\":"
                 + "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\": "
-                + "\"loginUser8\",\"password\":\"pw12435\"}},{\"method\": \"POST\",\"path\": \"/Users\",\"data\":"
+                + "\"bulkUser8\",\"password\":\"pw12435\"}},{\"method\": \"POST\",\"path\": \"/Users\",\"data\":"
                 + "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\","
-                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"loginUser9\","
+                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"bulkUser9\","
                 + "\"password\":\"pw13424\"}}]}";
 
         public static String defineBulkRequest4 = "{\"failOnErrors\":1,\"schemas\":"
                 + "[\"urn:ietf:params:scim:api:messages:2.0:BulkRequest\"],\"Operations\":"
                 + "[{\"method\": \"POST\",\"bulkId\": \"qwerty\",\"data\":"
                 + "{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\": "
-                + "\"loginUser10\",\"password\":\"pw12435\"}},{\"method\": \"POST\","
+                + "\"bulkUser10\",\"password\":\"pw12435\"}},{\"method\": \"POST\","
                 + "\"bulkId\":\"ytrewq\",\"data\":{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\","
-                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"loginUser11\","
+                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"bulkUser11\","
                 + "\"password\":\"pw13424\"}}]}";
 
         public static String defineBulkRequest5 = "{\"failOnErrors\":1,\"schemas\":"
@@ -339,7 +633,7 @@ public class ComplianceConstants {
                 + "     \"Operations\": [\n" + "       {\n" + "         \"method\": \"POST\",\n"
                 + "         \"path\": \"/Users\",\n" + "         \"bulkId\": \"qwerty\",\n" + "         \"data\": {\n"
                 + "           \"schemas\": [\"urn:ietf:params:scim:schemas:core:2.0:User\"],\n"
-                + "           \"userName\": \"loginUser14\"\n" + "         }\n" + "       },\n" + "       {\n"
+                + "           \"userName\": \"bulkUser14\"\n" + "         }\n" + "       },\n" + "       {\n"
                 + "         \"method\": \"POST\",\n" + "         \"path\": \"/Groups\",\n"
                 + "         \"bulkId\": \"ytrewq\",\n" + "         \"data\": {\n"
                 + "           \"schemas\": [\"urn:ietf:params:scim:schemas:core:2.0:Group\"],\n"
@@ -350,11 +644,11 @@ public class ComplianceConstants {
         public static String defineBulkRequest7 = "{\"failOnErrors\":1,\"schemas\":[\"urn:ietf:params:scim:api"
                 + ":messages:2.0:BulkRequest\"],\"Operations\":[{\"method\": \"POST\",\"path\": \"/Users\",\"bulkId\": "
                 + "\"qwerty\",\"data\":{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],\"userName\": "
-                + "\"loginUser21\",\"password\":\"pw12435\"}}, {\"method\": \"POST\",\"path\": \"/Users\","
+                + "\"bulkUser21\",\"password\":\"pw12435\"}}, {\"method\": \"POST\",\"path\": \"/Users\","
                 + "\"bulkId\":\"ytrewssq\",\"data\":{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\"],"
-                + "\"userName\": \"loginUser1\",\"password\":\"pw12435\"}},{\"method\": \"POST\",\"path\": \"/Users\","
+                + "\"userName\": \"bulkUser1\",\"password\":\"pw12435\"}},{\"method\": \"POST\",\"path\": \"/Users\","
                 + "\"bulkId\":\"ytrewSq\",\"data\":{\"schemas\":[\"urn:ietf:params:scim:schemas:core:2.0:User\","
-                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"loginUser21\","
+                + "\"urn:ietf:params:scim:schemas:extension:enterprise:2.0:User\"],\"userName\":\"bulkUser21\","
                 + "\"password\":\"pw1323424\"}}]}";
 
     }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.core.tests.common;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the list response scanner.
+ */
+public class ListResponseTest {
+
+    @Test
+    public void testResourcesAndCounts() throws JSONException {
+
+        ListResponse listResponse = ListResponse.parse("{\"schemas\":[\"urn:ietf:params:scim:api:messages:2.0:" +
+                "ListResponse\"], \"totalResults\" : 2, \"startIndex\":1, \"Resources\":[{\"id\":\"1\"}, " +
+                "{\"id\":\"2\"}]}");
+
+        List<String> resources = listResponse.getResources();
+        assertEquals(2, resources.size());
+        assertEquals("{\"id\":\"1\"}", resources.get(0));
+        assertEquals("{\"id\":\"2\"}", resources.get(1));
+        assertEquals(2, listResponse.getTotalResults());
+        assertEquals(1, listResponse.getStartIndex());
+    }
+
+    @Test
+    public void testEscapedKeys() throws JSONException {
+
+        ListResponse listResponse = ListResponse.parse("{\"a\\\"b\":\"}\", \"Resour\\u0063es\":[{\"id\":\"1\"}], " +
+                "\"total\\u0052esults\":1}");
+
+        assertEquals(1, listResponse.getResources().size());
+        assertEquals(1, listResponse.getTotalResults());
+    }
+
+    @Test
+    public void testNestedArraysInResources() throws JSONException {
+
+        String resource = "{\"id\":\"1\",\"emails\":[{\"value\":\"a]b@c.com\",\"types\":[[\"work\"],[]]}]," +
+                "\"groups\":[]}";
+        ListResponse listResponse = ListResponse.parse("{\"Resources\":[" + resource + "],\"totalResults\":1}");
+
+        List<String> resources = listResponse.getResources();
+        assertEquals(1, resources.size());
+        assertEquals(resource, resources.get(0));
+        assertEquals(new JSONObject(resource).toString(), new JSONObject(resources.get(0)).toString());
+    }
+
+    @Test
+    public void testEmptyResources() throws JSONException {
+
+        ListResponse listResponse = ListResponse.parse("{\"totalResults\":0,\"Resources\":[ ]}");
+
+        assertTrue(listResponse.getResources().isEmpty());
+        assertEquals(0, listResponse.getTotalResults());
+    }
+
+    @Test(expected = JSONException.class)
+    public void testMissingResources() throws JSONException {
+
+        ListResponse.parse("{\"totalResults\":0}").getResources();
+    }
+
+    @Test(expected = JSONException.class)
+    public void testMissingTotalResults() throws JSONException {
+
+        ListResponse.parse("{}").getTotalResults();
+    }
+
+    @Test
+    public void testCountsAreCoercedLikeJsonObject() throws JSONException {
+
+        ListResponse listResponse = ListResponse.parse("{\"totalResults\":\"10\",\"startIndex\":10.0," +
+                "\"Resources\":[]}");
+
+        assertEquals(10, listResponse.getTotalResults());
+        assertEquals(10, listResponse.getStartIndex());
+    }
+
+    @Test(expected = JSONException.class)
+    public void testCountWhichIsNotANumber() throws JSONException {
+
+        ListResponse.parse("{\"totalResults\":\"ten\",\"Resources\":[]}").getTotalResults();
+    }
+
+    @Test(expected = JSONException.class)
+    public void testTrailingContent() throws JSONException {
+
+        ListResponse.parse("{\"Resources\":[]} {\"Resources\":[]}");
+    }
+
+    @Test
+    public void testTrailingWhitespace() throws JSONException {
+
+        assertTrue(ListResponse.parse(" {\"Resources\":[]}\n").getResources().isEmpty());
+    }
+
+    @Test(expected = JSONException.class)
+    public void testTruncatedInput() throws JSONException {
+
+        ListResponse.parse("{\"Resources\":[{\"id\":\"1\"}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void testUnterminatedString() throws JSONException {
+
+        ListResponse.parse("{\"Resources\":[{\"id\":\"1}]}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void testMissingColon() throws JSONException {
+
+        ListResponse.parse("{\"Resources\" []}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void testUnquotedKey() throws JSONException {
+
+        ListResponse.parse("{Resources:[]}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void testResourcesNotAnArray() throws JSONException {
+
+        ListResponse.parse("{\"Resources\":{}}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void testResourceNotAnObject() throws JSONException {
+
+        ListResponse.parse("{\"Resources\":[\"1\"]}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void testNotAnObject() throws JSONException {
+
+        ListResponse.parse("[]");
+    }
+}
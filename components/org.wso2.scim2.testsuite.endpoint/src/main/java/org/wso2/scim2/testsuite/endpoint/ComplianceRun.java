@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.endpoint;
+
+import org.apache.commons.io.IOUtils;
+import org.wso2.scim2.testsuite.core.entities.Result;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClientConfiguration;
+import org.wso2.scim2.testsuite.core.pdf.PDFGenerator;
+import org.wso2.scim2.testsuite.core.protocol.EndpointFactory;
+import org.wso2.scim2.testsuite.core.protocol.TestScheduler;
+import org.wso2.scim2.testsuite.core.report.ReportSink;
+import org.wso2.scim2.testsuite.core.report.ReportSinkFactory;
+import org.wso2.scim2.testsuite.core.tests.ResourceType;
+import org.wso2.scim2.testsuite.core.tests.SchemaTestImpl;
+import org.wso2.scim2.testsuite.core.tests.ServiceProviderConfigTestImpl;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A compliance run requested by the React app.
+ */
+public class ComplianceRun {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Map<String, Object> map;
+    private final File runDirectory;
+    private final List<ReportSink> progressSinks = new ArrayList<>();
+
+    /**
+     * Initialize.
+     *
+     * @param map           Request json data which selects the tests to run.
+     * @param runsDirectory Directory under which each run writes its report and wire files to a directory named
+     *                      after the run id.
+     */
+    public ComplianceRun(Map<String, Object> map, String runsDirectory) {
+
+        this.map = map;
+        this.runDirectory = new File(runsDirectory, id);
+    }
+
+    /**
+     * Get the id of the run.
+     *
+     * @return Run id.
+     */
+    public String getId() {
+
+        return id;
+    }
+
+    /**
+     * Add a sink which receives the results while the run is in progress. It is not closed by the run.
+     *
+     * @param reportSink Report sink.
+     */
+    public void addProgressSink(ReportSink reportSink) {
+
+        progressSinks.add(reportSink);
+    }
+
+    /**
+     * Run the selected tests and generate the pdf report.
+     *
+     * @return Results of the run.
+     * @throws ComplianceException Constructed new exception with the specified detail message.
+     */
+    public Result execute() throws ComplianceException {
+
+        String endpoint = (String) map.get("endpoint");
+        String userName = (String) map.get("userName");
+        String password = (String) map.get("password");
+        String token = (String) map.get("token");
+        Boolean getServiceProviderConfig = (Boolean) map.get("getServiceProviderConfig");
+        Boolean getSchemas = (Boolean) map.get("getSchemas");
+        Boolean getResourceTypes = (Boolean) map.get("getResourceTypes");
+
+        Boolean getUsers = (Boolean) map.get("getUsers");
+        Boolean getUserById = (Boolean) map.get("getUserById");
+        Boolean postUser = (Boolean) map.get("postUser");
+        Boolean putUser = (Boolean) map.get("putUser");
+        Boolean patchUser = (Boolean) map.get("patchUser");
+        Boolean deleteUser = (Boolean) map.get("deleteUser");
+        Boolean searchUser = (Boolean) map.get("searchUser");
+
+        Boolean getGroups = (Boolean) map.get("getGroups");
+        Boolean getGroupById = (Boolean) map.get("getGroupById");
+        Boolean postGroup = (Boolean) map.get("postGroup");
+        Boolean putGroup = (Boolean) map.get("putGroup");
+        Boolean patchGroup = (Boolean) map.get("patchGroup");
+        Boolean deleteGroup = (Boolean) map.get("deleteGroup");
+        Boolean searchGroup = (Boolean) map.get("searchGroup");
+
+        Boolean getMe = (Boolean) map.get("getMe");
+        Boolean postMe = (Boolean) map.get("postMe");
+        Boolean putMe = (Boolean) map.get("putMe");
+        Boolean patchMe = (Boolean) map.get("patchMe");
+        Boolean deleteMe = (Boolean) map.get("deleteMe");
+
+        Boolean postBulk = (Boolean) map.get("postBulk");
+        Boolean putBulk = (Boolean) map.get("putBulk");
+        Boolean patchBulk = (Boolean) map.get("patchBulk");
+        Boolean deleteBulk = (Boolean) map.get("deleteBulk");
+
+        // Invoke test library by providing authentication data.
+        EndpointFactory endFactory = new EndpointFactory(endpoint, userName, password, token);
+        Object requestedSubTestThreads = map.get("subTestThreads");
+        if (requestedSubTestThreads instanceof Number) {
+            endFactory.setSubTestThreads(((Number) requestedSubTestThreads).intValue());
+        }
+        String transportMode = (String) map.get("transportMode");
+        if (transportMode != null) {
+            endFactory.setTransportMode(transportMode);
+        }
+        String wireCapture = (String) map.get("wireCapture");
+        if (wireCapture != null) {
+            endFactory.setWireCapture(wireCapture);
+        }
+        Object maxWireBodySize = map.get("maxWireBodySize");
+        if (maxWireBodySize instanceof Number) {
+            endFactory.setMaxWireBodySize(((Number) maxWireBodySize).intValue());
+        }
+        // The files of a run stay in its own directory, the request only chooses whether they are written.
+        if (Boolean.TRUE.equals(map.get("storeWires"))) {
+            endFactory.setWireStoreDirectory(new File(runDirectory, "wires").getPath());
+        }
+        endFactory.setRefreshDiscovery(Boolean.TRUE.equals(map.get("refreshDiscovery")));
+        // Connection pool limits and timeouts in milliseconds of the http clients, e.g. "socketTimeout": 60000.
+        HTTPClientConfiguration clientConfiguration = endFactory.getHttpClientConfiguration();
+        Object maxConnectionsPerRoute = map.get("maxConnectionsPerRoute");
+        if (maxConnectionsPerRoute instanceof Number) {
+            clientConfiguration.setMaxConnectionsPerRoute(((Number) maxConnectionsPerRoute).intValue());
+        }
+        Object maxConnections = map.get("maxConnections");
+        if (maxConnections instanceof Number) {
+            clientConfiguration.setMaxConnections(((Number) maxConnections).intValue());
+        }
+        Object connectTimeout = map.get("connectTimeout");
+        if (connectTimeout instanceof Number) {
+            clientConfiguration.setConnectTimeout(((Number) connectTimeout).intValue());
+        }
+        Object socketTimeout = map.get("socketTimeout");
+        if (socketTimeout instanceof Number) {
+            clientConfiguration.setSocketTimeout(((Number) socketTimeout).intValue());
+        }
+        Object connectionRequestTimeout = map.get("connectionRequestTimeout");
+        if (connectionRequestTimeout instanceof Number) {
+            clientConfiguration.setConnectionRequestTimeout(((Number) connectionRequestTimeout).intValue());
+        }
+        ResourceType user = endFactory.getInstance(ComplianceConstants.EndPointConstants.USER);
+        ResourceType group = endFactory.getInstance(ComplianceConstants.EndPointConstants.GROUP);
+        ServiceProviderConfigTestImpl serviceProviderConfig = (ServiceProviderConfigTestImpl)
+                endFactory.getInstance(ComplianceConstants.EndPointConstants.SERVICEPROVIDERCONFIG);
+        ResourceType resourceType = endFactory.getInstance(ComplianceConstants.EndPointConstants.RESOURCETYPE);
+        SchemaTestImpl schema = (SchemaTestImpl) endFactory.getInstance(ComplianceConstants.EndPointConstants.SCHEMAS);
+        ResourceType self = endFactory.getInstance(ComplianceConstants.EndPointConstants.ME);
+        ResourceType bulk = endFactory.getInstance(ComplianceConstants.EndPointConstants.BULK);
+
+        Object requestedWorkerThreads = map.get("workerThreads");
+        int workerThreads = requestedWorkerThreads instanceof Number ? ((Number) requestedWorkerThreads).intValue()
+                : ComplianceConstants.ExecutionConstants.DEFAULT_WORKER_THREADS;
+        TestScheduler scheduler = new TestScheduler(workerThreads);
+        scheduler.setFixtures(endFactory.getFixtureRegistry(), endFactory.getCleanupQueue());
+        scheduler.setWireCapturePolicy(endFactory.getWireCapturePolicy());
+        scheduler.setLatencyRecorder(endFactory.getRunContext().getLatencyRecorder());
+
+        // Streaming reports, e.g. "reportFormats": ["ndjson", "junit", "html"].
+        List<ReportSink> reportSinks = new ArrayList<>();
+        Object reportFormats = map.get("reportFormats");
+        if (reportFormats instanceof List) {
+            try {
+                for (Object format : (List<?>) reportFormats) {
+                    ReportSink reportSink = ReportSinkFactory.create(String.valueOf(format),
+                            new File(runDirectory, "reports"), id);
+                    reportSinks.add(reportSink);
+                    scheduler.addReportSink(reportSink);
+                }
+            } catch (ComplianceException e) {
+                for (ReportSink reportSink : reportSinks) {
+                    IOUtils.closeQuietly(reportSink);
+                }
+                throw e;
+            }
+        }
+        for (ReportSink reportSink : progressSinks) {
+            scheduler.addReportSink(reportSink);
+        }
+
+        // Get service provider config to check which tests are compatible with service provider.
+        if (getServiceProviderConfig) {
+            scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_SERVICE_PROVIDER_CONFIG_LANE,
+                    serviceProviderConfig::getMethodTest);
+        } else {
+            // The config is only needed for the capabilities, hence a cached config is enough.
+            scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_SERVICE_PROVIDER_CONFIG_LANE, () -> {
+                serviceProviderConfig.loadServiceProviderConfig();
+                return new ArrayList<>();
+            });
+        }
+        if (getResourceTypes) {
+            scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_RESOURCE_TYPES_LANE,
+                    resourceType::getMethodTest);
+        }
+        if (getSchemas) {
+            scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_SCHEMAS_LANE, schema::getMethodTest);
+        } else {
+            // The schemas are only needed to validate responses, hence cached schemas are enough.
+            scheduler.add(ComplianceConstants.ExecutionConstants.DISCOVERY_SCHEMAS_LANE, () -> {
+                schema.loadSchemas();
+                return new ArrayList<>();
+            });
+        }
+        scheduler.nextStage();
+
+        // User, group, me and bulk tests create users with their own user names, hence each has its own lane.
+        String userLane = ComplianceConstants.ExecutionConstants.USER_LANE;
+        String groupLane = ComplianceConstants.ExecutionConstants.GROUP_LANE;
+        String meLane = ComplianceConstants.ExecutionConstants.ME_LANE;
+        String bulkLane = ComplianceConstants.ExecutionConstants.BULK_LANE;
+        // The get, search and get by id tests lease the shared users and count the users, hence their ranks run
+        // them before the tests which create other users or delete the shared ones. The results keep this order.
+        if (getUsers) {
+            scheduler.add(userLane, 0, user::getMethodTest);
+        }
+        if (postUser) {
+            scheduler.add(userLane, 3, user::postMethodTest);
+        }
+        if (patchUser) {
+            scheduler.add(userLane, 4, user::patchMethodTest);
+        }
+        if (searchUser) {
+            scheduler.add(userLane, 1, user::searchMethodTest);
+        }
+        if (putUser) {
+            scheduler.add(userLane, 5, user::putMethodTest);
+        }
+        if (deleteUser) {
+            scheduler.add(userLane, 6, user::deleteMethodTest);
+        }
+        if (getUserById) {
+            scheduler.add(userLane, 2, user::getByIdMethodTest);
+        }
+
+        if (getGroups) {
+            scheduler.add(groupLane, group::getMethodTest);
+        }
+        if (postGroup) {
+            scheduler.add(groupLane, group::postMethodTest);
+        }
+        if (patchGroup) {
+            scheduler.add(groupLane, group::patchMethodTest);
+        }
+        if (searchGroup) {
+            scheduler.add(groupLane, group::searchMethodTest);
+        }
+        if (putGroup) {
+            scheduler.add(groupLane, group::putMethodTest);
+        }
+        if (deleteGroup) {
+            scheduler.add(groupLane, group::deleteMethodTest);
+        }
+        if (getGroupById) {
+            scheduler.add(groupLane, group::getByIdMethodTest);
+        }
+
+        if (getMe) {
+            scheduler.add(meLane, self::getMethodTest);
+        }
+        if (postMe) {
+            scheduler.add(meLane, self::postMethodTest);
+        }
+        if (patchMe) {
+            scheduler.add(meLane, self::patchMethodTest);
+        }
+        if (putMe) {
+            scheduler.add(meLane, self::putMethodTest);
+        }
+        if (deleteMe) {
+            scheduler.add(meLane, self::deleteMethodTest);
+        }
+
+        if (postBulk) {
+            scheduler.add(bulkLane, bulk::postMethodTest);
+        }
+        if (patchBulk) {
+            scheduler.add(bulkLane, bulk::patchMethodTest);
+        }
+        if (putBulk) {
+            scheduler.add(bulkLane, bulk::putMethodTest);
+        }
+        if (deleteBulk) {
+            scheduler.add(bulkLane, bulk::deleteMethodTest);
+        }
+
+        Result finalResults = null;
+
+        try {
+            // Invoke all the scheduled tests.
+            ArrayList<TestResult> results = scheduler.run();
+
+            // Calculate test statistics.
+            Statistics statistics = new Statistics();
+            for (TestResult result : results) {
+
+                switch (result.getStatus()) {
+                    case TestResult.ERROR:
+                        statistics.incFailed();
+                        break;
+                    case TestResult.SUCCESS:
+                        statistics.incSuccess();
+                        break;
+                    case TestResult.SKIPPED:
+                        statistics.incSkipped();
+                        break;
+                }
+            }
+            long time = 0;
+            for (TestResult result : results) {
+                time += result.getElapsedTime();
+            }
+            statistics.setTime(time);
+            statistics.setLatencies(endFactory.getRunContext().getLatencyRecorder().getStatistics());
+            statistics.setLeftovers(scheduler.getLeftovers());
+
+            finalResults = new Result(statistics, results);
+
+        } catch (Exception e) {
+            new Result(e.getMessage());
+        } finally {
+            for (ReportSink reportSink : reportSinks) {
+                IOUtils.closeQuietly(reportSink);
+            }
+        }
+
+        // Generate pdf results sheet
+        try {
+            // The report of each run is named after the run, so concurrent runs do not overwrite each other.
+            String reportURL = PDFGenerator.generatePdfResults(finalResults, new File(runDirectory, "reports"), id);
+            assert finalResults != null;
+            finalResults.setReportLink("file://" + reportURL);
+        } catch (IOException e) {
+            new Result(e.getMessage());
+        }
+        return finalResults;
+    }
+}
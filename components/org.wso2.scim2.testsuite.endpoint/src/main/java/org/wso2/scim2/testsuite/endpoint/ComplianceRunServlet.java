@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.endpoint;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.TypeReference;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
+import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Java servlet to run compliance tests in the background and stream their progress.
+ * <p>
+ * POST /runs starts a run with the same request json data as the ComplianceTestSuite servlet and returns the run
+ * id. GET /runs/{id}/events streams the results and the running statistics of the run as server-sent events, and
+ * GET /runs/{id} returns the results of a completed run. Runs are queued on the {@link RunExecutor} and rejected
+ * with 429 when it is saturated. Event streams are rejected with 429 as well when more than maxEventStreams of them
+ * are open. Completed runs are kept for 30 minutes, and at most 20 of them.
+ */
+public class ComplianceRunServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    // Number of completed runs kept for late clients.
+    private static final int MAX_RETAINED_RUNS = 20;
+
+    // Time in milliseconds a completed run is kept for late clients.
+    private static final long RUN_RETENTION_TIME = TimeUnit.MINUTES.toMillis(30);
+
+    // Interval in milliseconds of the comments which keep an idle event stream open through proxies.
+    private static final long HEARTBEAT_INTERVAL = 15000;
+
+    private static final String EVENTS_PATH = "/events";
+
+    private static final int DEFAULT_MAX_EVENT_STREAMS = 64;
+
+    private final Map<String, RunEventSink> runs = new LinkedHashMap<String, RunEventSink>() {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RunEventSink> eldest) {
+
+            return size() > MAX_RETAINED_RUNS && eldest.getValue().isCompleted();
+        }
+    };
+
+    // Threads which write the event streams, so the streams do not hold container threads.
+    private transient ThreadPoolExecutor streamExecutor;
+
+    @Override
+    public void init() {
+
+        String maxEventStreams = getServletContext().getInitParameter("maxEventStreams");
+        // Each open stream holds a thread, hence a stream is rejected rather than queued when all are busy.
+        streamExecutor = new ThreadPoolExecutor(0, maxEventStreams == null ? DEFAULT_MAX_EVENT_STREAMS :
+                Integer.parseInt(maxEventStreams.trim()), 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scim2-compliance-run-events");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void destroy() {
+
+        streamExecutor.shutdownNow();
+    }
+
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        // Map request json data to invoke tests.
+        ObjectMapper requestMapper = new ObjectMapper();
+        Map<String, Object> map = requestMapper.readValue(request.getInputStream(),
+                new TypeReference<Map<String, Object>>() {
+                });
+        ComplianceRun run = new ComplianceRun(map, RunExecutor.getRunsDirectory(getServletContext()));
+        RunEventSink events = new RunEventSink();
+        run.addProgressSink(events);
+        synchronized (runs) {
+            evictExpiredRuns();
+            runs.put(run.getId(), events);
+        }
+        try {
+            RunExecutor.get(getServletContext()).submit(() -> {
+                try {
+                    try {
+                        events.complete(run.execute());
+                    } catch (ComplianceException | RuntimeException e) {
+                        events.fail(e.getMessage());
+                    }
+                } catch (IOException e) {
+                    log("Could not end the events of run " + run.getId(), e);
+                }
+            }, () -> {
+                try {
+                    events.fail("The compliance run timed out");
+                } catch (IOException e) {
+                    log("Could not end the events of run " + run.getId(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (runs) {
+                runs.remove(run.getId());
+            }
+            response.setHeader("Retry-After", RunExecutor.RETRY_AFTER);
+            response.sendError(RunExecutor.SC_TOO_MANY_REQUESTS, "Too many compliance runs are in progress");
+            return;
+        }
+
+        Map<String, Object> accepted = new LinkedHashMap<>();
+        accepted.put("runId", run.getId());
+        accepted.put("events", request.getContextPath() + request.getServletPath() + "/" + run.getId() +
+                EVENTS_PATH);
+        response.setStatus(HttpServletResponse.SC_ACCEPTED);
+        response.setContentType(ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        response.getWriter().print(new ObjectMapper().writeValueAsString(accepted));
+    }
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        String path = request.getPathInfo() == null ? "" : request.getPathInfo();
+        boolean eventStream = path.endsWith(EVENTS_PATH);
+        if (eventStream) {
+            path = path.substring(0, path.length() - EVENTS_PATH.length());
+        }
+        RunEventSink events;
+        synchronized (runs) {
+            evictExpiredRuns();
+            events = runs.get(path.startsWith("/") ? path.substring(1) : path);
+        }
+        if (events == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (eventStream) {
+            AsyncContext asyncContext = request.startAsync();
+            // The stream ends when the run ends.
+            asyncContext.setTimeout(0);
+            String lastEventId = request.getHeader("Last-Event-ID");
+            try {
+                streamExecutor.execute(() -> {
+                    try {
+                        streamEvents((HttpServletResponse) asyncContext.getResponse(), lastEventId, events);
+                    } catch (IOException e) {
+                        log("Could not stream the events of a run", e);
+                    } finally {
+                        asyncContext.complete();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                response.setHeader("Retry-After", RunExecutor.RETRY_AFTER);
+                response.sendError(RunExecutor.SC_TOO_MANY_REQUESTS, "Too many event streams are open");
+                asyncContext.complete();
+            }
+            return;
+        }
+        response.setContentType(ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+        if (!events.isCompleted()) {
+            // The results are not complete, hence only the progress is returned.
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("completed", false);
+            progress.put("statistics", events.getStatistics());
+            response.getWriter().print(new ObjectMapper().writeValueAsString(progress));
+            return;
+        }
+        response.getWriter().print(new ObjectMapper().writer().withDefaultPrettyPrinter()
+                .writeValueAsString(events.getResult()));
+    }
+
+    /**
+     * Remove the runs which completed longer than the retention time ago. The caller holds the lock of the runs.
+     */
+    private void evictExpiredRuns() {
+
+        long expiry = System.currentTimeMillis() - RUN_RETENTION_TIME;
+        Iterator<RunEventSink> iterator = runs.values().iterator();
+        while (iterator.hasNext()) {
+            RunEventSink events = iterator.next();
+            if (events.isCompleted() && events.getCompletedTime() < expiry) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Write the events of a run to the client until the run is complete or the client disconnects.
+     *
+     * @param response    Response to write the events to.
+     * @param lastEventId Id of the last event the client received, or null.
+     * @param events      Events of the run.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private void streamEvents(HttpServletResponse response, String lastEventId, RunEventSink events)
+            throws IOException {
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        // Keep reverse proxies from buffering the stream.
+        response.setHeader("X-Accel-Buffering", "no");
+        PrintWriter out = response.getWriter();
+
+        // A reconnecting client continues after the last event it received.
+        int next = 0;
+        if (lastEventId != null) {
+            try {
+                next = Integer.parseInt(lastEventId.trim()) + 1;
+            } catch (NumberFormatException e) {
+                next = 0;
+            }
+        }
+        try {
+            while (true) {
+                List<String> newEvents = events.await(next, HEARTBEAT_INTERVAL);
+                if (newEvents.isEmpty()) {
+                    if (events.isCompleted()) {
+                        break;
+                    }
+                    out.print(": keep-alive\n\n");
+                }
+                for (String event : newEvents) {
+                    out.print(event);
+                }
+                if (!newEvents.isEmpty()) {
+                    // Events the client missed may have been dropped, hence continue after the last one sent.
+                    next = RunEventSink.getEventId(newEvents.get(newEvents.size() - 1)) + 1;
+                }
+                out.flush();
+                if (out.checkError()) {
+                    // The client disconnected.
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -23,18 +23,15 @@ import org.codehaus.jackson.map.ObjectWriter;
 import org.codehaus.jackson.type.TypeReference;
 
 import org.wso2.scim2.testsuite.core.entities.Result;
-import org.wso2.scim2.testsuite.core.entities.Statistics;
-import org.wso2.scim2.testsuite.core.entities.TestResult;
-import org.wso2.scim2.testsuite.core.pdf.PDFGenerator;
-import org.wso2.scim2.testsuite.core.protocol.EndpointFactory;
-import org.wso2.scim2.testsuite.core.tests.ResourceType;
+import org.wso2.scim2.testsuite.core.exception.ComplianceException;
 import org.wso2.scim2.testsuite.core.utils.ComplianceConstants;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.Map;
-import javax.servlet.ServletContext;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -60,251 +57,75 @@ public class ComplianceTestSuite extends HttpServlet {
         Map<String, Object> map = requestMapper.readValue(request.getInputStream(),
                 new TypeReference<Map<String, Object>>() {
                 });
-        String endpoint = (String) map.get("endpoint");
-        String userName = (String) map.get("userName");
-        String password = (String) map.get("password");
-        String token = (String) map.get("token");
-        Boolean getServiceProviderConfig = (Boolean) map.get("getServiceProviderConfig");
-        Boolean getSchemas = (Boolean) map.get("getSchemas");
-        Boolean getResourceTypes = (Boolean) map.get("getResourceTypes");
-
-        Boolean getUsers = (Boolean) map.get("getUsers");
-        Boolean getUserById = (Boolean) map.get("getUserById");
-        Boolean postUser = (Boolean) map.get("postUser");
-        Boolean putUser = (Boolean) map.get("putUser");
-        Boolean patchUser = (Boolean) map.get("patchUser");
-        Boolean deleteUser = (Boolean) map.get("deleteUser");
-        Boolean searchUser = (Boolean) map.get("searchUser");
-
-        Boolean getGroups = (Boolean) map.get("getGroups");
-        Boolean getGroupById = (Boolean) map.get("getGroupById");
-        Boolean postGroup = (Boolean) map.get("postGroup");
-        Boolean putGroup = (Boolean) map.get("putGroup");
-        Boolean patchGroup = (Boolean) map.get("patchGroup");
-        Boolean deleteGroup = (Boolean) map.get("deleteGroup");
-        Boolean searchGroup = (Boolean) map.get("searchGroup");
-
-        Boolean getMe = (Boolean) map.get("getMe");
-        Boolean postMe = (Boolean) map.get("postMe");
-        Boolean putMe = (Boolean) map.get("putMe");
-        Boolean patchMe = (Boolean) map.get("patchMe");
-        Boolean deleteMe = (Boolean) map.get("deleteMe");
-
-        Boolean postBulk = (Boolean) map.get("postBulk");
-        Boolean putBulk = (Boolean) map.get("putBulk");
-        Boolean patchBulk = (Boolean) map.get("patchBulk");
-        Boolean deleteBulk = (Boolean) map.get("deleteBulk");
-
-        // Invoke test library by providing authentication data.
-        EndpointFactory endFactory = new EndpointFactory(endpoint, userName, password, token);
-        ResourceType user = endFactory.getInstance(ComplianceConstants.EndPointConstants.USER);
-        ResourceType group = endFactory.getInstance(ComplianceConstants.EndPointConstants.GROUP);
-        ResourceType serviceProviderConfig =
-                endFactory.getInstance(ComplianceConstants.EndPointConstants.SERVICEPROVIDERCONFIG);
-        ResourceType resourceType = endFactory.getInstance(ComplianceConstants.EndPointConstants.RESOURCETYPE);
-        ResourceType schema = endFactory.getInstance(ComplianceConstants.EndPointConstants.SCHEMAS);
-        ResourceType self = endFactory.getInstance(ComplianceConstants.EndPointConstants.ME);
-        ResourceType bulk = endFactory.getInstance(ComplianceConstants.EndPointConstants.BULK);
-
-        Result finalResults = null;
+        ComplianceRun run = new ComplianceRun(map, RunExecutor.getRunsDirectory(getServletContext()));
 
+        // The run executes on the run executor, hence the container thread is released right away.
+        AsyncContext asyncContext = request.startAsync();
+        // The run executor times out the run itself.
+        asyncContext.setTimeout(0);
+        AtomicBoolean responded = new AtomicBoolean();
         try {
-            ArrayList<TestResult> results = new ArrayList<>();
-
-            // Get service provider config to check which tests are compatible with service provider.
-            serviceProviderConfig.getMethodTest();
-
-            // Invoke ServiceProviderConfig test.
-            if (getServiceProviderConfig) {
-                ArrayList<TestResult> serviceProviderResult;
-                serviceProviderResult = serviceProviderConfig.getMethodTest();
-                results.addAll(serviceProviderResult);
-            }
-
-            // Invoke ResourceTypes test.
-            if (getResourceTypes) {
-                ArrayList<TestResult> resourceTypeResult;
-                resourceTypeResult = resourceType.getMethodTest();
-                results.addAll(resourceTypeResult);
-            }
-
-            // Invoke schemas test.
-            if (getSchemas) {
-                ArrayList<TestResult> schemaTestResult;
-                schemaTestResult = schema.getMethodTest();
-                results.addAll(schemaTestResult);
-            }
-
-            //  Invoke user related tests.
-            if (getUsers) {
-                ArrayList<TestResult> userGetResult;
-                userGetResult = user.getMethodTest();
-                results.addAll(userGetResult);
-            }
-            if (postUser) {
-                ArrayList<TestResult> userPostResult;
-                userPostResult = user.postMethodTest();
-                results.addAll(userPostResult);
-            }
-            if (patchUser) {
-                ArrayList<TestResult> userPatchResult;
-                userPatchResult = user.patchMethodTest();
-                results.addAll(userPatchResult);
-            }
-            if (searchUser) {
-                ArrayList<TestResult> userSearchResult;
-                userSearchResult = user.searchMethodTest();
-                results.addAll(userSearchResult);
-            }
-            if (putUser) {
-                ArrayList<TestResult> userPutResult;
-                userPutResult = user.putMethodTest();
-                results.addAll(userPutResult);
-            }
-            if (deleteUser) {
-                ArrayList<TestResult> userDeleteResult;
-                userDeleteResult = user.deleteMethodTest();
-                results.addAll(userDeleteResult);
-            }
-            if (getUserById) {
-                ArrayList<TestResult> userGetByIDResult;
-                userGetByIDResult = user.getByIdMethodTest();
-                results.addAll(userGetByIDResult);
-            }
-
-            // Invoke group related tests.
-            if (getGroups) {
-                ArrayList<TestResult> groupGetResult;
-                groupGetResult = group.getMethodTest();
-                results.addAll(groupGetResult);
-            }
-            if (postGroup) {
-                ArrayList<TestResult> groupPostResult;
-                groupPostResult = group.postMethodTest();
-                results.addAll(groupPostResult);
-            }
-            if (patchGroup) {
-                ArrayList<TestResult> groupPatchResult;
-                groupPatchResult = group.patchMethodTest();
-                results.addAll(groupPatchResult);
-            }
-            if (searchGroup) {
-                ArrayList<TestResult> groupSearchResult;
-                groupSearchResult = group.searchMethodTest();
-                results.addAll(groupSearchResult);
-            }
-            if (putGroup) {
-                ArrayList<TestResult> groupPutResult;
-                groupPutResult = group.putMethodTest();
-                results.addAll(groupPutResult);
-            }
-            if (deleteGroup) {
-                ArrayList<TestResult> groupDeleteResult;
-                groupDeleteResult = group.deleteMethodTest();
-                results.addAll(groupDeleteResult);
-            }
-            if (getGroupById) {
-                ArrayList<TestResult> groupGetByIDResult;
-                groupGetByIDResult = group.getByIdMethodTest();
-                results.addAll(groupGetByIDResult);
-            }
-
-            // Invoke Me related tests.
-            if (getMe) {
-                ArrayList<TestResult> meGetResult;
-                meGetResult = self.getMethodTest();
-                results.addAll(meGetResult);
-            }
-            if (postMe) {
-                ArrayList<TestResult> mePostResult;
-                mePostResult = self.postMethodTest();
-                results.addAll(mePostResult);
-            }
-            if (patchMe) {
-                ArrayList<TestResult> mePatchResult;
-                mePatchResult = self.patchMethodTest();
-                results.addAll(mePatchResult);
-            }
-            if (putMe) {
-                ArrayList<TestResult> mePutResult;
-                mePutResult = self.putMethodTest();
-                results.addAll(mePutResult);
-            }
-            if (deleteMe) {
-                ArrayList<TestResult> meDeleteResult;
-                meDeleteResult = self.deleteMethodTest();
-                results.addAll(meDeleteResult);
-            }
-
-            // Invoke Bulk related tests.
-            if (postBulk) {
-                ArrayList<TestResult> bulkPostResult;
-                bulkPostResult = bulk.postMethodTest();
-                results.addAll(bulkPostResult);
-            }
-            if (patchBulk) {
-                ArrayList<TestResult> bulkPatchResult;
-                bulkPatchResult = bulk.patchMethodTest();
-                results.addAll(bulkPatchResult);
-            }
-            if (putBulk) {
-                ArrayList<TestResult> bulkPutResult;
-                bulkPutResult = bulk.putMethodTest();
-                results.addAll(bulkPutResult);
-            }
-            if (deleteBulk) {
-                ArrayList<TestResult> bulkDeleteResult;
-                bulkDeleteResult = bulk.deleteMethodTest();
-                results.addAll(bulkDeleteResult);
-            }
-
-            // Calculate test statistics.
-            Statistics statistics = new Statistics();
-            for (TestResult result : results) {
-
-                switch (result.getStatus()) {
-                    case TestResult.ERROR:
-                        statistics.incFailed();
-                        break;
-                    case TestResult.SUCCESS:
-                        statistics.incSuccess();
-                        break;
-                    case TestResult.SKIPPED:
-                        statistics.incSkipped();
-                        break;
+            RunExecutor.get(getServletContext()).submit(() -> {
+                try {
+                    Result finalResults = run.execute();
+                    // Map java object  to a json.
+                    ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
+                    respond(asyncContext, responded, HttpServletResponse.SC_OK, ow.writeValueAsString(finalResults));
+                } catch (ComplianceException | IOException | RuntimeException e) {
+                    respondError(asyncContext, responded, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                            e.getMessage());
                 }
-            }
-            long time = 0;
-            for (TestResult result : results) {
-                time += result.getElapsedTime();
-            }
-            statistics.setTime(time);
+            }, () -> respondError(asyncContext, responded, HttpServletResponse.SC_GATEWAY_TIMEOUT,
+                    "The compliance run timed out"));
+        } catch (RejectedExecutionException e) {
+            ((HttpServletResponse) asyncContext.getResponse()).setHeader("Retry-After", RunExecutor.RETRY_AFTER);
+            respondError(asyncContext, responded, RunExecutor.SC_TOO_MANY_REQUESTS,
+                    "Too many compliance runs are in progress");
+        }
+    }
 
-            finalResults = new Result(statistics, results);
+    /**
+     * Send the error response of a run.
+     *
+     * @param asyncContext Async context of the request.
+     * @param responded    Whether the response is already sent.
+     * @param status       Status code of the response.
+     * @param message      Error message.
+     */
+    private void respondError(AsyncContext asyncContext, AtomicBoolean responded, int status, String message) {
 
-        } catch (Exception e) {
-            new Result(e.getMessage());
+        try {
+            respond(asyncContext, responded, status, new ObjectMapper().writeValueAsString(new Result(message)));
+        } catch (IOException e) {
+            log("Could not send the error response", e);
         }
+    }
 
-        // Generate pdf results sheet
+    /**
+     * Send the response of a run and complete the request, unless a response is already sent.
+     *
+     * @param asyncContext Async context of the request.
+     * @param responded    Whether the response is already sent.
+     * @param status       Status code of the response.
+     * @param json         Json body of the response.
+     */
+    private void respond(AsyncContext asyncContext, AtomicBoolean responded, int status, String json) {
+
+        // A run which times out may still complete later.
+        if (!responded.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            ServletContext context = request.getServletContext();
-            String fullPath = context.getRealPath("/");
-            String savePath = fullPath + "/WEB-INF/SCIM 2.0 Compliance Test Suite - Auto Generated Test Report";
-            String reportURL = PDFGenerator.generatePdfResults(finalResults, savePath);
-            assert finalResults != null;
-            finalResults.setReportLink("file://" + reportURL);
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            response.setStatus(status);
+            response.setContentType(ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
+            // Get the printWriter object from response to write the required json object to the output stream.
+            PrintWriter out = response.getWriter();
+            out.print(json);
         } catch (IOException e) {
-            new Result(e.getMessage());
+            log("Could not send the response", e);
+        } finally {
+            asyncContext.complete();
         }
-
-        response.setContentType(ComplianceConstants.RequestCodeConstants.APPLICATION_JSON);
-        // Get the printWriter object from response to write the required json object to the output stream.
-        PrintWriter out = response.getWriter();
-        // Map java object  to a json.
-        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
-        String json = ow.writeValueAsString(finalResults);
-        // Assuming your json object is **jsonObject**, perform the following, it will return your json object.
-        out.print(json);
     }
 }
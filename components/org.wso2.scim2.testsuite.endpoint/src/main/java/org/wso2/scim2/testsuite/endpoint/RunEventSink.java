@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.endpoint;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.wso2.scim2.testsuite.core.entities.Result;
+import org.wso2.scim2.testsuite.core.entities.Statistics;
+import org.wso2.scim2.testsuite.core.entities.TestResult;
+import org.wso2.scim2.testsuite.core.report.ReportSink;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the progress of a compliance run as server-sent events.
+ * <p>
+ * A result event is added for each test result, followed by a statistics event with the running statistics. A
+ * complete or an error event ends the run. The last events are kept, so a client which connects late or reconnects
+ * receives the events it missed. Result events leave out the wire of the test result, which is only part of the
+ * results of the completed run.
+ */
+public class RunEventSink implements ReportSink {
+
+    // Number of events kept for late clients. A client which falls further behind continues with the oldest one.
+    private static final int MAX_RETAINED_EVENTS = 2000;
+
+    private static final String EVENT_ID_PREFIX = "id: ";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> events = new ArrayList<>();
+    private final Statistics statistics = new Statistics();
+    // Id of the first event in the events list.
+    private int firstEventId;
+    private Result result;
+    private boolean completed;
+    private long completedTime;
+
+    @Override
+    public void start() {
+
+    }
+
+    @Override
+    public synchronized void accept(TestResult testResult) throws IOException {
+
+        switch (testResult.getStatus()) {
+            case TestResult.ERROR:
+                statistics.incFailed();
+                break;
+            case TestResult.SUCCESS:
+                statistics.incSuccess();
+                break;
+            case TestResult.SKIPPED:
+                statistics.incSkipped();
+                break;
+        }
+        statistics.setTime(statistics.getTime() + testResult.getElapsedTime());
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("name", testResult.getName());
+        summary.put("message", testResult.getMessage());
+        summary.put("status", testResult.getStatus());
+        summary.put("statusText", testResult.getStatusText());
+        summary.put("statusLabel", testResult.getStatusLabel());
+        summary.put("elapsedTime", testResult.getElapsedTime());
+        addEvent("result", summary);
+        addEvent("statistics", statistics);
+    }
+
+    @Override
+    public void finish(Statistics statistics) {
+
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    /**
+     * End the run with its results. Has no effect if the run has already ended.
+     *
+     * @param result Results of the run.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public synchronized void complete(Result result) throws IOException {
+
+        if (completed) {
+            return;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("statistics", result == null ? statistics : result.getStatistics());
+        summary.put("errorMessage", result == null ? null : result.getErrorMessage());
+        this.result = result;
+        addEvent("complete", summary);
+        completed = true;
+        completedTime = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    /**
+     * End the run with an error. Has no effect if the run has already ended.
+     *
+     * @param message Error message.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    public synchronized void fail(String message) throws IOException {
+
+        if (completed) {
+            return;
+        }
+        addEvent("error", Collections.singletonMap("errorMessage", message));
+        completed = true;
+        completedTime = System.currentTimeMillis();
+        notifyAll();
+    }
+
+    /**
+     * Wait for the events from the given index on.
+     *
+     * @param from    Id of the first event to return. Events which are no longer kept are left out.
+     * @param timeout Maximum time to wait in milliseconds.
+     * @return Events from the given id, empty if there is no new event within the timeout.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public synchronized List<String> await(int from, long timeout) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + timeout;
+        while (getNextEventId() <= from && !completed) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            wait(remaining);
+        }
+        if (getNextEventId() <= from) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(events.subList(Math.max(from - firstEventId, 0), events.size()));
+    }
+
+    /**
+     * Get the id of an event returned by {@link #await(int, long)}.
+     *
+     * @param event Event in the server-sent events format.
+     * @return Id of the event.
+     */
+    public static int getEventId(String event) {
+
+        return Integer.parseInt(event.substring(EVENT_ID_PREFIX.length(), event.indexOf('\n')));
+    }
+
+    /**
+     * Get the id the next event will have.
+     *
+     * @return Id of the next event.
+     */
+    public synchronized int getNextEventId() {
+
+        return firstEventId + events.size();
+    }
+
+    public synchronized boolean isCompleted() {
+
+        return completed;
+    }
+
+    /**
+     * Get the time the run ended.
+     *
+     * @return Time in milliseconds, 0 if the run has not ended.
+     */
+    public synchronized long getCompletedTime() {
+
+        return completedTime;
+    }
+
+    public synchronized Result getResult() {
+
+        return result;
+    }
+
+    public synchronized Statistics getStatistics() {
+
+        return statistics;
+    }
+
+    /**
+     * Add an event in the server-sent events format. The oldest event is dropped when too many are kept.
+     *
+     * @param name Name of the event.
+     * @param data Object to send as json.
+     * @throws IOException Exception is related to Input and Output operations.
+     */
+    private void addEvent(String name, Object data) throws IOException {
+
+        events.add(EVENT_ID_PREFIX + getNextEventId() + "\nevent: " + name + "\ndata: " +
+                objectMapper.writeValueAsString(data) + "\n\n");
+        if (events.size() > MAX_RETAINED_EVENTS) {
+            events.remove(0);
+            firstEventId++;
+        }
+        notifyAll();
+    }
+}
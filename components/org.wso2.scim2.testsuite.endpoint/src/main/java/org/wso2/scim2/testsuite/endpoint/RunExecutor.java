@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.endpoint;
+
+import org.wso2.scim2.testsuite.core.httpclient.HTTPClient;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+/**
+ * Bounded executor of the compliance runs of the web application.
+ * <p>
+ * A fixed number of runs execute at the same time and a limited number wait in a queue. A run which can not be
+ * queued is rejected, so the servlets can answer with 429 instead of holding a container thread. A run which takes
+ * longer than the run timeout is cancelled by interrupting it. An interrupted run starts no further test, and its
+ * requests in flight end with the timeouts of the HTTP client, since a blocked socket read ignores interrupts. The
+ * limits are read from the context parameters maxConcurrentRuns, runQueueLimit and runTimeoutMinutes.
+ */
+public class RunExecutor implements ServletContextListener {
+
+    public static final int SC_TOO_MANY_REQUESTS = 429;
+
+    // Seconds a rejected client is asked to wait before retrying.
+    public static final String RETRY_AFTER = "30";
+
+    private static final String ATTRIBUTE = RunExecutor.class.getName();
+
+    private static final int DEFAULT_MAX_CONCURRENT_RUNS = 4;
+
+    private static final int DEFAULT_QUEUE_LIMIT = 16;
+
+    private static final int DEFAULT_RUN_TIMEOUT_MINUTES = 30;
+
+    private static final String RUNS_DIRECTORY = "/WEB-INF/runs";
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService timer;
+    private long runTimeout;
+
+    /**
+     * Get the run executor of a web application.
+     *
+     * @param context Servlet context of the web application.
+     * @return Run executor.
+     */
+    public static RunExecutor get(ServletContext context) {
+
+        return (RunExecutor) context.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Get the directory under which the runs write their files. It is read from the context parameter
+     * runsDirectory, and never from a request, so a client can not choose where the files are written.
+     *
+     * @param context Servlet context of the web application.
+     * @return Directory of the run files.
+     */
+    public static String getRunsDirectory(ServletContext context) {
+
+        String runsDirectory = context.getInitParameter("runsDirectory");
+        return runsDirectory == null ? context.getRealPath("/") + RUNS_DIRECTORY : runsDirectory.trim();
+    }
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+
+        ServletContext context = event.getServletContext();
+        int maxConcurrentRuns = getParameter(context, "maxConcurrentRuns", DEFAULT_MAX_CONCURRENT_RUNS);
+        int queueLimit = getParameter(context, "runQueueLimit", DEFAULT_QUEUE_LIMIT);
+        runTimeout = TimeUnit.MINUTES.toMillis(getParameter(context, "runTimeoutMinutes",
+                DEFAULT_RUN_TIMEOUT_MINUTES));
+        AtomicInteger runNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxConcurrentRuns, maxConcurrentRuns, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueLimit), runnable -> {
+            Thread thread = new Thread(runnable, "scim2-compliance-run-" + runNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scim2-compliance-run-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        context.setAttribute(ATTRIBUTE, this);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+
+        event.getServletContext().removeAttribute(ATTRIBUTE);
+        executor.shutdownNow();
+        timer.shutdownNow();
+        // The http clients are shared by the runs, hence they are closed with the application.
+        HTTPClient.shutdown();
+    }
+
+    /**
+     * Queue a run.
+     *
+     * @param run       Run to execute.
+     * @param onTimeout Called if the run is cancelled because it took longer than the run timeout.
+     * @throws RejectedExecutionException If the queue is full.
+     */
+    public void submit(Runnable run, Runnable onTimeout) {
+
+        FutureTask<Void> future = new FutureTask<>(run, null);
+        executor.execute(() -> {
+            // The timeout starts when the run starts, not when it is queued.
+            ScheduledFuture<?> timeout = timer.schedule(() -> {
+                if (future.cancel(true)) {
+                    onTimeout.run();
+                }
+            }, runTimeout, TimeUnit.MILLISECONDS);
+            try {
+                future.run();
+            } finally {
+                timeout.cancel(false);
+            }
+        });
+    }
+
+    private static int getParameter(ServletContext context, String name, int defaultValue) {
+
+        String value = context.getInitParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
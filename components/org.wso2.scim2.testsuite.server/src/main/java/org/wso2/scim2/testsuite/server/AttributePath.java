@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Path of an attribute, as used by filters, PATCH operations, sorting and attribute selection, e.g. userName,
+ * name.givenName, emails[type eq "work"].value or urn:ietf:params:scim:schemas:extension:enterprise:2.0:User:manager.
+ */
+final class AttributePath {
+
+    // Schema URN of an extension attribute, or null for a core attribute.
+    private final String schema;
+
+    // Attribute name, or null if the path is the extension itself.
+    private final String attribute;
+
+    // Sub-attribute name, or null.
+    private final String subAttribute;
+
+    // Filter of the values of a multi-valued attribute, or null.
+    private final Filter valueFilter;
+
+    private AttributePath(String schema, String attribute, String subAttribute, Filter valueFilter) {
+
+        this.schema = schema;
+        this.attribute = attribute;
+        this.subAttribute = subAttribute;
+        this.valueFilter = valueFilter;
+    }
+
+    /**
+     * Parse a path.
+     *
+     * @param path Attribute path.
+     * @return Parsed path.
+     * @throws ScimException If the path is malformed.
+     */
+    static AttributePath parse(String path) throws ScimException {
+
+        String text = path == null ? "" : path.trim();
+        if (text.isEmpty()) {
+            throw invalidPath(path);
+        }
+        // The value filter may contain colons and dots, hence the schema and names are read before it.
+        int open = text.indexOf('[');
+        String head = open < 0 ? text : text.substring(0, open);
+        String tail = "";
+        Filter valueFilter = null;
+        if (open >= 0) {
+            int close = findClosingBracket(text, open);
+            if (close < 0) {
+                throw invalidPath(path);
+            }
+            valueFilter = Filter.parse(text.substring(open + 1, close));
+            tail = text.substring(close + 1);
+            if (!tail.isEmpty() && (tail.charAt(0) != '.' || tail.length() == 1)) {
+                throw invalidPath(path);
+            }
+        }
+
+        String schema = null;
+        String name = head;
+        if (head.regionMatches(true, 0, "urn:", 0, 4)) {
+            String known = null;
+            for (String uri : ServerConstants.SCHEMA_URIS) {
+                if (head.equalsIgnoreCase(uri) || head.regionMatches(true, 0, uri + ":", 0, uri.length() + 1)) {
+                    known = uri;
+                    break;
+                }
+            }
+            int separator = known != null ? known.length() : head.lastIndexOf(':');
+            schema = head.substring(0, separator);
+            name = separator < head.length() ? head.substring(separator + 1) : null;
+            if (known != null && !known.equals(ServerConstants.ENTERPRISE_USER_SCHEMA) &&
+                    !known.equals(ServerConstants.ROLE_SCHEMA)) {
+                // Core attributes may be prefixed with the core schema.
+                schema = null;
+            }
+        }
+        String subAttribute = null;
+        if (name != null) {
+            int dot = name.indexOf('.');
+            if (dot >= 0) {
+                if (valueFilter != null) {
+                    throw invalidPath(path);
+                }
+                subAttribute = name.substring(dot + 1);
+                name = name.substring(0, dot);
+            } else if (!tail.isEmpty()) {
+                subAttribute = tail.substring(1);
+            }
+            if (name.isEmpty() || (subAttribute != null && (subAttribute.isEmpty() || subAttribute.contains(".")))) {
+                throw invalidPath(path);
+            }
+        } else if (valueFilter != null || schema == null) {
+            throw invalidPath(path);
+        }
+        return new AttributePath(schema, name, subAttribute, valueFilter);
+    }
+
+    String getSchema() {
+
+        return schema;
+    }
+
+    String getAttribute() {
+
+        return attribute;
+    }
+
+    String getSubAttribute() {
+
+        return subAttribute;
+    }
+
+    Filter getValueFilter() {
+
+        return valueFilter;
+    }
+
+    /**
+     * Check whether the path is a top level core attribute, e.g. userName.
+     *
+     * @param name Attribute name.
+     * @return True if the path is the attribute.
+     */
+    boolean is(String name) {
+
+        return schema == null && subAttribute == null && valueFilter == null && name.equalsIgnoreCase(attribute);
+    }
+
+    /**
+     * Get the object which holds the attribute: the resource for a core attribute, or the extension object.
+     *
+     * @param resource Resource.
+     * @param create   Whether to add the extension object if it is absent.
+     * @return The container, or null if it is absent.
+     */
+    JSONObject getContainer(JSONObject resource, boolean create) {
+
+        if (schema == null) {
+            return resource;
+        }
+        Object extension = Json.get(resource, schema);
+        if (extension instanceof JSONObject) {
+            return (JSONObject) extension;
+        }
+        if (!create) {
+            return null;
+        }
+        JSONObject container = new JSONObject();
+        Json.put(resource, schema, container);
+        return container;
+    }
+
+    /**
+     * Get the values the path selects in a resource. The values of a multi-valued attribute are returned one by one.
+     *
+     * @param resource Resource.
+     * @return Selected values.
+     */
+    List<Object> getValues(JSONObject resource) {
+
+        List<Object> values = new ArrayList<>();
+        JSONObject container = getContainer(resource, false);
+        if (container == null) {
+            return values;
+        }
+        if (attribute == null) {
+            values.add(container);
+            return values;
+        }
+        Object value = Json.get(container, attribute);
+        if (value instanceof JSONArray) {
+            for (Object element : Json.elements((JSONArray) value)) {
+                boolean selected = valueFilter == null ||
+                        (element instanceof JSONObject && valueFilter.matches((JSONObject) element));
+                if (selected) {
+                    addValue(values, element);
+                }
+            }
+        } else if (value != null && valueFilter == null) {
+            addValue(values, value);
+        }
+        return values;
+    }
+
+    private void addValue(List<Object> values, Object value) {
+
+        if (subAttribute == null) {
+            values.add(value);
+        } else if (value instanceof JSONObject) {
+            Object subValue = Json.get((JSONObject) value, subAttribute);
+            if (subValue instanceof JSONArray) {
+                values.addAll(Json.elements((JSONArray) subValue));
+            } else if (subValue != null) {
+                values.add(subValue);
+            }
+        }
+    }
+
+    private static int findClosingBracket(String text, int open) {
+
+        boolean quoted = false;
+        for (int i = open + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' && text.charAt(i - 1) != '\\') {
+                quoted = !quoted;
+            } else if (c == ']' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ScimException invalidPath(String path) {
+
+        return new ScimException(400, "invalidPath", "The path " + path + " is not a valid attribute path");
+    }
+
+    @Override
+    public String toString() {
+
+        return (schema == null ? "" : schema + ":") + (attribute == null ? "" : attribute) +
+                (subAttribute == null ? "" : "." + subAttribute);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Processes the operations of a bulk request, as defined in RFC 7644 section 3.7.
+ * <p>
+ * The operations run in the order of the request. A bulkId reference, e.g. "bulkId:qwerty", is replaced by the id
+ * of the resource an earlier operation created with that bulkId. The processing stops once failOnErrors operations
+ * failed; a failOnErrors of zero or less is read as no limit.
+ */
+final class Bulk {
+
+    private Bulk() {
+
+    }
+
+    /**
+     * Process a bulk request.
+     *
+     * @param repository Repository the operations run against.
+     * @param request    BulkRequest message.
+     * @param baseUrl    Base URL of the server.
+     * @return BulkResponse message.
+     * @throws ScimException If the request as a whole is malformed.
+     */
+    static JSONObject process(InMemoryRepository repository, JSONObject request, String baseUrl)
+            throws ScimException {
+
+        Object operations = Json.get(request, "Operations");
+        if (!(operations instanceof JSONArray)) {
+            throw new ScimException(400, "invalidSyntax", "The request has no operations");
+        }
+        JSONArray operationArray = (JSONArray) operations;
+        if (operationArray.length() > ServerConstants.MAX_BULK_OPERATIONS) {
+            throw new ScimException(413, null, "The request has more than " +
+                    ServerConstants.MAX_BULK_OPERATIONS + " operations");
+        }
+        for (Object operation : Json.elements(operationArray)) {
+            validate(operation);
+        }
+        Object failOnErrors = Json.get(request, "failOnErrors");
+        int maxErrors = failOnErrors instanceof Number ? ((Number) failOnErrors).intValue() : 0;
+
+        Map<String, String> bulkIds = new HashMap<>();
+        JSONArray responses = new JSONArray();
+        int errors = 0;
+        for (Object operation : Json.elements(operationArray)) {
+            JSONObject response = process(repository, (JSONObject) operation, bulkIds, baseUrl);
+            responses.put(response);
+            if (response.getJSONObject("status").getInt("code") >= 400 && ++errors == maxErrors) {
+                break;
+            }
+        }
+        JSONObject bulkResponse = new JSONObject();
+        bulkResponse.put("schemas", new JSONArray().put(ServerConstants.BULK_RESPONSE_SCHEMA));
+        bulkResponse.put("Operations", responses);
+        return bulkResponse;
+    }
+
+    private static void validate(Object operation) throws ScimException {
+
+        if (!(operation instanceof JSONObject)) {
+            throw new ScimException(400, "invalidSyntax", "An operation is not an object");
+        }
+        JSONObject bulkOperation = (JSONObject) operation;
+        Object method = Json.get(bulkOperation, "method");
+        if (!(method instanceof String)) {
+            throw new ScimException(400, "invalidSyntax", "Required attribute method is missing in the request");
+        }
+        if (!(Json.get(bulkOperation, "path") instanceof String)) {
+            throw new ScimException(400, "invalidSyntax", "Required attribute path is missing in the request");
+        }
+        String upperMethod = ((String) method).toUpperCase(Locale.ROOT);
+        if ("POST".equals(upperMethod) && !(Json.get(bulkOperation, "bulkId") instanceof String)) {
+            throw new ScimException(400, "invalidSyntax", "Required attribute bulkId is missing in the request");
+        }
+        if (!"DELETE".equals(upperMethod) && !(Json.get(bulkOperation, "data") instanceof JSONObject)) {
+            throw new ScimException(400, "invalidSyntax", "Required attribute data is missing in the request");
+        }
+    }
+
+    private static JSONObject process(InMemoryRepository repository, JSONObject operation,
+                                      Map<String, String> bulkIds, String baseUrl) {
+
+        String method = ((String) Json.get(operation, "method")).toUpperCase(Locale.ROOT);
+        Object bulkId = Json.get(operation, "bulkId");
+        JSONObject response = new JSONObject();
+        response.put("method", method);
+        if (bulkId != null) {
+            response.put("bulkId", bulkId);
+        }
+        try {
+            String path = (String) resolve(Json.get(operation, "path"), bulkIds);
+            int separator = path.indexOf('/', 1);
+            String endpoint = separator < 0 ? path : path.substring(0, separator);
+            String id = separator < 0 ? null : path.substring(separator + 1);
+            if ("POST".equals(method) == (id != null)) {
+                throw new ScimException(400, "invalidPath", "The path " + path + " does not fit the method " +
+                        method);
+            }
+            JSONObject data = (JSONObject) resolve(Json.get(operation, "data"), bulkIds);
+            JSONObject resource;
+            int status;
+            switch (method) {
+                case "POST":
+                    resource = repository.create(endpoint, data, baseUrl);
+                    bulkIds.put(String.valueOf(bulkId), resource.getString("id"));
+                    status = 201;
+                    break;
+                case "PUT":
+                    resource = repository.replace(endpoint, id, data, baseUrl);
+                    status = 200;
+                    break;
+                case "PATCH":
+                    resource = repository.patch(endpoint, id, data, baseUrl);
+                    status = 200;
+                    break;
+                case "DELETE":
+                    repository.delete(endpoint, id);
+                    resource = null;
+                    status = 204;
+                    break;
+                default:
+                    throw new ScimException(400, "invalidSyntax", "Unknown method " + method);
+            }
+            response.put("location", resource == null ? baseUrl + path :
+                    resource.getJSONObject("meta").getString("location"));
+            response.put("status", new JSONObject().put("code", status));
+        } catch (ScimException e) {
+            response.put("status", new JSONObject().put("code", e.getStatus()));
+            response.put("response", e.toJson());
+        }
+        return response;
+    }
+
+    /**
+     * Copy a value, with the bulkId references of the earlier operations replaced by the resource ids.
+     */
+    private static Object resolve(Object value, Map<String, String> bulkIds) {
+
+        if (value instanceof String) {
+            String text = (String) value;
+            int index = text.indexOf(ServerConstants.BULK_ID_PREFIX);
+            if (index >= 0) {
+                String id = bulkIds.get(text.substring(index + ServerConstants.BULK_ID_PREFIX.length()));
+                return id == null ? text : text.substring(0, index) + id;
+            }
+            return text;
+        }
+        if (value instanceof JSONObject) {
+            JSONObject copy = new JSONObject();
+            for (String key : Json.keys((JSONObject) value)) {
+                copy.put(key, resolve(((JSONObject) value).opt(key), bulkIds));
+            }
+            return copy;
+        }
+        if (value instanceof JSONArray) {
+            JSONArray copy = new JSONArray();
+            for (Object element : Json.elements((JSONArray) value)) {
+                copy.put(resolve(element, bulkIds));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter of resources, as given in the filter parameter of a search or in the brackets of an attribute path, e.g.
+ * {@code userName sw "login" and (emails[type eq "work"] or not (active eq false))}.
+ * <p>
+ * Operators and attribute names are case insensitive. String comparisons ignore the case, since the attributes of
+ * the resources kept by the server are not case exact.
+ */
+abstract class Filter {
+
+    /**
+     * Check whether a resource, or a value of a multi-valued attribute, matches the filter.
+     *
+     * @param resource Resource or value.
+     * @return True if it matches.
+     */
+    abstract boolean matches(JSONObject resource);
+
+    /**
+     * Get the value a top level attribute must be equal to, so a search can use the index of the attribute.
+     *
+     * @param name Attribute name.
+     * @return The value, or null if the filter is not an equality on the attribute.
+     */
+    String getEqualValue(String name) {
+
+        return null;
+    }
+
+    /**
+     * Parse a filter.
+     *
+     * @param text Filter expression.
+     * @return The filter.
+     * @throws ScimException If the filter is malformed.
+     */
+    static Filter parse(String text) throws ScimException {
+
+        Parser parser = new Parser(text);
+        Filter filter = parser.parseOr();
+        if (parser.peek() != null) {
+            throw parser.invalid("unexpected " + parser.peek());
+        }
+        return filter;
+    }
+
+    /**
+     * Recursive descent parser of the filter grammar of RFC 7644.
+     */
+    private static final class Parser {
+
+        private final String text;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        Parser(String text) throws ScimException {
+
+            this.text = text;
+            tokenize();
+        }
+
+        Filter parseOr() throws ScimException {
+
+            Filter filter = parseAnd();
+            while ("or".equalsIgnoreCase(peek())) {
+                position++;
+                filter = new Or(filter, parseAnd());
+            }
+            return filter;
+        }
+
+        Filter parseAnd() throws ScimException {
+
+            Filter filter = parseUnary();
+            while ("and".equalsIgnoreCase(peek())) {
+                position++;
+                filter = new And(filter, parseUnary());
+            }
+            return filter;
+        }
+
+        Filter parseUnary() throws ScimException {
+
+            String token = next();
+            if ("not".equalsIgnoreCase(token) && "(".equals(peek())) {
+                position++;
+                Filter filter = parseOr();
+                expect(")");
+                return new Not(filter);
+            }
+            if ("(".equals(token)) {
+                Filter filter = parseOr();
+                expect(")");
+                return filter;
+            }
+            if (")".equals(token)) {
+                throw invalid("unexpected )");
+            }
+            AttributePath path = AttributePath.parse(token);
+            String operator = peek();
+            if (operator == null || ")".equals(operator) || "and".equalsIgnoreCase(operator) ||
+                    "or".equalsIgnoreCase(operator)) {
+                if (path.getValueFilter() == null) {
+                    throw invalid("missing operator after " + token);
+                }
+                // A value path alone matches if any value matches its filter.
+                return new Present(path);
+            }
+            position++;
+            operator = operator.toLowerCase(Locale.ROOT);
+            if ("pr".equals(operator)) {
+                return new Present(path);
+            }
+            switch (operator) {
+                case "eq":
+                case "ne":
+                case "co":
+                case "sw":
+                case "ew":
+                case "gt":
+                case "ge":
+                case "lt":
+                case "le":
+                    return new Comparison(path, operator, parseValue(next()));
+                default:
+                    throw invalid("unknown operator " + operator);
+            }
+        }
+
+        private Object parseValue(String token) throws ScimException {
+
+            if (token == null || "(".equals(token) || ")".equals(token)) {
+                throw invalid("missing value");
+            }
+            if (token.startsWith("\"")) {
+                return token.substring(1);
+            }
+            switch (token.toLowerCase(Locale.ROOT)) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    return null;
+                default:
+                    try {
+                        return new BigDecimal(token);
+                    } catch (NumberFormatException e) {
+                        // Unquoted strings are accepted, as many clients send them.
+                        return token;
+                    }
+            }
+        }
+
+        String peek() {
+
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private String next() throws ScimException {
+
+            if (position >= tokens.size()) {
+                throw invalid("unexpected end");
+            }
+            return tokens.get(position++);
+        }
+
+        private void expect(String token) throws ScimException {
+
+            if (!token.equals(peek())) {
+                throw invalid("missing " + token);
+            }
+            position++;
+        }
+
+        /**
+         * Split the filter into words, parentheses and quoted strings. A quoted string is kept as a token starting
+         * with a quote, without the closing quote and with its escapes resolved. Attribute paths keep their value
+         * filter in brackets.
+         *
+         * @throws ScimException If a string or a bracket is not closed.
+         */
+        private void tokenize() throws ScimException {
+
+            if (text == null) {
+                throw invalid("missing filter");
+            }
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                } else if (c == '"') {
+                    StringBuilder value = new StringBuilder("\"");
+                    i++;
+                    while (i < text.length() && text.charAt(i) != '"') {
+                        if (text.charAt(i) == '\\' && i + 1 < text.length()) {
+                            i++;
+                        }
+                        value.append(text.charAt(i++));
+                    }
+                    if (i >= text.length()) {
+                        throw invalid("unterminated string");
+                    }
+                    i++;
+                    tokens.add(value.toString());
+                } else {
+                    int start = i;
+                    int depth = 0;
+                    boolean quoted = false;
+                    while (i < text.length()) {
+                        char d = text.charAt(i);
+                        if (quoted) {
+                            if (d == '"' && text.charAt(i - 1) != '\\') {
+                                quoted = false;
+                            }
+                        } else if (d == '"' && depth > 0) {
+                            quoted = true;
+                        } else if (d == '[') {
+                            depth++;
+                        } else if (d == ']') {
+                            depth--;
+                        } else if (depth == 0 && (Character.isWhitespace(d) || d == '(' || d == ')')) {
+                            break;
+                        }
+                        i++;
+                    }
+                    if (depth != 0 || quoted) {
+                        throw invalid("unbalanced brackets");
+                    }
+                    tokens.add(text.substring(start, i));
+                }
+            }
+            if (tokens.isEmpty()) {
+                throw invalid("missing filter");
+            }
+        }
+
+        ScimException invalid(String reason) {
+
+            return new ScimException(400, "invalidFilter", "The filter " + text + " is not valid: " + reason);
+        }
+    }
+
+    private static final class And extends Filter {
+
+        private final Filter left;
+        private final Filter right;
+
+        And(Filter left, Filter right) {
+
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean matches(JSONObject resource) {
+
+            return left.matches(resource) && right.matches(resource);
+        }
+
+        @Override
+        String getEqualValue(String name) {
+
+            String value = left.getEqualValue(name);
+            return value != null ? value : right.getEqualValue(name);
+        }
+    }
+
+    private static final class Or extends Filter {
+
+        private final Filter left;
+        private final Filter right;
+
+        Or(Filter left, Filter right) {
+
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean matches(JSONObject resource) {
+
+            return left.matches(resource) || right.matches(resource);
+        }
+    }
+
+    private static final class Not extends Filter {
+
+        private final Filter filter;
+
+        Not(Filter filter) {
+
+            this.filter = filter;
+        }
+
+        @Override
+        boolean matches(JSONObject resource) {
+
+            return !filter.matches(resource);
+        }
+    }
+
+    private static final class Present extends Filter {
+
+        private final AttributePath path;
+
+        Present(AttributePath path) {
+
+            this.path = path;
+        }
+
+        @Override
+        boolean matches(JSONObject resource) {
+
+            for (Object value : path.getValues(resource)) {
+                if (!(value instanceof String) || !((String) value).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Comparison extends Filter {
+
+        private final AttributePath path;
+        private final String operator;
+        private final Object value;
+
+        Comparison(AttributePath path, String operator, Object value) {
+
+            this.path = path;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        @Override
+        boolean matches(JSONObject resource) {
+
+            List<Object> values = path.getValues(resource);
+            if ("ne".equals(operator)) {
+                for (Object attributeValue : values) {
+                    if (compare(attributeValue, "eq")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (value == null) {
+                // Equal to null means the attribute is absent.
+                return "eq".equals(operator) && values.isEmpty();
+            }
+            for (Object attributeValue : values) {
+                if (compare(attributeValue, operator)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        String getEqualValue(String name) {
+
+            return "eq".equals(operator) && value instanceof String && path.is(name) ? (String) value : null;
+        }
+
+        private boolean compare(Object attributeValue, String compareOperator) {
+
+            if (value == null || attributeValue == null) {
+                return false;
+            }
+            if (value instanceof Boolean || attributeValue instanceof Boolean) {
+                return "eq".equals(compareOperator) &&
+                        String.valueOf(value).equalsIgnoreCase(String.valueOf(attributeValue));
+            }
+            if (value instanceof BigDecimal && attributeValue instanceof Number) {
+                int order = new BigDecimal(attributeValue.toString()).compareTo((BigDecimal) value);
+                return compareOrder(order, compareOperator);
+            }
+            String actual = String.valueOf(attributeValue).toLowerCase(Locale.ROOT);
+            String expected = String.valueOf(value).toLowerCase(Locale.ROOT);
+            switch (compareOperator) {
+                case "co":
+                    return actual.contains(expected);
+                case "sw":
+                    return actual.startsWith(expected);
+                case "ew":
+                    return actual.endsWith(expected);
+                default:
+                    return compareOrder(actual.compareTo(expected), compareOperator);
+            }
+        }
+
+        private static boolean compareOrder(int order, String compareOperator) {
+
+            switch (compareOperator) {
+                case "eq":
+                    return order == 0;
+                case "gt":
+                    return order > 0;
+                case "ge":
+                    return order >= 0;
+                case "lt":
+                    return order < 0;
+                case "le":
+                    return order <= 0;
+                default:
+                    return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory users, groups and roles of the embedded server.
+ * <p>
+ * Ids are derived from a sequence, so a server which receives the same requests creates the same ids. The groups
+ * of a user are not stored but computed from the members of the groups when the user is rendered.
+ */
+final class InMemoryRepository {
+
+    private final ResourceStore users = new ResourceStore("userName");
+    private final ResourceStore groups = new ResourceStore("displayName");
+    private final ResourceStore roles = new ResourceStore("displayName");
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Create a resource.
+     *
+     * @param endpoint Endpoint of the resource type, e.g. /Users.
+     * @param body     Resource sent by the client.
+     * @param baseUrl  Base URL of the server, for the resource locations.
+     * @return The created resource.
+     * @throws ScimException If the resource is invalid or conflicts with an existing one.
+     */
+    JSONObject create(String endpoint, JSONObject body, String baseUrl) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        lock.writeLock().lock();
+        try {
+            JSONObject resource = prepare(endpoint, body);
+            String id = UUID.nameUUIDFromBytes(("scim2-" + sequence.incrementAndGet())
+                    .getBytes(StandardCharsets.UTF_8)).toString();
+            String now = Instant.now().toString();
+            JSONObject meta = new JSONObject();
+            meta.put("resourceType", getResourceType(endpoint));
+            meta.put("created", now);
+            meta.put("lastModified", now);
+            resource.put("id", id);
+            resource.put("meta", meta);
+            store.put(id, resource);
+            return render(endpoint, resource, baseUrl);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get a resource.
+     *
+     * @param endpoint      Endpoint of the resource type.
+     * @param id            Resource id.
+     * @param searchRequest Attributes to return.
+     * @param baseUrl       Base URL of the server.
+     * @return The resource.
+     * @throws ScimException If the resource does not exist.
+     */
+    JSONObject get(String endpoint, String id, SearchRequest searchRequest, String baseUrl) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        lock.readLock().lock();
+        try {
+            return searchRequest.project(render(endpoint, getExisting(store, id), baseUrl));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace a resource.
+     *
+     * @param endpoint Endpoint of the resource type.
+     * @param id       Resource id.
+     * @param body     New resource sent by the client.
+     * @param baseUrl  Base URL of the server.
+     * @return The replaced resource.
+     * @throws ScimException If the resource does not exist, or the new resource is invalid.
+     */
+    JSONObject replace(String endpoint, String id, JSONObject body, String baseUrl) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        lock.writeLock().lock();
+        try {
+            JSONObject existing = getExisting(store, id);
+            return store(endpoint, store, existing, prepare(endpoint, body), baseUrl);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a PATCH request to a resource.
+     *
+     * @param endpoint Endpoint of the resource type.
+     * @param id       Resource id.
+     * @param body     PatchOp message.
+     * @param baseUrl  Base URL of the server.
+     * @return The patched resource.
+     * @throws ScimException If the resource does not exist, or an operation fails.
+     */
+    JSONObject patch(String endpoint, String id, JSONObject body, String baseUrl) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        lock.writeLock().lock();
+        try {
+            JSONObject existing = getExisting(store, id);
+            JSONObject resource = Json.copy(existing);
+            Patch.apply(resource, body);
+            return store(endpoint, store, existing, prepare(endpoint, resource), baseUrl);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete a resource, and remove it from the groups and roles it belongs to.
+     *
+     * @param endpoint Endpoint of the resource type.
+     * @param id       Resource id.
+     * @throws ScimException If the resource does not exist.
+     */
+    void delete(String endpoint, String id) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        lock.writeLock().lock();
+        try {
+            if (store.remove(id) == null) {
+                throw notFound(id);
+            }
+            for (JSONObject group : groups.getAll()) {
+                removeReference(group, "members", id);
+            }
+            for (JSONObject role : roles.getAll()) {
+                removeReference(role, "users", id);
+                removeReference(role, "groups", id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * List the resources of a type.
+     *
+     * @param endpoint      Endpoint of the resource type.
+     * @param searchRequest Filter, sorting, paging and attributes of the query.
+     * @param baseUrl       Base URL of the server.
+     * @return ListResponse message.
+     * @throws ScimException If the endpoint is unknown.
+     */
+    JSONObject list(String endpoint, SearchRequest searchRequest, String baseUrl) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        List<JSONObject> resources = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (JSONObject resource : store.search(searchRequest.getFilter())) {
+                resources.add(render(endpoint, resource, baseUrl));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        searchRequest.sort(resources);
+        int from = Math.min(resources.size(), searchRequest.getStartIndex() - 1);
+        int to = Math.min(resources.size(), from + searchRequest.getCount());
+        JSONArray page = new JSONArray();
+        for (JSONObject resource : resources.subList(from, to)) {
+            page.put(searchRequest.project(resource));
+        }
+        JSONObject listResponse = new JSONObject();
+        listResponse.put("schemas", new JSONArray().put(ServerConstants.LIST_RESPONSE_SCHEMA));
+        listResponse.put("totalResults", resources.size());
+        listResponse.put("startIndex", searchRequest.getStartIndex());
+        listResponse.put("itemsPerPage", page.length());
+        listResponse.put("Resources", page);
+        return listResponse;
+    }
+
+    /**
+     * Check whether a resource exists.
+     *
+     * @param endpoint Endpoint of the resource type.
+     * @param id       Resource id.
+     * @return True if the resource exists.
+     * @throws ScimException If the endpoint is unknown.
+     */
+    boolean exists(String endpoint, String id) throws ScimException {
+
+        ResourceStore store = getStore(endpoint);
+        lock.readLock().lock();
+        try {
+            return store.get(id) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private JSONObject store(String endpoint, ResourceStore store, JSONObject existing, JSONObject resource,
+                             String baseUrl) throws ScimException {
+
+        String id = (String) existing.get("id");
+        JSONObject meta = Json.copy(existing.getJSONObject("meta"));
+        meta.put("lastModified", Instant.now().toString());
+        resource.put("id", id);
+        resource.put("meta", meta);
+        store.put(id, resource);
+        return render(endpoint, resource, baseUrl);
+    }
+
+    /**
+     * Copy the resource sent by a client without the attributes the server maintains, and check its references.
+     */
+    private JSONObject prepare(String endpoint, JSONObject body) throws ScimException {
+
+        JSONObject resource = Json.copy(body);
+        Json.remove(resource, "id");
+        Json.remove(resource, "meta");
+        if (ServerConstants.USERS_ENDPOINT.equals(endpoint)) {
+            Json.remove(resource, "groups");
+        }
+        Object schemas = Json.get(resource, "schemas");
+        if (!(schemas instanceof JSONArray) || ((JSONArray) schemas).length() == 0) {
+            resource.put("schemas", new JSONArray().put(getSchema(endpoint)));
+        }
+        switch (endpoint) {
+            case ServerConstants.GROUPS_ENDPOINT:
+                checkReferences(resource, "members", true, true);
+                break;
+            case ServerConstants.ROLES_ENDPOINT:
+                checkReferences(resource, "users", true, false);
+                checkReferences(resource, "groups", false, true);
+                break;
+            default:
+                break;
+        }
+        return resource;
+    }
+
+    private void checkReferences(JSONObject resource, String attribute, boolean toUsers, boolean toGroups)
+            throws ScimException {
+
+        Object references = Json.get(resource, attribute);
+        if (references == null) {
+            return;
+        }
+        if (!(references instanceof JSONArray)) {
+            throw new ScimException(400, "invalidSyntax", "The attribute " + attribute + " must be multi-valued");
+        }
+        for (Object reference : Json.elements((JSONArray) references)) {
+            Object value = reference instanceof JSONObject ? Json.get((JSONObject) reference, "value") : null;
+            boolean found = value instanceof String && ((toUsers && users.get((String) value) != null) ||
+                    (toGroups && groups.get((String) value) != null));
+            if (!found) {
+                throw new ScimException(400, "invalidValue", "The " + attribute + " value " + value +
+                        " does not refer to an existing resource");
+            }
+        }
+    }
+
+    /**
+     * Copy a stored resource into its representation: without password, with the groups of a user and with the
+     * display name and location of the references.
+     */
+    private JSONObject render(String endpoint, JSONObject stored, String baseUrl) {
+
+        JSONObject resource = Json.copy(stored);
+        String id = resource.getString("id");
+        Json.remove(resource, "password");
+        resource.getJSONObject("meta").put("location", baseUrl + endpoint + "/" + id);
+        switch (endpoint) {
+            case ServerConstants.USERS_ENDPOINT:
+                JSONArray userGroups = new JSONArray();
+                for (JSONObject group : groups.getAll()) {
+                    if (hasReference(group, "members", id)) {
+                        userGroups.put(new JSONObject()
+                                .put("value", group.getString("id"))
+                                .put("display", Json.get(group, "displayName"))
+                                .put("$ref", baseUrl + ServerConstants.GROUPS_ENDPOINT + "/" + group.getString("id")));
+                    }
+                }
+                if (userGroups.length() > 0) {
+                    resource.put("groups", userGroups);
+                }
+                break;
+            case ServerConstants.GROUPS_ENDPOINT:
+                resolveReferences(resource, "members", baseUrl);
+                break;
+            case ServerConstants.ROLES_ENDPOINT:
+                resolveReferences(resource, "users", baseUrl);
+                resolveReferences(resource, "groups", baseUrl);
+                break;
+            default:
+                break;
+        }
+        return resource;
+    }
+
+    private void resolveReferences(JSONObject resource, String attribute, String baseUrl) {
+
+        Object references = Json.get(resource, attribute);
+        if (!(references instanceof JSONArray)) {
+            return;
+        }
+        for (Object reference : Json.elements((JSONArray) references)) {
+            JSONObject value = (JSONObject) reference;
+            String id = String.valueOf(Json.get(value, "value"));
+            JSONObject user = users.get(id);
+            JSONObject target = user != null ? user : groups.get(id);
+            if (target == null) {
+                continue;
+            }
+            Json.put(value, "display", Json.get(target, user != null ? "userName" : "displayName"));
+            Json.put(value, "$ref", baseUrl + (user != null ? ServerConstants.USERS_ENDPOINT :
+                    ServerConstants.GROUPS_ENDPOINT) + "/" + id);
+            if (user == null) {
+                Json.put(value, "type", "Group");
+            }
+        }
+    }
+
+    private static boolean hasReference(JSONObject resource, String attribute, String id) {
+
+        Object references = Json.get(resource, attribute);
+        if (references instanceof JSONArray) {
+            for (Object reference : Json.elements((JSONArray) references)) {
+                if (reference instanceof JSONObject && id.equals(Json.get((JSONObject) reference, "value"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void removeReference(JSONObject resource, String attribute, String id) {
+
+        Object references = Json.get(resource, attribute);
+        if (references instanceof JSONArray) {
+            JSONArray array = (JSONArray) references;
+            for (int i = array.length() - 1; i >= 0; i--) {
+                Object reference = array.opt(i);
+                if (reference instanceof JSONObject && id.equals(Json.get((JSONObject) reference, "value"))) {
+                    array.remove(i);
+                }
+            }
+        }
+    }
+
+    private ResourceStore getStore(String endpoint) throws ScimException {
+
+        switch (endpoint) {
+            case ServerConstants.USERS_ENDPOINT:
+                return users;
+            case ServerConstants.GROUPS_ENDPOINT:
+                return groups;
+            case ServerConstants.ROLES_ENDPOINT:
+                return roles;
+            default:
+                throw new ScimException(404, null, "No resource type is served at " + endpoint);
+        }
+    }
+
+    private static String getSchema(String endpoint) {
+
+        switch (endpoint) {
+            case ServerConstants.USERS_ENDPOINT:
+                return ServerConstants.USER_SCHEMA;
+            case ServerConstants.GROUPS_ENDPOINT:
+                return ServerConstants.GROUP_SCHEMA;
+            default:
+                return ServerConstants.ROLE_SCHEMA;
+        }
+    }
+
+    private static String getResourceType(String endpoint) {
+
+        switch (endpoint) {
+            case ServerConstants.USERS_ENDPOINT:
+                return "User";
+            case ServerConstants.GROUPS_ENDPOINT:
+                return "Group";
+            default:
+                return "Role";
+        }
+    }
+
+    private static JSONObject getExisting(ResourceStore store, String id) throws ScimException {
+
+        JSONObject resource = store.get(id);
+        if (resource == null) {
+            throw notFound(id);
+        }
+        return resource;
+    }
+
+    private static ScimException notFound(String id) {
+
+        return new ScimException(404, null, "Resource " + id + " not found");
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Helpers for the JSON representation of the resources. Attribute names are case insensitive in SCIM, hence they
+ * are looked up ignoring the case.
+ */
+final class Json {
+
+    private Json() {
+
+    }
+
+    /**
+     * Get the key of an attribute of an object.
+     *
+     * @param object JSON object.
+     * @param name   Attribute name in any case.
+     * @return The key as present in the object, or null.
+     */
+    static String key(JSONObject object, String name) {
+
+        if (object.has(name)) {
+            return name;
+        }
+        for (String key : keys(object)) {
+            if (key.equalsIgnoreCase(name)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get an attribute of an object.
+     *
+     * @param object JSON object.
+     * @param name   Attribute name in any case.
+     * @return The value, or null if the attribute is absent or null.
+     */
+    static Object get(JSONObject object, String name) {
+
+        String key = key(object, name);
+        Object value = key == null ? null : object.opt(key);
+        return value == JSONObject.NULL ? null : value;
+    }
+
+    /**
+     * Remove an attribute of an object.
+     *
+     * @param object JSON object.
+     * @param name   Attribute name in any case.
+     * @return The removed value, or null.
+     */
+    static Object remove(JSONObject object, String name) {
+
+        String key = key(object, name);
+        return key == null ? null : object.remove(key);
+    }
+
+    /**
+     * Set an attribute of an object, replacing the attribute of the same name in any case.
+     *
+     * @param object JSON object.
+     * @param name   Attribute name.
+     * @param value  Value of the attribute.
+     */
+    static void put(JSONObject object, String name, Object value) {
+
+        String key = key(object, name);
+        object.put(key == null ? name : key, value);
+    }
+
+    static List<String> keys(JSONObject object) {
+
+        List<String> keys = new ArrayList<>();
+        Iterator<?> iterator = object.keys();
+        while (iterator.hasNext()) {
+            keys.add((String) iterator.next());
+        }
+        return keys;
+    }
+
+    static List<Object> elements(JSONArray array) {
+
+        List<Object> elements = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            elements.add(array.opt(i));
+        }
+        return elements;
+    }
+
+    /**
+     * Copy a value deeply, so the copy can be changed without changing the stored resource.
+     *
+     * @param value JSON value.
+     * @return The copy.
+     */
+    static Object copy(Object value) {
+
+        if (value instanceof JSONObject) {
+            return copy((JSONObject) value);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            JSONArray copy = new JSONArray();
+            for (int i = 0; i < array.length(); i++) {
+                copy.put(copy(array.opt(i)));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    static JSONObject copy(JSONObject object) {
+
+        JSONObject copy = new JSONObject();
+        for (String key : keys(object)) {
+            copy.put(key, copy(object.opt(key)));
+        }
+        return copy;
+    }
+}
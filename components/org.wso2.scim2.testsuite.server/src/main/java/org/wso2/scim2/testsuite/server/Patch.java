@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Applies the operations of a PATCH request to a resource, as defined in RFC 7644 section 3.5.2.
+ */
+final class Patch {
+
+    private Patch() {
+
+    }
+
+    /**
+     * Apply the operations of a PatchOp message to a copy of a resource.
+     *
+     * @param resource Copy of the resource, changed in place.
+     * @param request  PatchOp message.
+     * @throws ScimException If an operation is malformed or has no target.
+     */
+    static void apply(JSONObject resource, JSONObject request) throws ScimException {
+
+        Object operations = Json.get(request, "Operations");
+        if (!(operations instanceof JSONArray) || ((JSONArray) operations).length() == 0) {
+            throw new ScimException(400, "invalidSyntax", "The request has no operations");
+        }
+        for (Object operation : Json.elements((JSONArray) operations)) {
+            if (!(operation instanceof JSONObject)) {
+                throw new ScimException(400, "invalidSyntax", "An operation is not an object");
+            }
+            JSONObject patchOperation = (JSONObject) operation;
+            Object op = Json.get(patchOperation, "op");
+            Object path = Json.get(patchOperation, "path");
+            Object value = Json.get(patchOperation, "value");
+            AttributePath attributePath = path == null ? null : AttributePath.parse(String.valueOf(path));
+            switch (op == null ? "" : String.valueOf(op).toLowerCase(Locale.ROOT)) {
+                case "add":
+                    requireValue(value);
+                    if (attributePath == null) {
+                        merge(resource, value, true);
+                    } else {
+                        add(resource, attributePath, value);
+                    }
+                    break;
+                case "replace":
+                    requireValue(value);
+                    if (attributePath == null) {
+                        merge(resource, value, false);
+                    } else {
+                        replace(resource, attributePath, value);
+                    }
+                    break;
+                case "remove":
+                    if (attributePath == null) {
+                        throw new ScimException(400, "noTarget", "A remove operation must have a path");
+                    }
+                    remove(resource, attributePath, value);
+                    break;
+                default:
+                    throw new ScimException(400, "invalidSyntax", "Unknown operation " + op);
+            }
+        }
+    }
+
+    private static void requireValue(Object value) throws ScimException {
+
+        if (value == null) {
+            throw new ScimException(400, "invalidValue", "The operation has no value");
+        }
+    }
+
+    /**
+     * Add or replace the attributes of an object value, for an operation without path.
+     */
+    private static void merge(JSONObject resource, Object value, boolean add) throws ScimException {
+
+        if (!(value instanceof JSONObject)) {
+            throw new ScimException(400, "invalidValue", "The value of an operation without path must be an object");
+        }
+        JSONObject attributes = (JSONObject) value;
+        for (String key : Json.keys(attributes)) {
+            AttributePath path = AttributePath.parse(key);
+            if (add) {
+                add(resource, path, attributes.opt(key));
+            } else {
+                replace(resource, path, attributes.opt(key));
+            }
+        }
+    }
+
+    private static void add(JSONObject resource, AttributePath path, Object value) throws ScimException {
+
+        if (path.getValueFilter() != null) {
+            throw new ScimException(400, "invalidPath", "An add operation can not have a value filter");
+        }
+        JSONObject container = path.getContainer(resource, true);
+        if (path.getAttribute() == null) {
+            // The path is an extension, whose attributes are added one by one.
+            merge(resource, prefix(path.getSchema(), value), true);
+            return;
+        }
+        if (path.getSubAttribute() != null) {
+            Object parent = Json.get(container, path.getAttribute());
+            if (!(parent instanceof JSONObject)) {
+                parent = new JSONObject();
+                Json.put(container, path.getAttribute(), parent);
+            }
+            Json.put((JSONObject) parent, path.getSubAttribute(), value);
+            return;
+        }
+        Object current = Json.get(container, path.getAttribute());
+        if (current instanceof JSONArray) {
+            JSONArray array = (JSONArray) current;
+            for (Object element : value instanceof JSONArray ? Json.elements((JSONArray) value) :
+                    Collections.singletonList(value)) {
+                if (!contains(array, element)) {
+                    array.put(element);
+                }
+            }
+        } else if (current instanceof JSONObject && value instanceof JSONObject) {
+            for (String key : Json.keys((JSONObject) value)) {
+                Json.put((JSONObject) current, key, ((JSONObject) value).opt(key));
+            }
+        } else {
+            Json.put(container, path.getAttribute(), value);
+        }
+    }
+
+    private static void replace(JSONObject resource, AttributePath path, Object value) throws ScimException {
+
+        JSONObject container = path.getContainer(resource, true);
+        if (path.getAttribute() == null) {
+            merge(resource, prefix(path.getSchema(), value), false);
+            return;
+        }
+        Object current = Json.get(container, path.getAttribute());
+        if (path.getValueFilter() != null) {
+            List<JSONObject> targets = getMatchingValues(current, path);
+            if (targets.isEmpty()) {
+                throw new ScimException(400, "noTarget", "No value matches the path " + path);
+            }
+            for (JSONObject target : targets) {
+                if (path.getSubAttribute() != null) {
+                    Json.put(target, path.getSubAttribute(), value);
+                } else if (value instanceof JSONObject) {
+                    for (String key : Json.keys((JSONObject) value)) {
+                        Json.put(target, key, ((JSONObject) value).opt(key));
+                    }
+                } else {
+                    throw new ScimException(400, "invalidValue", "The value of " + path + " must be an object");
+                }
+            }
+            return;
+        }
+        if (path.getSubAttribute() != null) {
+            if (current instanceof JSONArray) {
+                for (Object element : Json.elements((JSONArray) current)) {
+                    if (element instanceof JSONObject) {
+                        Json.put((JSONObject) element, path.getSubAttribute(), value);
+                    }
+                }
+            } else {
+                if (!(current instanceof JSONObject)) {
+                    current = new JSONObject();
+                    Json.put(container, path.getAttribute(), current);
+                }
+                Json.put((JSONObject) current, path.getSubAttribute(), value);
+            }
+            return;
+        }
+        Json.put(container, path.getAttribute(), value);
+    }
+
+    private static void remove(JSONObject resource, AttributePath path, Object value) throws ScimException {
+
+        JSONObject container = path.getContainer(resource, false);
+        if (container == null) {
+            return;
+        }
+        if (path.getAttribute() == null) {
+            Json.remove(resource, path.getSchema());
+            return;
+        }
+        Object current = Json.get(container, path.getAttribute());
+        if (current instanceof JSONArray && (path.getValueFilter() != null || value instanceof JSONArray)) {
+            JSONArray array = (JSONArray) current;
+            for (int i = array.length() - 1; i >= 0; i--) {
+                Object element = array.opt(i);
+                if (!(element instanceof JSONObject)) {
+                    continue;
+                }
+                boolean selected = path.getValueFilter() != null ?
+                        path.getValueFilter().matches((JSONObject) element) : contains((JSONArray) value, element);
+                if (!selected) {
+                    continue;
+                }
+                if (path.getSubAttribute() != null) {
+                    Json.remove((JSONObject) element, path.getSubAttribute());
+                } else {
+                    array.remove(i);
+                }
+            }
+            if (array.length() == 0) {
+                Json.remove(container, path.getAttribute());
+            }
+            return;
+        }
+        if (path.getSubAttribute() != null) {
+            if (current instanceof JSONObject) {
+                Json.remove((JSONObject) current, path.getSubAttribute());
+            } else if (current instanceof JSONArray) {
+                for (Object element : Json.elements((JSONArray) current)) {
+                    if (element instanceof JSONObject) {
+                        Json.remove((JSONObject) element, path.getSubAttribute());
+                    }
+                }
+            }
+            return;
+        }
+        Json.remove(container, path.getAttribute());
+    }
+
+    private static List<JSONObject> getMatchingValues(Object current, AttributePath path) {
+
+        List<JSONObject> matching = new ArrayList<>();
+        if (current instanceof JSONArray) {
+            for (Object element : Json.elements((JSONArray) current)) {
+                if (element instanceof JSONObject && path.getValueFilter().matches((JSONObject) element)) {
+                    matching.add((JSONObject) element);
+                }
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Check whether a multi-valued attribute has a value. Complex values are the same if they have the same value
+     * sub-attribute, e.g. the same member.
+     */
+    private static boolean contains(JSONArray array, Object element) {
+
+        Object key = element instanceof JSONObject ? Json.get((JSONObject) element, "value") : element;
+        if (key == null) {
+            return false;
+        }
+        for (Object existing : Json.elements(array)) {
+            Object existingKey = existing instanceof JSONObject ? Json.get((JSONObject) existing, "value") : existing;
+            if (key.equals(existingKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prefix the attributes of an extension value with the schema of the extension.
+     */
+    private static JSONObject prefix(String schema, Object value) throws ScimException {
+
+        if (!(value instanceof JSONObject)) {
+            throw new ScimException(400, "invalidValue", "The value of " + schema + " must be an object");
+        }
+        JSONObject prefixed = new JSONObject();
+        for (String key : Json.keys((JSONObject) value)) {
+            prefixed.put(schema + ":" + key, ((JSONObject) value).opt(key));
+        }
+        return prefixed;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resources of one type, in creation order, with an index on the attribute which must be unique, e.g. the user
+ * name of the users. The store is not thread safe; the repository guards it.
+ */
+final class ResourceStore {
+
+    private final String uniqueAttribute;
+    private final Map<String, JSONObject> resources = new LinkedHashMap<>();
+
+    // Lower case value of the unique attribute to resource id.
+    private final Map<String, String> index = new HashMap<>();
+
+    /**
+     * Create a store.
+     *
+     * @param uniqueAttribute Top level attribute whose value is unique, case insensitively.
+     */
+    ResourceStore(String uniqueAttribute) {
+
+        this.uniqueAttribute = uniqueAttribute;
+    }
+
+    String getUniqueAttribute() {
+
+        return uniqueAttribute;
+    }
+
+    /**
+     * Get a stored resource. The resource must not be changed by the caller.
+     *
+     * @param id Resource id.
+     * @return The resource, or null.
+     */
+    JSONObject get(String id) {
+
+        return id == null ? null : resources.get(id);
+    }
+
+    Collection<JSONObject> getAll() {
+
+        return resources.values();
+    }
+
+    /**
+     * Find the resources which match a filter. An equality on the unique attribute is answered from the index.
+     *
+     * @param filter Filter, or null for all the resources.
+     * @return Matching resources, in creation order.
+     */
+    List<JSONObject> search(Filter filter) {
+
+        if (filter == null) {
+            return new ArrayList<>(resources.values());
+        }
+        List<JSONObject> matching = new ArrayList<>();
+        String uniqueValue = filter.getEqualValue(uniqueAttribute);
+        if (uniqueValue != null) {
+            JSONObject resource = resources.get(index.get(uniqueValue.toLowerCase(Locale.ROOT)));
+            if (resource != null && filter.matches(resource)) {
+                matching.add(resource);
+            }
+            return matching;
+        }
+        for (JSONObject resource : resources.values()) {
+            if (filter.matches(resource)) {
+                matching.add(resource);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Add a new resource, or replace the resource of the same id.
+     *
+     * @param id       Resource id.
+     * @param resource Resource.
+     * @throws ScimException If the unique attribute is missing or belongs to another resource.
+     */
+    void put(String id, JSONObject resource) throws ScimException {
+
+        Object value = Json.get(resource, uniqueAttribute);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+            throw new ScimException(400, "invalidValue", "The attribute " + uniqueAttribute + " is required");
+        }
+        String key = ((String) value).toLowerCase(Locale.ROOT);
+        String owner = index.get(key);
+        if (owner != null && !owner.equals(id)) {
+            throw new ScimException(409, "uniqueness", uniqueAttribute + " " + value + " is already taken");
+        }
+        JSONObject previous = resources.put(id, resource);
+        if (previous != null) {
+            index.remove(String.valueOf(Json.get(previous, uniqueAttribute)).toLowerCase(Locale.ROOT));
+        }
+        index.put(key, id);
+    }
+
+    /**
+     * Remove a resource.
+     *
+     * @param id Resource id.
+     * @return The removed resource, or null.
+     */
+    JSONObject remove(String id) {
+
+        JSONObject resource = resources.remove(id);
+        if (resource != null) {
+            index.remove(String.valueOf(Json.get(resource, uniqueAttribute)).toLowerCase(Locale.ROOT));
+        }
+        return resource;
+    }
+}
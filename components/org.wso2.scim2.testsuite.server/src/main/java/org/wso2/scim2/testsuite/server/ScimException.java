@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Error returned to the client as a SCIM error response.
+ */
+public class ScimException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    // The HTTP status code.
+    private final int status;
+
+    // The SCIM detail error keyword, e.g. invalidFilter, or null.
+    private final String scimType;
+
+    public ScimException(int status, String scimType, String detail) {
+
+        super(detail);
+        this.status = status;
+        this.scimType = scimType;
+    }
+
+    public int getStatus() {
+
+        return status;
+    }
+
+    public String getScimType() {
+
+        return scimType;
+    }
+
+    /**
+     * Get the error response of the exception.
+     *
+     * @return SCIM error response.
+     */
+    public JSONObject toJson() {
+
+        JSONObject error = new JSONObject();
+        error.put("schemas", new JSONArray().put(ServerConstants.ERROR_SCHEMA));
+        error.put("status", String.valueOf(status));
+        if (scimType != null) {
+            error.put("scimType", scimType);
+        }
+        error.put("detail", getMessage());
+        return error;
+    }
+}
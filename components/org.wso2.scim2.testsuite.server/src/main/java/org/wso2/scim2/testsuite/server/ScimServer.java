@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+
+import java.io.IOException;
+
+/**
+ * Embedded in-memory SCIM 2.0 service provider, to run the compliance suite and its benchmarks against a local
+ * reference server instead of a remote one.
+ * <p>
+ * The resources live in memory only and are lost when the server stops. Run it standalone with
+ * {@code java -jar scim2-server.jar [port] [userName] [password] [token]}, or embed it:
+ * <pre>
+ * ScimServer server = new ScimServer(0, "admin", "admin", null);
+ * server.start();
+ * String url = server.getBaseUrl();
+ * </pre>
+ */
+public class ScimServer {
+
+    private static final Log logger = LogFactory.getLog(ScimServer.class);
+
+    private final Server server;
+    private final ServerConnector connector;
+
+    /**
+     * Create a server.
+     *
+     * @param port     Port to listen on, or 0 for any free port.
+     * @param userName User name of the accepted basic credentials.
+     * @param password Password of the accepted basic credentials.
+     * @param token    Accepted bearer token, or null.
+     * @throws IOException If the schema definitions can not be read.
+     */
+    public ScimServer(int port, String userName, String password, String token) throws IOException {
+
+        server = new Server();
+        connector = new ServerConnector(server);
+        connector.setHost("localhost");
+        connector.setPort(port);
+        server.addConnector(connector);
+        ServletContextHandler context = new ServletContextHandler();
+        context.setContextPath(ServerConstants.DEFAULT_CONTEXT_PATH);
+        context.addServlet(new ServletHolder(new ScimServlet(new InMemoryRepository(), userName, password, token)),
+                "/*");
+        server.setHandler(context);
+    }
+
+    /**
+     * Start listening.
+     *
+     * @throws Exception If the server can not start, e.g. because the port is taken.
+     */
+    public void start() throws Exception {
+
+        server.start();
+    }
+
+    /**
+     * Stop the server and drop its resources.
+     *
+     * @throws Exception If the server can not stop.
+     */
+    public void stop() throws Exception {
+
+        server.stop();
+    }
+
+    /**
+     * Get the URL the compliance suite is pointed at, e.g. http://localhost:9090/scim2.
+     *
+     * @return The base URL of the SCIM endpoints.
+     */
+    public String getBaseUrl() {
+
+        return "http://localhost:" + connector.getLocalPort() + ServerConstants.DEFAULT_CONTEXT_PATH;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : ServerConstants.DEFAULT_PORT;
+        String userName = args.length > 1 ? args[1] : ServerConstants.DEFAULT_USER_NAME;
+        String password = args.length > 2 ? args[2] : ServerConstants.DEFAULT_PASSWORD;
+        String token = args.length > 3 ? args[3] : null;
+        ScimServer scimServer = new ScimServer(port, userName, password, token);
+        scimServer.start();
+        logger.info("SCIM 2.0 server listening at " + scimServer.getBaseUrl());
+        scimServer.server.join();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Java servlet serving the SCIM 2.0 protocol from an {@link InMemoryRepository}.
+ * <p>
+ * The servlet serves /Users, /Groups and /Roles with their .search endpoints, /Bulk and the discovery endpoints
+ * /ServiceProviderConfig, /ResourceTypes and /Schemas. /Me is not implemented, as the server has no notion of the
+ * authenticated user beyond its credentials. Every request must carry the configured basic credentials or bearer
+ * token.
+ */
+class ScimServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Log logger = LogFactory.getLog(ScimServlet.class);
+
+    private static final String SERVICE_PROVIDER_CONFIG_ENDPOINT = "/ServiceProviderConfig";
+    private static final String RESOURCE_TYPES_ENDPOINT = "/ResourceTypes";
+    private static final String SCHEMAS_ENDPOINT = "/Schemas";
+
+    private final transient InMemoryRepository repository;
+    private final transient JSONArray schemas;
+    private final String basicCredentials;
+    private final String token;
+
+    /**
+     * Create the servlet.
+     *
+     * @param repository Repository of the resources.
+     * @param userName   User name of the basic credentials.
+     * @param password   Password of the basic credentials.
+     * @param token      Accepted bearer token, or null.
+     * @throws IOException If the schema definitions can not be read.
+     */
+    ScimServlet(InMemoryRepository repository, String userName, String password, String token) throws IOException {
+
+        this.repository = repository;
+        this.basicCredentials = Base64.getEncoder().encodeToString((userName + ":" + password)
+                .getBytes(StandardCharsets.UTF_8));
+        this.token = token;
+        try (InputStream in = ScimServlet.class.getResourceAsStream("schemas.json")) {
+            if (in == null) {
+                throw new IOException("The schema definitions are missing");
+            }
+            this.schemas = new JSONArray(IOUtils.toString(in, StandardCharsets.UTF_8.name()));
+        }
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        // HttpServlet has no PATCH handler, hence all the methods are dispatched here.
+        try {
+            if (!isAuthorized(request.getHeader("Authorization"))) {
+                response.setHeader("WWW-Authenticate", "Basic realm=\"SCIM\"");
+                throw new ScimException(401, null, "Authorization failure");
+            }
+            dispatch(request, response);
+        } catch (ScimException e) {
+            write(response, e.getStatus(), e.toJson());
+        } catch (RuntimeException e) {
+            logger.error("Could not serve " + request.getMethod() + " " + request.getRequestURI(), e);
+            write(response, 500, new ScimException(500, null, "Internal server error").toJson());
+        }
+    }
+
+    private void dispatch(HttpServletRequest request, HttpServletResponse response)
+            throws ScimException, IOException {
+
+        String path = request.getPathInfo() == null ? "" : request.getPathInfo();
+        int separator = path.indexOf('/', 1);
+        String endpoint = separator < 0 ? path : path.substring(0, separator);
+        String id = separator < 0 ? null : path.substring(separator + 1);
+        String method = request.getMethod();
+        String baseUrl = getBaseUrl(request);
+        switch (endpoint) {
+            case SERVICE_PROVIDER_CONFIG_ENDPOINT:
+                requireMethod(method, "GET");
+                write(response, 200, getServiceProviderConfig(baseUrl));
+                break;
+            case RESOURCE_TYPES_ENDPOINT:
+                requireMethod(method, "GET");
+                write(response, 200, find(getResourceTypes(baseUrl), id));
+                break;
+            case SCHEMAS_ENDPOINT:
+                requireMethod(method, "GET");
+                write(response, 200, find(getSchemas(baseUrl), id));
+                break;
+            case ServerConstants.BULK_ENDPOINT:
+                requireMethod(method, "POST");
+                write(response, 200, Bulk.process(repository, readBody(request), baseUrl));
+                break;
+            case ServerConstants.ME_ENDPOINT:
+                throw new ScimException(501, null, "The /Me endpoint is not implemented");
+            case ServerConstants.USERS_ENDPOINT:
+            case ServerConstants.GROUPS_ENDPOINT:
+            case ServerConstants.ROLES_ENDPOINT:
+                dispatchResource(request, response, endpoint, id, baseUrl);
+                break;
+            default:
+                throw new ScimException(404, null, "No resource is served at " + path);
+        }
+    }
+
+    private void dispatchResource(HttpServletRequest request, HttpServletResponse response, String endpoint,
+                                  String id, String baseUrl) throws ScimException, IOException {
+
+        String method = request.getMethod();
+        if (id == null || id.isEmpty()) {
+            switch (method) {
+                case "GET":
+                    write(response, 200, repository.list(endpoint,
+                            SearchRequest.fromParameters(request::getParameter), baseUrl));
+                    break;
+                case "POST":
+                    JSONObject created = repository.create(endpoint, readBody(request), baseUrl);
+                    response.setHeader("Location", created.getJSONObject("meta").getString("location"));
+                    write(response, 201, created);
+                    break;
+                default:
+                    throw notAllowed(method);
+            }
+        } else if (ServerConstants.SEARCH_PATH.equals(id)) {
+            requireMethod(method, "POST");
+            write(response, 200, repository.list(endpoint, SearchRequest.fromJson(readBody(request)), baseUrl));
+        } else {
+            switch (method) {
+                case "GET":
+                    write(response, 200, repository.get(endpoint, id,
+                            SearchRequest.fromParameters(request::getParameter), baseUrl));
+                    break;
+                case "PUT":
+                    write(response, 200, repository.replace(endpoint, id, readBody(request), baseUrl));
+                    break;
+                case "PATCH":
+                    write(response, 200, repository.patch(endpoint, id, readBody(request), baseUrl));
+                    break;
+                case "DELETE":
+                    repository.delete(endpoint, id);
+                    response.setStatus(204);
+                    break;
+                default:
+                    throw notAllowed(method);
+            }
+        }
+    }
+
+    private boolean isAuthorized(String authorization) {
+
+        if (authorization == null) {
+            return false;
+        }
+        if (authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return basicCredentials.equals(authorization.substring(6).trim());
+        }
+        return token != null && !token.isEmpty() && authorization.regionMatches(true, 0, "Bearer ", 0, 7) &&
+                token.equals(authorization.substring(7).trim());
+    }
+
+    private JSONObject getServiceProviderConfig(String baseUrl) {
+
+        JSONObject config = new JSONObject();
+        config.put("schemas", new JSONArray().put(ServerConstants.SERVICE_PROVIDER_CONFIG_SCHEMA));
+        config.put("patch", new JSONObject().put("supported", true));
+        config.put("bulk", new JSONObject().put("supported", true)
+                .put("maxOperations", ServerConstants.MAX_BULK_OPERATIONS)
+                .put("maxPayloadSize", ServerConstants.MAX_BULK_PAYLOAD_SIZE));
+        config.put("filter", new JSONObject().put("supported", true)
+                .put("maxResults", ServerConstants.MAX_RESULTS));
+        config.put("changePassword", new JSONObject().put("supported", false));
+        config.put("sort", new JSONObject().put("supported", true));
+        config.put("etag", new JSONObject().put("supported", false));
+        JSONArray authenticationSchemes = new JSONArray();
+        authenticationSchemes.put(new JSONObject().put("type", "httpbasic").put("name", "HTTP Basic")
+                .put("description", "Authentication with the configured user name and password").put("primary", true));
+        if (token != null && !token.isEmpty()) {
+            authenticationSchemes.put(new JSONObject().put("type", "oauthbearertoken").put("name", "OAuth Bearer Token")
+                    .put("description", "Authentication with the configured bearer token").put("primary", false));
+        }
+        config.put("authenticationSchemes", authenticationSchemes);
+        config.put("meta", new JSONObject().put("resourceType", "ServiceProviderConfig")
+                .put("location", baseUrl + SERVICE_PROVIDER_CONFIG_ENDPOINT));
+        return config;
+    }
+
+    private static JSONArray getResourceTypes(String baseUrl) {
+
+        // Roles are served but not listed, as they are not part of the core specification.
+        JSONArray resourceTypes = new JSONArray();
+        resourceTypes.put(getResourceType(baseUrl, "User", ServerConstants.USERS_ENDPOINT,
+                ServerConstants.USER_SCHEMA, "User Account").put("schemaExtensions", new JSONArray()
+                .put(new JSONObject().put("schema", ServerConstants.ENTERPRISE_USER_SCHEMA).put("required", false))));
+        resourceTypes.put(getResourceType(baseUrl, "Group", ServerConstants.GROUPS_ENDPOINT,
+                ServerConstants.GROUP_SCHEMA, "Group"));
+        return resourceTypes;
+    }
+
+    private static JSONObject getResourceType(String baseUrl, String name, String endpoint, String schema,
+                                              String description) {
+
+        JSONObject resourceType = new JSONObject();
+        resourceType.put("schemas", new JSONArray().put(ServerConstants.RESOURCE_TYPE_SCHEMA));
+        resourceType.put("id", name);
+        resourceType.put("name", name);
+        resourceType.put("endpoint", endpoint);
+        resourceType.put("description", description);
+        resourceType.put("schema", schema);
+        resourceType.put("meta", new JSONObject().put("resourceType", "ResourceType")
+                .put("location", baseUrl + RESOURCE_TYPES_ENDPOINT + "/" + name));
+        return resourceType;
+    }
+
+    private JSONArray getSchemas(String baseUrl) {
+
+        JSONArray located = new JSONArray();
+        for (Object schema : Json.elements(schemas)) {
+            JSONObject copy = Json.copy((JSONObject) schema);
+            copy.put("meta", new JSONObject().put("resourceType", "Schema")
+                    .put("location", baseUrl + SCHEMAS_ENDPOINT + "/" + copy.getString("id")));
+            located.put(copy);
+        }
+        return located;
+    }
+
+    /**
+     * Get a discovery resource by id, or the list response of all of them.
+     */
+    private static JSONObject find(JSONArray resources, String id) throws ScimException {
+
+        if (id == null || id.isEmpty()) {
+            JSONObject listResponse = new JSONObject();
+            listResponse.put("schemas", new JSONArray().put(ServerConstants.LIST_RESPONSE_SCHEMA));
+            listResponse.put("totalResults", resources.length());
+            listResponse.put("startIndex", 1);
+            listResponse.put("itemsPerPage", resources.length());
+            listResponse.put("Resources", resources);
+            return listResponse;
+        }
+        for (Object resource : Json.elements(resources)) {
+            if (id.equals(((JSONObject) resource).getString("id"))) {
+                return (JSONObject) resource;
+            }
+        }
+        throw new ScimException(404, null, "Resource " + id + " not found");
+    }
+
+    private static JSONObject readBody(HttpServletRequest request) throws ScimException, IOException {
+
+        if (request.getContentLength() > ServerConstants.MAX_BULK_PAYLOAD_SIZE) {
+            throw new ScimException(413, null, "The request is larger than " +
+                    ServerConstants.MAX_BULK_PAYLOAD_SIZE + " bytes");
+        }
+        String body = IOUtils.toString(request.getInputStream(), StandardCharsets.UTF_8.name());
+        try {
+            return new JSONObject(body);
+        } catch (JSONException e) {
+            throw new ScimException(400, "invalidSyntax", "The request body is not a JSON object");
+        }
+    }
+
+    private static void write(HttpServletResponse response, int status, JSONObject body) throws IOException {
+
+        response.setStatus(status);
+        response.setContentType(ServerConstants.SCIM_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(body.toString());
+    }
+
+    private static String getBaseUrl(HttpServletRequest request) {
+
+        return request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort() +
+                request.getContextPath() + request.getServletPath();
+    }
+
+    private static void requireMethod(String method, String allowed) throws ScimException {
+
+        if (!allowed.equals(method)) {
+            throw notAllowed(method);
+        }
+    }
+
+    private static ScimException notAllowed(String method) {
+
+        return new ScimException(405, null, "The method " + method + " is not allowed");
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Parameters of a query, as sent in the query string of a GET request or the body of a POST .search request:
+ * filter, sortBy, sortOrder, startIndex, count, attributes and excludedAttributes.
+ */
+final class SearchRequest {
+
+    private Filter filter;
+    private AttributePath sortBy;
+    private boolean descending;
+    private int startIndex = 1;
+    private int count = ServerConstants.MAX_RESULTS;
+    private final List<AttributePath> attributes = new ArrayList<>();
+    private final List<AttributePath> excludedAttributes = new ArrayList<>();
+
+    private SearchRequest() {
+
+    }
+
+    /**
+     * Read the parameters of a GET request.
+     *
+     * @param parameters Parameter values by name, e.g. the parameters of the servlet request.
+     * @return The search request.
+     * @throws ScimException If a parameter is malformed.
+     */
+    static SearchRequest fromParameters(Function<String, String> parameters) throws ScimException {
+
+        SearchRequest searchRequest = new SearchRequest();
+        String filter = parameters.apply("filter");
+        if (filter != null && !filter.trim().isEmpty()) {
+            searchRequest.filter = Filter.parse(filter);
+        }
+        String sortBy = parameters.apply("sortBy");
+        if (sortBy != null && !sortBy.trim().isEmpty()) {
+            searchRequest.sortBy = AttributePath.parse(sortBy);
+        }
+        searchRequest.descending = "descending".equalsIgnoreCase(parameters.apply("sortOrder"));
+        String startIndex = parameters.apply("startIndex");
+        if (startIndex != null) {
+            // A start index below one is read as one.
+            searchRequest.startIndex = Math.max(1, parseInt("startIndex", startIndex));
+        }
+        String count = parameters.apply("count");
+        if (count != null) {
+            searchRequest.count = Math.min(ServerConstants.MAX_RESULTS, Math.max(0, parseInt("count", count)));
+        }
+        addPaths(searchRequest.attributes, parameters.apply("attributes"));
+        addPaths(searchRequest.excludedAttributes, parameters.apply("excludedAttributes"));
+        return searchRequest;
+    }
+
+    /**
+     * Read the body of a POST .search request.
+     *
+     * @param body SearchRequest message.
+     * @return The search request.
+     * @throws ScimException If a parameter is malformed.
+     */
+    static SearchRequest fromJson(JSONObject body) throws ScimException {
+
+        return fromParameters(name -> {
+            Object value = Json.get(body, name);
+            if (value instanceof JSONArray) {
+                StringBuilder joined = new StringBuilder();
+                for (Object element : Json.elements((JSONArray) value)) {
+                    joined.append(joined.length() == 0 ? "" : ",").append(element);
+                }
+                return joined.toString();
+            }
+            return value == null ? null : String.valueOf(value);
+        });
+    }
+
+    Filter getFilter() {
+
+        return filter;
+    }
+
+    int getStartIndex() {
+
+        return startIndex;
+    }
+
+    int getCount() {
+
+        return count;
+    }
+
+    /**
+     * Sort resources by the sortBy attribute, if any. Resources without the attribute come last.
+     *
+     * @param resources Resources, sorted in place.
+     */
+    void sort(List<JSONObject> resources) {
+
+        if (sortBy == null) {
+            return;
+        }
+        Comparator<JSONObject> comparator = (first, second) -> compare(sortValue(first), sortValue(second));
+        resources.sort(descending ? comparator.reversed() : comparator);
+    }
+
+    /**
+     * Keep the requested attributes of a resource, or drop the excluded ones. The id and schemas are always kept.
+     *
+     * @param resource Rendered resource.
+     * @return The projected resource.
+     */
+    JSONObject project(JSONObject resource) {
+
+        if (!attributes.isEmpty()) {
+            JSONObject projected = new JSONObject();
+            for (String name : new String[]{"schemas", "id"}) {
+                if (Json.get(resource, name) != null) {
+                    projected.put(name, Json.get(resource, name));
+                }
+            }
+            for (AttributePath path : attributes) {
+                include(resource, projected, path);
+            }
+            return projected;
+        }
+        for (AttributePath path : excludedAttributes) {
+            if (!path.is("id") && !path.is("schemas")) {
+                exclude(resource, path);
+            }
+        }
+        return resource;
+    }
+
+    private Object sortValue(JSONObject resource) {
+
+        List<Object> values = sortBy.getValues(resource);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private static int compare(Object first, Object second) {
+
+        if (first == null || second == null) {
+            return first == null ? (second == null ? 0 : 1) : -1;
+        }
+        if (first instanceof Number && second instanceof Number) {
+            return new BigDecimal(first.toString()).compareTo(new BigDecimal(second.toString()));
+        }
+        return String.valueOf(first).toLowerCase(Locale.ROOT)
+                .compareTo(String.valueOf(second).toLowerCase(Locale.ROOT));
+    }
+
+    private static void include(JSONObject resource, JSONObject projected, AttributePath path) {
+
+        JSONObject source = path.getContainer(resource, false);
+        if (source == null) {
+            return;
+        }
+        if (path.getAttribute() == null) {
+            Json.put(projected, path.getSchema(), source);
+            return;
+        }
+        Object value = Json.get(source, path.getAttribute());
+        if (value == null) {
+            return;
+        }
+        JSONObject target = path.getContainer(projected, true);
+        if (path.getSubAttribute() == null) {
+            Json.put(target, path.getAttribute(), value);
+        } else if (value instanceof JSONObject) {
+            Object current = Json.get(target, path.getAttribute());
+            JSONObject parent = current instanceof JSONObject ? (JSONObject) current : new JSONObject();
+            Object subValue = Json.get((JSONObject) value, path.getSubAttribute());
+            if (subValue != null) {
+                Json.put(parent, path.getSubAttribute(), subValue);
+            }
+            Json.put(target, path.getAttribute(), parent);
+        } else if (value instanceof JSONArray && !(Json.get(target, path.getAttribute()) instanceof JSONArray)) {
+            // Keep the sub-attribute of every value of a multi-valued attribute.
+            JSONArray values = new JSONArray();
+            for (Object element : Json.elements((JSONArray) value)) {
+                Object subValue = element instanceof JSONObject ?
+                        Json.get((JSONObject) element, path.getSubAttribute()) : null;
+                if (subValue != null) {
+                    values.put(new JSONObject().put(path.getSubAttribute(), subValue));
+                }
+            }
+            Json.put(target, path.getAttribute(), values);
+        }
+    }
+
+    private static void exclude(JSONObject resource, AttributePath path) {
+
+        JSONObject container = path.getContainer(resource, false);
+        if (container == null) {
+            return;
+        }
+        if (path.getAttribute() == null) {
+            Json.remove(resource, path.getSchema());
+        } else if (path.getSubAttribute() == null) {
+            Json.remove(container, path.getAttribute());
+        } else {
+            Object value = Json.get(container, path.getAttribute());
+            if (value instanceof JSONObject) {
+                Json.remove((JSONObject) value, path.getSubAttribute());
+            } else if (value instanceof JSONArray) {
+                for (Object element : Json.elements((JSONArray) value)) {
+                    if (element instanceof JSONObject) {
+                        Json.remove((JSONObject) element, path.getSubAttribute());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addPaths(List<AttributePath> paths, String value) throws ScimException {
+
+        if (value == null) {
+            return;
+        }
+        for (String path : value.split(",")) {
+            if (!path.trim().isEmpty()) {
+                paths.add(AttributePath.parse(path));
+            }
+        }
+    }
+
+    private static int parseInt(String name, String value) throws ScimException {
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ScimException(400, "invalidValue", "The parameter " + name + " must be an integer");
+        }
+    }
+}
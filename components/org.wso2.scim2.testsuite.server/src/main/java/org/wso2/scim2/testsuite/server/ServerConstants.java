@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+/**
+ * Constants of the embedded SCIM server.
+ */
+public final class ServerConstants {
+
+    public static final String USER_SCHEMA = "urn:ietf:params:scim:schemas:core:2.0:User";
+    public static final String GROUP_SCHEMA = "urn:ietf:params:scim:schemas:core:2.0:Group";
+    public static final String ROLE_SCHEMA = "urn:ietf:params:scim:schemas:extension:2.0:Role";
+    public static final String ENTERPRISE_USER_SCHEMA = "urn:ietf:params:scim:schemas:extension:enterprise:2.0:User";
+    public static final String SERVICE_PROVIDER_CONFIG_SCHEMA =
+            "urn:ietf:params:scim:schemas:core:2.0:ServiceProviderConfig";
+    public static final String RESOURCE_TYPE_SCHEMA = "urn:ietf:params:scim:schemas:core:2.0:ResourceType";
+    public static final String LIST_RESPONSE_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:ListResponse";
+    public static final String PATCH_OP_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:PatchOp";
+    public static final String BULK_RESPONSE_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:BulkResponse";
+    public static final String ERROR_SCHEMA = "urn:ietf:params:scim:api:messages:2.0:Error";
+
+    // Schemas whose attributes are addressed with the schema URN as prefix.
+    public static final String[] SCHEMA_URIS = {ENTERPRISE_USER_SCHEMA, ROLE_SCHEMA, USER_SCHEMA, GROUP_SCHEMA};
+
+    public static final String USERS_ENDPOINT = "/Users";
+    public static final String GROUPS_ENDPOINT = "/Groups";
+    public static final String ROLES_ENDPOINT = "/Roles";
+    public static final String ME_ENDPOINT = "/Me";
+    public static final String BULK_ENDPOINT = "/Bulk";
+    public static final String SEARCH_PATH = ".search";
+
+    public static final String SCIM_CONTENT_TYPE = "application/scim+json";
+
+    public static final String BULK_ID_PREFIX = "bulkId:";
+
+    // Limits advertised in the service provider configuration.
+    public static final int MAX_RESULTS = 200;
+    public static final int MAX_BULK_OPERATIONS = 1000;
+    public static final int MAX_BULK_PAYLOAD_SIZE = 1048576;
+
+    public static final int DEFAULT_PORT = 9090;
+    public static final String DEFAULT_CONTEXT_PATH = "/scim2";
+    public static final String DEFAULT_USER_NAME = "admin";
+    public static final String DEFAULT_PASSWORD = "admin";
+
+    private ServerConstants() {
+
+    }
+}
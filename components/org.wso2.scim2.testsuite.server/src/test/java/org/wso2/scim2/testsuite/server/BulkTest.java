@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the bulk operations, mostly of the bulkId references.
+ */
+public class BulkTest {
+
+    private static final String BASE_URL = "http://localhost/scim2";
+
+    private InMemoryRepository repository;
+
+    @Before
+    public void setUp() {
+
+        repository = new InMemoryRepository();
+    }
+
+    @Test
+    public void testBulkIdInData() throws ScimException {
+
+        JSONArray responses = process(0,
+                "{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"user\",\"data\":{\"userName\":\"alice\"}}",
+                "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"group\",\"data\":{\"displayName\":\"team\"," +
+                        "\"members\":[{\"value\":\"bulkId:user\"}]}}");
+
+        assertEquals(201, getStatus(responses, 0));
+        assertEquals(201, getStatus(responses, 1));
+        assertEquals("user", responses.getJSONObject(0).getString("bulkId"));
+        JSONObject group = get(ServerConstants.GROUPS_ENDPOINT, getId(responses, 1));
+        assertEquals(getId(responses, 0), group.getJSONArray("members").getJSONObject(0).getString("value"));
+    }
+
+    @Test
+    public void testBulkIdInPath() throws ScimException {
+
+        JSONArray responses = process(0,
+                "{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"user\",\"data\":{\"userName\":\"alice\"}}",
+                "{\"method\":\"PUT\",\"path\":\"/Users/bulkId:user\",\"data\":{\"userName\":\"alice\"," +
+                        "\"nickName\":\"Al\"}}",
+                "{\"method\":\"DELETE\",\"path\":\"/Users/bulkId:user\"}");
+
+        assertEquals(200, getStatus(responses, 1));
+        assertEquals(getId(responses, 0), getId(responses, 1));
+        assertEquals(204, getStatus(responses, 2));
+        assertEquals(BASE_URL + ServerConstants.USERS_ENDPOINT + "/" + getId(responses, 0),
+                responses.getJSONObject(2).getString("location"));
+    }
+
+    @Test
+    public void testUnknownBulkId() throws ScimException {
+
+        JSONArray responses = process(0,
+                "{\"method\":\"POST\",\"path\":\"/Groups\",\"bulkId\":\"group\",\"data\":{\"displayName\":\"team\"," +
+                        "\"members\":[{\"value\":\"bulkId:user\"}]}}",
+                "{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"user\",\"data\":{\"userName\":\"alice\"}}");
+
+        // A bulkId is only resolved once an earlier operation created its resource.
+        assertEquals(400, getStatus(responses, 0));
+        assertEquals(201, getStatus(responses, 1));
+    }
+
+    @Test
+    public void testFailOnErrors() throws ScimException {
+
+        JSONArray responses = process(1,
+                "{\"method\":\"DELETE\",\"path\":\"/Users/missing\"}",
+                "{\"method\":\"POST\",\"path\":\"/Users\",\"bulkId\":\"user\",\"data\":{\"userName\":\"alice\"}}");
+
+        assertEquals(1, responses.length());
+        assertEquals(404, getStatus(responses, 0));
+    }
+
+    private JSONArray process(int failOnErrors, String... operations) throws ScimException {
+
+        JSONArray operationArray = new JSONArray();
+        for (String operation : operations) {
+            operationArray.put(new JSONObject(operation));
+        }
+        JSONObject request = new JSONObject();
+        request.put("Operations", operationArray);
+        if (failOnErrors > 0) {
+            request.put("failOnErrors", failOnErrors);
+        }
+        return Bulk.process(repository, request, BASE_URL).getJSONArray("Operations");
+    }
+
+    private JSONObject get(String endpoint, String id) throws ScimException {
+
+        return repository.get(endpoint, id, SearchRequest.fromParameters(name -> null), BASE_URL);
+    }
+
+    private static int getStatus(JSONArray responses, int index) {
+
+        return responses.getJSONObject(index).getJSONObject("status").getInt("code");
+    }
+
+    private static String getId(JSONArray responses, int index) {
+
+        String location = responses.getJSONObject(index).getString("location");
+        return location.substring(location.lastIndexOf('/') + 1);
+    }
+}
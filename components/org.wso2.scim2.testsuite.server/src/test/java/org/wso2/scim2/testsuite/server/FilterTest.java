@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the filter parser and matcher.
+ */
+public class FilterTest {
+
+    private static final JSONObject USER = new JSONObject("{\"userName\":\"bjensen\",\"active\":true," +
+            "\"name\":{\"givenName\":\"Barbara\",\"familyName\":\"Jensen\"},\"loginCount\":5," +
+            "\"emails\":[{\"type\":\"home\",\"value\":\"bjensen@example.com\"}," +
+            "{\"type\":\"work\",\"value\":\"barbara@company.org\",\"primary\":true}]}");
+
+    @Test
+    public void testAndBindsTighterThanOr() throws ScimException {
+
+        // Read as userName eq "bjensen" or (active eq false and loginCount gt 10).
+        assertTrue(matches("userName eq \"bjensen\" or active eq false and loginCount gt 10"));
+        // Read as (active eq false and loginCount gt 10) or userName eq "bjensen".
+        assertTrue(matches("active eq false and loginCount gt 10 or userName eq \"bjensen\""));
+        assertFalse(matches("userName eq \"other\" or active eq true and loginCount gt 10"));
+    }
+
+    @Test
+    public void testParenthesesOverridePrecedence() throws ScimException {
+
+        assertFalse(matches("(userName eq \"bjensen\" or active eq false) and loginCount gt 10"));
+        assertTrue(matches("(userName eq \"other\" or active eq true) and loginCount lt 10"));
+    }
+
+    @Test
+    public void testNot() throws ScimException {
+
+        assertTrue(matches("not (active eq false)"));
+        assertFalse(matches("not(active eq true)"));
+        assertTrue(matches("userName sw \"bj\" and not (name.givenName eq \"Anne\")"));
+        // Not applies to its parentheses only.
+        assertTrue(matches("not (userName eq \"other\") or active eq false"));
+        assertFalse(matches("not (userName eq \"bjensen\" or active eq false)"));
+    }
+
+    @Test
+    public void testValuePath() throws ScimException {
+
+        assertTrue(matches("emails[type eq \"work\" and value ew \"company.org\"]"));
+        // Both conditions must hold for the same value.
+        assertFalse(matches("emails[type eq \"home\" and value ew \"company.org\"]"));
+        assertTrue(matches("emails[type eq \"work\" and primary eq true] and userName eq \"bjensen\""));
+        assertFalse(matches("not (emails[type eq \"work\"])"));
+    }
+
+    @Test
+    public void testMultiValuedSubAttribute() throws ScimException {
+
+        assertTrue(matches("emails.value co \"company\""));
+        assertTrue(matches("emails.type eq \"home\""));
+        assertFalse(matches("emails.type eq \"other\""));
+    }
+
+    @Test
+    public void testOperatorsAndNamesIgnoreCase() throws ScimException {
+
+        assertTrue(matches("USERNAME EQ \"BJensen\" AND Name.GivenName Sw \"bar\""));
+    }
+
+    @Test
+    public void testComparisons() throws ScimException {
+
+        assertTrue(matches("loginCount ge 5"));
+        assertFalse(matches("loginCount gt 5"));
+        assertTrue(matches("userName ne \"other\""));
+        assertTrue(matches("title pr or name.familyName pr"));
+        assertFalse(matches("title pr"));
+        assertTrue(matches("title eq null"));
+    }
+
+    @Test
+    public void testEqualValue() throws ScimException {
+
+        assertEquals("bjensen", Filter.parse("active eq true and userName eq \"bjensen\"").getEqualValue("userName"));
+        assertNull(Filter.parse("userName eq \"bjensen\" or active eq true").getEqualValue("userName"));
+        assertNull(Filter.parse("userName sw \"bj\"").getEqualValue("userName"));
+    }
+
+    @Test
+    public void testInvalidFilters() {
+
+        for (String filter : new String[]{"userName eq", "(userName eq \"a\"", "userName eq \"a\")",
+                "userName foo \"a\"", "userName", "emails[type eq \"work\"", "userName eq \"a", "not (",
+                "userName eq \"a\" and"}) {
+            try {
+                Filter.parse(filter);
+                fail("The filter " + filter + " must be rejected");
+            } catch (ScimException e) {
+                assertEquals(400, e.getStatus());
+            }
+        }
+    }
+
+    private static boolean matches(String filter) throws ScimException {
+
+        return Filter.parse(filter).matches(USER);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.scim2.testsuite.server;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the PATCH operations, mostly on multi-valued attributes.
+ */
+public class PatchTest {
+
+    @Test
+    public void testAddValues() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"add\",\"path\":\"emails\",\"value\":[{\"type\":\"other\",\"value\":\"c@example.com\"}," +
+                "{\"type\":\"home\",\"value\":\"a@example.com\"}]}");
+
+        JSONArray emails = user.getJSONArray("emails");
+        // A value which is already there is not added again.
+        assertEquals(3, emails.length());
+        assertEquals("c@example.com", emails.getJSONObject(2).getString("value"));
+    }
+
+    @Test
+    public void testAddWithoutPath() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"add\",\"value\":{\"emails\":[{\"type\":\"other\",\"value\":\"c@example.com\"}]," +
+                "\"nickName\":\"Babs\"}}");
+
+        assertEquals(3, user.getJSONArray("emails").length());
+        assertEquals("Babs", user.getString("nickName"));
+    }
+
+    @Test
+    public void testAddWithValueFilter() {
+
+        try {
+            apply(newUser(), "{\"op\":\"add\",\"path\":\"emails[type eq \\\"work\\\"]\",\"value\":{}}");
+            fail("An add with a value filter must be rejected");
+        } catch (ScimException e) {
+            assertEquals("invalidPath", e.getScimType());
+        }
+    }
+
+    @Test
+    public void testReplaceSubAttributeOfMatchingValues() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"replace\",\"path\":\"emails[type eq \\\"work\\\"].value\"," +
+                "\"value\":\"b@company.org\"}");
+
+        JSONArray emails = user.getJSONArray("emails");
+        assertEquals("a@example.com", emails.getJSONObject(0).getString("value"));
+        assertEquals("b@company.org", emails.getJSONObject(1).getString("value"));
+    }
+
+    @Test
+    public void testReplaceMatchingValues() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"replace\",\"path\":\"emails[value ew \\\"example.com\\\"]\"," +
+                "\"value\":{\"primary\":true}}");
+
+        JSONArray emails = user.getJSONArray("emails");
+        assertTrue(emails.getJSONObject(0).getBoolean("primary"));
+        assertEquals("home", emails.getJSONObject(0).getString("type"));
+        assertFalse(emails.getJSONObject(1).has("primary"));
+    }
+
+    @Test
+    public void testReplaceWithoutMatchingValue() {
+
+        try {
+            apply(newUser(), "{\"op\":\"replace\",\"path\":\"emails[type eq \\\"other\\\"].value\"," +
+                    "\"value\":\"c@example.com\"}");
+            fail("A replace without target must be rejected");
+        } catch (ScimException e) {
+            assertEquals(400, e.getStatus());
+            assertEquals("noTarget", e.getScimType());
+        }
+    }
+
+    @Test
+    public void testReplaceAllValues() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"replace\",\"path\":\"emails\",\"value\":[{\"value\":\"c@example.com\"}]}");
+
+        assertEquals(1, user.getJSONArray("emails").length());
+    }
+
+    @Test
+    public void testRemoveMatchingValues() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"remove\",\"path\":\"emails[type eq \\\"work\\\"]\"}");
+
+        JSONArray emails = user.getJSONArray("emails");
+        assertEquals(1, emails.length());
+        assertEquals("home", emails.getJSONObject(0).getString("type"));
+
+        // The attribute is removed with its last value.
+        apply(user, "{\"op\":\"remove\",\"path\":\"emails[type eq \\\"home\\\"]\"}");
+        assertFalse(user.has("emails"));
+    }
+
+    @Test
+    public void testRemoveSubAttributeOfMatchingValues() throws ScimException {
+
+        JSONObject user = newUser();
+        apply(user, "{\"op\":\"remove\",\"path\":\"emails[type eq \\\"work\\\"].type\"}");
+
+        JSONArray emails = user.getJSONArray("emails");
+        assertEquals(2, emails.length());
+        assertFalse(emails.getJSONObject(1).has("type"));
+        assertEquals("home", emails.getJSONObject(0).getString("type"));
+    }
+
+    @Test
+    public void testRemoveListedValues() throws ScimException {
+
+        JSONObject group = new JSONObject("{\"displayName\":\"team\",\"members\":[{\"value\":\"1\"}," +
+                "{\"value\":\"2\"},{\"value\":\"3\"}]}");
+        apply(group, "{\"op\":\"remove\",\"path\":\"members\",\"value\":[{\"value\":\"1\"},{\"value\":\"3\"}]}");
+
+        JSONArray members = group.getJSONArray("members");
+        assertEquals(1, members.length());
+        assertEquals("2", members.getJSONObject(0).getString("value"));
+    }
+
+    @Test
+    public void testRemoveWithoutPath() {
+
+        try {
+            apply(newUser(), "{\"op\":\"remove\"}");
+            fail("A remove without path must be rejected");
+        } catch (ScimException e) {
+            assertEquals("noTarget", e.getScimType());
+        }
+    }
+
+    private static JSONObject newUser() {
+
+        return new JSONObject("{\"userName\":\"bjensen\",\"emails\":[" +
+                "{\"type\":\"home\",\"value\":\"a@example.com\"},{\"type\":\"work\",\"value\":\"a@company.org\"}]}");
+    }
+
+    private static void apply(JSONObject resource, String operation) throws ScimException {
+
+        JSONObject request = new JSONObject();
+        request.put("schemas", new JSONArray().put(ServerConstants.PATCH_OP_SCHEMA));
+        request.put("Operations", new JSONArray().put(new JSONObject(operation)));
+        Patch.apply(resource, request);
+    }
+}